@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.compression;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the compression strategies on representative cached values. Run with {@code -prof gc}
+ * to compare allocation rates as well as throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionStrategyBenchmark {
+
+  @Param({"gzip", "lz4", "zstd"})
+  public String algorithm;
+
+  @Param({"kubernetes-deployment", "aws-instance"})
+  public String payload;
+
+  private CompressionStrategy strategy;
+  private String value;
+  private byte[] bytes;
+  private String compressedValue;
+  private byte[] compressedBytes;
+
+  @Setup
+  public void setup() throws IOException {
+    strategy = strategy(algorithm);
+
+    // Round trip through Jackson so the payload matches what the cache actually serializes.
+    ObjectMapper mapper = new ObjectMapper();
+    try (InputStream in = getClass().getResourceAsStream("/payloads/" + payload + ".json")) {
+      value = mapper.writeValueAsString(mapper.readValue(in, Object.class));
+    }
+    bytes = value.getBytes(StandardCharsets.UTF_8);
+    compressedValue = strategy.compress(value);
+    compressedBytes = strategy.compress(bytes);
+  }
+
+  @Benchmark
+  public String compressString() {
+    return strategy.compress(value);
+  }
+
+  @Benchmark
+  public String decompressString() {
+    return strategy.decompress(compressedValue);
+  }
+
+  @Benchmark
+  public byte[] compressBytes() {
+    return strategy.compress(bytes);
+  }
+
+  @Benchmark
+  public byte[] decompressBytes() {
+    return strategy.decompress(compressedBytes);
+  }
+
+  private static CompressionStrategy strategy(String algorithm) {
+    switch (algorithm) {
+      case "gzip":
+        return new GZipCompression(0, true);
+      case "lz4":
+        return new Lz4Compression(0, true);
+      case "zstd":
+        return new ZstdCompression(0, true, 3);
+      default:
+        throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+    }
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.mem;
+
+import com.netflix.spinnaker.cats.cache.CacheData;
+import com.netflix.spinnaker.cats.cache.DefaultCacheData;
+import com.netflix.spinnaker.cats.cache.WriteableCache;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link InMemoryCache} and {@link CompactInMemoryCache}.
+ *
+ * <p>{@code populate} reports the heap retained by a populated cache as the {@code retainedBytes}
+ * secondary result; {@code getAll} measures read throughput (run with {@code -prof gc} for the
+ * allocation rate).
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class InMemoryCacheBenchmark {
+
+  private static final String TYPE = "instances";
+
+  @Param({"default", "compact"})
+  public String implementation;
+
+  @Param({"50000"})
+  public int items;
+
+  private WriteableCache populated;
+
+  @Setup
+  public void setup() {
+    populated = newCache();
+    populated.mergeAll(TYPE, instances(items));
+  }
+
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Heap {
+    public long retainedBytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      retainedBytes = 0;
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public WriteableCache populate(Heap heap) {
+    long before = usedHeap();
+    WriteableCache cache = newCache();
+    // the source items become garbage once merged, as they would after a caching agent cycle
+    cache.mergeAll(TYPE, instances(items));
+    heap.retainedBytes = usedHeap() - before;
+    return cache;
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Collection<CacheData> getAll() {
+    return populated.getAll(TYPE);
+  }
+
+  private WriteableCache newCache() {
+    return "compact".equals(implementation) ? new CompactInMemoryCache() : new InMemoryCache();
+  }
+
+  private static List<CacheData> instances(int count) {
+    List<CacheData> instances = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      instances.add(instance(i));
+    }
+    return instances;
+  }
+
+  /** Mimics an AWS instance, related to one of a few hundred server groups and load balancers. */
+  private static CacheData instance(int i) {
+    String id = "aws:instances:prod:us-east-1:i-" + Integer.toHexString(0x10000000 + i);
+    String serverGroup =
+        "aws:serverGroups:checkout-prod:prod:us-east-1:checkout-prod-v" + (i % 300);
+    String loadBalancer = "aws:loadBalancers:prod:us-east-1:checkout-prod-" + (i % 50);
+
+    Map<String, Object> attributes = new HashMap<>();
+    attributes.put("instanceId", id.substring(id.lastIndexOf(':') + 1));
+    attributes.put("instanceType", "m5.large");
+    attributes.put("launchTime", 1585822340000L + i);
+    attributes.put("privateIpAddress", "100.66." + (i / 256 % 256) + "." + (i % 256));
+
+    Map<String, Collection<String>> relationships = new HashMap<>();
+    relationships.put(new String("serverGroups"), singletonList(serverGroup));
+    relationships.put(new String("loadBalancers"), singletonList(loadBalancer));
+    return new DefaultCacheData(id, attributes, relationships);
+  }
+
+  private static List<String> singletonList(String value) {
+    // a fresh copy of the string, as it would be when deserialized from a cloud provider response
+    List<String> list = new ArrayList<>(1);
+    list.add(new String(value));
+    return list;
+  }
+
+  private static long usedHeap() {
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return memory.getHeapMemoryUsage().getUsed();
+  }
+}
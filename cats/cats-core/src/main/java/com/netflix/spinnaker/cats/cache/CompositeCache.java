@@ -17,6 +17,8 @@
 package com.netflix.spinnaker.cats.cache;
 
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /** A cache that provides a unified view of multiples, merging items from each cache together. */
 public class CompositeCache implements Cache {
@@ -66,6 +68,18 @@ public class CompositeCache implements Cache {
     return allItems.values();
   }
 
+  /**
+   * Passes the underlying stream through when composed of a single cache; merging items across
+   * multiple caches requires them to be materialized first.
+   */
+  @Override
+  public Stream<CacheData> streamAll(String type, CacheFilter cacheFilter) {
+    if (caches.size() == 1) {
+      return caches.iterator().next().streamAll(type, cacheFilter);
+    }
+    return getAll(type, cacheFilter).stream();
+  }
+
   @Override
   public Collection<String> existingIdentifiers(String type, Collection<String> ids) {
     HashSet<String> identifiers = new HashSet<>(ids.size());
@@ -124,29 +138,39 @@ public class CompositeCache implements Cache {
 
   @Override
   public Map<String, Collection<CacheData>> getAllByApplication(String type, String application) {
-    Map<String, Collection<CacheData>> allItems = new HashMap<>();
-    for (Cache cache : caches) {
-      allItems.putAll(cache.getAllByApplication(type, application));
-    }
-    return allItems;
+    return getAllByApplication(cache -> cache.getAllByApplication(type, application));
   }
 
   @Override
   public Map<String, Collection<CacheData>> getAllByApplication(
       String type, String application, CacheFilter filter) {
-    Map<String, Collection<CacheData>> allItems = new HashMap<>();
-    for (Cache cache : caches) {
-      allItems.putAll(cache.getAllByApplication(type, application, filter));
-    }
-    return allItems;
+    return getAllByApplication(cache -> cache.getAllByApplication(type, application, filter));
   }
 
   @Override
   public Map<String, Collection<CacheData>> getAllByApplication(
       Collection<String> types, String application, Map<String, CacheFilter> cacheFilters) {
-    Map<String, Collection<CacheData>> allItems = new HashMap<>();
+    return getAllByApplication(
+        cache -> cache.getAllByApplication(types, application, cacheFilters));
+  }
+
+  /**
+   * Merges the per-type results of each cache by id, as getAll does. Caches without items of a
+   * type may still return an empty collection for it, which must not replace the items found in
+   * other caches.
+   */
+  private Map<String, Collection<CacheData>> getAllByApplication(
+      Function<Cache, Map<String, Collection<CacheData>>> query) {
+    Map<String, Map<String, CacheData>> itemsByType = new HashMap<>();
     for (Cache cache : caches) {
-      allItems.putAll(cache.getAllByApplication(types, application, cacheFilters));
+      for (Map.Entry<String, Collection<CacheData>> entry : query.apply(cache).entrySet()) {
+        itemsByType.put(entry.getKey(), merge(itemsByType.get(entry.getKey()), entry.getValue()));
+      }
+    }
+
+    Map<String, Collection<CacheData>> allItems = new HashMap<>(itemsByType.size());
+    for (Map.Entry<String, Map<String, CacheData>> entry : itemsByType.entrySet()) {
+      allItems.put(entry.getKey(), entry.getValue().values());
     }
     return allItems;
   }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.compression;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Base class for byte oriented compression strategies.
+ *
+ * <p>The String methods Base64 encode compressed payloads; values below the threshold (or any
+ * value, if compression is disabled) are passed through unchanged. Decompression recognizes
+ * compressed payloads by their leading magic bytes and passes anything else through, so
+ * uncompressed values written earlier remain readable.
+ */
+public abstract class AbstractCompression implements CompressionStrategy {
+
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final long thresholdBytesSize;
+  private final boolean enabled;
+
+  protected AbstractCompression(long thresholdBytesSize, boolean enabled) {
+    this.thresholdBytesSize = thresholdBytesSize;
+    this.enabled = enabled;
+  }
+
+  protected abstract byte[] doCompress(byte[] bytes) throws IOException;
+
+  protected abstract byte[] doDecompress(byte[] compressed) throws IOException;
+
+  protected abstract boolean isCompressed(byte[] bytes);
+
+  @Override
+  public String compress(final String str) {
+    if (str == null) {
+      return null;
+    }
+
+    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    if (!shouldCompress(bytes)) {
+      return str;
+    }
+
+    try {
+      return Base64.getEncoder().encodeToString(doCompress(bytes));
+    } catch (IOException | RuntimeException e) {
+      log.error("Failed to compress string of {} bytes", bytes.length, e);
+      return str;
+    }
+  }
+
+  @Override
+  public String decompress(final String compressed) {
+    if (compressed == null) {
+      return null;
+    }
+
+    byte[] bytes;
+    try {
+      bytes = Base64.getDecoder().decode(compressed);
+    } catch (IllegalArgumentException e) {
+      return compressed;
+    }
+
+    if (!isCompressed(bytes)) {
+      return compressed;
+    }
+
+    try {
+      return new String(doDecompress(bytes), StandardCharsets.UTF_8);
+    } catch (IOException | RuntimeException e) {
+      log.error("Failed to decompress string of {} bytes", bytes.length, e);
+      return compressed;
+    }
+  }
+
+  @Override
+  public byte[] compress(final byte[] bytes) {
+    if (bytes == null || !shouldCompress(bytes)) {
+      return bytes;
+    }
+
+    try {
+      return doCompress(bytes);
+    } catch (IOException | RuntimeException e) {
+      log.error("Failed to compress {} bytes", bytes.length, e);
+      return bytes;
+    }
+  }
+
+  @Override
+  public byte[] decompress(final byte[] compressed) {
+    if (compressed == null || !isCompressed(compressed)) {
+      return compressed;
+    }
+
+    try {
+      return doDecompress(compressed);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to decompress " + compressed.length + " bytes", e);
+    }
+  }
+
+  private boolean shouldCompress(byte[] bytes) {
+    return enabled && bytes.length >= thresholdBytesSize;
+  }
+
+  /** Returns a per-thread scratch buffer of at least {@code size} bytes. */
+  protected static byte[] scratch(ThreadLocal<byte[]> buffer, int size) {
+    byte[] bytes = buffer.get();
+    if (bytes == null || bytes.length < size) {
+      bytes = new byte[size];
+      buffer.set(bytes);
+    }
+    return bytes;
+  }
+}
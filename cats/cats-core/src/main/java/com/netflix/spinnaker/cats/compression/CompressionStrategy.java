@@ -15,8 +15,31 @@
  */
 package com.netflix.spinnaker.cats.compression;
 
+import java.nio.charset.StandardCharsets;
+
 public interface CompressionStrategy {
   String compress(final String str);
 
   String decompress(final String compressed);
+
+  /**
+   * Compresses raw bytes, avoiding the String and Base64 round-trip of {@link #compress(String)}.
+   *
+   * <p>Implementations should return the input unchanged if it is below their compression
+   * threshold, and {@link #decompress(byte[])} must accept such uncompressed input.
+   */
+  default byte[] compress(final byte[] bytes) {
+    if (bytes == null) {
+      return null;
+    }
+    return compress(new String(bytes, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+  }
+
+  default byte[] decompress(final byte[] compressed) {
+    if (compressed == null) {
+      return null;
+    }
+    return decompress(new String(compressed, StandardCharsets.UTF_8))
+        .getBytes(StandardCharsets.UTF_8);
+  }
 }
@@ -15,109 +15,56 @@
  */
 package com.netflix.spinnaker.cats.compression;
 
-import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
-import java.util.Base64;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class GZipCompression implements CompressionStrategy {
+public class GZipCompression extends AbstractCompression {
 
   private static final Logger log = LoggerFactory.getLogger(GZipCompression.class);
-
-  private static final String CHARSET = "UTF-8";
-
-  private final long thresholdBytesSize;
-  private final boolean enabled;
+  private static final int BUFFER_SIZE = 8192;
 
   public GZipCompression(long thresholdBytesSize, boolean enabled) {
+    super(thresholdBytesSize, enabled);
     log.info(
         "Cats using gzip compression: {} bytes threshold, compress enabled: {}",
         thresholdBytesSize,
         enabled);
-    this.thresholdBytesSize = thresholdBytesSize;
-    this.enabled = enabled;
   }
 
   @Override
-  public String compress(final String str) {
-    if (str == null) {
-      return null;
-    }
-
-    byte[] bytes;
-    try {
-      bytes = str.getBytes(CHARSET);
-    } catch (UnsupportedEncodingException e) {
-      log.error("Failed to compress string: {}", str, e);
-      return str;
-    }
-
-    if (!enabled || bytes.length < thresholdBytesSize) {
-      return str;
-    }
-
-    ByteArrayOutputStream obj = new ByteArrayOutputStream();
-    try {
-      GZIPOutputStream gzip = new GZIPOutputStream(obj);
+  protected byte[] doCompress(byte[] bytes) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(32, bytes.length / 4));
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
       gzip.write(bytes);
-      gzip.flush();
-      gzip.close();
-    } catch (IOException e) {
-      log.error("Failed to compress string: {}", str, e);
-      return str;
-    }
-
-    try {
-      return new String(Base64.getEncoder().encode(obj.toByteArray()), CHARSET);
-    } catch (UnsupportedEncodingException e) {
-      log.error("Failed to compress string: {}", str, e);
-      return str;
     }
+    return out.toByteArray();
   }
 
   @Override
-  public String decompress(final String compressed) {
-    if (compressed == null) {
-      return null;
-    }
-
-    byte[] bytes;
-    try {
-      bytes = Base64.getDecoder().decode(compressed.getBytes(CHARSET));
-    } catch (IllegalArgumentException | UnsupportedEncodingException e) {
-      return compressed;
-    }
-
-    if (bytes.length == 0 || !isCompressed(bytes)) {
-      return compressed;
-    }
-
-    final StringBuilder outStr = new StringBuilder();
-    try {
-      final GZIPInputStream gis = new GZIPInputStream(new ByteArrayInputStream(bytes));
-      final BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(gis, CHARSET));
-
-      String line;
-      while ((line = bufferedReader.readLine()) != null) {
-        outStr.append(line);
+  protected byte[] doDecompress(byte[] compressed) throws IOException {
+    // The size in the gzip trailer only covers the last member, and only modulo 2^32, so it can't
+    // be trusted to size the result
+    ByteArrayOutputStream out =
+        new ByteArrayOutputStream((int) Math.min(compressed.length * 4L, Integer.MAX_VALUE - 8));
+    byte[] buffer = new byte[BUFFER_SIZE];
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      int length;
+      while ((length = in.read(buffer)) != -1) {
+        out.write(buffer, 0, length);
       }
-    } catch (IOException e) {
-      log.error("Failed to decompress string: {}", compressed, e);
-      return compressed;
     }
-
-    return outStr.toString();
+    return out.toByteArray();
   }
 
-  private static boolean isCompressed(final byte[] compressed) {
-    return compressed[0] == (byte) (GZIPInputStream.GZIP_MAGIC)
+  @Override
+  protected boolean isCompressed(final byte[] compressed) {
+    return compressed.length > 18
+        && compressed[0] == (byte) (GZIPInputStream.GZIP_MAGIC)
         && compressed[1] == (byte) (GZIPInputStream.GZIP_MAGIC >> 8);
   }
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.compression;
+
+import java.io.IOException;
+import java.util.Arrays;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * LZ4 block compression.
+ *
+ * <p>Compressed values are laid out as a 4 byte magic, the 4 byte (big endian) uncompressed length
+ * and the LZ4 block, so they can be decompressed into an exactly sized array. Compression goes
+ * through a reusable per-thread scratch buffer.
+ */
+public class Lz4Compression extends AbstractCompression {
+
+  private static final Logger log = LoggerFactory.getLogger(Lz4Compression.class);
+
+  private static final byte[] MAGIC = {'L', 'Z', '4', 'B'};
+  private static final int HEADER_SIZE = MAGIC.length + 4;
+
+  private static final ThreadLocal<byte[]> BUFFER = new ThreadLocal<>();
+
+  private final LZ4Compressor compressor;
+  private final LZ4SafeDecompressor decompressor;
+
+  public Lz4Compression(long thresholdBytesSize, boolean enabled) {
+    super(thresholdBytesSize, enabled);
+    LZ4Factory factory = LZ4Factory.fastestInstance();
+    this.compressor = factory.fastCompressor();
+    this.decompressor = factory.safeDecompressor();
+    log.info(
+        "Cats using lz4 compression: {} bytes threshold, compress enabled: {}",
+        thresholdBytesSize,
+        enabled);
+  }
+
+  @Override
+  protected byte[] doCompress(byte[] bytes) throws IOException {
+    byte[] buffer =
+        scratch(BUFFER, HEADER_SIZE + compressor.maxCompressedLength(bytes.length));
+    System.arraycopy(MAGIC, 0, buffer, 0, MAGIC.length);
+    writeInt(buffer, MAGIC.length, bytes.length);
+    int length;
+    try {
+      length =
+          compressor.compress(
+              bytes, 0, bytes.length, buffer, HEADER_SIZE, buffer.length - HEADER_SIZE);
+    } catch (LZ4Exception e) {
+      throw new IOException("Failed to compress", e);
+    }
+    return Arrays.copyOf(buffer, HEADER_SIZE + length);
+  }
+
+  @Override
+  protected byte[] doDecompress(byte[] compressed) throws IOException {
+    int size = readInt(compressed, MAGIC.length);
+    if (size < 0) {
+      throw new IOException("Invalid decompressed size: " + size);
+    }
+    byte[] result = new byte[size];
+    int length;
+    try {
+      length =
+          decompressor.decompress(
+              compressed, HEADER_SIZE, compressed.length - HEADER_SIZE, result, 0, result.length);
+    } catch (LZ4Exception e) {
+      throw new IOException("Failed to decompress", e);
+    }
+    if (length != result.length) {
+      throw new IOException("Expected " + result.length + " bytes but decompressed " + length);
+    }
+    return result;
+  }
+
+  @Override
+  protected boolean isCompressed(byte[] bytes) {
+    if (bytes.length < HEADER_SIZE) {
+      return false;
+    }
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (bytes[i] != MAGIC[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void writeInt(byte[] buffer, int offset, int value) {
+    buffer[offset] = (byte) (value >>> 24);
+    buffer[offset + 1] = (byte) (value >>> 16);
+    buffer[offset + 2] = (byte) (value >>> 8);
+    buffer[offset + 3] = (byte) value;
+  }
+
+  private static int readInt(byte[] buffer, int offset) {
+    return (buffer[offset] & 0xff) << 24
+        | (buffer[offset + 1] & 0xff) << 16
+        | (buffer[offset + 2] & 0xff) << 8
+        | (buffer[offset + 3] & 0xff);
+  }
+}
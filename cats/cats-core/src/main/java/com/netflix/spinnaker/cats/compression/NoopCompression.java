@@ -26,4 +26,14 @@ public class NoopCompression implements CompressionStrategy {
   public String decompress(String compressed) {
     return compressed;
   }
+
+  @Override
+  public byte[] compress(byte[] bytes) {
+    return bytes;
+  }
+
+  @Override
+  public byte[] decompress(byte[] compressed) {
+    return compressed;
+  }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import java.io.IOException;
+import java.util.Arrays;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Zstandard compression, optionally with a pre-trained dictionary.
+ *
+ * <p>Dictionaries substantially improve the ratio for the many small, similarly shaped values
+ * (instances, manifests) found in the cache. Values compressed with a dictionary can only be
+ * decompressed with the same dictionary. Compression goes through a reusable per-thread scratch
+ * buffer, and frames record their content size so results are allocated exactly once.
+ */
+public class ZstdCompression extends AbstractCompression {
+
+  private static final Logger log = LoggerFactory.getLogger(ZstdCompression.class);
+
+  private static final byte[] MAGIC = {(byte) 0x28, (byte) 0xb5, (byte) 0x2f, (byte) 0xfd};
+
+  private static final ThreadLocal<byte[]> BUFFER = new ThreadLocal<>();
+
+  private final int level;
+  private final ZstdDictCompress compressDictionary;
+  private final ZstdDictDecompress decompressDictionary;
+
+  public ZstdCompression(long thresholdBytesSize, boolean enabled, int level) {
+    this(thresholdBytesSize, enabled, level, null);
+  }
+
+  public ZstdCompression(long thresholdBytesSize, boolean enabled, int level, byte[] dictionary) {
+    super(thresholdBytesSize, enabled);
+    this.level = level;
+    if (dictionary == null || dictionary.length == 0) {
+      this.compressDictionary = null;
+      this.decompressDictionary = null;
+    } else {
+      this.compressDictionary = new ZstdDictCompress(dictionary, level);
+      this.decompressDictionary = new ZstdDictDecompress(dictionary);
+    }
+    log.info(
+        "Cats using zstd compression: {} bytes threshold, compress enabled: {}, level: {}, "
+            + "dictionary: {}",
+        thresholdBytesSize,
+        enabled,
+        level,
+        compressDictionary != null);
+  }
+
+  @Override
+  protected byte[] doCompress(byte[] bytes) throws IOException {
+    byte[] buffer = scratch(BUFFER, (int) Zstd.compressBound(bytes.length));
+    long length =
+        compressDictionary == null
+            ? Zstd.compressByteArray(buffer, 0, buffer.length, bytes, 0, bytes.length, level)
+            : Zstd.compressFastDict(buffer, 0, bytes, 0, bytes.length, compressDictionary);
+    if (Zstd.isError(length)) {
+      throw new IOException("Failed to compress: " + Zstd.getErrorName(length));
+    }
+    return Arrays.copyOf(buffer, (int) length);
+  }
+
+  @Override
+  protected byte[] doDecompress(byte[] compressed) throws IOException {
+    long size = Zstd.decompressedSize(compressed);
+    if (size <= 0 || size > Integer.MAX_VALUE) {
+      throw new IOException("Unknown or unsupported decompressed size: " + size);
+    }
+
+    byte[] result = new byte[(int) size];
+    long length =
+        decompressDictionary == null
+            ? Zstd.decompress(result, compressed)
+            : Zstd.decompressFastDict(
+                result, 0, compressed, 0, compressed.length, decompressDictionary);
+    if (Zstd.isError(length)) {
+      throw new IOException("Failed to decompress: " + Zstd.getErrorName(length));
+    }
+    return result;
+  }
+
+  @Override
+  protected boolean isCompressed(byte[] bytes) {
+    if (bytes.length < MAGIC.length) {
+      return false;
+    }
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (bytes[i] != MAGIC[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.cats.mem;
+
+import com.netflix.spinnaker.cats.cache.CacheData;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Secondary index of item identifiers by type and the value of their {@code application}
+ * attribute, the same attribute SqlCache indexes on.
+ */
+class ApplicationIndex {
+  static final String APPLICATION_ATTRIBUTE = "application";
+
+  private final ConcurrentMap<String, ConcurrentMap<String, Set<String>>> index =
+      new ConcurrentHashMap<>();
+
+  static boolean belongsTo(CacheData cacheData, String application) {
+    return application.equals(application(cacheData.getAttributes()));
+  }
+
+  static String application(Map<String, Object> attributes) {
+    Object application = attributes.get(APPLICATION_ATTRIBUTE);
+    return application == null ? null : application.toString();
+  }
+
+  void update(String type, String id, String previousApplication, String application) {
+    if (Objects.equals(previousApplication, application)) {
+      return;
+    }
+    remove(type, id, previousApplication);
+    if (application != null) {
+      index
+          .computeIfAbsent(type, t -> new ConcurrentHashMap<>())
+          .compute(
+              application,
+              (a, ids) -> {
+                Set<String> updated = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                updated.add(id);
+                return updated;
+              });
+    }
+  }
+
+  void remove(String type, String id, String application) {
+    if (application == null) {
+      return;
+    }
+    ConcurrentMap<String, Set<String>> applications = index.get(type);
+    if (applications != null) {
+      applications.computeIfPresent(
+          application,
+          (a, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+          });
+    }
+  }
+
+  /**
+   * Returns the identifiers indexed under the application. Merges of the same item are not
+   * serialized with respect to the index, so callers should confirm the application of the items
+   * they load.
+   */
+  Collection<String> identifiers(String type, String application) {
+    ConcurrentMap<String, Set<String>> applications = index.get(type);
+    if (applications == null) {
+      return Collections.emptyList();
+    }
+    Set<String> ids = applications.get(application);
+    return ids == null ? Collections.emptyList() : new ArrayList<>(ids);
+  }
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.cats.mem;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.netflix.spinnaker.cats.cache.CacheData;
+import com.netflix.spinnaker.cats.cache.CacheFilter;
+import com.netflix.spinnaker.cats.cache.DefaultCacheData;
+import com.netflix.spinnaker.cats.cache.WriteableCache;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * A WriteableCache that stores objects in an in-memory map, optimized for heap usage.
+ *
+ * <p>Unlike {@link InMemoryCache}, each item is stored as a single immutable entry that is replaced
+ * (copy-on-write) on merge, rather than as a pair of ConcurrentHashMaps. Relationship names and
+ * identifiers are interned, and identical relationship sets are shared between entries. Since
+ * entries are immutable they are returned as is when no CacheFilter is given, and only the
+ * relationships map is rebuilt otherwise; callers must not modify the returned data.
+ */
+public class CompactInMemoryCache implements WriteableCache {
+  private final ConcurrentMap<String, ConcurrentMap<String, Entry>> typeMap =
+      new ConcurrentHashMap<>();
+
+  private final Interner<String> strings = Interners.newWeakInterner();
+  private final Interner<ImmutableSet<String>> relationshipSets = Interners.newWeakInterner();
+  private final ApplicationIndex applications;
+
+  public CompactInMemoryCache() {
+    this(false);
+  }
+
+  /**
+   * @param applicationIndexEnabled whether items are indexed by their {@code application}
+   *     attribute, supporting {@code getAllByApplication}
+   */
+  public CompactInMemoryCache(boolean applicationIndexEnabled) {
+    this.applications = applicationIndexEnabled ? new ApplicationIndex() : null;
+  }
+
+  @Override
+  public void merge(String type, CacheData cacheData) {
+    String id = strings.intern(cacheData.getId());
+    if (applications == null) {
+      getTypeMap(type).compute(id, (key, existing) -> merge(key, existing, cacheData));
+      return;
+    }
+
+    getTypeMap(type)
+        .compute(
+            id,
+            (key, existing) -> {
+              Entry merged = merge(key, existing, cacheData);
+              applications.update(
+                  type,
+                  key,
+                  existing == null ? null : ApplicationIndex.application(existing.attributes),
+                  ApplicationIndex.application(merged.attributes));
+              return merged;
+            });
+  }
+
+  @Override
+  public void mergeAll(String type, Collection<CacheData> items) {
+    for (CacheData item : items) {
+      merge(type, item);
+    }
+  }
+
+  @Override
+  public void evict(String type, String id) {
+    evictAll(type, Collections.singletonList(id));
+  }
+
+  @Override
+  public void evictAll(String type, Collection<String> ids) {
+    ConcurrentMap<String, Entry> map = getTypeMap(type);
+    if (applications == null) {
+      for (String id : ids) {
+        map.remove(id);
+      }
+      return;
+    }
+
+    for (String id : ids) {
+      map.computeIfPresent(
+          id,
+          (key, existing) -> {
+            applications.remove(type, key, ApplicationIndex.application(existing.attributes));
+            return null;
+          });
+    }
+  }
+
+  @Override
+  public CacheData get(String type, String id) {
+    return get(type, id, null);
+  }
+
+  @Override
+  public CacheData get(String type, String id, CacheFilter cacheFilter) {
+    return wrap(getTypeMap(type).get(id), cacheFilter);
+  }
+
+  @Override
+  public Collection<CacheData> getAll(String type) {
+    return getAll(type, (CacheFilter) null);
+  }
+
+  @Override
+  public Collection<CacheData> getAll(String type, CacheFilter cacheFilter) {
+    ConcurrentMap<String, Entry> map = getTypeMap(type);
+    Collection<CacheData> values = new ArrayList<>(map.size());
+    for (Entry entry : map.values()) {
+      CacheData toReturn = wrap(entry, cacheFilter);
+      if (toReturn != null) {
+        values.add(toReturn);
+      }
+    }
+    return values;
+  }
+
+  @Override
+  public Collection<CacheData> getAll(String type, Collection<String> identifiers) {
+    return getAll(type, identifiers, null);
+  }
+
+  @Override
+  public Collection<CacheData> getAll(
+      String type, Collection<String> identifiers, CacheFilter cacheFilter) {
+    ConcurrentMap<String, Entry> map = getTypeMap(type);
+    Collection<CacheData> values = new ArrayList<>(identifiers.size());
+    for (String id : identifiers) {
+      CacheData toReturn = wrap(map.get(id), cacheFilter);
+      if (toReturn != null) {
+        values.add(toReturn);
+      }
+    }
+    return values;
+  }
+
+  @Override
+  public Collection<CacheData> getAll(String type, String... identifiers) {
+    return getAll(type, Arrays.asList(identifiers));
+  }
+
+  @Override
+  public boolean supportsGetAllByApplication() {
+    return applications != null;
+  }
+
+  @Override
+  public Map<String, Collection<CacheData>> getAllByApplication(String type, String application) {
+    return getAllByApplication(type, application, null);
+  }
+
+  @Override
+  public Map<String, Collection<CacheData>> getAllByApplication(
+      String type, String application, CacheFilter cacheFilter) {
+    if (applications == null) {
+      return WriteableCache.super.getAllByApplication(type, application, cacheFilter);
+    }
+
+    Collection<CacheData> items =
+        getAll(type, applications.identifiers(type, application), cacheFilter);
+    items.removeIf(item -> !ApplicationIndex.belongsTo(item, application));
+    return Collections.singletonMap(type, items);
+  }
+
+  @Override
+  public Map<String, Collection<CacheData>> getAllByApplication(
+      Collection<String> types, String application, Map<String, CacheFilter> cacheFilters) {
+    if (applications == null) {
+      return WriteableCache.super.getAllByApplication(types, application, cacheFilters);
+    }
+
+    Map<String, Collection<CacheData>> result = new HashMap<>();
+    for (String type : types) {
+      result.putAll(getAllByApplication(type, application, cacheFilters.get(type)));
+    }
+    return result;
+  }
+
+  @Override
+  public Collection<String> existingIdentifiers(String type, Collection<String> ids) {
+    Set<String> existing = new HashSet<>(ids);
+    existing.retainAll(getTypeMap(type).keySet());
+    return existing;
+  }
+
+  @Override
+  public Collection<String> getIdentifiers(String type) {
+    return new HashSet<>(getTypeMap(type).keySet());
+  }
+
+  @Override
+  public Collection<String> filterIdentifiers(String type, String glob) {
+    final Pattern pattern = new InMemoryCache.Glob(glob).toPattern();
+    final HashSet<String> matches = new HashSet<>();
+    for (String key : getTypeMap(type).keySet()) {
+      if (pattern.matcher(key).matches()) {
+        matches.add(key);
+      }
+    }
+    return matches;
+  }
+
+  private ConcurrentMap<String, Entry> getTypeMap(String type) {
+    return typeMap.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
+  }
+
+  private static CacheData wrap(Entry entry, CacheFilter cacheFilter) {
+    if (entry == null || entry.attributes.isEmpty()) {
+      return null;
+    }
+
+    if (cacheFilter == null) {
+      return entry;
+    }
+
+    Map<String, Collection<String>> relationships = new HashMap<>();
+    for (String relationship :
+        cacheFilter.filter(CacheFilter.Type.RELATIONSHIP, entry.relationships.keySet())) {
+      Collection<String> related = entry.relationships.get(relationship);
+      if (related != null) {
+        relationships.put(relationship, related);
+      }
+    }
+    return new DefaultCacheData(entry.id, entry.attributes, relationships);
+  }
+
+  /**
+   * Applies the same semantics as {@link InMemoryCache}: attributes are replaced by the update's
+   * non-null attributes, while relationships are merged, with null relationships removed.
+   */
+  private Entry merge(String id, Entry existing, CacheData update) {
+    Map<String, Object> attributes = new LinkedHashMap<>();
+    for (Map.Entry<String, Object> attribute : update.getAttributes().entrySet()) {
+      if (attribute.getValue() != null) {
+        attributes.put(strings.intern(attribute.getKey()), attribute.getValue());
+      }
+    }
+
+    Map<String, Collection<String>> relationships =
+        existing == null ? new LinkedHashMap<>() : new LinkedHashMap<>(existing.relationships);
+    for (Map.Entry<String, Collection<String>> relationship :
+        update.getRelationships().entrySet()) {
+      String name = strings.intern(relationship.getKey());
+      if (relationship.getValue() == null) {
+        relationships.remove(name);
+      } else {
+        relationships.put(name, internRelationships(relationship.getValue()));
+      }
+    }
+
+    return new Entry(id, ImmutableMap.copyOf(attributes), ImmutableMap.copyOf(relationships));
+  }
+
+  private ImmutableSet<String> internRelationships(Collection<String> related) {
+    ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+    for (String id : related) {
+      if (id != null) {
+        builder.add(strings.intern(id));
+      }
+    }
+    return relationshipSets.intern(builder.build());
+  }
+
+  private static class Entry implements CacheData {
+    private final String id;
+    private final Map<String, Object> attributes;
+    private final Map<String, Collection<String>> relationships;
+
+    Entry(
+        String id, Map<String, Object> attributes, Map<String, Collection<String>> relationships) {
+      this.id = id;
+      this.attributes = attributes;
+      this.relationships = relationships;
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    @Override
+    public int getTtlSeconds() {
+      return -1;
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+      return attributes;
+    }
+
+    @Override
+    public Map<String, Collection<String>> getRelationships() {
+      return relationships;
+    }
+  }
+}
@@ -38,10 +38,35 @@ import java.util.regex.Pattern;
 public class InMemoryCache implements WriteableCache {
   private ConcurrentMap<String, ConcurrentMap<String, CacheData>> typeMap =
       new ConcurrentHashMap<>();
+  private final ApplicationIndex applications;
+
+  public InMemoryCache() {
+    this(false);
+  }
+
+  /**
+   * @param applicationIndexEnabled whether items are indexed by their {@code application}
+   *     attribute, supporting {@code getAllByApplication}
+   */
+  public InMemoryCache(boolean applicationIndexEnabled) {
+    this.applications = applicationIndexEnabled ? new ApplicationIndex() : null;
+  }
 
   @Override
   public void merge(String type, CacheData cacheData) {
-    merge(getOrCreate(type, cacheData.getId()), cacheData);
+    CacheData existing = getOrCreate(type, cacheData.getId());
+    if (applications == null) {
+      merge(existing, cacheData);
+      return;
+    }
+
+    String previousApplication = ApplicationIndex.application(existing.getAttributes());
+    merge(existing, cacheData);
+    applications.update(
+        type,
+        cacheData.getId(),
+        previousApplication,
+        ApplicationIndex.application(existing.getAttributes()));
   }
 
   @Override
@@ -53,14 +78,17 @@ public class InMemoryCache implements WriteableCache {
 
   @Override
   public void evict(String type, String id) {
-    getTypeMap(type).remove(id);
+    evictAll(type, Collections.singletonList(id));
   }
 
   @Override
   public void evictAll(String type, Collection<String> ids) {
     ConcurrentMap<String, CacheData> map = getTypeMap(type);
     for (String id : ids) {
-      map.remove(id);
+      CacheData removed = map.remove(id);
+      if (removed != null && applications != null) {
+        applications.remove(type, id, ApplicationIndex.application(removed.getAttributes()));
+      }
     }
   }
 
@@ -120,6 +148,43 @@ public class InMemoryCache implements WriteableCache {
     return getAll(type, Arrays.asList(identifiers));
   }
 
+  @Override
+  public boolean supportsGetAllByApplication() {
+    return applications != null;
+  }
+
+  @Override
+  public Map<String, Collection<CacheData>> getAllByApplication(String type, String application) {
+    return getAllByApplication(type, application, null);
+  }
+
+  @Override
+  public Map<String, Collection<CacheData>> getAllByApplication(
+      String type, String application, CacheFilter cacheFilter) {
+    if (applications == null) {
+      return WriteableCache.super.getAllByApplication(type, application, cacheFilter);
+    }
+
+    Collection<CacheData> items =
+        getAll(type, applications.identifiers(type, application), cacheFilter);
+    items.removeIf(item -> !ApplicationIndex.belongsTo(item, application));
+    return Collections.singletonMap(type, items);
+  }
+
+  @Override
+  public Map<String, Collection<CacheData>> getAllByApplication(
+      Collection<String> types, String application, Map<String, CacheFilter> cacheFilters) {
+    if (applications == null) {
+      return WriteableCache.super.getAllByApplication(types, application, cacheFilters);
+    }
+
+    Map<String, Collection<CacheData>> result = new HashMap<>();
+    for (String type : types) {
+      result.putAll(getAllByApplication(type, application, cacheFilters.get(type)));
+    }
+    return result;
+  }
+
   @Override
   public Collection<String> existingIdentifiers(String type, Collection<String> ids) {
     Set<String> existing = new HashSet<>(ids);
@@ -30,6 +30,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * An implementation of ProviderCache that writes through to a provided backing WriteableCache.
@@ -85,6 +86,12 @@ public class DefaultProviderCache implements ProviderCache {
     return buildResponse(all);
   }
 
+  @Override
+  public Stream<CacheData> streamAll(String type, CacheFilter cacheFilter) {
+    validateTypes(type);
+    return buildResponse(backingStore.streamAll(type, cacheFilter));
+  }
+
   @Override
   public Collection<CacheData> getAll(String type, Collection<String> identifiers) {
     return getAll(type, identifiers, null);
@@ -103,6 +110,30 @@ public class DefaultProviderCache implements ProviderCache {
     return getAll(type, Arrays.asList(identifiers));
   }
 
+  @Override
+  public boolean supportsGetAllByApplication() {
+    return backingStore.supportsGetAllByApplication();
+  }
+
+  @Override
+  public Map<String, Collection<CacheData>> getAllByApplication(String type, String application) {
+    return getAllByApplication(type, application, null);
+  }
+
+  @Override
+  public Map<String, Collection<CacheData>> getAllByApplication(
+      String type, String application, CacheFilter cacheFilter) {
+    validateTypes(type);
+    return buildResponse(backingStore.getAllByApplication(type, application, cacheFilter));
+  }
+
+  @Override
+  public Map<String, Collection<CacheData>> getAllByApplication(
+      Collection<String> types, String application, Map<String, CacheFilter> cacheFilters) {
+    validateTypes(types);
+    return buildResponse(backingStore.getAllByApplication(types, application, cacheFilters));
+  }
+
   @Override
   public Collection<String> existingIdentifiers(String type, Collection<String> identifiers) {
     Set<String> existing = new HashSet<>(backingStore.existingIdentifiers(type, identifiers));
@@ -210,6 +241,19 @@ public class DefaultProviderCache implements ProviderCache {
     return Collections.unmodifiableCollection(response);
   }
 
+  private Map<String, Collection<CacheData>> buildResponse(
+      Map<String, Collection<CacheData>> source) {
+    Map<String, Collection<CacheData>> response = new HashMap<>(source.size());
+    for (Map.Entry<String, Collection<CacheData>> entry : source.entrySet()) {
+      response.put(entry.getKey(), buildResponse(entry.getValue()));
+    }
+    return response;
+  }
+
+  private Stream<CacheData> buildResponse(Stream<CacheData> source) {
+    return source.filter(item -> !ALL_ID.equals(item.getId())).map(this::mergeRelationships);
+  }
+
   private Collection<String> getExistingSourceIdentifiers(String type, String sourceAgentType) {
     CacheData all =
         backingStore.get(type, ALL_ID, RelationshipCacheFilter.include(sourceAgentType));
@@ -220,7 +264,7 @@ public class DefaultProviderCache implements ProviderCache {
     if (relationship == null) {
       return new HashSet<>();
     }
-    return relationship;
+    return new HashSet<>(relationship);
   }
 
   private void cacheDataType(String type, String sourceAgentType, Collection<CacheData> items) {
@@ -47,4 +47,20 @@ class CompositeCacheSpec extends CacheSpec {
         bar.attributes.c1Att == 'c1washere'
         bar.attributes.c2Att == 'c2washere'
     }
+
+    def "getAllByApplication merges items from both caches"() {
+        setup:
+        c1.merge('foo', createData('bar', [application: 'app', c1Att: 'c1washere']))
+        c2.merge('foo', createData('bar', [application: 'app', c2Att: 'c2washere']))
+        c2.merge('foo', createData('baz', [application: 'app']))
+
+        when:
+        def result = cache.getAllByApplication(['foo', 'other'], 'app', [:])
+
+        then:
+        result.foo.size() == 2
+        result.foo.find { it.id == 'bar' }.attributes.c1Att == 'c1washere'
+        result.foo.find { it.id == 'bar' }.attributes.c2Att == 'c2washere'
+        result.other.isEmpty()
+    }
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.compression
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.charset.StandardCharsets
+
+class CompressionStrategySpec extends Specification {
+
+  static final String VALUE = ('{"name":"checkout-api","namespace":"checkout",\n"labels":{"app":"checkout-api"}}\n' * 20)
+
+  @Unroll
+  def 'should round trip strings with #subject.class.simpleName'() {
+    when:
+    def compressed = subject.compress(VALUE)
+
+    then:
+    compressed != VALUE
+    subject.decompress(compressed) == VALUE
+
+    and: 'values below the threshold are passed through'
+    subject.compress('a') == 'a'
+    subject.decompress('a') == 'a'
+
+    where:
+    subject << strategies()
+  }
+
+  @Unroll
+  def 'should round trip bytes with #subject.class.simpleName'() {
+    given:
+    def bytes = VALUE.getBytes(StandardCharsets.UTF_8)
+
+    when:
+    def compressed = subject.compress(bytes)
+
+    then:
+    compressed.length < bytes.length
+    subject.decompress(compressed) == bytes
+
+    and: 'uncompressed values written earlier remain readable'
+    subject.decompress(bytes) == bytes
+
+    where:
+    subject << strategies()
+  }
+
+  @Unroll
+  def 'should pass values through when compression is disabled for #subject.class.simpleName'() {
+    expect:
+    subject.compress(VALUE) == VALUE
+
+    where:
+    subject << [
+      new GZipCompression(0, false),
+      new Lz4Compression(0, false),
+      new ZstdCompression(0, false, 3)
+    ]
+  }
+
+  def 'should round trip with a zstd dictionary'() {
+    given:
+    def dictionary = VALUE.getBytes(StandardCharsets.UTF_8)
+    def subject = new ZstdCompression(0, true, 3, dictionary)
+    def plain = new ZstdCompression(0, true, 3)
+
+    when:
+    def compressed = subject.compress(VALUE)
+
+    then:
+    subject.decompress(compressed) == VALUE
+    subject.compress(VALUE).length() < plain.compress(VALUE).length()
+  }
+
+  def 'should fail decompressing corrupt lz4 values with an IllegalStateException'() {
+    given:
+    def subject = new Lz4Compression(0, true)
+    def compressed = subject.compress(VALUE.getBytes(StandardCharsets.UTF_8))
+    def corrupt = Arrays.copyOf(compressed, compressed.length - 8)
+
+    when:
+    subject.decompress(corrupt)
+
+    then:
+    def e = thrown(IllegalStateException)
+    e.cause instanceof IOException
+  }
+
+  private static List<CompressionStrategy> strategies() {
+    return [
+      new GZipCompression(16, true),
+      new Lz4Compression(16, true),
+      new ZstdCompression(16, true, 3)
+    ]
+  }
+}
@@ -17,6 +17,9 @@ package com.netflix.spinnaker.cats.compression
 
 import spock.lang.Specification
 
+import java.nio.charset.StandardCharsets
+import java.util.zip.GZIPOutputStream
+
 class GZipCompressionStrategySpec extends Specification {
 
   def 'should compress and decompress values'() {
@@ -40,4 +43,25 @@ class GZipCompressionStrategySpec extends Specification {
     'foo bar baz' || true
     'a'           || false
   }
+
+  def 'should preserve newlines'() {
+    given:
+    def subject = new GZipCompression(0, true)
+    def data = 'line one\nline two\n\nline four\n'
+
+    expect:
+    subject.decompress(subject.compress(data)) == data
+  }
+
+  def 'should decompress every member of a multi-member stream'() {
+    given:
+    def subject = new GZipCompression(0, true)
+    def out = new ByteArrayOutputStream()
+    ['first member,', 'second member'].each { member ->
+      new GZIPOutputStream(out).withCloseable { it.write(member.getBytes(StandardCharsets.UTF_8)) }
+    }
+
+    expect:
+    subject.decompress(out.toByteArray()) == 'first member,second member'.getBytes(StandardCharsets.UTF_8)
+  }
 }
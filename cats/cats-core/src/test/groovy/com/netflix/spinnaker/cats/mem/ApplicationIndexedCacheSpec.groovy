@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.cats.mem
+
+import com.netflix.spinnaker.cats.cache.WriteableCache
+import com.netflix.spinnaker.cats.cache.WriteableCacheSpec
+
+/**
+ * Runs the {@link WriteableCacheSpec} against a cache with its application index enabled, in
+ * addition to the index's own tests.
+ */
+abstract class ApplicationIndexedCacheSpec extends WriteableCacheSpec {
+
+    abstract WriteableCache getSubjectWithoutApplicationIndex()
+
+    def 'getAllByApplication is only supported with the application index enabled'() {
+        expect:
+        !subjectWithoutApplicationIndex.supportsGetAllByApplication()
+    }
+
+    def 'getAllByApplication only returns items of the application'() {
+        setup:
+        populateOne('clusters', 'c1', createData('c1', [application: 'app1'], [serverGroups: ['sg1']]))
+        populateOne('clusters', 'c2', createData('c2', [application: 'app2']))
+        populateOne('serverGroups', 'sg1', createData('sg1', [application: 'app1']))
+
+        when:
+        def result = cache.getAllByApplication(['clusters', 'serverGroups'], 'app1', [:])
+
+        then:
+        cache.supportsGetAllByApplication()
+        result.clusters*.id == ['c1']
+        result.clusters.first().relationships.serverGroups as List == ['sg1']
+        result.serverGroups*.id == ['sg1']
+
+        when: 'an item moves to another application'
+        populateOne('clusters', 'c2', createData('c2', [application: 'app1']))
+
+        then:
+        cache.getAllByApplication('clusters', 'app1').clusters*.id.sort() == ['c1', 'c2']
+        cache.getAllByApplication('clusters', 'app2').clusters.isEmpty()
+
+        when:
+        ((WriteableCache) cache).evict('clusters', 'c1')
+
+        then:
+        cache.getAllByApplication('clusters', 'app1').clusters*.id == ['c2']
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.cats.mem
+
+import com.netflix.spinnaker.cats.cache.RelationshipCacheFilter
+
+class CompactInMemoryCacheSpec extends ApplicationIndexedCacheSpec {
+
+    @Override
+    CompactInMemoryCache getSubject() {
+        new CompactInMemoryCache(true)
+    }
+
+    @Override
+    CompactInMemoryCache getSubjectWithoutApplicationIndex() {
+        new CompactInMemoryCache()
+    }
+
+    def 'unfiltered reads return the stored entry'() {
+        setup:
+        populateOne('foo', 'bar', createData('bar', [a: 'b'], [rel1: ['abc']]))
+
+        expect:
+        cache.get('foo', 'bar').is(cache.get('foo', 'bar'))
+        cache.getAll('foo').first().is(cache.get('foo', 'bar'))
+    }
+
+    def 'identical relationship sets are shared between entries'() {
+        setup:
+        populateOne('foo', 'bar', createData('bar', [a: 'b'], [rel1: [new String('abc'), 'def']]))
+        populateOne('foo', 'baz', createData('baz', [a: 'b'], [rel1: [new String('abc'), 'def']]))
+
+        expect:
+        cache.get('foo', 'bar').relationships.rel1.is(cache.get('foo', 'baz').relationships.rel1)
+    }
+
+    def 'merge keeps existing relationships and removes null relationships'() {
+        setup:
+        populateOne('foo', 'bar', createData('bar', [a: 'b'], [rel1: ['abc'], rel2: ['def']]))
+
+        when:
+        populateOne('foo', 'bar', createData('bar', [a: 'c'], [rel2: null, rel3: ['ghi']]))
+        def bar = cache.get('foo', 'bar')
+
+        then:
+        bar.attributes == [a: 'c']
+        bar.relationships.keySet() == ['rel1', 'rel3'] as Set
+        bar.relationships.rel1 as List == ['abc']
+    }
+
+    def 'filtered reads only include matching relationships'() {
+        setup:
+        populateOne('foo', 'bar', createData('bar', [a: 'b'], [rel1: ['abc'], rel2: ['def']]))
+
+        when:
+        def bar = cache.get('foo', 'bar', RelationshipCacheFilter.include('rel2'))
+
+        then:
+        bar.relationships.keySet() == ['rel2'] as Set
+    }
+
+    def 'stored entries are immutable'() {
+        setup:
+        populateOne('foo', 'bar', createData('bar', [a: 'b'], [rel1: ['abc']]))
+
+        when:
+        cache.get('foo', 'bar').attributes.put('c', 'd')
+
+        then:
+        thrown(UnsupportedOperationException)
+    }
+}
@@ -16,12 +16,15 @@
 
 package com.netflix.spinnaker.cats.mem
 
-import com.netflix.spinnaker.cats.cache.WriteableCacheSpec
-
-class InMemoryCacheSpec extends WriteableCacheSpec {
+class InMemoryCacheSpec extends ApplicationIndexedCacheSpec {
 
     @Override
     InMemoryCache getSubject() {
+        new InMemoryCache(true)
+    }
+
+    @Override
+    InMemoryCache getSubjectWithoutApplicationIndex() {
         new InMemoryCache()
     }
 }
@@ -42,4 +42,13 @@ class InMemoryNamedCacheFactorySpec extends Specification {
         then:
         c1.is(c2)
     }
+
+    def 'caches are created by the supplied factory'() {
+        setup:
+        def compactFactory = new InMemoryNamedCacheFactory({ new CompactInMemoryCache() })
+
+        expect:
+        compactFactory.getCache('c1') instanceof CompactInMemoryCache
+        factory.getCache('c1') instanceof InMemoryCache
+    }
 }
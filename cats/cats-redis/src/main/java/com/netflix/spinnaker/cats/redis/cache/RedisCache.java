@@ -17,11 +17,16 @@ package com.netflix.spinnaker.cats.redis.cache;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.hash.Hashing;
 import com.netflix.spinnaker.cats.cache.CacheData;
+import com.netflix.spinnaker.cats.cache.CacheFilter;
 import com.netflix.spinnaker.cats.cache.DefaultCacheData;
+import com.netflix.spinnaker.cats.compression.CompressionStrategy;
+import com.netflix.spinnaker.cats.compression.NoopCompression;
 import com.netflix.spinnaker.kork.jedis.RedisClientDelegate;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -31,17 +36,23 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class RedisCache extends AbstractRedisCache {
 
+  private static final String APPLICATION_ATTRIBUTE = "application";
+
   public interface CacheMetrics {
     default void merge(
         String prefix,
@@ -82,19 +93,50 @@ public class RedisCache extends AbstractRedisCache {
       // noop
     }
 
+    default void localHashes(String prefix, String type, int localHashHits, int remoteHashReads) {
+      // noop
+    }
+
     class NOOP implements CacheMetrics {}
   }
 
   private final CacheMetrics cacheMetrics;
 
+  /**
+   * In-process mirror of the redis hashes table, keyed by attribute/relationship key. Only present
+   * when {@link RedisCacheOptions#isLocalHashCacheEnabled()}.
+   */
+  private final Cache<String, String> localHashes;
+
+  /** Compresses serialized attributes and relationships as they are written. */
+  private final CompressionStrategy compression;
+
   public RedisCache(
       String prefix,
       RedisClientDelegate redisClientDelegate,
       ObjectMapper objectMapper,
       RedisCacheOptions options,
       CacheMetrics cacheMetrics) {
+    this(prefix, redisClientDelegate, objectMapper, options, cacheMetrics, new NoopCompression());
+  }
+
+  public RedisCache(
+      String prefix,
+      RedisClientDelegate redisClientDelegate,
+      ObjectMapper objectMapper,
+      RedisCacheOptions options,
+      CacheMetrics cacheMetrics,
+      CompressionStrategy compression) {
     super(prefix, redisClientDelegate, objectMapper, options);
     this.cacheMetrics = cacheMetrics == null ? new CacheMetrics.NOOP() : cacheMetrics;
+    this.compression = compression;
+    this.localHashes =
+        options.isLocalHashCacheEnabled()
+            ? CacheBuilder.newBuilder()
+                .maximumSize(options.getLocalHashCacheSize())
+                .expireAfterWrite(options.getLocalHashCacheTtlSeconds(), TimeUnit.SECONDS)
+                .build()
+            : null;
   }
 
   @Override
@@ -112,9 +154,13 @@ public class RedisCache extends AbstractRedisCache {
     final Map<String, String> hashes = getHashes(type, items);
 
     final NavigableMap<String, String> updatedHashes = new TreeMap<>();
+    final List<CacheData> updatedAttributes = new ArrayList<>();
 
     for (CacheData item : items) {
       MergeOp op = buildMergeOp(type, item, hashes);
+      if (op.attributesChanged && !isNewWithoutApplication(type, item, hashes, op)) {
+        updatedAttributes.add(item);
+      }
       relationshipNames.addAll(op.relNames);
       keysToSet.addAll(op.keysToSet);
       idSet.add(item.getId());
@@ -128,6 +174,10 @@ public class RedisCache extends AbstractRedisCache {
       }
     }
 
+    if (options.isApplicationIndexEnabled()) {
+      updateApplicationIndex(type, updatedAttributes);
+    }
+
     AtomicInteger saddOperations = new AtomicInteger();
     AtomicInteger msetOperations = new AtomicInteger();
     AtomicInteger hmsetOperations = new AtomicInteger();
@@ -171,6 +221,10 @@ public class RedisCache extends AbstractRedisCache {
             pipelineOperations.incrementAndGet();
           });
 
+      if (localHashes != null) {
+        localHashes.putAll(updatedHashes);
+      }
+
       redisClientDelegate.withMultiKeyPipeline(
           pipeline -> {
             for (List<Map.Entry<String, Integer>> ttlPart :
@@ -203,6 +257,10 @@ public class RedisCache extends AbstractRedisCache {
   @Override
   protected void evictItems(
       String type, List<String> identifiers, Collection<String> allRelationships) {
+    if (options.isApplicationIndexEnabled()) {
+      removeFromApplicationIndex(type, identifiers);
+    }
+
     List<String> delKeys = new ArrayList<>((allRelationships.size() + 1) * identifiers.size());
     for (String id : identifiers) {
       for (String relationship : allRelationships) {
@@ -232,6 +290,10 @@ public class RedisCache extends AbstractRedisCache {
           pipeline.sync();
         });
 
+    if (localHashes != null) {
+      localHashes.invalidateAll(delKeys);
+    }
+
     cacheMetrics.evict(
         prefix,
         type,
@@ -243,6 +305,56 @@ public class RedisCache extends AbstractRedisCache {
         sremOperations.get());
   }
 
+  @Override
+  public boolean supportsGetAllByApplication() {
+    return options.isApplicationIndexEnabled();
+  }
+
+  @Override
+  public Map<String, Collection<CacheData>> getAllByApplication(String type, String application) {
+    return getAllByApplication(type, application, null);
+  }
+
+  @Override
+  public Map<String, Collection<CacheData>> getAllByApplication(
+      String type, String application, CacheFilter cacheFilter) {
+    if (!options.isApplicationIndexEnabled()) {
+      return super.getAllByApplication(type, application, cacheFilter);
+    }
+
+    Set<String> ids = scanMembers(applicationId(type, application), Optional.empty());
+    Collection<CacheData> items = getAll(type, ids, cacheFilter);
+
+    // the index is updated separately from the items, so confirm each item's application
+    Set<String> moved = new HashSet<>();
+    Set<String> missing = new HashSet<>(ids);
+    for (Iterator<CacheData> it = items.iterator(); it.hasNext(); ) {
+      CacheData item = it.next();
+      missing.remove(item.getId());
+      if (!application.equals(application(item.getAttributes()))) {
+        moved.add(item.getId());
+        it.remove();
+      }
+    }
+    removeStaleApplicationIndexEntries(type, application, missing, moved);
+
+    return Collections.singletonMap(type, items);
+  }
+
+  @Override
+  public Map<String, Collection<CacheData>> getAllByApplication(
+      Collection<String> types, String application, Map<String, CacheFilter> cacheFilters) {
+    if (!options.isApplicationIndexEnabled()) {
+      return super.getAllByApplication(types, application, cacheFilters);
+    }
+
+    Map<String, Collection<CacheData>> result = new HashMap<>();
+    for (String type : types) {
+      result.putAll(getAllByApplication(type, application, cacheFilters.get(type)));
+    }
+    return result;
+  }
+
   @Override
   protected Collection<CacheData> getItems(String type, List<String> ids, List<String> knownRels) {
     final int singleResultSize = knownRels.size() + 1;
@@ -299,14 +411,15 @@ public class RedisCache extends AbstractRedisCache {
     }
 
     try {
-      final Map<String, Object> attributes = objectMapper.readValue(keyResult.get(0), ATTRIBUTES);
+      final Map<String, Object> attributes =
+          objectMapper.readValue(compression.decompress(keyResult.get(0)), ATTRIBUTES);
       final Map<String, Collection<String>> relationships = new HashMap<>(keyResult.size() - 1);
       for (int relIdx = 1; relIdx < keyResult.size(); relIdx++) {
         String rel = keyResult.get(relIdx);
         if (rel != null) {
           String relType = knownRels.get(relIdx - 1);
           Collection<String> deserializedRel =
-              objectMapper.readValue(rel, getRelationshipsTypeReference());
+              objectMapper.readValue(compression.decompress(rel), getRelationshipsTypeReference());
           relationships.put(relType, deserializedRel);
         }
       }
@@ -318,21 +431,154 @@ public class RedisCache extends AbstractRedisCache {
     }
   }
 
+  /**
+   * Moves items whose {@code application} attribute changed between application sets, tracking
+   * each item's current application in a hash so that it can be removed from its previous set.
+   * Items without attributes are left alone, as merging them does not replace existing attributes.
+   *
+   * <p>Callers only pass items whose attributes were rewritten by this merge, so items whose
+   * attributes hash is unchanged never cost an application index lookup.
+   */
+  private void updateApplicationIndex(String type, Collection<CacheData> items) {
+    final Map<String, String> applications = new LinkedHashMap<>();
+    for (CacheData item : items) {
+      if (!item.getAttributes().isEmpty()) {
+        applications.put(item.getId(), application(item.getAttributes()));
+      }
+    }
+    if (applications.isEmpty()) {
+      return;
+    }
+
+    final List<String> ids = new ArrayList<>(applications.keySet());
+    final Map<String, String> previousApplications = getIndexedApplications(type, ids);
+
+    final Map<String, String> changed = new HashMap<>();
+    for (Map.Entry<String, String> entry : applications.entrySet()) {
+      if (!Objects.equals(entry.getValue(), previousApplications.get(entry.getKey()))) {
+        changed.put(entry.getKey(), entry.getValue());
+      }
+    }
+    if (changed.isEmpty()) {
+      return;
+    }
+
+    redisClientDelegate.withMultiKeyPipeline(
+        pipeline -> {
+          for (Map.Entry<String, String> entry : changed.entrySet()) {
+            String id = entry.getKey();
+            String previous = previousApplications.get(id);
+            if (previous != null) {
+              pipeline.srem(applicationId(type, previous), id);
+            }
+            if (entry.getValue() == null) {
+              pipeline.hdel(applicationIndexId(type), id);
+            } else {
+              pipeline.sadd(applicationId(type, entry.getValue()), id);
+              pipeline.hset(applicationIndexId(type), id, entry.getValue());
+            }
+          }
+          pipeline.sync();
+        });
+  }
+
+  /**
+   * Whether an item is being stored for the first time without an {@code application} attribute,
+   * in which case it cannot be in the application index and does not need to be looked up.
+   */
+  private boolean isNewWithoutApplication(
+      String type, CacheData item, Map<String, String> hashes, MergeOp op) {
+    String attributesId = attributesId(type, item.getId());
+    return application(item.getAttributes()) == null
+        && !isHashingDisabled(type)
+        && op.hashesToSet.containsKey(attributesId)
+        && !hashes.containsKey(attributesId);
+  }
+
+  private void removeFromApplicationIndex(String type, List<String> identifiers) {
+    final Map<String, String> applications = getIndexedApplications(type, identifiers);
+    if (applications.isEmpty()) {
+      return;
+    }
+
+    redisClientDelegate.withMultiKeyPipeline(
+        pipeline -> {
+          for (Map.Entry<String, String> entry : applications.entrySet()) {
+            pipeline.srem(applicationId(type, entry.getValue()), entry.getKey());
+          }
+          for (List<String> idPartition :
+              Lists.partition(new ArrayList<>(applications.keySet()), options.getMaxDelSize())) {
+            pipeline.hdel(
+                applicationIndexId(type), idPartition.toArray(new String[idPartition.size()]));
+          }
+          pipeline.sync();
+        });
+  }
+
+  /**
+   * Removes the ids of items that no longer belong to the application from its set, as well as the
+   * index entries of items that no longer exist. Items are evicted along with their index entries,
+   * but items with a ttl expire without being evicted.
+   */
+  private void removeStaleApplicationIndexEntries(
+      String type, String application, Set<String> missing, Set<String> moved) {
+    if (missing.isEmpty() && moved.isEmpty()) {
+      return;
+    }
+
+    final List<String> stale = new ArrayList<>(missing.size() + moved.size());
+    stale.addAll(missing);
+    stale.addAll(moved);
+    redisClientDelegate.withMultiKeyPipeline(
+        pipeline -> {
+          for (List<String> idPartition : Lists.partition(stale, options.getMaxDelSize())) {
+            pipeline.srem(
+                applicationId(type, application),
+                idPartition.toArray(new String[idPartition.size()]));
+          }
+          for (List<String> idPartition :
+              Lists.partition(new ArrayList<>(missing), options.getMaxDelSize())) {
+            pipeline.hdel(
+                applicationIndexId(type), idPartition.toArray(new String[idPartition.size()]));
+          }
+          pipeline.sync();
+        });
+  }
+
+  private Map<String, String> getIndexedApplications(String type, List<String> ids) {
+    final List<String> values = getHashValues(ids, applicationIndexId(type));
+    final Map<String, String> applications = new HashMap<>(ids.size());
+    for (int i = 0; i < values.size(); i++) {
+      if (values.get(i) != null) {
+        applications.put(ids.get(i), values.get(i));
+      }
+    }
+    return applications;
+  }
+
+  private static String application(Map<String, Object> attributes) {
+    Object application = attributes.get(APPLICATION_ATTRIBUTE);
+    return application == null ? null : application.toString();
+  }
+
   private static class MergeOp {
     public final Set<String> relNames;
     public final List<String> keysToSet;
     public final Map<String, String> hashesToSet;
     public final int skippedWrites;
+    public final boolean attributesChanged;
 
     MergeOp(
         Set<String> relNames,
         List<String> keysToSet,
         Map<String, String> hashesToSet,
-        int skippedWrites) {
+        int skippedWrites,
+        boolean attributesChanged) {
       this.relNames = relNames;
       this.keysToSet = keysToSet;
       this.hashesToSet = hashesToSet;
       this.skippedWrites = skippedWrites;
+      this.attributesChanged = attributesChanged;
     }
   }
 
@@ -352,6 +598,7 @@ public class RedisCache extends AbstractRedisCache {
 
     final Map<String, String> hashesToSet = new HashMap<>();
     final List<String> keysToSet = new ArrayList<>((cacheData.getRelationships().size() + 1) * 2);
+    boolean attributesChanged = false;
     if (serializedAttributes != null
         && hashCheck(
             hashes,
@@ -361,6 +608,8 @@ public class RedisCache extends AbstractRedisCache {
             hashesToSet,
             hasTtl)) {
       skippedWrites++;
+    } else {
+      attributesChanged = serializedAttributes != null;
     }
 
     if (!cacheData.getRelationships().isEmpty()) {
@@ -386,7 +635,11 @@ public class RedisCache extends AbstractRedisCache {
     }
 
     return new MergeOp(
-        cacheData.getRelationships().keySet(), keysToSet, hashesToSet, skippedWrites);
+        cacheData.getRelationships().keySet(),
+        keysToSet,
+        hashesToSet,
+        skippedWrites,
+        attributesChanged);
   }
 
   private List<String> getKeys(String type, Collection<CacheData> cacheDatas) {
@@ -449,37 +702,76 @@ public class RedisCache extends AbstractRedisCache {
     }
 
     keys.add(id);
-    keys.add(serializedValue);
+    keys.add(compression.compress(serializedValue));
     return false;
   }
 
+  /**
+   * Returns the last known hash for each attribute/relationship key of the given items.
+   *
+   * <p>If the local hash cache is enabled, keys with a locally known hash are resolved in-process
+   * and only the remaining keys are read from redis (and remembered for subsequent merges).
+   */
   private Map<String, String> getHashes(String type, Collection<CacheData> items) {
     if (isHashingDisabled(type)) {
       return Collections.emptyMap();
     }
 
-    final List<String> hashKeys = getKeys(type, items);
-    if (hashKeys.isEmpty()) {
+    final List<String> keys = getKeys(type, items);
+    if (keys.isEmpty()) {
       return Collections.emptyMap();
     }
 
+    final Map<String, String> hashes = new HashMap<>(keys.size());
+    final List<String> hashKeys;
+    if (localHashes == null) {
+      hashKeys = keys;
+    } else {
+      hashes.putAll(localHashes.getAllPresent(keys));
+      if (hashes.size() == keys.size()) {
+        cacheMetrics.localHashes(prefix, type, hashes.size(), 0);
+        return hashes;
+      }
+
+      hashKeys = new ArrayList<>(keys.size() - hashes.size());
+      for (String key : keys) {
+        if (!hashes.containsKey(key)) {
+          hashKeys.add(key);
+        }
+      }
+    }
+
     final List<String> hashValues = getHashValues(hashKeys, hashesId(type));
     if (hashValues.size() != hashKeys.size()) {
       throw new RuntimeException("Expected same size result as request");
     }
 
-    final Map<String, String> hashes = new HashMap<>(hashKeys.size());
+    final Map<String, String> remoteHashes = new HashMap<>(hashKeys.size());
     for (int i = 0; i < hashValues.size(); i++) {
       final String hashValue = hashValues.get(i);
       if (hashValue != null) {
-        hashes.put(hashKeys.get(i), hashValue);
+        remoteHashes.put(hashKeys.get(i), hashValue);
       }
     }
 
+    if (localHashes != null) {
+      cacheMetrics.localHashes(prefix, type, hashes.size(), hashKeys.size());
+      localHashes.putAll(remoteHashes);
+    }
+
+    hashes.putAll(remoteHashes);
     return hashes;
   }
 
   private String hashesId(String type) {
     return String.format("%s:%s:hashes", prefix, type);
   }
+
+  private String applicationIndexId(String type) {
+    return String.join(":", prefix, type, "application-index");
+  }
+
+  private String applicationId(String type, String application) {
+    return String.join(":", prefix, type, "application-index", application);
+  }
 }
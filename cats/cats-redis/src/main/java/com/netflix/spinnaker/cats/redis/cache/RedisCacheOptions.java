@@ -36,6 +36,9 @@ public class RedisCacheOptions {
   private final int maxGetBatchSize;
   private final boolean hashingEnabled;
   private final boolean treatRelationshipsAsSet;
+  private final int localHashCacheSize;
+  private final int localHashCacheTtlSeconds;
+  private final boolean applicationIndexEnabled;
 
   private static int posInt(String name, int value) {
     Preconditions.checkArgument(value > 0, "%s must be a positive integer (%s)", name, value);
@@ -62,6 +65,80 @@ public class RedisCacheOptions {
       int maxGetBatchSize,
       boolean hashingEnabled,
       boolean treatRelationshipsAsSet) {
+    this(
+        maxMsetSize,
+        maxMgetSize,
+        maxHmgetSize,
+        maxHmsetSize,
+        maxSaddSize,
+        maxDelSize,
+        maxPipelineSize,
+        scanSize,
+        maxMergeBatchSize,
+        maxEvictBatchSize,
+        maxGetBatchSize,
+        hashingEnabled,
+        treatRelationshipsAsSet,
+        0,
+        Builder.DEFAULT_LOCAL_HASH_CACHE_TTL_SECONDS);
+  }
+
+  public RedisCacheOptions(
+      int maxMsetSize,
+      int maxMgetSize,
+      int maxHmgetSize,
+      int maxHmsetSize,
+      int maxSaddSize,
+      int maxDelSize,
+      int maxPipelineSize,
+      int scanSize,
+      int maxMergeBatchSize,
+      int maxEvictBatchSize,
+      int maxGetBatchSize,
+      boolean hashingEnabled,
+      boolean treatRelationshipsAsSet,
+      int localHashCacheSize,
+      int localHashCacheTtlSeconds) {
+    this(
+        maxMsetSize,
+        maxMgetSize,
+        maxHmgetSize,
+        maxHmsetSize,
+        maxSaddSize,
+        maxDelSize,
+        maxPipelineSize,
+        scanSize,
+        maxMergeBatchSize,
+        maxEvictBatchSize,
+        maxGetBatchSize,
+        hashingEnabled,
+        treatRelationshipsAsSet,
+        localHashCacheSize,
+        localHashCacheTtlSeconds,
+        Builder.DEFAULT_APPLICATION_INDEX_ENABLED);
+  }
+
+  public RedisCacheOptions(
+      int maxMsetSize,
+      int maxMgetSize,
+      int maxHmgetSize,
+      int maxHmsetSize,
+      int maxSaddSize,
+      int maxDelSize,
+      int maxPipelineSize,
+      int scanSize,
+      int maxMergeBatchSize,
+      int maxEvictBatchSize,
+      int maxGetBatchSize,
+      boolean hashingEnabled,
+      boolean treatRelationshipsAsSet,
+      int localHashCacheSize,
+      int localHashCacheTtlSeconds,
+      boolean applicationIndexEnabled) {
+    Preconditions.checkArgument(
+        localHashCacheSize >= 0,
+        "localHashCacheSize must be a non-negative integer (%s)",
+        localHashCacheSize);
     this.maxMsetSize = posEven("maxMsetSize", maxMsetSize);
     this.maxMgetSize = posInt("maxMgetSize", maxMgetSize);
     this.maxHmgetSize = posInt("maxHmgetSize", maxHmgetSize);
@@ -75,6 +152,9 @@ public class RedisCacheOptions {
     this.maxGetBatchSize = posInt("maxGetBatchSize", maxGetBatchSize);
     this.hashingEnabled = hashingEnabled;
     this.treatRelationshipsAsSet = treatRelationshipsAsSet;
+    this.localHashCacheSize = localHashCacheSize;
+    this.localHashCacheTtlSeconds = posInt("localHashCacheTtlSeconds", localHashCacheTtlSeconds);
+    this.applicationIndexEnabled = applicationIndexEnabled;
   }
 
   public int getMaxMsetSize() {
@@ -129,6 +209,41 @@ public class RedisCacheOptions {
     return treatRelationshipsAsSet;
   }
 
+  /**
+   * The maximum number of attribute/relationship hashes retained in-process per cache, or 0 if the
+   * local hash cache is disabled.
+   *
+   * <p>When enabled, hashes of values written (or read back from redis) are remembered locally so
+   * that unchanged items can be skipped without an HMGET round-trip to redis.
+   */
+  public int getLocalHashCacheSize() {
+    return localHashCacheSize;
+  }
+
+  public boolean isLocalHashCacheEnabled() {
+    return hashingEnabled && localHashCacheSize > 0;
+  }
+
+  /**
+   * How long a locally cached hash is trusted before it is re-read from redis. This bounds how long
+   * a write made by another clouddriver instance (e.g. after an agent moves between nodes) can be
+   * masked by a stale local hash.
+   */
+  public int getLocalHashCacheTtlSeconds() {
+    return localHashCacheTtlSeconds;
+  }
+
+  /**
+   * Whether items are indexed by their {@code application} attribute, supporting {@code
+   * getAllByApplication}.
+   *
+   * <p>Items are only indexed as they are written, so the index is incomplete until every caching
+   * agent has run once after it is enabled.
+   */
+  public boolean isApplicationIndexEnabled() {
+    return applicationIndexEnabled;
+  }
+
   public static class Builder {
     public static final int DEFAULT_MULTI_OP_SIZE = 200;
     public static final int DEFAULT_BATCH_SIZE = 200;
@@ -136,6 +251,9 @@ public class RedisCacheOptions {
     public static final int DEFAULT_MAX_PIPELINE_SIZE = 200;
     public static final boolean DEFAULT_HASHING_ENABLED = true;
     public static final boolean DEFAULT_TREAT_RELATIONSHIPS_AS_SET_DISABLED = false;
+    public static final int DEFAULT_LOCAL_HASH_CACHE_SIZE = 0;
+    public static final int DEFAULT_LOCAL_HASH_CACHE_TTL_SECONDS = 600;
+    public static final boolean DEFAULT_APPLICATION_INDEX_ENABLED = false;
 
     int maxMsetSize;
     int maxMgetSize;
@@ -150,6 +268,9 @@ public class RedisCacheOptions {
     int maxGetBatchSize;
     boolean hashingEnabled;
     boolean treatRelationshipsAsSet;
+    int localHashCacheSize;
+    int localHashCacheTtlSeconds;
+    boolean applicationIndexEnabled;
 
     public Builder() {
       batchSize(DEFAULT_BATCH_SIZE);
@@ -158,6 +279,8 @@ public class RedisCacheOptions {
       maxPipeline(DEFAULT_MAX_PIPELINE_SIZE);
       hashing(DEFAULT_HASHING_ENABLED);
       treatRelationshipsAsSet(DEFAULT_TREAT_RELATIONSHIPS_AS_SET_DISABLED);
+      localHashCache(DEFAULT_LOCAL_HASH_CACHE_SIZE, DEFAULT_LOCAL_HASH_CACHE_TTL_SECONDS);
+      applicationIndex(DEFAULT_APPLICATION_INDEX_ENABLED);
     }
 
     public Builder maxMergeBatch(int maxMergeBatch) {
@@ -241,6 +364,17 @@ public class RedisCacheOptions {
       return this;
     }
 
+    public Builder localHashCache(int localHashCacheSize, int localHashCacheTtlSeconds) {
+      this.localHashCacheSize = localHashCacheSize;
+      this.localHashCacheTtlSeconds = localHashCacheTtlSeconds;
+      return this;
+    }
+
+    public Builder applicationIndex(boolean applicationIndexEnabled) {
+      this.applicationIndexEnabled = applicationIndexEnabled;
+      return this;
+    }
+
     public RedisCacheOptions build() {
       return new RedisCacheOptions(
           maxMsetSize,
@@ -255,7 +389,10 @@ public class RedisCacheOptions {
           maxEvictBatchSize,
           maxGetBatchSize,
           hashingEnabled,
-          treatRelationshipsAsSet);
+          treatRelationshipsAsSet,
+          localHashCacheSize,
+          localHashCacheTtlSeconds,
+          applicationIndexEnabled);
     }
 
     public void setBatchSize(int batchSize) {
@@ -369,5 +506,29 @@ public class RedisCacheOptions {
     public void setTreatRelationshipsAsSet(boolean treatRelationshipsAsSet) {
       this.treatRelationshipsAsSet = treatRelationshipsAsSet;
     }
+
+    public int getLocalHashCacheSize() {
+      return localHashCacheSize;
+    }
+
+    public void setLocalHashCacheSize(int localHashCacheSize) {
+      this.localHashCacheSize = localHashCacheSize;
+    }
+
+    public int getLocalHashCacheTtlSeconds() {
+      return localHashCacheTtlSeconds;
+    }
+
+    public void setLocalHashCacheTtlSeconds(int localHashCacheTtlSeconds) {
+      this.localHashCacheTtlSeconds = localHashCacheTtlSeconds;
+    }
+
+    public boolean isApplicationIndexEnabled() {
+      return applicationIndexEnabled;
+    }
+
+    public void setApplicationIndexEnabled(boolean applicationIndexEnabled) {
+      this.applicationIndexEnabled = applicationIndexEnabled;
+    }
   }
 }
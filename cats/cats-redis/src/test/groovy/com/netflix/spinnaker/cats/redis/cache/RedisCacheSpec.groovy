@@ -22,6 +22,7 @@ import com.netflix.spinnaker.cats.cache.Cache
 import com.netflix.spinnaker.cats.cache.DefaultCacheData
 import com.netflix.spinnaker.cats.cache.WriteableCache
 import com.netflix.spinnaker.cats.cache.WriteableCacheSpec
+import com.netflix.spinnaker.cats.compression.GZipCompression
 import com.netflix.spinnaker.cats.redis.cache.RedisCache.CacheMetrics
 import com.netflix.spinnaker.kork.jedis.EmbeddedRedis
 import com.netflix.spinnaker.kork.jedis.JedisClientDelegate
@@ -181,6 +182,72 @@ class RedisCacheSpec extends WriteableCacheSpec {
     1 * cacheMetrics.merge('test', 'foo', 1, 0, 0, 1, 0, 0, 0, 0, 0, 0)
   }
 
+  def 'should compress stored values and read them back'() {
+    setup:
+    def mapper = new ObjectMapper();
+    mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL)
+    def cache = new RedisCache(
+      'test',
+      new JedisClientDelegate(pool),
+      mapper,
+      RedisCacheOptions.builder().maxMset(MAX_MSET_SIZE).build(),
+      cacheMetrics,
+      new GZipCompression(0, true))
+
+    when:
+    cache.merge('foo', createData('blerp', [a: 'b'], [rel1: ['abc']]))
+    def stored = pool.resource.withCloseable { Jedis j -> j.get('test:foo:attributes:blerp') }
+    def item = cache.get('foo', 'blerp')
+
+    then:
+    !stored.startsWith('{')
+    item.attributes.a == 'b'
+    item.relationships.rel1 as List == ['abc']
+  }
+
+  def 'should skip remote hash reads for locally known hashes'() {
+    setup:
+    def mapper = new ObjectMapper();
+    mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL)
+    def cache = new RedisCache(
+      'test',
+      new JedisClientDelegate(pool),
+      mapper,
+      RedisCacheOptions.builder().maxMset(MAX_MSET_SIZE).localHashCache(100, 60).build(),
+      cacheMetrics)
+    def data = createData('blerp', [a: 'b'])
+
+    when:
+    cache.merge('foo', data)
+
+    then:
+    1 * cacheMetrics.localHashes('test', 'foo', 0, 1)
+    1 * cacheMetrics.merge('test', 'foo', 1, 1, 0, 0, 1, 1, 1, 1, 1, 0)
+
+    when:
+    cache.merge('foo', data)
+
+    then:
+    1 * cacheMetrics.localHashes('test', 'foo', 1, 0)
+    1 * cacheMetrics.merge('test', 'foo', 1, 0, 0, 1, 0, 0, 0, 0, 0, 0)
+
+    when:
+    cache.merge('foo', createData('blerp', [a: 'c']))
+
+    then:
+    1 * cacheMetrics.localHashes('test', 'foo', 1, 0)
+    1 * cacheMetrics.merge('test', 'foo', 1, 1, 0, 0, 1, 1, 1, 1, 1, 0)
+    cache.get('foo', 'blerp').attributes == [a: 'c']
+
+    when:
+    cache.evict('foo', 'blerp')
+    cache.merge('foo', createData('blerp', [a: 'c']))
+
+    then:
+    1 * cacheMetrics.localHashes('test', 'foo', 0, 1)
+    1 * cacheMetrics.merge('test', 'foo', 1, 1, 0, 0, 1, 1, 1, 1, 1, 0)
+  }
+
   def 'should merge #mergeCount items at a time'() {
     setup:
     def mapper = new ObjectMapper();
@@ -217,4 +284,90 @@ class RedisCacheSpec extends WriteableCacheSpec {
       this.key2 = key2
     }
   }
+
+  def 'should index items by application'() {
+    setup:
+    def mapper = new ObjectMapper();
+    mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL)
+    def cache = new RedisCache(
+      'test',
+      new JedisClientDelegate(pool),
+      mapper,
+      RedisCacheOptions.builder().maxMset(MAX_MSET_SIZE).applicationIndex(true).build(),
+      cacheMetrics)
+
+    when:
+    cache.mergeAll('clusters', [
+      createData('c1', [application: 'app1'], [serverGroups: ['sg1']]),
+      createData('c2', [application: 'app2'])
+    ])
+
+    then:
+    cache.supportsGetAllByApplication()
+    cache.getAllByApplication('clusters', 'app1').clusters*.id == ['c1']
+    cache.getAllByApplication('clusters', 'app1').clusters.first().relationships.serverGroups as List == ['sg1']
+
+    when: 'an item moves to another application'
+    cache.merge('clusters', createData('c2', [application: 'app1']))
+
+    then:
+    cache.getAllByApplication('clusters', 'app1').clusters*.id.sort() == ['c1', 'c2']
+    cache.getAllByApplication('clusters', 'app2').clusters.isEmpty()
+
+    when:
+    cache.evict('clusters', 'c1')
+
+    then:
+    cache.getAllByApplication(['clusters'], 'app1', [:]).clusters*.id == ['c2']
+  }
+
+  def 'should remove items that expired from the application index'() {
+    setup:
+    def mapper = new ObjectMapper();
+    mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL)
+    def cache = new RedisCache(
+      'test',
+      new JedisClientDelegate(pool),
+      mapper,
+      RedisCacheOptions.builder().maxMset(MAX_MSET_SIZE).applicationIndex(true).build(),
+      cacheMetrics)
+    cache.mergeAll('clusters', [
+      createData('c1', [application: 'app1']),
+      createData('c2', [application: 'app1'])
+    ])
+
+    when: 'an item expires without being evicted'
+    pool.resource.withCloseable { Jedis j -> j.del('test:clusters:attributes:c2') }
+
+    then:
+    cache.getAllByApplication('clusters', 'app1').clusters*.id == ['c1']
+    pool.resource.withCloseable { Jedis j -> j.smembers('test:clusters:application-index:app1') } == ['c1'] as Set
+    pool.resource.withCloseable { Jedis j -> j.hkeys('test:clusters:application-index') } == ['c1'] as Set
+  }
+
+  def 'should not look up the application index for items whose attributes are unchanged'() {
+    setup:
+    def mapper = new ObjectMapper();
+    mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL)
+    def cache = new RedisCache(
+      'test',
+      new JedisClientDelegate(pool),
+      mapper,
+      RedisCacheOptions.builder().maxMset(MAX_MSET_SIZE).applicationIndex(true).build(),
+      cacheMetrics)
+    cache.merge('clusters', createData('c1', [application: 'app1']))
+    pool.resource.withCloseable { Jedis j -> j.hset('test:clusters:application-index', 'c1', 'other') }
+
+    when: 'the same item is merged again'
+    cache.merge('clusters', createData('c1', [application: 'app1']))
+
+    then: 'the index is not consulted, so the planted entry is left alone'
+    pool.resource.withCloseable { Jedis j -> j.hget('test:clusters:application-index', 'c1') } == 'other'
+
+    when: 'the attributes change'
+    cache.merge('clusters', createData('c1', [application: 'app1', name: 'c1']))
+
+    then:
+    pool.resource.withCloseable { Jedis j -> j.hget('test:clusters:application-index', 'c1') } == 'app1'
+  }
 }
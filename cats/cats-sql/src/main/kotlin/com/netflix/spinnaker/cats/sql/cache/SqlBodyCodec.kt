@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.sql.cache
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spinnaker.cats.cache.CacheData
+import com.netflix.spinnaker.cats.cache.DefaultCacheData
+import com.netflix.spinnaker.cats.compression.CompressionStrategy
+import com.netflix.spinnaker.cats.compression.Lz4Compression
+import com.netflix.spinnaker.cats.compression.ZstdCompression
+import com.netflix.spinnaker.config.SqlBodyEncodingProperties
+import java.util.Base64
+
+enum class SqlBodyCompression(val tag: String) {
+  NONE("none"), LZ4("lz4"), ZSTD("zstd");
+
+  companion object {
+    fun fromTag(tag: String): SqlBodyCompression =
+      values().firstOrNull { it.tag == tag } ?: throw IllegalArgumentException("Unknown body compression: $tag")
+  }
+}
+
+/**
+ * Encodes and decodes the `body` column of cats-sql resource tables.
+ *
+ * Bodies are plain JSON unless compression is configured for their type, in which case the JSON is compressed with
+ * the cats [CompressionStrategy] of that name and written as `<compression>:<base64 payload>` (the body column is
+ * text). Bodies starting with `{` are always read as plain JSON, so existing rows remain readable and are re-encoded
+ * as agents next rewrite them.
+ *
+ * Compression shrinks rows and the bytes moved to and from the database, but it does not save CPU: every read still
+ * parses the full JSON, after decoding and decompressing it. A binary format such as Smile or CBOR would only save
+ * CPU if it were stored as bytes, which the text body column cannot hold without a schema migration, so plain JSON
+ * remains the default.
+ */
+class SqlBodyCodec(
+  private val mapper: ObjectMapper,
+  private val properties: SqlBodyEncodingProperties = SqlBodyEncodingProperties()
+) {
+
+  private val lz4 by lazy { Lz4Compression(0, true) }
+  private val zstd by lazy { ZstdCompression(0, true, ZSTD_LEVEL) }
+
+  fun encode(type: String, cacheData: CacheData): String {
+    val compression = properties.compressionFor(type)
+    if (compression == SqlBodyCompression.NONE) {
+      return mapper.writeValueAsString(cacheData)
+    }
+
+    val bytes = strategy(compression).compress(mapper.writeValueAsBytes(cacheData))
+    return "${compression.tag}:${Base64.getEncoder().encodeToString(bytes)}"
+  }
+
+  fun decode(body: String): DefaultCacheData {
+    if (body.startsWith("{")) {
+      return mapper.readValue(body, DefaultCacheData::class.java)
+    }
+
+    val separator = body.indexOf(':')
+    if (separator < 1) {
+      throw IllegalArgumentException("Unrecognized body encoding")
+    }
+
+    val compression = SqlBodyCompression.fromTag(body.substring(0, separator))
+    val bytes = Base64.getDecoder().decode(body.substring(separator + 1))
+    return mapper.readValue(strategy(compression).decompress(bytes), DefaultCacheData::class.java)
+  }
+
+  private fun strategy(compression: SqlBodyCompression): CompressionStrategy {
+    return when (compression) {
+      SqlBodyCompression.NONE -> throw IllegalArgumentException("Bodies without compression are not encoded")
+      SqlBodyCompression.LZ4 -> lz4
+      SqlBodyCompression.ZSTD -> zstd
+    }
+  }
+
+  companion object {
+    private const val ZSTD_LEVEL = 3
+  }
+}
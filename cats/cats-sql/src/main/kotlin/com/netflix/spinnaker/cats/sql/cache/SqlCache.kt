@@ -1,6 +1,6 @@
 package com.netflix.spinnaker.cats.sql.cache
 
-import com.fasterxml.jackson.databind.ObjectMapper
+import com.google.common.hash.HashCode
 import com.netflix.spinnaker.cats.cache.CacheData
 import com.netflix.spinnaker.cats.cache.CacheFilter
 import com.netflix.spinnaker.cats.cache.DefaultCacheData
@@ -22,8 +22,13 @@ import java.sql.SQLSyntaxErrorException
 import java.time.Clock
 import java.time.Duration
 import java.util.Arrays
+import java.util.Spliterator
+import java.util.Spliterators
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.ConcurrentSkipListSet
 import java.util.concurrent.atomic.AtomicInteger
+import java.util.stream.Stream
+import java.util.stream.StreamSupport
 import javax.annotation.PreDestroy
 import kotlin.contracts.ExperimentalContracts
 import kotlin.contracts.contract
@@ -49,14 +54,14 @@ import org.springframework.jdbc.BadSqlGrammarException
 class SqlCache(
   private val name: String,
   private val jooq: DSLContext,
-  private val mapper: ObjectMapper,
   private val coroutineContext: CoroutineContext?,
   private val clock: Clock,
   private val sqlRetryProperties: SqlRetryProperties,
   tableNamespace: String?,
   private val cacheMetrics: SqlCacheMetrics,
   private val dynamicConfigService: DynamicConfigService,
-  private val sqlConstraints: SqlConstraints
+  private val sqlConstraints: SqlConstraints,
+  private val bodyCodec: SqlBodyCodec
 ) : WriteableCache {
 
   companion object {
@@ -73,6 +78,12 @@ class SqlCache(
 
   private var createdTables = ConcurrentSkipListSet<String>()
 
+  /**
+   * Structural and body hashes of the items last stored by each authoritative agent, keyed by "type:agent"
+   * and then by id. Used to skip serializing items that have not changed since the previous cycle.
+   */
+  private val fingerprints = ConcurrentHashMap<String, Map<String, Fingerprint>>()
+
   init {
     log.info("Configured for $name")
   }
@@ -202,6 +213,66 @@ class SqlCache(
     return mergeDataAndRelationships(result.data, result.relPointers, relationshipPrefixes)
   }
 
+  /**
+   * Streams all the items for the specified type a page at a time.
+   *
+   * Ids are read in keyset order (`id > lastId order by id limit n`), and bodies and relationships
+   * are then fetched and merged for that page of ids only, so at most one page of
+   * `sql.cache.read-batch-size` items is held in memory. No connection is held open between pages.
+   *
+   * A page that cannot be read fails the stream, rather than ending it early with some of the items
+   * missing.
+   */
+  override fun streamAll(type: String, cacheFilter: CacheFilter?): Stream<CacheData> {
+    val relationshipPrefixes = getRelationshipFilterPrefixes(cacheFilter)
+    val batchSize = dynamicConfigService.getConfig(Int::class.java, "sql.cache.read-batch-size", 500)
+
+    val items = sequence {
+      var lastId: String? = null
+      while (true) {
+        val page = selectIdPage(type, lastId, batchSize)
+        if (page.isEmpty()) {
+          break
+        }
+        val pageStart = lastId
+        lastId = page.last()
+
+        val ids = page.distinct()
+        val result = if (relationshipPrefixes.isEmpty()) {
+          getDataWithoutRelationships(type, ids)
+        } else {
+          getDataWithRelationships(type, ids, relationshipPrefixes)
+        }
+
+        if (result.selectQueries < 0) {
+          // The cause has already been logged
+          throw IllegalStateException("Failed reading $type items after ${pageStart ?: "the start"}")
+        }
+
+        cacheMetrics.get(
+          prefix = name,
+          type = type,
+          itemCount = result.data.size,
+          requestedSize = ids.size,
+          relationshipsRequested = result.relPointers.size,
+          selectOperations = result.selectQueries + 1,
+          async = result.withAsync
+        )
+
+        yieldAll(mergeDataAndRelationships(result.data, result.relPointers, relationshipPrefixes))
+
+        if (page.size < batchSize) {
+          break
+        }
+      }
+    }
+
+    return StreamSupport.stream(
+      Spliterators.spliteratorUnknownSize(items.iterator(), Spliterator.ORDERED or Spliterator.NONNULL),
+      false
+    )
+  }
+
   /**
    * Retrieves the items for the specified type matching the provided ids
    *
@@ -522,12 +593,21 @@ class SqlCache(
       .asSequence()
       .map { it.id }
       .toSet()
+    val existingHashesById = existingHashIds
+      .asSequence()
+      .map { it.id to it.body_hash }
+      .toMap()
     val currentIds = mutableSetOf<String>() // current ids from the caching agent
     val toStore = mutableListOf<String>() // ids that are new or changed
     val bodies = mutableMapOf<String, String>() // id to body
     val hashes = mutableMapOf<String, String>() // id to sha256(body)
     val apps = mutableMapOf<String, String>()
 
+    val fingerprintKey = "$type:$agent"
+    val useFingerprints = dynamicConfigService.isEnabled("sql.cache.fingerprints", true)
+    val previousFingerprints = if (useFingerprints) fingerprints[fingerprintKey] ?: emptyMap() else emptyMap()
+    val currentFingerprints = mutableMapOf<String, Fingerprint>()
+
     items.filter { it.id.length > sqlConstraints.maxIdLength }
       .forEach {
         log.error("Dropping ${it.id} - character length exceeds MAX_ID_LENGTH ($sqlConstraints.maxIdLength)")
@@ -553,9 +633,26 @@ class SqlCache(
           it.relationships.putAll(normalized)
         }
 
-        val body: String? = mapper.writeValueAsString(it)
+        // an item is unchanged if it is structurally identical to what this agent stored last cycle and that
+        // body is still the one persisted for it, in which case it doesn't need to be serialized again
+        val structuralHash = if (useFingerprints) StructuralHash.of(it) else null
+        val previous = previousFingerprints[it.id]
+        if (structuralHash != null &&
+          previous != null &&
+          previous.structuralHash == structuralHash &&
+          previous.bodyHash == existingHashesById[it.id]
+        ) {
+          currentFingerprints[it.id] = previous
+          return@forEach
+        }
+
+        val body: String? = bodyCodec.encode(type, it)
         val bodyHash = getHash(body)
 
+        if (structuralHash != null && bodyHash != null) {
+          currentFingerprints[it.id] = Fingerprint(structuralHash, bodyHash)
+        }
+
         if (body != null && bodyHash != null && !existingHashes.contains(bodyHash)) {
           toStore.add(it.id)
           bodies[it.id] = body
@@ -645,6 +742,13 @@ class SqlCache(
       }
     }
 
+    if (useFingerprints) {
+      // partial (non-cleanup) writes only cover a subset of the agent's items
+      fingerprints[fingerprintKey] = if (cleanup) currentFingerprints else previousFingerprints + currentFingerprints
+    } else {
+      fingerprints.remove(fingerprintKey)
+    }
+
     if (!cleanup) {
       return result
     }
@@ -970,7 +1074,7 @@ class SqlCache(
               .fetch()
               .getValues(0)
               .asSequence()
-              .map { mapper.readValue(it as String, DefaultCacheData::class.java) }
+              .map { bodyCodec.decode(it as String) }
               .toList()
           )
         }
@@ -1033,7 +1137,7 @@ class SqlCache(
             .fetch()
             .getValues(0)
             .asSequence()
-            .map { mapper.readValue(it as String, DefaultCacheData::class.java) }
+            .map { bodyCodec.decode(it as String) }
             .toList()
         )
       }
@@ -1247,7 +1351,7 @@ class SqlCache(
         .where(field("ID").`in`(*ids.toTypedArray()))
         .fetch()
         .getValues(0)
-        .map { mapper.readValue(it as String, DefaultCacheData::class.java) }
+        .map { bodyCodec.decode(it as String) }
         .toList()
     }
   }
@@ -1286,6 +1390,31 @@ class SqlCache(
     }
   }
 
+  /**
+   * Returns up to [limit] ids (in id order) greater than [afterId]. The result may contain duplicates when an id has
+   * been written by more than one agent.
+   *
+   * The first page is empty if the type's table does not exist, as no items of the type have been cached; any other
+   * failure to read is thrown.
+   */
+  private fun selectIdPage(type: String, afterId: String?, limit: Int): List<String> {
+    return try {
+      withRetry(RetryCategory.READ) {
+        jooq.select(field("id"))
+          .from(table(sqlNames.resourceTableName(type)))
+          .where(if (afterId == null) noCondition() else field("id").gt(afterId))
+          .orderBy(field("id"))
+          .limit(limit)
+          .fetch(field("id"), String::class.java)
+      }
+    } catch (e: Exception) {
+      if (afterId == null && suppressTableNotExistsException(e) == null) {
+        return emptyList()
+      }
+      throw e
+    }
+  }
+
   private fun selectIdentifiers(type: String, ids: List<String>): MutableCollection<String> {
     return withRetry(RetryCategory.READ) {
       jooq.select(field("id"))
@@ -1305,7 +1434,7 @@ class SqlCache(
     while (resultSet.next()) {
       if (!resultSet.getString(1).isNullOrBlank()) {
         try {
-          cacheData.add(mapper.readValue(resultSet.getString(1), DefaultCacheData::class.java))
+          cacheData.add(bodyCodec.decode(resultSet.getString(1)))
         } catch (e: Exception) {
           log.error("Failed to deserialize cached value: type $type, body ${resultSet.getString(1)}", e)
         }
@@ -1523,6 +1652,11 @@ class SqlCache(
     val id: String
   )
 
+  private data class Fingerprint(
+    val structuralHash: HashCode,
+    val bodyHash: String
+  )
+
   data class RelId(
     val uuid: String,
     val id: String,
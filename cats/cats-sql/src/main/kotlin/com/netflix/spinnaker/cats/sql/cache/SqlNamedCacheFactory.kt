@@ -1,6 +1,5 @@
 package com.netflix.spinnaker.cats.sql.cache
 
-import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spinnaker.cats.cache.NamedCacheFactory
 import com.netflix.spinnaker.cats.cache.WriteableCache
 import com.netflix.spinnaker.config.SqlConstraints
@@ -13,14 +12,14 @@ import org.jooq.DSLContext
 
 class SqlNamedCacheFactory(
   private val jooq: DSLContext,
-  private val mapper: ObjectMapper,
   private val dispatcher: CoroutineContext?,
   private val clock: Clock,
   private val sqlRetryProperties: SqlRetryProperties,
   private val prefix: String?,
   private val cacheMetrics: SqlCacheMetrics,
   private val dynamicConfigService: DynamicConfigService,
-  private val sqlConstraints: SqlConstraints
+  private val sqlConstraints: SqlConstraints,
+  private val bodyCodec: SqlBodyCodec
 ) : NamedCacheFactory {
 
   @ExperimentalContracts
@@ -28,14 +27,14 @@ class SqlNamedCacheFactory(
     return SqlCache(
       name,
       jooq,
-      mapper,
       dispatcher,
       clock,
       sqlRetryProperties,
       prefix,
       cacheMetrics,
       dynamicConfigService,
-      sqlConstraints
+      sqlConstraints,
+      bodyCodec
     )
   }
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.sql.cache
+
+import com.google.common.hash.HashCode
+import com.google.common.hash.Hasher
+import com.google.common.hash.Hashing
+import com.netflix.spinnaker.cats.cache.CacheData
+import java.nio.ByteBuffer
+
+/**
+ * Computes a 128-bit hash directly over a [CacheData]'s id, ttl, attributes and relationships, without
+ * serializing it to JSON first.
+ *
+ * Map entries are combined order-independently, so two structurally equal items hash the same regardless
+ * of map iteration order. Only JSON-like values (maps, collections, arrays, strings, numbers, booleans,
+ * enums and nulls) are supported; for anything else `null` is returned and callers should fall back to
+ * serializing the item.
+ */
+object StructuralHash {
+
+  private val hashFunction = Hashing.murmur3_128()
+
+  fun of(cacheData: CacheData): HashCode? {
+    val hasher = hashFunction.newHasher()
+    hasher.putUnencodedChars(cacheData.id)
+    hasher.putInt(cacheData.ttlSeconds)
+    if (!putValue(hasher, cacheData.attributes) || !putValue(hasher, cacheData.relationships)) {
+      return null
+    }
+    return hasher.hash()
+  }
+
+  private fun putValue(hasher: Hasher, value: Any?): Boolean {
+    when (value) {
+      null -> hasher.putByte(0)
+      is String -> hasher.putByte(1).putInt(value.length).putUnencodedChars(value)
+      is Boolean -> hasher.putByte(2).putBoolean(value)
+      is Int, is Long, is Short, is Byte -> hasher.putByte(3).putLong((value as Number).toLong())
+      is Number -> {
+        val str = value.toString()
+        hasher.putByte(4).putInt(str.length).putUnencodedChars(str)
+      }
+      is Enum<*> -> hasher.putByte(5).putInt(value.name.length).putUnencodedChars(value.name)
+      is Map<*, *> -> {
+        var low = 0L
+        var high = 0L
+        for ((k, v) in value) {
+          val entry = hashFunction.newHasher()
+          if (!putValue(entry, k) || !putValue(entry, v)) {
+            return false
+          }
+          val bytes = ByteBuffer.wrap(entry.hash().asBytes())
+          low += bytes.getLong(0)
+          high += bytes.getLong(8)
+        }
+        hasher.putByte(6).putInt(value.size).putLong(low).putLong(high)
+      }
+      is Collection<*> -> {
+        hasher.putByte(7).putInt(value.size)
+        for (v in value) {
+          if (!putValue(hasher, v)) {
+            return false
+          }
+        }
+      }
+      is Array<*> -> {
+        hasher.putByte(7).putInt(value.size)
+        for (v in value) {
+          if (!putValue(hasher, v)) {
+            return false
+          }
+        }
+      }
+      else -> return false
+    }
+    return true
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.config
+
+import com.netflix.spinnaker.cats.sql.cache.SqlBodyCompression
+import org.springframework.boot.context.properties.ConfigurationProperties
+
+@ConfigurationProperties("sql.cache.body-encoding")
+class SqlBodyEncodingProperties {
+  /**
+   * Compression used for types without an override. Defaults to plain JSON; compression trades CPU for smaller rows.
+   */
+  var compression: SqlBodyCompression = SqlBodyCompression.NONE
+
+  /**
+   * Per-type overrides keyed by cache type, e.g. `sql.cache.body-encoding.types[instances]: LZ4`
+   */
+  var types: MutableMap<String, SqlBodyCompression> = mutableMapOf()
+
+  fun compressionFor(type: String): SqlBodyCompression {
+    return types[type] ?: compression
+  }
+}
@@ -13,6 +13,7 @@ import com.netflix.spinnaker.cats.module.CatsModule
 import com.netflix.spinnaker.cats.provider.Provider
 import com.netflix.spinnaker.cats.provider.ProviderRegistry
 import com.netflix.spinnaker.cats.sql.SqlProviderRegistry
+import com.netflix.spinnaker.cats.sql.cache.SqlBodyCodec
 import com.netflix.spinnaker.cats.sql.cache.SpectatorSqlCacheMetrics
 import com.netflix.spinnaker.cats.sql.cache.SqlCacheMetrics
 import com.netflix.spinnaker.cats.sql.cache.SqlCleanupStaleOnDemandCachesAgent
@@ -53,7 +54,7 @@ const val coroutineThreadPrefix = "catsSql"
 @Configuration
 @ConditionalOnProperty("sql.cache.enabled")
 @Import(DefaultSqlConfiguration::class)
-@EnableConfigurationProperties(SqlAgentProperties::class, SqlConstraints::class)
+@EnableConfigurationProperties(SqlAgentProperties::class, SqlConstraints::class, SqlBodyEncodingProperties::class)
 @ComponentScan("com.netflix.spinnaker.cats.sql.controllers")
 class SqlCacheConfiguration {
 
@@ -87,6 +88,10 @@ class SqlCacheConfiguration {
    * sql queries to fetch > 2 * sql.cache.readBatchSize cache keys will be made asynchronously in batches of
    * maxQueryConcurrency size.
    *
+   * sql.cache.bodyEncoding: Optionally stores resource bodies as LZ4 or Zstd compressed JSON instead of plain JSON,
+   * globally or per type, trading CPU for smaller rows. Existing plain JSON bodies remain readable and are re-encoded
+   * as they are rewritten.
+   *
    * sql.tableNamespace: Name spaces data tables, as well as the agent lock table if using the SqlAgentScheduler.
    * Table namespacing allows flipping to new/empty data tables within the same master if necessary to rebuild
    * the cache from scratch, such as after disabling caching agents for an account/region.
@@ -100,6 +105,7 @@ class SqlCacheConfiguration {
     cacheMetrics: SqlCacheMetrics,
     dynamicConfigService: DynamicConfigService,
     sqlConstraints: SqlConstraints,
+    sqlBodyEncodingProperties: SqlBodyEncodingProperties,
     @Value("\${sql.cache.async-pool-size:0}") poolSize: Int,
     @Value("\${sql.table-namespace:#{null}}") tableNamespace: String?
   ): NamedCacheFactory {
@@ -126,14 +132,14 @@ class SqlCacheConfiguration {
 
     return SqlNamedCacheFactory(
       jooq,
-      ObjectMapper(),
       dispatcher,
       clock,
       sqlProperties.retries,
       tableNamespace,
       cacheMetrics,
       dynamicConfigService,
-      sqlConstraints
+      sqlConstraints,
+      SqlBodyCodec(ObjectMapper(), sqlBodyEncodingProperties)
     )
   }
 
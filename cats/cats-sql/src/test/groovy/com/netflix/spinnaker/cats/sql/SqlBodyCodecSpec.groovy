@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.cats.sql
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spinnaker.cats.cache.DefaultCacheData
+import com.netflix.spinnaker.cats.sql.cache.SqlBodyCodec
+import com.netflix.spinnaker.cats.sql.cache.SqlBodyCompression
+import com.netflix.spinnaker.config.SqlBodyEncodingProperties
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class SqlBodyCodecSpec extends Specification {
+
+  def mapper = new ObjectMapper()
+  def data = new DefaultCacheData("blerp", [a: "b", nested: [c: 1]], [foo: ["bar"]])
+
+  @Unroll
+  def 'should round-trip bodies with #compression compression'() {
+    given:
+    def properties = new SqlBodyEncodingProperties()
+    properties.types["instances"] = compression
+    def codec = new SqlBodyCodec(mapper, properties)
+
+    when:
+    def body = codec.encode("instances", data)
+    def decoded = codec.decode(body)
+
+    then:
+    body.startsWith(expectedPrefix)
+    decoded.id == data.id
+    decoded.attributes == data.attributes
+    decoded.relationships == data.relationships
+
+    where:
+    compression                 || expectedPrefix
+    SqlBodyCompression.NONE     || "{"
+    SqlBodyCompression.LZ4      || "lz4:"
+    SqlBodyCompression.ZSTD     || "zstd:"
+  }
+
+  def 'should read legacy json bodies regardless of the configured encoding'() {
+    given:
+    def properties = new SqlBodyEncodingProperties(compression: SqlBodyCompression.LZ4)
+    def codec = new SqlBodyCodec(mapper, properties)
+
+    when:
+    def decoded = codec.decode(mapper.writeValueAsString(data))
+
+    then:
+    decoded.id == data.id
+    decoded.attributes == data.attributes
+    codec.encode("serverGroups", data).startsWith("lz4:")
+  }
+}
@@ -4,8 +4,11 @@ import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spinnaker.cats.cache.Cache
 import com.netflix.spinnaker.cats.cache.RelationshipCacheFilter
 import com.netflix.spinnaker.cats.cache.WriteableCacheSpec
+import com.netflix.spinnaker.cats.sql.cache.SqlBodyCodec
 import com.netflix.spinnaker.cats.sql.cache.SqlCache
 import com.netflix.spinnaker.cats.sql.cache.SqlCacheMetrics
+import com.netflix.spinnaker.cats.sql.cache.SqlNames
+import com.netflix.spinnaker.config.SqlBodyEncodingProperties
 import com.netflix.spinnaker.config.SqlConstraints
 import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService
 import com.netflix.spinnaker.kork.sql.config.RetryProperties
@@ -67,6 +70,27 @@ class SqlCacheSpec extends WriteableCacheSpec {
     1 * ((SqlCache) cache).cacheMetrics.merge('test', 'foo', 1, 0, 0, 0, 1, 0, 0)
   }
 
+  def 'should write an item again once it has changed'() {
+    setup:
+    def data = createData('blerp', [a: 'b'])
+
+    when:
+    ((SqlCache) cache).merge('foo', data)
+    ((SqlCache) cache).merge('foo', data)
+
+    then:
+    1 * ((SqlCache) cache).cacheMetrics.merge('test', 'foo', 1, 1, 0, 0, 1, 1, 0)
+    1 * ((SqlCache) cache).cacheMetrics.merge('test', 'foo', 1, 0, 0, 0, 1, 0, 0)
+
+    when:
+    data.attributes.a = 'c'
+    ((SqlCache) cache).merge('foo', data)
+
+    then:
+    1 * ((SqlCache) cache).cacheMetrics.merge('test', 'foo', 1, 1, 0, 0, 1, 1, 0)
+    ((SqlCache) cache).get('foo', 'blerp').attributes.a == 'c'
+  }
+
   def 'all items are stored and retrieved when larger than sql chunk sizes'() {
     given:
     def data = (1..10).collect { createData("fnord-$it") }
@@ -80,6 +104,23 @@ class SqlCacheSpec extends WriteableCacheSpec {
     retrieved.findAll { it.id == "fnord-5" }.size() == 1
   }
 
+  def 'streamAll fails rather than ends early when a page cannot be read'() {
+    given:
+    ((SqlCache) cache).mergeAll('foo', (1..5).collect { createData("fnord-$it") })
+    def items = ((SqlCache) cache).streamAll('foo', null).iterator()
+    // reads the first page of two items
+    items.next()
+    context.dropTable(new SqlNames("test").resourceTableName('foo')).execute()
+
+    when:
+    while (items.hasNext()) {
+      items.next()
+    }
+
+    then:
+    thrown(Exception)
+  }
+
   @Unroll
   def 'generates where clause based on cacheFilters'() {
     when:
@@ -106,6 +147,7 @@ class SqlCacheSpec extends WriteableCacheSpec {
 
     def dynamicConfigService = Mock(DynamicConfigService) {
       getConfig(_ as Class, _ as String, _) >> 2
+      isEnabled(_ as String, _) >> true
     }
 
     SqlTestUtil.TestDatabase testDatabase = SqlTestUtil.initTcMysqlDatabase()
@@ -115,14 +157,14 @@ class SqlCacheSpec extends WriteableCacheSpec {
     return new SqlCache(
       "test",
       context,
-      mapper,
       null,
       clock,
       sqlRetryProperties,
       "test",
       Mock(SqlCacheMetrics),
       dynamicConfigService,
-      new SqlConstraints()
+      new SqlConstraints(),
+      new SqlBodyCodec(mapper, new SqlBodyEncodingProperties())
     )
   }
 
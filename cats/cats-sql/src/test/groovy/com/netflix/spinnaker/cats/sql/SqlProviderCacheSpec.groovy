@@ -9,7 +9,9 @@ import com.netflix.spinnaker.cats.cache.RelationshipCacheFilter
 import com.netflix.spinnaker.cats.cache.WriteableCache
 import com.netflix.spinnaker.cats.provider.ProviderCacheSpec
 import com.netflix.spinnaker.cats.sql.cache.SpectatorSqlCacheMetrics
+import com.netflix.spinnaker.cats.sql.cache.SqlBodyCodec
 import com.netflix.spinnaker.cats.sql.cache.SqlCache
+import com.netflix.spinnaker.config.SqlBodyEncodingProperties
 import com.netflix.spinnaker.config.SqlConstraints
 import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService
 import com.netflix.spinnaker.kork.sql.config.RetryProperties
@@ -62,14 +64,14 @@ class SqlProviderCacheSpec extends ProviderCacheSpec {
     backingStore = new SqlCache(
       "test",
       context,
-      mapper,
       null,
       clock,
       sqlRetryProperties,
       "test",
       sqlMetrics,
       dynamicConfigService,
-      new SqlConstraints()
+      new SqlConstraints(),
+      new SqlBodyCodec(mapper, new SqlBodyEncodingProperties())
     )
 
     return new SqlProviderCache(backingStore)
@@ -20,6 +20,8 @@ import spock.lang.Specification
 import spock.lang.Subject
 import spock.lang.Unroll
 
+import java.util.stream.Collectors
+
 abstract class CacheSpec extends Specification {
 
     @Subject
@@ -56,6 +58,25 @@ abstract class CacheSpec extends Specification {
         cache.getAll('foo').first().id == 'bar'
     }
 
+    def 'streamAll behaviour'() {
+        setup:
+        populateOne('foo', 'bar', createData('bar', [bar: "bar"], [rel1: ["rel1"]]))
+        populateOne('foo', 'baz')
+
+        when:
+        def results = cache.streamAll('foo').withCloseable { it.collect(Collectors.toList()) }
+
+        then:
+        results*.id.sort() == ['bar', 'baz']
+        results.find { it.id == 'bar' }.relationships.keySet() == ["rel1"] as Set
+
+        and:
+        cache.streamAll('foo', RelationshipCacheFilter.none()).withCloseable {
+            it.collect(Collectors.toList())
+        }.find { it.id == 'bar' }.relationships.isEmpty()
+        cache.streamAll('doesntexist').withCloseable { it.count() } == 0
+    }
+
     def 'identifiers behaviour'() {
         setup:
         populateOne('foo', 'bar')
@@ -17,20 +17,34 @@
 
 package com.netflix.spinnaker.clouddriver.artifacts;
 
+import com.netflix.spinnaker.clouddriver.artifacts.cache.ArtifactCache;
+import com.netflix.spinnaker.clouddriver.artifacts.config.ArtifactCredentials;
 import com.netflix.spinnaker.kork.artifacts.model.Artifact;
 import java.io.IOException;
 import java.io.InputStream;
-import lombok.RequiredArgsConstructor;
+import java.util.Optional;
+import javax.annotation.Nullable;
 import org.springframework.stereotype.Component;
 
 @Component
-@RequiredArgsConstructor
 public class ArtifactDownloader {
   private final ArtifactCredentialsRepository artifactCredentialsRepository;
+  @Nullable private final ArtifactCache artifactCache;
+
+  public ArtifactDownloader(
+      ArtifactCredentialsRepository artifactCredentialsRepository,
+      Optional<ArtifactCache> artifactCache) {
+    this.artifactCredentialsRepository = artifactCredentialsRepository;
+    this.artifactCache = artifactCache.orElse(null);
+  }
 
   public InputStream download(Artifact artifact) throws IOException {
-    return artifactCredentialsRepository
-        .getCredentials(artifact.getArtifactAccount(), artifact.getType())
-        .download(artifact);
+    ArtifactCredentials credentials =
+        artifactCredentialsRepository.getCredentials(
+            artifact.getArtifactAccount(), artifact.getType());
+    if (artifactCache != null && credentials.isImmutable(artifact)) {
+      return artifactCache.download(credentials, artifact);
+    }
+    return credentials.download(artifact);
   }
 }
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.artifacts.cache;
+
+import com.netflix.spinnaker.clouddriver.artifacts.config.ArtifactCredentials;
+import com.netflix.spinnaker.kork.artifacts.model.Artifact;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Keeps the contents of immutable artifacts (see {@link ArtifactCredentials#isImmutable}) on local
+ * disk, so that an artifact that is downloaded again is read from disk instead of from the remote.
+ *
+ * <p>Contents are stored once by their SHA-256 digest, however many accounts or references they
+ * are downloaded with, and each downloaded artifact refers to the contents it was downloaded with.
+ * Concurrent downloads of an artifact that is not cached download it once.
+ *
+ * <p>The least recently used contents are evicted while all of them together are larger than the
+ * maximum size. Contents that are being read when they are evicted can still be read to the end.
+ */
+@Slf4j
+public final class ArtifactCache {
+  private final Path objects;
+  private final Path refs;
+  private final Path tmp;
+  private final long maxSizeBytes;
+  private final Clock clock;
+  private final ConcurrentMap<String, CompletableFuture<Path>> downloads =
+      new ConcurrentHashMap<>();
+
+  public ArtifactCache(Path directory, long maxSizeBytes) throws IOException {
+    this(directory, maxSizeBytes, Clock.systemUTC());
+  }
+
+  ArtifactCache(Path directory, long maxSizeBytes, Clock clock) throws IOException {
+    this.objects = directory.resolve("objects");
+    this.refs = directory.resolve("refs");
+    this.tmp = directory.resolve("tmp");
+    this.maxSizeBytes = maxSizeBytes;
+    this.clock = clock;
+
+    Files.createDirectories(objects);
+    Files.createDirectories(refs);
+    // Left behind by downloads that did not finish
+    FileUtils.deleteDirectory(tmp.toFile());
+    Files.createDirectories(tmp);
+  }
+
+  /**
+   * Returns the contents of {@code artifact} from disk, first downloading them with {@code
+   * credentials} unless they are already cached.
+   *
+   * <p>Only artifacts that {@code credentials} consider immutable should be downloaded through the
+   * cache, as an artifact that is cached is never downloaded again.
+   */
+  public InputStream download(ArtifactCredentials credentials, Artifact artifact)
+      throws IOException {
+    String key = key(credentials, artifact);
+    InputStream cached = open(key);
+    if (cached != null) {
+      return cached;
+    }
+
+    CompletableFuture<Path> download = new CompletableFuture<>();
+    CompletableFuture<Path> existing = downloads.putIfAbsent(key, download);
+    Path object;
+    if (existing != null) {
+      object = join(existing);
+    } else {
+      try {
+        object = store(key, credentials, artifact);
+        download.complete(object);
+      } catch (IOException | RuntimeException e) {
+        download.completeExceptionally(e);
+        throw e;
+      } finally {
+        downloads.remove(key, download);
+      }
+    }
+
+    try {
+      return Files.newInputStream(object);
+    } catch (NoSuchFileException e) {
+      // Evicted as soon as it was downloaded, which only happens if the cache is too small for it
+      return credentials.download(artifact);
+    } finally {
+      evictQuietly();
+    }
+  }
+
+  private InputStream open(String key) throws IOException {
+    Path ref = refs.resolve(key);
+    String digest;
+    try {
+      digest = new String(Files.readAllBytes(ref), StandardCharsets.UTF_8);
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+
+    Path object = objects.resolve(digest);
+    try {
+      InputStream inputStream = Files.newInputStream(object);
+      Files.setLastModifiedTime(object, FileTime.from(clock.instant()));
+      return inputStream;
+    } catch (NoSuchFileException e) {
+      // The contents were evicted
+      Files.deleteIfExists(ref);
+      return null;
+    }
+  }
+
+  private Path store(String key, ArtifactCredentials credentials, Artifact artifact)
+      throws IOException {
+    Path download = Files.createTempFile(tmp, "download", null);
+    try {
+      MessageDigest digest = sha256();
+      try (InputStream inputStream = credentials.download(artifact);
+          OutputStream outputStream =
+              new DigestOutputStream(Files.newOutputStream(download), digest)) {
+        IOUtils.copy(inputStream, outputStream);
+      }
+
+      Path object = objects.resolve(hex(digest.digest()));
+      if (!touch(object)) {
+        // Not stored yet, or evicted since it was last read
+        move(download, object);
+        touch(object);
+      }
+
+      Path ref = Files.createTempFile(tmp, "ref", null);
+      Files.write(ref, object.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+      move(ref, refs.resolve(key));
+
+      log.info("Cached {} artifact {} as {}", artifact.getType(), artifact.getReference(), object);
+      return object;
+    } finally {
+      Files.deleteIfExists(download);
+    }
+  }
+
+  /** Marks {@code object} as recently used, returning false if it is not stored. */
+  private boolean touch(Path object) throws IOException {
+    try {
+      Files.setLastModifiedTime(object, FileTime.from(clock.instant()));
+      return true;
+    } catch (NoSuchFileException e) {
+      return false;
+    }
+  }
+
+  private static void move(Path source, Path target) throws IOException {
+    try {
+      Files.move(
+          source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      try {
+        Files.move(source, target);
+      } catch (FileAlreadyExistsException alreadyExists) {
+        // Stored by a concurrent download, which is just as good
+      }
+    }
+  }
+
+  private static Path join(CompletableFuture<Path> download) throws IOException {
+    try {
+      return download.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private void evictQuietly() {
+    try {
+      evict();
+    } catch (IOException | RuntimeException e) {
+      log.warn("Failed to evict artifacts from {}", objects, e);
+    }
+  }
+
+  private synchronized void evict() throws IOException {
+    File[] files = objects.toFile().listFiles(File::isFile);
+    if (files == null) {
+      return;
+    }
+
+    List<File> sortedFiles =
+        Arrays.stream(files)
+            .sorted(Comparator.comparingLong(File::lastModified))
+            .collect(Collectors.toList());
+    long totalSize = sortedFiles.stream().mapToLong(File::length).sum();
+    for (File file : sortedFiles) {
+      if (totalSize <= maxSizeBytes) {
+        break;
+      }
+
+      long size = file.length();
+      log.info("Evicting cached artifact {}", file);
+      if (Files.deleteIfExists(file.toPath())) {
+        totalSize -= size;
+      }
+    }
+  }
+
+  /** The key of the artifact, which identifies its contents as long as it is immutable. */
+  private static String key(ArtifactCredentials credentials, Artifact artifact) {
+    String key =
+        String.join(
+            "\n",
+            artifact.getType(),
+            credentials.getName(),
+            Objects.toString(artifact.getReference(), ""),
+            Objects.toString(artifact.getVersion(), ""));
+    return hex(sha256().digest(key.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String hex(byte[] bytes) {
+    StringBuilder hex = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+    }
+    return hex.toString();
+  }
+}
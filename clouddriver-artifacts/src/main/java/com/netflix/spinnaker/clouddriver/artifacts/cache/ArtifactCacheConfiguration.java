@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.artifacts.cache;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty("artifacts.cache.enabled")
+@EnableConfigurationProperties(ArtifactCacheProperties.class)
+@RequiredArgsConstructor
+class ArtifactCacheConfiguration {
+  private final ArtifactCacheProperties artifactCacheProperties;
+
+  @Bean
+  ArtifactCache artifactCache() throws IOException {
+    return new ArtifactCache(
+        Paths.get(artifactCacheProperties.getDirectory()),
+        artifactCacheProperties.getMaxSizeMb() * 1024 * 1024);
+  }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017 Netflix, Inc.
+ * Copyright 2020 Netflix, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -13,14 +13,20 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package com.netflix.spinnaker.clouddriver.cache;
 
+package com.netflix.spinnaker.clouddriver.artifacts.cache;
+
+import java.nio.file.Paths;
+import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
-@ConfigurationProperties("caching.gzip")
-public class GZipCompressionStrategyProperties {
+@Data
+@ConfigurationProperties("artifacts.cache")
+final class ArtifactCacheProperties {
+  /** Whether to keep immutable artifacts on disk instead of downloading them for every use. */
+  private boolean enabled;
 
-  boolean enabled = true;
-  boolean compressEnabled = true;
-  long thresholdBytesSize = 1024;
+  private String directory =
+      Paths.get(System.getProperty("java.io.tmpdir"), "artifact-cache").toString();
+  private long maxSizeMb = 10240;
 }
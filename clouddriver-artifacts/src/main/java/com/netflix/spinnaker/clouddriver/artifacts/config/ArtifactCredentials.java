@@ -56,6 +56,15 @@ public interface ArtifactCredentials {
             + "' account handles");
   }
 
+  /**
+   * Whether {@code artifact} always refers to the same contents, such as a specific generation of
+   * an object, so that the {@link com.netflix.spinnaker.clouddriver.artifacts.ArtifactDownloader}
+   * can keep them rather than download them again.
+   */
+  default boolean isImmutable(Artifact artifact) {
+    return false;
+  }
+
   default boolean handlesType(String type) {
     return getTypes().stream().anyMatch(it -> it.equals(type));
   }
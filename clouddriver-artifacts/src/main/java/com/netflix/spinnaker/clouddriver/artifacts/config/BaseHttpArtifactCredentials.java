@@ -73,9 +73,7 @@ public abstract class BaseHttpArtifactCredentials<T extends ArtifactAccount> {
   }
 
   protected ResponseBody fetchUrl(HttpUrl url) throws IOException {
-    Request request = new Request.Builder().headers(headers).url(url).build();
-
-    Response downloadResponse = okHttpClient.newCall(request).execute();
+    Response downloadResponse = executeRequest(url, Headers.of());
     if (!downloadResponse.isSuccessful()) {
       downloadResponse.body().close();
       throw new IOException(
@@ -83,4 +81,16 @@ public abstract class BaseHttpArtifactCredentials<T extends ArtifactAccount> {
     }
     return downloadResponse.body();
   }
+
+  /**
+   * Requests {@code url} with the account's credentials and {@code extraHeaders}, returning the
+   * response whatever its status. The caller must close the response's body.
+   */
+  protected Response executeRequest(HttpUrl url, Headers extraHeaders) throws IOException {
+    Request.Builder request = new Request.Builder().headers(headers).url(url);
+    for (String name : extraHeaders.names()) {
+      request.header(name, extraHeaders.get(name));
+    }
+    return okHttpClient.newCall(request.build()).execute();
+  }
 }
@@ -77,6 +77,14 @@ final class GcsArtifactCredentials implements ArtifactCredentials {
             .build();
   }
 
+  /** Only objects referred to by generation, as {@code gs://<bucket>/<file-path>#<generation>}. */
+  @Override
+  public boolean isImmutable(Artifact artifact) {
+    String reference = artifact.getReference();
+    int pound = reference != null ? reference.lastIndexOf("#") : -1;
+    return pound >= 0 && StringUtils.isNumeric(reference.substring(pound + 1));
+  }
+
   public InputStream download(Artifact artifact) throws IOException {
     String reference = artifact.getReference();
     Long generation = null;
@@ -16,6 +16,7 @@
 
 package com.netflix.spinnaker.clouddriver.artifacts.gitRepo;
 
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -36,11 +37,21 @@ class GitRepoArtifactConfiguration {
 
   @Bean
   List<? extends GitRepoArtifactCredentials> gitRepoArtifactCredentials() {
+    GitRepoArtifactProviderProperties.CloneCache cloneCache =
+        gitRepoArtifactProviderProperties.getCloneCache();
+    GitRepoMirrorCache mirrorCache =
+        cloneCache.isEnabled()
+            ? new GitRepoMirrorCache(
+                Paths.get(cloneCache.getDirectory()),
+                cloneCache.getMaxSizeMb() * 1024 * 1024,
+                cloneCache.getRetention())
+            : null;
+
     return gitRepoArtifactProviderProperties.getAccounts().stream()
         .map(
             a -> {
               try {
-                return new GitRepoArtifactCredentials(a);
+                return new GitRepoArtifactCredentials(a, mirrorCache);
               } catch (Exception e) {
                 return null;
               }
@@ -33,13 +33,14 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import javax.annotation.Nullable;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.jgit.api.ArchiveCommand;
-import org.eclipse.jgit.api.CloneCommand;
 import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.TransportCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.archive.TgzFormat;
 import org.eclipse.jgit.transport.JschConfigSessionFactory;
@@ -63,6 +64,7 @@ final class GitRepoArtifactCredentials implements ArtifactCredentials {
   private final String sshKnownHostsFilePath;
   private final boolean sshTrustUnknownHosts;
   private final AuthType authType;
+  @Nullable private final GitRepoMirrorCache mirrorCache;
 
   private enum AuthType {
     HTTP,
@@ -72,6 +74,16 @@ final class GitRepoArtifactCredentials implements ArtifactCredentials {
   }
 
   public GitRepoArtifactCredentials(GitRepoArtifactAccount account) {
+    this(account, null);
+  }
+
+  /**
+   * @param mirrorCache the mirrors to download artifacts from, or null to clone the repository for
+   *     every download
+   */
+  public GitRepoArtifactCredentials(
+      GitRepoArtifactAccount account, @Nullable GitRepoMirrorCache mirrorCache) {
+    this.mirrorCache = mirrorCache;
     this.name = account.getName();
     this.username = account.getUsername();
     this.password = account.getPassword();
@@ -110,6 +122,10 @@ final class GitRepoArtifactCredentials implements ArtifactCredentials {
               + authType);
     }
 
+    if (mirrorCache != null) {
+      return downloadFromMirror(repoReference, subPath, remoteRef);
+    }
+
     try (Closeable ignored = () -> FileUtils.deleteDirectory(stagingPath.toFile())) {
       log.info("Cloning git/repo {} into {}", repoReference, stagingPath.toString());
       Git localRepository = clone(artifact, stagingPath, remoteRef);
@@ -123,6 +139,20 @@ final class GitRepoArtifactCredentials implements ArtifactCredentials {
     }
   }
 
+  private InputStream downloadFromMirror(String repoReference, String subPath, String remoteRef)
+      throws IOException {
+    try (GitRepoMirrorCache.Mirror mirror =
+        mirrorCache.open(name, repoReference, remoteRef, this::addAuthentication)) {
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      log.info("Creating archive for git/repo {}", repoReference);
+      archiveToOutputStream(mirror.getGit(), outputStream, remoteRef, subPath);
+      return new ByteArrayInputStream(outputStream.toByteArray());
+    } catch (GitAPIException e) {
+      throw new IOException(
+          "Failed to fetch or archive git/repo " + repoReference + ": " + e.getMessage());
+    }
+  }
+
   private Git clone(Artifact artifact, Path stagingPath, String remoteRef) throws GitAPIException {
     // TODO(ethanfrogers): add support for clone history depth once jgit supports it
 
@@ -165,22 +195,21 @@ final class GitRepoArtifactCredentials implements ArtifactCredentials {
     return !StringUtils.isEmpty(artifact.getVersion()) ? artifact.getVersion() : "master";
   }
 
-  private CloneCommand addAuthentication(CloneCommand cloneCommand) {
+  private <C extends TransportCommand<C, ?>> C addAuthentication(C command) {
     switch (authType) {
       case HTTP:
-        return cloneCommand.setCredentialsProvider(
+        return command.setCredentialsProvider(
             new UsernamePasswordCredentialsProvider(username, password));
       case TOKEN:
-        return cloneCommand.setCredentialsProvider(
-            new UsernamePasswordCredentialsProvider(token, ""));
+        return command.setCredentialsProvider(new UsernamePasswordCredentialsProvider(token, ""));
       case SSH:
-        return configureSshAuth(cloneCommand);
+        return configureSshAuth(command);
       default:
-        return cloneCommand;
+        return command;
     }
   }
 
-  private CloneCommand configureSshAuth(CloneCommand cloneCommand) {
+  private <C extends TransportCommand<C, ?>> C configureSshAuth(C command) {
     SshSessionFactory sshSessionFactory =
         new JschConfigSessionFactory() {
           @Override
@@ -212,7 +241,7 @@ final class GitRepoArtifactCredentials implements ArtifactCredentials {
           }
         };
 
-    return cloneCommand.setTransportConfigCallback(
+    return command.setTransportConfigCallback(
         (Transport transport) -> {
           SshTransport sshTransport = (SshTransport) transport;
           sshTransport.setSshSessionFactory(sshSessionFactory);
@@ -17,6 +17,8 @@
 package com.netflix.spinnaker.clouddriver.artifacts.gitRepo;
 
 import com.netflix.spinnaker.clouddriver.artifacts.config.ArtifactProvider;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.Data;
@@ -27,4 +29,17 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 final class GitRepoArtifactProviderProperties implements ArtifactProvider<GitRepoArtifactAccount> {
   private boolean enabled;
   private List<GitRepoArtifactAccount> accounts = new ArrayList<>();
+  private CloneCache cloneCache = new CloneCache();
+
+  @Data
+  static class CloneCache {
+    /** Whether to keep repositories between downloads instead of cloning them for every one. */
+    private boolean enabled;
+
+    private String directory =
+        Paths.get(System.getProperty("java.io.tmpdir"), "gitrepo-mirrors").toString();
+    private long maxSizeMb = 4096;
+    /** How long a repository that is not downloaded from is kept. */
+    private Duration retention = Duration.ofHours(12);
+  }
 }
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.artifacts.gitRepo;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.FetchCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.RefSpec;
+
+/**
+ * Keeps a bare mirror of each git/repo repository on local disk between downloads, so that a
+ * download only fetches what changed in the repository since the previous one rather than cloning
+ * all of it again.
+ *
+ * <p>Mirrors are keyed by account as well as by repository URL, so that every download is
+ * authorized by the remote with the credentials of the account it is made with. A mirror is
+ * updated under an exclusive lock and read under a shared one. A download that waited for the lock
+ * while another download fetched does not fetch again, as that fetch started after it was
+ * requested, so concurrent downloads of a repository fetch it once and then archive from it
+ * together.
+ *
+ * <p>Mirrors that have not been used for longer than the retention are evicted, as are the least
+ * recently used mirrors while all of them together are larger than the maximum size. The size of
+ * each mirror is measured after it is fetched into. Mirrors in use are never evicted.
+ */
+@Slf4j
+final class GitRepoMirrorCache {
+  private static final RefSpec[] MIRROR_REF_SPECS = {
+    new RefSpec("+refs/heads/*:refs/heads/*"), new RefSpec("+refs/tags/*:refs/tags/*")
+  };
+
+  private final Path directory;
+  private final long maxSizeBytes;
+  private final Duration retention;
+  private final Clock clock;
+  private final ConcurrentMap<Path, MirrorState> states = new ConcurrentHashMap<>();
+
+  GitRepoMirrorCache(Path directory, long maxSizeBytes, Duration retention) {
+    this(directory, maxSizeBytes, retention, Clock.systemUTC());
+  }
+
+  GitRepoMirrorCache(Path directory, long maxSizeBytes, Duration retention, Clock clock) {
+    this.directory = directory;
+    this.maxSizeBytes = maxSizeBytes;
+    this.retention = retention;
+    this.clock = clock;
+  }
+
+  /**
+   * Opens the mirror of {@code repoUrl} for {@code account}, first fetching the repository's
+   * branches and tags into it unless {@code ref} is a commit that the mirror already has, or a
+   * fetch that started after this call has completed while it waited for the mirror.
+   *
+   * @param authentication configures the fetch with the credentials of the account
+   * @return the mirror, which cannot be updated or evicted until it is closed
+   */
+  Mirror open(
+      String account, String repoUrl, String ref, UnaryOperator<FetchCommand> authentication)
+      throws GitAPIException, IOException {
+    Path path = mirrorPath(account, repoUrl);
+    MirrorState state = state(path);
+    long request = state.requests.incrementAndGet();
+
+    Git git;
+    state.lock.writeLock().lock();
+    try {
+      git = update(path, state, request, repoUrl, ref, authentication);
+      // Downgrade, so that no other download updates the mirror while it is being read
+      state.lock.readLock().lock();
+    } finally {
+      state.lock.writeLock().unlock();
+    }
+
+    try {
+      evict();
+    } catch (IOException | RuntimeException e) {
+      log.warn("Failed to evict git/repo mirrors from {}", directory, e);
+    }
+    return new Mirror(git, state.lock.readLock());
+  }
+
+  /** Updates the mirror, which must be locked for writing. */
+  private Git update(
+      Path path,
+      MirrorState state,
+      long request,
+      String repoUrl,
+      String ref,
+      UnaryOperator<FetchCommand> authentication)
+      throws GitAPIException, IOException {
+    Git git = openOrInit(path, state);
+    try {
+      // There is nothing to fetch if a fetch that started after this download was requested has
+      // completed since, or for a commit the mirror already has, as commits never change
+      boolean alreadyFetched = request <= state.fetched;
+      if (!alreadyFetched && (!ObjectId.isId(ref) || !hasCommit(git.getRepository(), ref))) {
+        long requested = state.requests.get();
+        log.info("Fetching git/repo {} into {}", repoUrl, path);
+        authentication
+            .apply(git.fetch())
+            .setRemote(repoUrl)
+            .setRefSpecs(MIRROR_REF_SPECS)
+            .setRemoveDeletedRefs(true)
+            .call();
+        state.fetched = requested;
+        state.sizeBytes = FileUtils.sizeOfDirectory(path.toFile());
+      }
+      Files.setLastModifiedTime(path, FileTime.from(clock.instant()));
+      return git;
+    } catch (GitAPIException | IOException | RuntimeException e) {
+      git.close();
+      throw e;
+    }
+  }
+
+  private Git openOrInit(Path path, MirrorState state) throws GitAPIException, IOException {
+    if (Files.isDirectory(path)) {
+      try {
+        return Git.open(path.toFile());
+      } catch (IOException e) {
+        log.warn("Replacing unreadable git/repo mirror {}", path, e);
+        FileUtils.deleteDirectory(path.toFile());
+      }
+    }
+    // Nothing has been fetched into the new mirror yet
+    state.fetched = 0;
+    return Git.init().setBare(true).setDirectory(path.toFile()).call();
+  }
+
+  private static boolean hasCommit(Repository repository, String ref) {
+    try (RevWalk walk = new RevWalk(repository)) {
+      walk.parseCommit(ObjectId.fromString(ref));
+      return true;
+    } catch (IOException e) {
+      // The mirror does not have the object, or it is not a commit
+      return false;
+    }
+  }
+
+  private synchronized void evict() throws IOException {
+    File[] files = directory.toFile().listFiles(File::isDirectory);
+    if (files == null) {
+      return;
+    }
+
+    List<File> mirrors =
+        Arrays.stream(files)
+            .sorted(Comparator.comparingLong(File::lastModified))
+            .collect(Collectors.toList());
+    long totalSize = 0;
+    for (File mirror : mirrors) {
+      totalSize += size(mirror);
+    }
+
+    Instant expiry = clock.instant().minus(retention);
+    for (File mirror : mirrors) {
+      boolean expired = Instant.ofEpochMilli(mirror.lastModified()).isBefore(expiry);
+      if (!expired && totalSize <= maxSizeBytes) {
+        break;
+      }
+
+      long size = size(mirror);
+      if (delete(directory.resolve(mirror.getName()))) {
+        totalSize -= size;
+      }
+    }
+  }
+
+  /** Returns the size of the mirror, measuring it only if it has not been fetched into yet. */
+  private long size(File mirror) {
+    MirrorState state = state(directory.resolve(mirror.getName()));
+    long size = state.sizeBytes;
+    if (size < 0) {
+      // Left behind by a previous process
+      size = FileUtils.sizeOfDirectory(mirror);
+      state.sizeBytes = size;
+    }
+    return size;
+  }
+
+  private boolean delete(Path path) throws IOException {
+    MirrorState state = state(path);
+    Lock writeLock = state.lock.writeLock();
+    if (!writeLock.tryLock()) {
+      // In use, or being updated
+      return false;
+    }
+
+    try {
+      log.info("Evicting git/repo mirror {}", path);
+      FileUtils.deleteDirectory(path.toFile());
+      state.fetched = 0;
+      state.sizeBytes = -1;
+      return true;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private Path mirrorPath(String account, String repoUrl) {
+    byte[] key = (account + "\n" + repoUrl).getBytes(StandardCharsets.UTF_8);
+    return directory.resolve(UUID.nameUUIDFromBytes(key).toString());
+  }
+
+  private MirrorState state(Path path) {
+    return states.computeIfAbsent(path, p -> new MirrorState());
+  }
+
+  private static final class MirrorState {
+    final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Numbers the downloads of the mirror in the order they are requested. */
+    final AtomicLong requests = new AtomicLong();
+
+    /**
+     * The last download requested before the most recent fetch started, so that it and every
+     * download before it have been served by that fetch. Guarded by the write lock.
+     */
+    long fetched;
+
+    /** The size of the mirror on disk, or -1 if it has not been measured. */
+    volatile long sizeBytes = -1;
+  }
+
+  /** A mirror opened for reading, which must be closed by the thread that opened it. */
+  static final class Mirror implements Closeable {
+    @Getter private final Git git;
+    private final Lock readLock;
+
+    private Mirror(Git git, Lock readLock) {
+      this.git = git;
+      this.readLock = readLock;
+    }
+
+    @Override
+    public void close() {
+      try {
+        git.close();
+      } finally {
+        readLock.unlock();
+      }
+    }
+  }
+}
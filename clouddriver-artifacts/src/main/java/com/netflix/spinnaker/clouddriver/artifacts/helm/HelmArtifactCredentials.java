@@ -23,12 +23,18 @@ import com.netflix.spinnaker.clouddriver.artifacts.config.BaseHttpArtifactCreden
 import com.netflix.spinnaker.clouddriver.artifacts.exceptions.FailedDownloadException;
 import com.netflix.spinnaker.kork.artifacts.model.Artifact;
 import com.netflix.spinnaker.kork.web.exceptions.NotFoundException;
+import com.squareup.okhttp.Headers;
 import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Response;
 import com.squareup.okhttp.ResponseBody;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.annotation.Nullable;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -40,6 +46,11 @@ final class HelmArtifactCredentials extends BaseHttpArtifactCredentials<HelmArti
 
   @JsonIgnore private final IndexParser indexParser;
 
+  /** The index as of the last time it was read, and the validators to revalidate it with. */
+  @JsonIgnore private volatile CachedIndex cachedIndex;
+  /** The revalidation of the index in progress, if any, which concurrent readers share. */
+  @JsonIgnore private CompletableFuture<HelmIndex> revalidation;
+
   HelmArtifactCredentials(HelmArtifactAccount account, OkHttpClient okHttpClient) {
     super(okHttpClient, account);
     this.name = account.getName();
@@ -48,7 +59,7 @@ final class HelmArtifactCredentials extends BaseHttpArtifactCredentials<HelmArti
 
   @Override
   public InputStream download(Artifact artifact) throws IOException {
-    InputStream index = downloadIndex();
+    HelmIndex index = getIndex();
 
     List<String> urls = indexParser.findUrls(index, artifact.getName(), artifact.getVersion());
     ResponseBody downloadResponse;
@@ -64,36 +75,116 @@ final class HelmArtifactCredentials extends BaseHttpArtifactCredentials<HelmArti
   }
 
   public List<String> getArtifactNames() {
-    InputStream index;
-    List<String> names;
+    HelmIndex index;
     try {
-      index = downloadIndex();
-      names = indexParser.findNames(index);
+      index = getIndex();
     } catch (IOException e) {
       throw new NotFoundException("Failed to download chart names for '" + name + "' account");
     }
-    return names;
+    return index.getNames();
   }
 
   public List<String> getArtifactVersions(String artifactName) {
-    InputStream index;
-    List<String> versions;
+    HelmIndex index;
     try {
-      index = downloadIndex();
-      versions = indexParser.findVersions(index, artifactName);
+      index = getIndex();
     } catch (IOException e) {
       throw new NotFoundException("Failed to download chart versions for '" + name + "' account");
     }
-    return versions;
+    return index.getVersions(artifactName);
+  }
+
+  /**
+   * Returns the repository's index, only downloading and parsing it again if the repository says
+   * it has changed since it was last read. Callers that ask for the index while it is being
+   * revalidated wait for that revalidation rather than starting another.
+   */
+  private HelmIndex getIndex() throws IOException {
+    CompletableFuture<HelmIndex> result;
+    boolean revalidate = false;
+    synchronized (this) {
+      if (revalidation == null) {
+        revalidation = new CompletableFuture<>();
+        revalidate = true;
+      }
+      result = revalidation;
+    }
+
+    if (revalidate) {
+      try {
+        result.complete(revalidateIndex());
+      } catch (IOException | RuntimeException e) {
+        result.completeExceptionally(e);
+      } finally {
+        synchronized (this) {
+          revalidation = null;
+        }
+      }
+    }
+
+    try {
+      return result.join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw e;
+    }
   }
 
-  private InputStream downloadIndex() throws IOException {
+  private HelmIndex revalidateIndex() throws IOException {
+    CachedIndex cached = cachedIndex;
+    Headers.Builder validators = new Headers.Builder();
+    if (cached != null && cached.etag != null) {
+      validators.set("If-None-Match", cached.etag);
+    }
+    if (cached != null && cached.lastModified != null) {
+      validators.set("If-Modified-Since", cached.lastModified);
+    }
+
+    Response response;
     try {
-      ResponseBody indexDownloadResponse = fetchUrl(indexParser.indexPath());
-      return indexDownloadResponse.byteStream();
+      response = executeRequest(parseUrl(indexParser.indexPath()), validators.build());
     } catch (IOException e) {
-      throw new FailedDownloadException(
-          "Failed to download index.yaml file in '" + indexParser.getRepository() + "' repository");
+      throw failedIndexDownload();
+    }
+
+    try (ResponseBody body = response.body()) {
+      if (response.code() == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+        return cached.index;
+      }
+      if (!response.isSuccessful()) {
+        throw failedIndexDownload();
+      }
+
+      HelmIndex index = indexParser.parse(body.byteStream());
+      String etag = response.header("ETag");
+      String lastModified = response.header("Last-Modified");
+      // Only keep an index that can be revalidated, as any other has to be downloaded every time
+      cachedIndex =
+          etag != null || lastModified != null ? new CachedIndex(index, etag, lastModified) : null;
+      return index;
+    }
+  }
+
+  private FailedDownloadException failedIndexDownload() {
+    return new FailedDownloadException(
+        "Failed to download index.yaml file in '" + indexParser.getRepository() + "' repository");
+  }
+
+  private static final class CachedIndex {
+    private final HelmIndex index;
+    @Nullable private final String etag;
+    @Nullable private final String lastModified;
+
+    private CachedIndex(HelmIndex index, String etag, String lastModified) {
+      this.index = index;
+      this.etag = etag;
+      this.lastModified = lastModified;
     }
   }
 }
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.artifacts.helm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * The charts of a Helm repository's index, looked up by name and version, so that an index that
+ * is read once can answer any number of lookups without going through its entries again.
+ */
+final class HelmIndex {
+  private final Map<String, Map<String, List<String>>> urlsByVersionByName;
+
+  HelmIndex(IndexConfig indexConfig) {
+    Map<String, Map<String, List<String>>> urlsByVersionByName = new LinkedHashMap<>();
+    if (indexConfig.getEntries() != null) {
+      indexConfig
+          .getEntries()
+          .forEach(
+              (name, entries) -> {
+                Map<String, List<String>> urlsByVersion = new LinkedHashMap<>();
+                for (EntryConfig entry : entries) {
+                  if (entry != null && entry.getVersion() != null) {
+                    List<String> urls =
+                        urlsByVersion.computeIfAbsent(entry.getVersion(), v -> new ArrayList<>());
+                    if (entry.getUrls() != null) {
+                      urls.addAll(entry.getUrls());
+                    }
+                  }
+                }
+                urlsByVersionByName.put(name, urlsByVersion);
+              });
+    }
+    this.urlsByVersionByName = urlsByVersionByName;
+  }
+
+  List<String> getNames() {
+    return new ArrayList<>(urlsByVersionByName.keySet());
+  }
+
+  List<String> getVersions(String name) {
+    return new ArrayList<>(getUrlsByVersion(name).keySet());
+  }
+
+  /**
+   * @param version the version of the chart, or blank for its latest version
+   * @return the URLs of the chart as they are in the index, which may be relative to the
+   *     repository
+   */
+  List<String> getUrls(String name, String version) {
+    Map<String, List<String>> urlsByVersion = getUrlsByVersion(name);
+    String validVersion =
+        StringUtils.isBlank(version) ? latestVersion(urlsByVersion.keySet()) : version;
+    List<String> urls = urlsByVersion.getOrDefault(validVersion, Collections.emptyList());
+    if (urls.isEmpty()) {
+      throw new IllegalArgumentException(
+          "Could not find correct entry with artifact version " + validVersion);
+    }
+    return Collections.unmodifiableList(urls);
+  }
+
+  private Map<String, List<String>> getUrlsByVersion(String name) {
+    if (name == null || name.isEmpty()) {
+      throw new IllegalArgumentException("Artifact name field should not be empty");
+    }
+    Map<String, List<String>> urlsByVersion = urlsByVersionByName.get(name);
+    if (urlsByVersion == null || urlsByVersion.isEmpty()) {
+      throw new IllegalArgumentException("Could not find correct entry with artifact name " + name);
+    }
+    return urlsByVersion;
+  }
+
+  /**
+   * Resolves the latest of {@code versions} as Helm does: the highest release by semantic version
+   * precedence, or the highest pre-release if there are no releases. Versions that are not
+   * semantic versions are only compared, as strings, if no version is.
+   */
+  static String latestVersion(Collection<String> versions) {
+    List<ChartVersion> chartVersions =
+        versions.stream()
+            .map(ChartVersion::parse)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    if (chartVersions.isEmpty()) {
+      return versions.stream().max(Comparator.naturalOrder()).orElse(null);
+    }
+
+    return chartVersions.stream()
+        .max(
+            Comparator.comparing((ChartVersion v) -> !v.isPreRelease())
+                .thenComparing(Comparator.naturalOrder()))
+        .map(ChartVersion::toString)
+        .orElse(null);
+  }
+
+  /** A semantic version, as chart versions are required to be. */
+  static final class ChartVersion implements Comparable<ChartVersion> {
+    private static final Pattern PATTERN =
+        Pattern.compile(
+            "v?(\\d+)(?:\\.(\\d+))?(?:\\.(\\d+))?"
+                + "(?:-([0-9A-Za-z-]+(?:\\.[0-9A-Za-z-]+)*))?"
+                + "(?:\\+[0-9A-Za-z-]+(?:\\.[0-9A-Za-z-]+)*)?");
+    private static final Pattern NUMERIC = Pattern.compile("\\d+");
+
+    private final String version;
+    private final long[] release;
+    private final String[] preRelease;
+
+    private ChartVersion(String version, long[] release, String[] preRelease) {
+      this.version = version;
+      this.release = release;
+      this.preRelease = preRelease;
+    }
+
+    /** @return the version, or null if {@code version} is not a semantic version */
+    static ChartVersion parse(String version) {
+      if (version == null) {
+        return null;
+      }
+      Matcher matcher = PATTERN.matcher(version);
+      if (!matcher.matches()) {
+        return null;
+      }
+
+      try {
+        long[] release = new long[3];
+        for (int i = 0; i < release.length; i++) {
+          String part = matcher.group(i + 1);
+          release[i] = part != null ? Long.parseLong(part) : 0;
+        }
+        String preRelease = matcher.group(4);
+        return new ChartVersion(
+            version, release, preRelease != null ? preRelease.split("\\.") : new String[0]);
+      } catch (NumberFormatException e) {
+        // Too large to be a version anyone uses
+        return null;
+      }
+    }
+
+    boolean isPreRelease() {
+      return preRelease.length > 0;
+    }
+
+    @Override
+    public int compareTo(ChartVersion other) {
+      for (int i = 0; i < release.length; i++) {
+        int result = Long.compare(release[i], other.release[i]);
+        if (result != 0) {
+          return result;
+        }
+      }
+
+      // A release has higher precedence than its pre-releases
+      if (!isPreRelease() || !other.isPreRelease()) {
+        return Boolean.compare(!isPreRelease(), !other.isPreRelease());
+      }
+      for (int i = 0; i < Math.min(preRelease.length, other.preRelease.length); i++) {
+        int result = compareIdentifiers(preRelease[i], other.preRelease[i]);
+        if (result != 0) {
+          return result;
+        }
+      }
+      return Integer.compare(preRelease.length, other.preRelease.length);
+    }
+
+    private static int compareIdentifiers(String a, String b) {
+      boolean aNumeric = NUMERIC.matcher(a).matches();
+      boolean bNumeric = NUMERIC.matcher(b).matches();
+      if (aNumeric && bNumeric) {
+        // Compare by length first, so that identifiers of any size compare numerically
+        String aDigits = StringUtils.stripStart(a, "0");
+        String bDigits = StringUtils.stripStart(b, "0");
+        int result = Integer.compare(aDigits.length(), bDigits.length());
+        return result != 0 ? result : aDigits.compareTo(bDigits);
+      }
+      if (aNumeric != bNumeric) {
+        // Numeric identifiers have lower precedence than alphanumeric ones
+        return aNumeric ? -1 : 1;
+      }
+      return a.compareTo(b);
+    }
+
+    @Override
+    public String toString() {
+      return version;
+    }
+  }
+}
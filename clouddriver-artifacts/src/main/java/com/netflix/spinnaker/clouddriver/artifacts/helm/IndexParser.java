@@ -23,18 +23,17 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 
 @Slf4j
 @Data
 public class IndexParser {
+  private static final ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+
   private String repository;
 
   public IndexParser(String repository) {
@@ -46,27 +45,29 @@ public class IndexParser {
   }
 
   public List<String> findNames(InputStream in) throws IOException {
-    IndexConfig indexConfig = buildIndexConfig(in);
-    return new ArrayList<>(indexConfig.getEntries().keySet());
+    return parse(in).getNames();
   }
 
   public List<String> findVersions(InputStream in, String name) throws IOException {
-    if (name == null || name.isEmpty()) {
-      throw new IllegalArgumentException("Artifact name field should not be empty");
-    }
-    List<EntryConfig> configs = buildEntryConfigsByName(buildIndexConfig(in), name);
-    List<String> versions = new ArrayList<>();
-    configs.forEach(e -> versions.add(e.getVersion()));
-    return versions;
+    return parse(in).getVersions(name);
   }
 
   public List<String> findUrls(InputStream in, String name, String version) throws IOException {
-    if (name == null || name.isEmpty()) {
-      throw new IllegalArgumentException("Artifact name field should not be empty");
+    return findUrls(parse(in), name, version);
+  }
+
+  List<String> findUrls(HelmIndex index, String name, String version) {
+    return resolveReferenceUrls(index.getUrls(name, version));
+  }
+
+  HelmIndex parse(InputStream in) throws IOException {
+    IndexConfig indexConfig;
+    try {
+      indexConfig = mapper.readValue(in, IndexConfig.class);
+    } catch (IOException e) {
+      throw new IOException("Invalid index.yaml file in repository " + repository);
     }
-    List<EntryConfig> configs = buildEntryConfigsByName(buildIndexConfig(in), name);
-    String validVersion = StringUtils.isBlank(version) ? findLatestVersion(configs) : version;
-    return resolveReferenceUrls(findUrlsByVersion(configs, validVersion));
+    return new HelmIndex(indexConfig);
   }
 
   private List<String> resolveReferenceUrls(List<String> urls) {
@@ -88,44 +89,6 @@ public class IndexParser {
     }
     return resolvedRef;
   }
-
-  private List<String> findUrlsByVersion(List<EntryConfig> configs, String version) {
-    List<String> urls = new ArrayList<>();
-    configs.forEach(
-        e -> {
-          if (e.getVersion().equals(version)) {
-            urls.addAll(e.getUrls());
-          }
-        });
-    if (urls.isEmpty()) {
-      throw new IllegalArgumentException(
-          "Could not find correct entry with artifact version " + version);
-    }
-    return urls;
-  }
-
-  private String findLatestVersion(List<EntryConfig> configs) {
-    return configs.stream().max(Comparator.comparing(EntryConfig::getVersion)).get().getVersion();
-  }
-
-  private IndexConfig buildIndexConfig(InputStream in) throws IOException {
-    ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-    IndexConfig indexConfig;
-    try {
-      indexConfig = mapper.readValue(in, IndexConfig.class);
-    } catch (IOException e) {
-      throw new IOException("Invalid index.yaml file in repository " + repository);
-    }
-    return indexConfig;
-  }
-
-  private List<EntryConfig> buildEntryConfigsByName(IndexConfig indexConfig, String name) {
-    List<EntryConfig> configs = indexConfig.getEntries().get(name);
-    if (configs == null || configs.isEmpty()) {
-      throw new IllegalArgumentException("Could not find correct entry with artifact name " + name);
-    }
-    return configs;
-  }
 }
 
 @Data
@@ -122,6 +122,27 @@ public final class MavenArtifactCredentials implements ArtifactCredentials {
     }
   }
 
+  /** Only release versions, which Maven repositories do not let be deployed again. */
+  @Override
+  public boolean isImmutable(Artifact artifact) {
+    if (artifact.getReference() == null) {
+      return false;
+    }
+
+    String version;
+    try {
+      version = new DefaultArtifact(artifact.getReference()).getVersion();
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    return !version.endsWith(SNAPSHOT)
+        && !version.startsWith("[")
+        && !version.startsWith("(")
+        && !LATEST.equals(version)
+        && !RELEASE.equals(version)
+        && !version.startsWith("latest.");
+  }
+
   public Optional<String> resolveArtifactName(Artifact artifact) {
     try {
       final DefaultArtifact aetherArtifact = new DefaultArtifact(artifact.getReference());
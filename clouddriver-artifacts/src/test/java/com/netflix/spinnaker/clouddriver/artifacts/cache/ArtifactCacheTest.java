@@ -0,0 +1,163 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.artifacts.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.netflix.spinnaker.clouddriver.artifacts.config.ArtifactCredentials;
+import com.netflix.spinnaker.kork.artifacts.model.Artifact;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
+
+@ExtendWith(TempDirectory.class)
+class ArtifactCacheTest {
+  private static final long MAX_SIZE = 1024 * 1024;
+
+  @Test
+  void downloadsArtifactsOnce(@TempDirectory.TempDir Path tempDir) throws IOException {
+    ArtifactCache cache = new ArtifactCache(tempDir, MAX_SIZE);
+    FakeArtifactCredentials credentials = new FakeArtifactCredentials("contents");
+    Artifact artifact = artifact("gs://bucket/file#1");
+
+    assertThat(read(cache.download(credentials, artifact))).isEqualTo("contents");
+    assertThat(read(cache.download(credentials, artifact))).isEqualTo("contents");
+
+    assertThat(credentials.downloads).hasValue(1);
+  }
+
+  @Test
+  void downloadsConcurrentMissesOnce(@TempDirectory.TempDir Path tempDir) throws Exception {
+    ArtifactCache cache = new ArtifactCache(tempDir, MAX_SIZE);
+    CountDownLatch release = new CountDownLatch(1);
+    FakeArtifactCredentials credentials = new FakeArtifactCredentials("contents", release);
+    Artifact artifact = artifact("gs://bucket/file#1");
+
+    FutureTask<String> first = new FutureTask<>(() -> read(cache.download(credentials, artifact)));
+    new Thread(first).start();
+    credentials.started.await();
+
+    FutureTask<String> second = new FutureTask<>(() -> read(cache.download(credentials, artifact)));
+    Thread secondThread = new Thread(second);
+    secondThread.start();
+    // Waiting for the first download to finish
+    while (secondThread.getState() != Thread.State.WAITING && !second.isDone()) {
+      Thread.sleep(10);
+    }
+    release.countDown();
+
+    assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("contents");
+    assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo("contents");
+    assertThat(credentials.downloads).hasValue(1);
+  }
+
+  @Test
+  void storesTheSameContentsOnce(@TempDirectory.TempDir Path tempDir) throws IOException {
+    ArtifactCache cache = new ArtifactCache(tempDir, MAX_SIZE);
+    FakeArtifactCredentials credentials = new FakeArtifactCredentials("contents");
+
+    read(cache.download(credentials, artifact("gs://bucket/file#1")));
+    read(cache.download(credentials, artifact("gs://bucket/copy#1")));
+
+    assertThat(credentials.downloads).hasValue(2);
+    assertThat(tempDir.resolve("objects").toFile().list()).hasSize(1);
+    assertThat(tempDir.resolve("refs").toFile().list()).hasSize(2);
+  }
+
+  @Test
+  void evictsContentsOverTheMaximumSize(@TempDirectory.TempDir Path tempDir) throws IOException {
+    ArtifactCache cache = new ArtifactCache(tempDir, "contents".length());
+    FakeArtifactCredentials credentials = new FakeArtifactCredentials("contents");
+    FakeArtifactCredentials otherCredentials = new FakeArtifactCredentials("other contents");
+    Artifact artifact = artifact("gs://bucket/file#1");
+
+    read(cache.download(credentials, artifact));
+    // Larger than the cache, so evicted as soon as it is read
+    assertThat(read(cache.download(otherCredentials, artifact("gs://bucket/other#1"))))
+        .isEqualTo("other contents");
+    assertThat(read(cache.download(credentials, artifact))).isEqualTo("contents");
+
+    assertThat(credentials.downloads).hasValue(2);
+    assertThat(tempDir.resolve("objects").toFile().list()).hasSize(1);
+  }
+
+  private static Artifact artifact(String reference) {
+    return Artifact.builder()
+        .type("gcs/object")
+        .artifactAccount("my-gcs-account")
+        .reference(reference)
+        .build();
+  }
+
+  private static String read(InputStream inputStream) throws IOException {
+    try (InputStream in = inputStream) {
+      return new String(IOUtils.toByteArray(in), StandardCharsets.UTF_8);
+    }
+  }
+
+  private static final class FakeArtifactCredentials implements ArtifactCredentials {
+    private final String contents;
+    private final CountDownLatch release;
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final AtomicInteger downloads = new AtomicInteger();
+
+    FakeArtifactCredentials(String contents) {
+      this(contents, new CountDownLatch(0));
+    }
+
+    FakeArtifactCredentials(String contents, CountDownLatch release) {
+      this.contents = contents;
+      this.release = release;
+    }
+
+    @Override
+    public String getName() {
+      return "my-gcs-account";
+    }
+
+    @Override
+    public List<String> getTypes() {
+      return Collections.singletonList("gcs/object");
+    }
+
+    @Override
+    public InputStream download(Artifact artifact) throws IOException {
+      downloads.incrementAndGet();
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException();
+      }
+      return new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+}
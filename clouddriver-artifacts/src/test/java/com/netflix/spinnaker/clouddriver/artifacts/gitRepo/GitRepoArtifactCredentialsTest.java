@@ -0,0 +1,204 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.artifacts.gitRepo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.netflix.spinnaker.kork.artifacts.model.Artifact;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.eclipse.jgit.api.FetchCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.TempDirectory;
+
+@ExtendWith(TempDirectory.class)
+class GitRepoArtifactCredentialsTest {
+  private static final long MAX_SIZE = 1024 * 1024 * 1024;
+
+  @Test
+  void downloadsChangesToTheBranchFromTheMirror(@TempDirectory.TempDir Path tempDir)
+      throws GitAPIException, IOException {
+    Path origin = tempDir.resolve("origin");
+    Path mirrors = tempDir.resolve("mirrors");
+    GitRepoArtifactCredentials credentials =
+        credentials(new GitRepoMirrorCache(mirrors, MAX_SIZE, Duration.ofHours(1)));
+
+    try (Git git = Git.init().setDirectory(origin.toFile()).call()) {
+      commit(git, "manifest.yml", "replicas: 1");
+      assertThat(download(credentials, origin, "master")).contains("replicas: 1");
+
+      commit(git, "manifest.yml", "replicas: 2");
+      assertThat(download(credentials, origin, "master")).contains("replicas: 2");
+    }
+
+    assertThat(mirrors.toFile().list()).hasSize(1);
+  }
+
+  @Test
+  void downloadsCommitsTheMirrorHasWithoutFetching(@TempDirectory.TempDir Path tempDir)
+      throws GitAPIException, IOException {
+    Path origin = tempDir.resolve("origin");
+    GitRepoArtifactCredentials credentials =
+        credentials(
+            new GitRepoMirrorCache(tempDir.resolve("mirrors"), MAX_SIZE, Duration.ofHours(1)));
+
+    RevCommit commit;
+    try (Git git = Git.init().setDirectory(origin.toFile()).call()) {
+      commit = commit(git, "manifest.yml", "replicas: 1");
+    }
+    download(credentials, origin, "master");
+    FileUtils.deleteDirectory(origin.toFile());
+
+    assertThat(download(credentials, origin, commit.getName())).contains("replicas: 1");
+  }
+
+  @Test
+  void evictsMirrorsNotUsedWithinTheRetention(@TempDirectory.TempDir Path tempDir)
+      throws GitAPIException, IOException {
+    Path mirrors = tempDir.resolve("mirrors");
+    GitRepoMirrorCache cache = new GitRepoMirrorCache(mirrors, MAX_SIZE, Duration.ofHours(1));
+    Path first = repository(tempDir.resolve("first"));
+    Path second = repository(tempDir.resolve("second"));
+
+    open(cache, first).close();
+    File firstMirror = mirrors.toFile().listFiles()[0];
+    Files.setLastModifiedTime(
+        firstMirror.toPath(), FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+    open(cache, second).close();
+
+    assertThat(mirrors.toFile().listFiles()).hasSize(1).doesNotContain(firstMirror);
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedMirrorsOverTheMaximumSize(@TempDirectory.TempDir Path tempDir)
+      throws GitAPIException, IOException {
+    Path mirrors = tempDir.resolve("mirrors");
+    GitRepoMirrorCache cache = new GitRepoMirrorCache(mirrors, 0, Duration.ofHours(1));
+    Path first = repository(tempDir.resolve("first"));
+    Path second = repository(tempDir.resolve("second"));
+
+    try (GitRepoMirrorCache.Mirror mirror = open(cache, first)) {
+      // Mirrors in use are kept whatever their size
+      assertThat(mirrors.toFile().listFiles()).hasSize(1);
+    }
+    File firstMirror = mirrors.toFile().listFiles()[0];
+    open(cache, second).close();
+
+    assertThat(mirrors.toFile().listFiles()).hasSize(1).doesNotContain(firstMirror);
+  }
+
+  @Test
+  void fetchesOnceForDownloadsThatWaitedForTheSameFetch(@TempDirectory.TempDir Path tempDir)
+      throws Exception {
+    GitRepoMirrorCache cache =
+        new GitRepoMirrorCache(tempDir.resolve("mirrors"), MAX_SIZE, Duration.ofHours(1));
+    Path repository = repository(tempDir.resolve("origin"));
+    AtomicInteger fetches = new AtomicInteger();
+    UnaryOperator<FetchCommand> countFetches =
+        fetch -> {
+          fetches.incrementAndGet();
+          return fetch;
+        };
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    try (GitRepoMirrorCache.Mirror mirror = open(cache, repository, countFetches)) {
+      // Both downloads are requested while the mirror is being read, so neither can fetch yet
+      for (int i = 0; i < 2; i++) {
+        executor.submit(
+            () -> {
+              open(cache, repository, countFetches).close();
+              return null;
+            });
+      }
+      Thread.sleep(200);
+    } finally {
+      executor.shutdown();
+    }
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(fetches.get()).isEqualTo(2);
+
+    open(cache, repository, countFetches).close();
+    assertThat(fetches.get()).isEqualTo(3);
+  }
+
+  private static GitRepoArtifactCredentials credentials(GitRepoMirrorCache mirrorCache) {
+    GitRepoArtifactAccount account = new GitRepoArtifactAccount();
+    account.setName("my-git-repo-account");
+    return new GitRepoArtifactCredentials(account, mirrorCache);
+  }
+
+  private static Path repository(Path path) throws GitAPIException, IOException {
+    try (Git git = Git.init().setDirectory(path.toFile()).call()) {
+      commit(git, "manifest.yml", "replicas: 1");
+    }
+    return path;
+  }
+
+  private static RevCommit commit(Git git, String file, String contents)
+      throws GitAPIException, IOException {
+    Path path = git.getRepository().getWorkTree().toPath().resolve(file);
+    Files.write(path, contents.getBytes(StandardCharsets.UTF_8));
+    git.add().addFilepattern(file).call();
+    return git.commit().setMessage("Update " + file).call();
+  }
+
+  private static GitRepoMirrorCache.Mirror open(GitRepoMirrorCache cache, Path repository)
+      throws GitAPIException, IOException {
+    return open(cache, repository, UnaryOperator.identity());
+  }
+
+  private static GitRepoMirrorCache.Mirror open(
+      GitRepoMirrorCache cache, Path repository, UnaryOperator<FetchCommand> authentication)
+      throws GitAPIException, IOException {
+    return cache.open(
+        "my-git-repo-account", repository.toUri().toString(), "master", authentication);
+  }
+
+  /** Returns the uncompressed archive, in which the files' contents appear as they are. */
+  private static String download(
+      GitRepoArtifactCredentials credentials, Path repository, String version)
+      throws IOException {
+    Artifact artifact =
+        Artifact.builder()
+            .type("git/repo")
+            .reference(repository.toUri().toString())
+            .version(version)
+            .build();
+    try (InputStream archive = new GZIPInputStream(credentials.download(artifact))) {
+      return new String(IOUtils.toByteArray(archive), StandardCharsets.UTF_8);
+    }
+  }
+}
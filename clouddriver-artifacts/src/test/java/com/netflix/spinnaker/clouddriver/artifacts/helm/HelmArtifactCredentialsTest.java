@@ -82,6 +82,34 @@ class HelmArtifactCredentialsTest {
     runTestCase(server, account, m -> m.withHeader("Authorization", absent()));
   }
 
+  @Test
+  void revalidatesCachedIndex(@WiremockResolver.Wiremock WireMockServer server) throws IOException {
+    HelmArtifactAccount account = new HelmArtifactAccount();
+    account.setRepository(server.baseUrl() + "/" + REPOSITORY);
+    account.setName("my-helm-account");
+    HelmArtifactCredentials credentials = new HelmArtifactCredentials(account, okHttpClient);
+
+    final String indexPath = "/" + REPOSITORY + "/index.yaml";
+    final String etag = "\"index-1\"";
+    server.stubFor(
+        any(urlPathEqualTo(indexPath))
+            .willReturn(
+                aResponse()
+                    .withHeader("ETag", etag)
+                    .withBody(objectMapper.writeValueAsString(getIndexConfig(server.baseUrl())))));
+    server.stubFor(
+        any(urlPathEqualTo(indexPath))
+            .withHeader("If-None-Match", equalTo(etag))
+            .willReturn(aResponse().withStatus(304)));
+
+    assertThat(credentials.getArtifactNames()).containsExactly(CHART_NAME);
+    assertThat(credentials.getArtifactVersions(CHART_NAME)).containsExactly(CHART_VERSION);
+
+    server.verify(1, getRequestedFor(urlPathEqualTo(indexPath)).withoutHeader("If-None-Match"));
+    server.verify(
+        1, getRequestedFor(urlPathEqualTo(indexPath)).withHeader("If-None-Match", equalTo(etag)));
+  }
+
   private void runTestCase(
       WireMockServer server,
       HelmArtifactAccount account,
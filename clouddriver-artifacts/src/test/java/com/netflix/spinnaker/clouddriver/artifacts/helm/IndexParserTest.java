@@ -89,4 +89,63 @@ public class IndexParserTest {
               "http://localhost/test/test-chart1-0.0.1.tgz");
     }
   }
+
+  @Test
+  public void findUrlsShouldResolveTheLatestVersionBySemanticVersion() throws IOException {
+    IndexParser parser = new IndexParser("http://localhost/test/");
+
+    String indexYaml =
+        buildIndexYaml(
+            "test-chart1", Arrays.asList("0.9.0", "0.10.0", "0.10.1-rc.1", "v0.2.0", "not-semver"));
+    try (InputStream is = new ByteArrayInputStream(indexYaml.getBytes())) {
+      List<String> actualUrls = parser.findUrls(is, "test-chart1", null);
+      assertThat(actualUrls).containsOnly("http://localhost/test/test-chart1-0.10.0.tgz");
+    }
+  }
+
+  @Test
+  public void findUrlsShouldResolveTheLatestPreReleaseIfThereAreNoReleases() throws IOException {
+    IndexParser parser = new IndexParser("http://localhost/test/");
+
+    String indexYaml =
+        buildIndexYaml(
+            "test-chart1", Arrays.asList("1.0.0-rc.9", "1.0.0-rc.10", "1.0.0-beta", "0.1.0-rc.1"));
+    try (InputStream is = new ByteArrayInputStream(indexYaml.getBytes())) {
+      List<String> actualUrls = parser.findUrls(is, "test-chart1", "");
+      assertThat(actualUrls).containsOnly("http://localhost/test/test-chart1-1.0.0-rc.10.tgz");
+    }
+  }
+
+  @Test
+  public void findVersionsShouldListVersionsInIndexOrder() throws IOException {
+    IndexParser parser = new IndexParser("http://localhost/test/");
+
+    String indexYaml = buildIndexYaml("test-chart1", Arrays.asList("0.2.0", "0.10.0", "0.1.0"));
+    try (InputStream is = new ByteArrayInputStream(indexYaml.getBytes())) {
+      assertThat(parser.findVersions(is, "test-chart1"))
+          .containsExactly("0.2.0", "0.10.0", "0.1.0");
+    }
+  }
+
+  private String buildIndexYaml(String chartName, List<String> versions) {
+    StringBuilder indexYamlBuilder =
+        new StringBuilder().append("---\n").append("apiVersion: '1.0'\n").append("entries:\n");
+    indexYamlBuilder.append("  ").append(chartName).append(":\n");
+    for (String version : versions) {
+      indexYamlBuilder
+          .append("  - name: ")
+          .append(chartName)
+          .append("\n")
+          .append("    version: ")
+          .append(version)
+          .append("\n")
+          .append("    urls:\n")
+          .append("    - ")
+          .append(chartName)
+          .append("-")
+          .append(version)
+          .append(".tgz\n");
+    }
+    return indexYamlBuilder.toString();
+  }
 }
@@ -155,6 +155,27 @@ class MavenArtifactCredentialsTest {
     assertResolvable(server, "(,2.0]", "2.0");
   }
 
+  @Test
+  void onlyReleaseVersionsAreImmutable() {
+    MavenArtifactAccount account = new MavenArtifactAccount();
+    account.setRepositoryUrl("https://repo.example.com");
+    MavenArtifactCredentials credentials =
+        new MavenArtifactCredentials(account, new OkHttpClient());
+
+    assertThat(credentials.isImmutable(artifact("1.1"))).isTrue();
+    assertThat(credentials.isImmutable(artifact("1.1-SNAPSHOT"))).isFalse();
+    assertThat(credentials.isImmutable(artifact("SNAPSHOT"))).isFalse();
+    assertThat(credentials.isImmutable(artifact("RELEASE"))).isFalse();
+    assertThat(credentials.isImmutable(artifact("LATEST"))).isFalse();
+    assertThat(credentials.isImmutable(artifact("latest.release"))).isFalse();
+    assertThat(credentials.isImmutable(artifact("[1.0,2.0)"))).isFalse();
+    assertThat(credentials.isImmutable(artifact("(,2.0]"))).isFalse();
+  }
+
+  private static Artifact artifact(String version) {
+    return Artifact.builder().reference("com.test:app:" + version).build();
+  }
+
   private void assertResolvable(WireMockServer server, String version, String expectedVersion) {
     assertResolvable(server, version, expectedVersion, null);
   }
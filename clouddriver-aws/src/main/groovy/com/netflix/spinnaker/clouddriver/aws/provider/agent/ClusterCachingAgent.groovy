@@ -86,6 +86,7 @@ class ClusterCachingAgent implements CachingAgent, OnDemandAgent, AccountAware,
   final EddaTimeoutConfig eddaTimeoutConfig
 
   final OnDemandMetricsSupport metricsSupport
+  private final EddaRecordCache<Map<String, Object>> asgAttributeCache
 
   ClusterCachingAgent(AmazonCloudProvider amazonCloudProvider,
                       AmazonClientProvider amazonClientProvider,
@@ -102,6 +103,7 @@ class ClusterCachingAgent implements CachingAgent, OnDemandAgent, AccountAware,
     this.registry = registry
     this.eddaTimeoutConfig = eddaTimeoutConfig
     this.metricsSupport = new OnDemandMetricsSupport(registry, this, "${amazonCloudProvider.id}:${OnDemandAgent.OnDemandType.ServerGroup}")
+    this.asgAttributeCache = new EddaRecordCache<>(registry, agentType)
   }
 
   @Override
@@ -216,7 +218,7 @@ class ClusterCachingAgent implements CachingAgent, OnDemandAgent, AccountAware,
     }
 
     def cacheResult = metricsSupport.transformData {
-      buildCacheResult(onDemandData.asgs, onDemandData.scalingPolicies, onDemandData.scheduledActions, onDemandData.subnetMap, [:], [])
+      buildCacheResult(onDemandData.asgs, [:], onDemandData.scalingPolicies, onDemandData.scheduledActions, onDemandData.subnetMap, [:], [])
     }
     def cacheResultAsJson = objectMapper.writeValueAsString(cacheResult.cacheResults)
 
@@ -278,16 +280,26 @@ class ClusterCachingAgent implements CachingAgent, OnDemandAgent, AccountAware,
     Long start = account.eddaEnabled ? null : System.currentTimeMillis()
 
     List<AutoScalingGroup> asgs = []
-    while (true) {
-      def resp = clients.autoScaling.describeAutoScalingGroups(request)
-      if (account.eddaEnabled) {
-        start = amazonClientProvider.lastModified ?: 0
+    Map<String, Long> mtimes = [:]
+    def eddaHandler = account.eddaEnabled ? AmazonClientProvider.getEddaHandler(clients.autoScaling) : Optional.empty()
+    if (eddaHandler.present) {
+      eddaHandler.get().streamAutoScalingGroups { AutoScalingGroup asg, Long mtime ->
+        asgs.add(asg)
+        mtimes.put(asg.autoScalingGroupName, mtime)
       }
-      asgs.addAll(resp.autoScalingGroups)
-      if (resp.nextToken) {
-        request.withNextToken(resp.nextToken)
-      } else {
-        break
+      start = amazonClientProvider.lastModified ?: 0
+    } else {
+      while (true) {
+        def resp = clients.autoScaling.describeAutoScalingGroups(request)
+        if (account.eddaEnabled) {
+          start = amazonClientProvider.lastModified ?: 0
+        }
+        asgs.addAll(resp.autoScalingGroups)
+        if (resp.nextToken) {
+          request.withNextToken(resp.nextToken)
+        } else {
+          break
+        }
       }
     }
 
@@ -301,7 +313,7 @@ class ClusterCachingAgent implements CachingAgent, OnDemandAgent, AccountAware,
     // A non-null status indicates that the ASG is in the process of being destroyed (no sense indexing)
     asgs = asgs.findAll { it.status == null }
 
-    new AutoScalingGroupsResults(start: start, asgs: asgs)
+    new AutoScalingGroupsResults(start: start, asgs: asgs, mtimes: mtimes)
   }
 
   private Map<String, List<Map>> loadScalingPolicies(AmazonClients clients) {
@@ -433,7 +445,9 @@ class ClusterCachingAgent implements CachingAgent, OnDemandAgent, AccountAware,
       }
     }
 
-    CacheResult result = buildCacheResult(asgs, scalingPolicies, scheduledActions, getSubnetToVpcIdMap(clients), usableOnDemandCacheDatas.collectEntries { [it.id, it] }, evictableOnDemandCacheDatas*.id)
+    asgAttributeCache.startRun()
+    CacheResult result = buildCacheResult(asgs, autoScalingGroupsResult.mtimes, scalingPolicies, scheduledActions, getSubnetToVpcIdMap(clients), usableOnDemandCacheDatas.collectEntries { [it.id, it] }, evictableOnDemandCacheDatas*.id)
+    asgAttributeCache.completeRun()
     recordDrift(start)
     def cacheResults = result.cacheResults
     log.debug("Caching ${cacheResults[APPLICATIONS.ns]?.size()} applications in ${agentType}")
@@ -484,6 +498,7 @@ class ClusterCachingAgent implements CachingAgent, OnDemandAgent, AccountAware,
   }
 
   private CacheResult buildCacheResult(Collection<AutoScalingGroup> asgs,
+                                       Map<String, Long> asgMtimes,
                                        Map<String, List<Map>> scalingPolicies,
                                        Map<String, List<Map>> scheduledActions,
                                        Map<String, String> subnetMap,
@@ -516,7 +531,7 @@ class ClusterCachingAgent implements CachingAgent, OnDemandAgent, AccountAware,
           AsgData data = new AsgData(asg, scalingPolicies[asg.autoScalingGroupName], scheduledActions[asg.autoScalingGroupName], account.name, region, subnetMap)
           cacheApplication(data, applications)
           cacheCluster(data, clusters)
-          cacheServerGroup(data, serverGroups)
+          cacheServerGroup(data, asgMtimes[asg.autoScalingGroupName], serverGroups)
           cacheLaunchConfig(data, launchConfigs)
           cacheInstances(data, instances)
           cacheLoadBalancers(data, loadBalancers)
@@ -594,10 +609,13 @@ class ClusterCachingAgent implements CachingAgent, OnDemandAgent, AccountAware,
     }
   }
 
-  private void cacheServerGroup(AsgData data, Map<String, CacheData> serverGroups) {
+  private void cacheServerGroup(AsgData data, Long mtime, Map<String, CacheData> serverGroups) {
     serverGroups[data.serverGroup].with {
       attributes.application = data.name.app
-      attributes.asg = objectMapper.convertValue(data.asg, ATTRIBUTES)
+      // server groups unchanged in Edda since the last run reuse the attributes converted then
+      attributes.asg = asgAttributeCache.get(data.serverGroup, mtime) {
+        objectMapper.convertValue(data.asg, ATTRIBUTES)
+      }
       attributes.region = region
       attributes.name = data.asg.autoScalingGroupName
       attributes.launchConfigName = data.asg.launchConfigurationName
@@ -693,6 +711,7 @@ class ClusterCachingAgent implements CachingAgent, OnDemandAgent, AccountAware,
   private static class AutoScalingGroupsResults {
     Long start
     List<AutoScalingGroup> asgs
+    Map<String, Long> mtimes
   }
 
   private static class AsgData {
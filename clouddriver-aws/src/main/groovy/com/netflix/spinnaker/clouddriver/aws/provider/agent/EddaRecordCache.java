@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.aws.provider.agent;
+
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Remembers what a caching agent built from each Edda record on its previous run, along with the
+ * record's mtime. Edda only changes a record's mtime when the record changes, so a record read
+ * again with the same mtime can reuse what was built for it instead of being converted again.
+ *
+ * <p>Records read without an mtime (i.e. not from Edda) are always built and never remembered,
+ * which also keeps on-demand refreshes, which may run concurrently with the agent, away from the
+ * agent's snapshot. Everything else must happen on the agent's thread between {@link #startRun}
+ * and {@link #completeRun}.
+ *
+ * <p>What is remembered is held in addition to the copy in the provider cache, so at most {@code
+ * maxEntries} records are remembered per agent. Records read once that many are remembered are
+ * built on every run.
+ */
+public class EddaRecordCache<V> {
+  /** Covers most accounts' instances in a region while keeping the heap held per agent bounded. */
+  static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+  private final int maxEntries;
+  private final Counter reused;
+  private final Counter built;
+
+  private Map<String, Entry<V>> previous = Collections.emptyMap();
+  private Map<String, Entry<V>> current = new HashMap<>();
+
+  public EddaRecordCache(Registry registry, String agentType) {
+    this(registry, agentType, DEFAULT_MAX_ENTRIES);
+  }
+
+  public EddaRecordCache(Registry registry, String agentType, int maxEntries) {
+    this.maxEntries = maxEntries;
+    this.reused =
+        registry.counter(registry.createId("edda.recordCache.reused", "agentType", agentType));
+    this.built =
+        registry.counter(registry.createId("edda.recordCache.built", "agentType", agentType));
+  }
+
+  /** Discards anything remembered by a run that did not complete. */
+  public void startRun() {
+    current = new HashMap<>();
+  }
+
+  public V get(String id, Long mtime, Supplier<V> builder) {
+    if (mtime == null) {
+      built.increment();
+      return builder.get();
+    }
+
+    Entry<V> entry = previous.get(id);
+    if (entry == null || !Objects.equals(entry.mtime, mtime)) {
+      built.increment();
+      entry = new Entry<>(mtime, builder.get());
+    } else {
+      reused.increment();
+    }
+    if (current.size() < maxEntries) {
+      current.put(id, entry);
+    }
+    return entry.value;
+  }
+
+  /** Forgets records that were not read during this run, which no longer exist. */
+  public void completeRun() {
+    previous = current;
+    current = new HashMap<>();
+  }
+
+  private static class Entry<V> {
+    final Long mtime;
+    final V value;
+
+    Entry(Long mtime, V value) {
+      this.mtime = mtime;
+      this.value = value;
+    }
+  }
+}
@@ -24,7 +24,6 @@ import com.amazonaws.services.ec2.model.StateReason
 import com.fasterxml.jackson.core.type.TypeReference
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.fasterxml.jackson.databind.SerializationFeature
-import com.google.common.collect.Lists
 import com.netflix.spectator.api.Registry
 import com.netflix.spinnaker.cats.agent.AccountAware
 import com.netflix.spinnaker.cats.agent.AgentDataType
@@ -51,6 +50,7 @@ import static com.netflix.spinnaker.clouddriver.core.provider.agent.Namespace.SE
 class InstanceCachingAgent implements CachingAgent, AccountAware, DriftMetric {
   final Logger log = LoggerFactory.getLogger(getClass())
   private static final TypeReference<Map<String, Object>> ATTRIBUTES = new TypeReference<Map<String, Object>>() {}
+  private static final int PARTITION_SIZE = 1000
 
   final Set<AgentDataType> types = Collections.unmodifiableSet([
     AUTHORITATIVE.forType(INSTANCES.ns),
@@ -63,6 +63,7 @@ class InstanceCachingAgent implements CachingAgent, AccountAware, DriftMetric {
   final String region
   final ObjectMapper objectMapper
   final Registry registry
+  private final EddaRecordCache<Map<String, Object>> attributeCache
 
   InstanceCachingAgent(AmazonClientProvider amazonClientProvider, NetflixAmazonCredentials account, String region, ObjectMapper objectMapper, Registry registry) {
     this.amazonClientProvider = amazonClientProvider
@@ -70,6 +71,7 @@ class InstanceCachingAgent implements CachingAgent, AccountAware, DriftMetric {
     this.region = region
     this.objectMapper = objectMapper.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
     this.registry = registry
+    this.attributeCache = new EddaRecordCache<>(registry, agentType)
   }
 
   @Override
@@ -108,22 +110,6 @@ class InstanceCachingAgent implements CachingAgent, AccountAware, DriftMetric {
 
     def amazonEC2 = amazonClientProvider.getAmazonEC2(account, region)
 
-    Long start = null
-    def request = new DescribeInstancesRequest().withMaxResults(500)
-    List<Instance> awsInstances = []
-    while (true) {
-      def resp = amazonEC2.describeInstances(request)
-      if (account.eddaEnabled) {
-        start = amazonClientProvider.lastModified ?: 0
-      }
-      awsInstances.addAll(resp.reservations.collectMany { it.instances })
-      if (resp.nextToken) {
-        request.withNextToken(resp.nextToken)
-      } else {
-        break
-      }
-    }
-
     Closure<Map<String, CacheData>> cache = {
       [:].withDefault { String id -> new MutableCacheData(id) }
     }
@@ -134,28 +120,47 @@ class InstanceCachingAgent implements CachingAgent, AccountAware, DriftMetric {
 
     List<String> skipIds =  []
 
-    Lists.partition(awsInstances, 1000).each { List<Instance> partition ->
-      Map<String, Map<String, Object>> convertedInstancesById = ((List<Map>) objectMapper.convertValue(
-        partition,
-        new TypeReference<List<Map<String, Object>>>() {}
-      )).collectEntries {
-        [it.instanceId, it]
+    // instances are converted in partitions as they arrive rather than once they have all been read
+    List<Instance> partition = []
+    Map<String, Long> mtimes = [:]
+    Closure<Void> cachePending = {
+      cachePartition(partition, mtimes, serverGroups, instances, images, skipIds)
+      partition.clear()
+      mtimes.clear()
+    }
+    Closure<Void> accept = { Instance instance, Long mtime = null ->
+      partition.add(instance)
+      if (mtime != null) {
+        mtimes.put(instance.instanceId, mtime)
       }
+      if (partition.size() >= PARTITION_SIZE) {
+        cachePending()
+      }
+    }
 
-      partition.each { Instance instance ->
-        def data = new InstanceData(instance, account.name, region)
-        if (instances.containsKey(data.instanceId)) {
-          log.warn("Duplicate instance for ${data.instanceId}")
+    attributeCache.startRun()
+    Long start = null
+    def eddaHandler = account.eddaEnabled ? AmazonClientProvider.getEddaHandler(amazonEC2) : Optional.empty()
+    if (eddaHandler.present) {
+      eddaHandler.get().streamInstances { Instance instance, Long mtime -> accept(instance, mtime) }
+      start = amazonClientProvider.lastModified ?: 0
+    } else {
+      def request = new DescribeInstancesRequest().withMaxResults(500)
+      while (true) {
+        def resp = amazonEC2.describeInstances(request)
+        if (account.eddaEnabled) {
+          start = amazonClientProvider.lastModified ?: 0
         }
-        if (data.cache) {
-          cacheImage(data, images)
-          cacheServerGroup(data, serverGroups)
-          cacheInstance(data, convertedInstancesById.get(data.instance.instanceId), instances)
+        resp.reservations.each { it.instances.each { accept(it) } }
+        if (resp.nextToken) {
+          request.withNextToken(resp.nextToken)
         } else {
-          skipIds.add(data.instance.instanceId)
+          break
         }
       }
     }
+    cachePending()
+    attributeCache.completeRun()
 
     recordDrift(start)
     log.info("Caching ${instances.size()} instances in ${agentType}")
@@ -171,6 +176,31 @@ class InstanceCachingAgent implements CachingAgent, AccountAware, DriftMetric {
       (IMAGES.ns): images.values())
   }
 
+  private void cachePartition(List<Instance> partition,
+                              Map<String, Long> mtimes,
+                              Map<String, CacheData> serverGroups,
+                              Map<String, CacheData> instances,
+                              Map<String, CacheData> images,
+                              List<String> skipIds) {
+    partition.each { Instance instance ->
+      def data = new InstanceData(instance, account.name, region)
+      if (instances.containsKey(data.instanceId)) {
+        log.warn("Duplicate instance for ${data.instanceId}")
+      }
+      if (data.cache) {
+        cacheImage(data, images)
+        cacheServerGroup(data, serverGroups)
+        // instances unchanged since the last run reuse the attributes converted then
+        Map<String, Object> attributes = attributeCache.get(instance.instanceId, mtimes.get(instance.instanceId)) {
+          objectMapper.convertValue(instance, ATTRIBUTES)
+        }
+        cacheInstance(data, attributes, instances)
+      } else {
+        skipIds.add(data.instance.instanceId)
+      }
+    }
+  }
+
   private void cacheImage(InstanceData data, Map<String, CacheData> images) {
     images[data.imageId].with {
       relationships[INSTANCES.ns].add(data.instanceId)
@@ -54,6 +54,7 @@ class LaunchConfigCachingAgent implements CachingAgent, AccountAware, DriftMetri
   final String region
   final ObjectMapper objectMapper
   final Registry registry
+  private final EddaRecordCache<Map<String, Object>> attributeCache
 
   LaunchConfigCachingAgent(AmazonClientProvider amazonClientProvider, NetflixAmazonCredentials account, String region, ObjectMapper objectMapper, Registry registry) {
     this.amazonClientProvider = amazonClientProvider
@@ -61,6 +62,7 @@ class LaunchConfigCachingAgent implements CachingAgent, AccountAware, DriftMetri
     this.region = region
     this.objectMapper = objectMapper.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
     this.registry = registry
+    this.attributeCache = new EddaRecordCache<>(registry, agentType)
   }
 
   @Override
@@ -88,37 +90,50 @@ class LaunchConfigCachingAgent implements CachingAgent, AccountAware, DriftMetri
     log.info("Describing items in ${agentType}")
     def autoScaling = amazonClientProvider.getAutoScaling(account, region)
 
+    attributeCache.startRun()
     Long start = null
-    List<LaunchConfiguration> launchConfigs = []
-    def request = new DescribeLaunchConfigurationsRequest()
-    while (true) {
-      def resp = autoScaling.describeLaunchConfigurations(request)
-      if (account.eddaEnabled) {
-        start = amazonClientProvider.lastModified ?: 0
+    List<CacheData> launchConfigData = []
+    def eddaHandler = account.eddaEnabled ? AmazonClientProvider.getEddaHandler(autoScaling) : Optional.empty()
+    if (eddaHandler.present) {
+      eddaHandler.get().streamLaunchConfigurations { LaunchConfiguration lc, Long mtime ->
+        launchConfigData.add(buildCacheData(lc, mtime))
       }
-      launchConfigs.addAll(resp.launchConfigurations)
-      if (resp.nextToken) {
-        request.withNextToken(resp.nextToken)
-      } else {
-        break
+      start = amazonClientProvider.lastModified ?: 0
+    } else {
+      def request = new DescribeLaunchConfigurationsRequest()
+      while (true) {
+        def resp = autoScaling.describeLaunchConfigurations(request)
+        if (account.eddaEnabled) {
+          start = amazonClientProvider.lastModified ?: 0
+        }
+        resp.launchConfigurations.each { launchConfigData.add(buildCacheData(it, null)) }
+        if (resp.nextToken) {
+          request.withNextToken(resp.nextToken)
+        } else {
+          break
+        }
       }
     }
+    attributeCache.completeRun()
 
-    Collection<CacheData> launchConfigData = launchConfigs.collect { LaunchConfiguration lc ->
-      String key = Keys.getLaunchConfigKey(lc.launchConfigurationName, account.name, region)
-      String application = Keys.parse(key).get("application")
-      Map<String, Object> attributes = objectMapper.convertValue(lc, ATTRIBUTES);
+    recordDrift(start)
+    log.info("Caching ${launchConfigData.size()} items in ${agentType}")
+    new DefaultCacheResult((LAUNCH_CONFIGS.ns): launchConfigData)
+  }
 
+  private CacheData buildCacheData(LaunchConfiguration lc, Long mtime) {
+    String key = Keys.getLaunchConfigKey(lc.launchConfigurationName, account.name, region)
+    // launch configs are immutable, so once converted they are reused for as long as they exist
+    Map<String, Object> attributes = attributeCache.get(key, mtime) {
+      Map<String, Object> converted = objectMapper.convertValue(lc, ATTRIBUTES)
+      String application = Keys.parse(key).get("application")
       if (application != null) {
-        attributes.put("application", application)
+        converted.put("application", application)
       }
-
-      Map<String, Collection<String>> relationships = [(IMAGES.ns):[Keys.getImageKey(lc.imageId, account.name, region)]]
-      new DefaultCacheData(key, attributes, relationships)
+      converted
     }
 
-    recordDrift(start)
-    log.info("Caching ${launchConfigData.size()} items in ${agentType}")
-    new DefaultCacheResult((LAUNCH_CONFIGS.ns): launchConfigData)
+    Map<String, Collection<String>> relationships = [(IMAGES.ns):[Keys.getImageKey(lc.imageId, account.name, region)]]
+    new DefaultCacheData(key, attributes, relationships)
   }
 }
@@ -67,9 +67,12 @@ import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.clouddriver.aws.security.sdkclient.*;
 import com.netflix.spinnaker.clouddriver.core.limits.ServiceLimitConfiguration;
 import com.netflix.spinnaker.clouddriver.core.limits.ServiceLimitConfigurationBuilder;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import org.apache.http.client.HttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
@@ -310,6 +313,22 @@ public class AmazonClientProvider {
     return AmazonClientInvocationHandler.lastModified.get();
   }
 
+  /**
+   * Gives access to the streaming reads of the Edda handler behind a client returned by this
+   * provider.
+   *
+   * @return the handler, or empty if the client's reads are not served by Edda.
+   */
+  public static Optional<AmazonClientInvocationHandler> getEddaHandler(Object client) {
+    if (client != null && Proxy.isProxyClass(client.getClass())) {
+      InvocationHandler handler = Proxy.getInvocationHandler(client);
+      if (handler instanceof AmazonClientInvocationHandler) {
+        return Optional.of((AmazonClientInvocationHandler) handler);
+      }
+    }
+    return Optional.empty();
+  }
+
   public AmazonEC2 getAmazonEC2(NetflixAmazonCredentials amazonCredentials, String region) {
     return getAmazonEC2(amazonCredentials, region, false);
   }
@@ -30,6 +30,9 @@ public class EddaTimeoutConfig {
   private static final int EDDA_CONNECT_TIMEOUT_MILLIS = 1000;
   private static final int EDDA_CONNECT_REQUEST_TIMEOUT_MILLIS = 10000;
   private static final int EDDA_SOCKET_TIMEOUT_MILLIS = 5000;
+  private static final int EDDA_MAX_CONCURRENT_REQUESTS = 8;
+  private static final int EDDA_BATCH_THRESHOLD = 10;
+  private static final int EDDA_BATCH_SIZE = 100;
 
   private final long retryBase;
   private final int backoffMillis;
@@ -39,6 +42,9 @@ public class EddaTimeoutConfig {
   private final int socketTimeout;
   private final Set<String> disabledRegions;
   private boolean albEnabled;
+  private final int maxConcurrentRequests;
+  private final int batchThreshold;
+  private final int batchSize;
 
   public EddaTimeoutConfig(
       long retryBase,
@@ -49,6 +55,32 @@ public class EddaTimeoutConfig {
       int socketTimeout,
       Collection<String> disabledRegions,
       boolean albEnabled) {
+    this(
+        retryBase,
+        backoffMillis,
+        maxAttempts,
+        connectTimeout,
+        connectionRequestTimeout,
+        socketTimeout,
+        disabledRegions,
+        albEnabled,
+        EDDA_MAX_CONCURRENT_REQUESTS,
+        EDDA_BATCH_THRESHOLD,
+        EDDA_BATCH_SIZE);
+  }
+
+  public EddaTimeoutConfig(
+      long retryBase,
+      int backoffMillis,
+      int maxAttempts,
+      int connectTimeout,
+      int connectionRequestTimeout,
+      int socketTimeout,
+      Collection<String> disabledRegions,
+      boolean albEnabled,
+      int maxConcurrentRequests,
+      int batchThreshold,
+      int batchSize) {
     this.retryBase = retryBase;
     this.backoffMillis = backoffMillis;
     this.maxAttempts = maxAttempts;
@@ -60,6 +92,9 @@ public class EddaTimeoutConfig {
             ? Collections.emptySet()
             : Collections.unmodifiableSet(new LinkedHashSet<>(disabledRegions));
     this.albEnabled = albEnabled;
+    this.maxConcurrentRequests = maxConcurrentRequests;
+    this.batchThreshold = batchThreshold;
+    this.batchSize = batchSize;
   }
 
   public long getRetryBase() {
@@ -94,6 +129,24 @@ public class EddaTimeoutConfig {
     return albEnabled;
   }
 
+  /** The maximum number of by-id Edda requests in flight at once, across all clients. */
+  public int getMaxConcurrentRequests() {
+    return maxConcurrentRequests;
+  }
+
+  /**
+   * The number of ids in a single request at which Edda is queried with a filter on the collection
+   * rather than once per id. Zero or less disables filtered queries.
+   */
+  public int getBatchThreshold() {
+    return batchThreshold;
+  }
+
+  /** The maximum number of ids in a single filtered collection query. */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
   public static class Builder {
     private long retryBase;
     private int backoffMillis;
@@ -103,6 +156,9 @@ public class EddaTimeoutConfig {
     private int socketTimeout;
     private List<String> disabledRegions;
     private boolean albEnabled;
+    private int maxConcurrentRequests;
+    private int batchThreshold;
+    private int batchSize;
 
     public Builder() {
       this.retryBase = EDDA_RETRY_BASE_MILLIS;
@@ -113,6 +169,9 @@ public class EddaTimeoutConfig {
       this.socketTimeout = EDDA_SOCKET_TIMEOUT_MILLIS;
       this.disabledRegions = null;
       this.albEnabled = false;
+      this.maxConcurrentRequests = EDDA_MAX_CONCURRENT_REQUESTS;
+      this.batchThreshold = EDDA_BATCH_THRESHOLD;
+      this.batchSize = EDDA_BATCH_SIZE;
     }
 
     public EddaTimeoutConfig build() {
@@ -124,7 +183,10 @@ public class EddaTimeoutConfig {
           connectionRequestTimeout,
           socketTimeout,
           disabledRegions,
-          albEnabled);
+          albEnabled,
+          maxConcurrentRequests,
+          batchThreshold,
+          batchSize);
     }
 
     public long getRetryBase() {
@@ -190,5 +252,29 @@ public class EddaTimeoutConfig {
     public void setAlbEnabled(boolean albEnabled) {
       this.albEnabled = albEnabled;
     }
+
+    public int getMaxConcurrentRequests() {
+      return maxConcurrentRequests;
+    }
+
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+      this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    public int getBatchThreshold() {
+      return batchThreshold;
+    }
+
+    public void setBatchThreshold(int batchThreshold) {
+      this.batchThreshold = batchThreshold;
+    }
+
+    public int getBatchSize() {
+      return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+      this.batchSize = batchSize;
+    }
   }
 }
@@ -32,9 +32,13 @@ import com.amazonaws.services.elasticloadbalancingv2.model.*;
 import com.amazonaws.services.elasticloadbalancingv2.model.TargetGroup;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.google.common.net.UrlEscapers;
 import com.netflix.spectator.api.Id;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.clouddriver.aws.security.EddaTimeoutConfig;
@@ -43,7 +47,12 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
@@ -69,6 +78,7 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
   private final EddaTimeoutConfig eddaTimeoutConfig;
   private final Registry registry;
   private final Map<String, String> metricTags;
+  private final ExecutorService executor;
 
   public AmazonClientInvocationHandler(
       Object delegate,
@@ -78,7 +88,8 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
       ObjectMapper objectMapper,
       EddaTimeoutConfig eddaTimeoutConfig,
       Registry registry,
-      Map<String, String> metricTags) {
+      Map<String, String> metricTags,
+      ExecutorService executor) {
     this.edda = edda;
     this.httpClient = httpClient;
     this.objectMapper = objectMapper;
@@ -88,6 +99,7 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
         eddaTimeoutConfig == null ? EddaTimeoutConfig.DEFAULT : eddaTimeoutConfig;
     this.registry = registry;
     this.metricTags = ImmutableMap.copyOf(metricTags);
+    this.executor = executor;
   }
 
   @Override
@@ -319,7 +331,9 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
           com.amazonaws.services.elasticloadbalancingv2.model.DescribeLoadBalancersRequest
               request) {
     return new com.amazonaws.services.elasticloadbalancingv2.model.DescribeLoadBalancersResult()
-        .withLoadBalancers(describe(request, "names", "appLoadBalancers", LoadBalancer.class));
+        .withLoadBalancers(
+            describe(
+                request, "names", "loadBalancerName", "appLoadBalancers", LoadBalancer.class));
   }
 
   public DescribeTargetGroupsResult describeTargetGroups() {
@@ -328,13 +342,46 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
 
   public DescribeTargetGroupsResult describeTargetGroups(DescribeTargetGroupsRequest request) {
     return new DescribeTargetGroupsResult()
-        .withTargetGroups(describe(request, "names", "targetGroups", TargetGroup.class));
+        .withTargetGroups(
+            describe(request, "names", "targetGroupName", "targetGroups", TargetGroup.class));
   }
   ////////////////////////////////////
+  //
+  // Streaming reads
+  //
+  // These are not part of any AWS client interface; callers reach them through
+  // AmazonClientProvider.getEddaHandler when a client's reads are served by Edda. Each record is
+  // passed along with its mtime, which only changes when the record does.
+  //
+  ////////////////////////////////////
+  public void streamAutoScalingGroups(BiConsumer<AutoScalingGroup, Long> consumer) {
+    stream("autoScalingGroups", AutoScalingGroup.class, consumer);
+  }
+
+  public void streamInstances(BiConsumer<Instance, Long> consumer) {
+    stream("../view/instances", Instance.class, consumer);
+  }
+
+  public void streamLaunchConfigurations(BiConsumer<LaunchConfiguration, Long> consumer) {
+    stream("launchConfigurations", LaunchConfiguration.class, consumer);
+  }
+
+  ////////////////////////////////////
+
+  private <T> List<T> describe(
+      AmazonWebServiceRequest request,
+      String idKey,
+      final String object,
+      final Class<T> singleType) {
+    // request fields are the plural of the field holding the id in each record, e.g. instanceIds
+    String idField = idKey.endsWith("s") ? idKey.substring(0, idKey.length() - 1) : idKey;
+    return describe(request, idKey, idField, object, singleType);
+  }
 
   private <T> List<T> describe(
       AmazonWebServiceRequest request,
       String idKey,
+      String idField,
       final String object,
       final Class<T> singleType) {
     lastModified.set(null);
@@ -342,66 +389,214 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
     metricTags.put("collection", object);
     try {
       final Collection<String> ids = getRequestIds(request, idKey);
-      metricTags.put("collectionMode", ids.isEmpty() ? "full" : "byId");
+      final boolean batched =
+          eddaTimeoutConfig.getBatchThreshold() > 0
+              && ids.size() >= eddaTimeoutConfig.getBatchThreshold();
+      metricTags.put("collectionMode", ids.isEmpty() ? "full" : batched ? "batch" : "byId");
       final JavaType singleMeta =
           objectMapper
               .getTypeFactory()
               .constructParametrizedType(Metadata.class, Metadata.class, singleType);
+      final JavaType listMeta =
+          objectMapper
+              .getTypeFactory()
+              .constructParametrizedType(List.class, List.class, singleMeta);
       Long mtime = null;
       final List<T> results = new ArrayList<>();
 
       final Id deserializeJsonTimer = registry.createId("edda.deserializeJson", metricTags);
       final Id resultSizeCounter = registry.createId("edda.resultSize", metricTags);
+      final List<Callable<List<Metadata<T>>>> requests = new ArrayList<>();
       if (ids.isEmpty()) {
-        HttpEntity entity = getHttpEntity(metricTags, object, null);
-        try {
-          final JavaType listMeta =
-              objectMapper
-                  .getTypeFactory()
-                  .constructParametrizedType(List.class, List.class, singleMeta);
-          final List<Metadata<T>> metadataResults =
-              registry
-                  .timer(deserializeJsonTimer)
-                  .record(() -> objectMapper.readValue(entity.getContent(), listMeta));
-          for (Metadata<T> meta : metadataResults) {
-            mtime = mtime == null ? meta.mtime : Math.min(mtime, meta.mtime);
-            results.add(meta.data);
-          }
-        } finally {
-          EntityUtils.consume(entity);
+        requests.add(
+            () ->
+                readList(getHttpEntity(metricTags, object, null), listMeta, deserializeJsonTimer));
+      } else if (batched) {
+        final Method idGetter =
+            singleType.getMethod(
+                "get" + Character.toUpperCase(idField.charAt(0)) + idField.substring(1));
+        for (List<String> batch : Iterables.partition(ids, eddaTimeoutConfig.getBatchSize())) {
+          requests.add(
+              () -> {
+                List<Metadata<T>> found =
+                    readList(
+                        getHttpEntity(metricTags, filteredPath(object, idField, batch)),
+                        listMeta,
+                        deserializeJsonTimer);
+                requireAll(object, batch, found, idGetter);
+                return found;
+              });
         }
       } else {
         for (String id : ids) {
-          HttpEntity entity = getHttpEntity(metricTags, object, id);
-          try {
-            final Metadata<T> result =
-                registry
-                    .timer(deserializeJsonTimer)
-                    .record(() -> objectMapper.readValue(entity.getContent(), singleMeta));
-            mtime = mtime == null ? result.mtime : Math.min(mtime, result.mtime);
-            results.add(result.data);
-          } finally {
-            EntityUtils.consume(entity);
-          }
+          requests.add(
+              () -> {
+                HttpEntity entity = getHttpEntity(metricTags, object, id);
+                try {
+                  return Collections.singletonList(
+                      registry
+                          .timer(deserializeJsonTimer)
+                          .<Metadata<T>>record(
+                              () -> objectMapper.readValue(entity.getContent(), singleMeta)));
+                } finally {
+                  EntityUtils.consume(entity);
+                }
+              });
+        }
+      }
+
+      if (!ids.isEmpty()) {
+        registry
+            .distributionSummary(registry.createId("edda.fanOut", metricTags))
+            .record(requests.size());
+      }
+      for (List<Metadata<T>> metadataResults : executeAll(requests)) {
+        for (Metadata<T> meta : metadataResults) {
+          mtime = mtime == null ? meta.mtime : Math.min(mtime, meta.mtime);
+          results.add(meta.data);
         }
       }
       registry.counter(resultSizeCounter).increment(results.size());
       lastModified.set(mtime);
       return results;
     } catch (Exception e) {
-      log.error(e.getMessage() + " (retries exhausted)");
+      throw failure(e, metricTags);
+    }
+  }
 
-      registry.counter(registry.createId("edda.failures", metricTags)).increment();
-      final AmazonServiceException ex =
-          new AmazonServiceException("Edda failed locating the managed objects requested.", e);
-      if (e.getCause() instanceof HttpClientErrorException) {
-        ex.setStatusCode(((HttpClientErrorException) e.getCause()).getRawStatusCode());
-      } else {
-        ex.setStatusCode(400);
+  /**
+   * Reads a full collection, handing each record to the consumer as soon as it is parsed so that
+   * the collection is never held in memory at once. The oldest mtime seen is available from
+   * {@link #lastModified} once the read completes.
+   */
+  private <T> void stream(
+      final String object, final Class<T> singleType, BiConsumer<T, Long> consumer) {
+    lastModified.set(null);
+    final Map<String, String> metricTags = new HashMap<>(this.metricTags);
+    metricTags.put("collection", object);
+    metricTags.put("collectionMode", "stream");
+    try {
+      final JavaType singleMeta =
+          objectMapper
+              .getTypeFactory()
+              .constructParametrizedType(Metadata.class, Metadata.class, singleType);
+      Long mtime = null;
+      long count = 0;
+
+      final long startTime = System.nanoTime();
+      HttpEntity entity = getHttpEntity(metricTags, object, null);
+      try (JsonParser parser = objectMapper.getFactory().createParser(entity.getContent())) {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+          throw new EddaException("Expected an array of " + object, null);
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+          Metadata<T> meta = objectMapper.readValue(parser, singleMeta);
+          mtime = mtime == null ? meta.mtime : Math.min(mtime, meta.mtime);
+          consumer.accept(meta.data, meta.mtime);
+          count++;
+        }
+      } finally {
+        EntityUtils.consume(entity);
+        // includes the time spent in the consumer, which overlaps with reading the response
+        registry
+            .timer(registry.createId("edda.streamJson", metricTags))
+            .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+      }
+      registry.counter(registry.createId("edda.resultSize", metricTags)).increment(count);
+      lastModified.set(mtime);
+    } catch (Exception e) {
+      throw failure(e, metricTags);
+    }
+  }
+
+  private AmazonServiceException failure(Exception e, Map<String, String> metricTags) {
+    log.error(e.getMessage() + " (retries exhausted)");
+
+    registry.counter(registry.createId("edda.failures", metricTags)).increment();
+    final AmazonServiceException ex =
+        new AmazonServiceException("Edda failed locating the managed objects requested.", e);
+    if (e.getCause() instanceof HttpClientErrorException) {
+      ex.setStatusCode(((HttpClientErrorException) e.getCause()).getRawStatusCode());
+    } else {
+      ex.setStatusCode(400);
+    }
+    ex.setServiceName(serviceName);
+    ex.setErrorType(AmazonServiceException.ErrorType.Unknown);
+    return ex;
+  }
+
+  private <T> List<Metadata<T>> readList(
+      HttpEntity entity, JavaType listMeta, Id deserializeJsonTimer) throws Exception {
+    try {
+      return registry
+          .timer(deserializeJsonTimer)
+          .record(() -> objectMapper.readValue(entity.getContent(), listMeta));
+    } finally {
+      EntityUtils.consume(entity);
+    }
+  }
+
+  /**
+   * Runs requests on the shared Edda executor, returning their results in order. A single request
+   * runs on the calling thread. The first failure is rethrown once every request has finished or
+   * been cancelled.
+   */
+  private <R> List<R> executeAll(List<Callable<R>> requests) throws Exception {
+    if (requests.size() == 1) {
+      return Collections.singletonList(requests.get(0).call());
+    }
+
+    List<Future<R>> futures = new ArrayList<>(requests.size());
+    try {
+      for (Callable<R> request : requests) {
+        futures.add(executor.submit(request));
+      }
+      List<R> results = new ArrayList<>(futures.size());
+      for (Future<R> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw e;
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception) {
+        throw (Exception) e.getCause();
       }
-      ex.setServiceName(serviceName);
-      ex.setErrorType(AmazonServiceException.ErrorType.Unknown);
-      throw ex;
+      throw e;
+    } finally {
+      futures.forEach(f -> f.cancel(true));
+    }
+  }
+
+  /**
+   * Edda applies matrix arguments as filters on the collection; with {@code _meta} the record
+   * itself is nested under {@code data}.
+   */
+  private static String filteredPath(String object, String idField, List<String> ids) {
+    StringJoiner values = new StringJoiner(",");
+    for (String id : ids) {
+      values.add(UrlEscapers.urlPathSegmentEscaper().escape(id));
+    }
+    return object + ";data." + idField + "=" + values + ";_expand;_meta";
+  }
+
+  /**
+   * A filtered query leaves out ids that Edda has no record of, where reading them one by one fails
+   * with a 404; fails the same way so that callers see the same result either way.
+   */
+  private static <T> void requireAll(
+      String object, List<String> ids, List<Metadata<T>> found, Method idGetter)
+      throws Exception {
+    Set<String> missing = new LinkedHashSet<>(ids);
+    for (Metadata<T> meta : found) {
+      missing.remove(idGetter.invoke(meta.data));
+    }
+    if (!missing.isEmpty()) {
+      String message = "Edda has no " + object + " " + String.join(",", missing);
+      throw new EddaException(
+          message,
+          new HttpClientErrorException(org.springframework.http.HttpStatus.NOT_FOUND, message));
     }
   }
 
@@ -422,8 +617,13 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
 
   private HttpEntity getHttpEntity(Map<String, String> metricTags, String objectName, String key)
       throws EddaException {
-    final String url =
-        edda + "/REST/v2/aws/" + objectName + (key == null ? ";_expand" : "/" + key) + ";_meta";
+    return getHttpEntity(
+        metricTags, objectName + (key == null ? ";_expand" : "/" + key) + ";_meta");
+  }
+
+  private HttpEntity getHttpEntity(Map<String, String> metricTags, String path)
+      throws EddaException {
+    final String url = edda + "/REST/v2/aws/" + path;
     final HttpGet get = new HttpGet(url);
     get.setConfig(
         RequestConfig.custom()
@@ -21,12 +21,17 @@ import static java.util.Objects.requireNonNull;
 import com.amazonaws.client.builder.AwsClientBuilder;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.clouddriver.aws.security.EddaTemplater;
 import com.netflix.spinnaker.clouddriver.aws.security.EddaTimeoutConfig;
 import com.netflix.spinnaker.clouddriver.aws.security.NetflixAmazonCredentials;
 import java.lang.reflect.Proxy;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import org.apache.http.client.HttpClient;
 
 /**
@@ -40,6 +45,7 @@ public class ProxyHandlerBuilder {
   private final EddaTemplater eddaTemplater;
   private final EddaTimeoutConfig eddaTimeoutConfig;
   private final Registry registry;
+  private final ExecutorService eddaExecutor;
 
   public ProxyHandlerBuilder(
       AwsSdkClientSupplier awsSdkClientSupplier,
@@ -54,6 +60,30 @@ public class ProxyHandlerBuilder {
     this.eddaTemplater = requireNonNull(eddaTemplater);
     this.eddaTimeoutConfig = eddaTimeoutConfig;
     this.registry = requireNonNull(registry);
+    this.eddaExecutor = createEddaExecutor(eddaTimeoutConfig, registry);
+  }
+
+  /**
+   * By-id Edda requests from every proxy share one bounded pool, so a caller asking for many ids
+   * cannot exhaust the HTTP connection pool for everyone else.
+   */
+  private static ExecutorService createEddaExecutor(
+      EddaTimeoutConfig eddaTimeoutConfig, Registry registry) {
+    int threads =
+        (eddaTimeoutConfig == null ? EddaTimeoutConfig.DEFAULT : eddaTimeoutConfig)
+            .getMaxConcurrentRequests();
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            60,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat("edda-request-%d").setDaemon(true).build());
+    executor.allowCoreThreadTimeOut(true);
+    registry.gauge("edda.executor.queued", executor, e -> e.getQueue().size());
+    registry.gauge("edda.executor.active", executor, ThreadPoolExecutor::getActiveCount);
+    return executor;
   }
 
   public <T extends AwsClientBuilder<T, U>, U> U getProxyHandler(
@@ -115,6 +145,7 @@ public class ProxyHandlerBuilder {
         objectMapper,
         eddaTimeoutConfig,
         registry,
-        baseTags);
+        baseTags,
+        eddaExecutor);
   }
 }
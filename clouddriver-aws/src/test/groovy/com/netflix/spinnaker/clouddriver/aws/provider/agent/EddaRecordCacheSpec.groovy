@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.aws.provider.agent
+
+import com.netflix.spectator.api.NoopRegistry
+import spock.lang.Specification
+
+class EddaRecordCacheSpec extends Specification {
+
+  def cache = new EddaRecordCache<String>(new NoopRegistry(), "test")
+  int builds = 0
+
+  def build(String value) {
+    return {
+      builds++
+      value
+    }
+  }
+
+  void "records with an unchanged mtime reuse what was built on the previous run"() {
+    given:
+    cache.startRun()
+    cache.get("a", 1L, build("a1"))
+    cache.get("b", 1L, build("b1"))
+    cache.completeRun()
+
+    when:
+    cache.startRun()
+    def a = cache.get("a", 1L, build("a2"))
+    def b = cache.get("b", 2L, build("b2"))
+    cache.completeRun()
+
+    then:
+    a == "a1"
+    b == "b2"
+    builds == 3
+  }
+
+  void "records missing from a run are forgotten"() {
+    given:
+    cache.startRun()
+    cache.get("a", 1L, build("a1"))
+    cache.completeRun()
+    cache.startRun()
+    cache.completeRun()
+
+    when:
+    cache.startRun()
+    def a = cache.get("a", 1L, build("a2"))
+
+    then:
+    a == "a2"
+  }
+
+  void "records without an mtime are always built and never remembered"() {
+    when:
+    cache.startRun()
+    cache.get("a", null, build("a1"))
+    cache.completeRun()
+    cache.startRun()
+    def a = cache.get("a", 1L, build("a2"))
+
+    then:
+    a == "a2"
+    builds == 2
+  }
+
+  void "at most maxEntries records are remembered"() {
+    given:
+    def cache = new EddaRecordCache<String>(new NoopRegistry(), "test", 1)
+    cache.startRun()
+    cache.get("a", 1L, build("a1"))
+    cache.get("b", 1L, build("b1"))
+    cache.completeRun()
+
+    when:
+    cache.startRun()
+    def a = cache.get("a", 1L, build("a2"))
+    def b = cache.get("b", 1L, build("b2"))
+
+    then:
+    a == "a1"
+    b == "b2"
+    builds == 3
+  }
+}
@@ -16,6 +16,7 @@
 
 package com.netflix.spinnaker.clouddriver.aws.security
 
+import com.amazonaws.AmazonServiceException
 import com.amazonaws.auth.AWSCredentialsProvider
 import com.amazonaws.auth.BasicAWSCredentials
 import com.amazonaws.services.autoscaling.AmazonAutoScaling
@@ -25,6 +26,7 @@ import com.netflix.spinnaker.clouddriver.aws.TestCredential
 import org.apache.http.Header
 import org.apache.http.HttpEntity
 import org.apache.http.HttpResponse
+import org.apache.http.HttpVersion
 import org.apache.http.StatusLine
 import org.apache.http.client.HttpClient
 import org.apache.http.client.methods.HttpGet
@@ -86,6 +88,105 @@ class AmazonClientProviderSpec extends Specification {
     }
   }
 
+  void "edda requests for several ids are made individually"() {
+    setup:
+    def asgNames = ["foo", "bar", "baz"]
+    def mockHttp = Mock(HttpClient)
+    def provider = new AmazonClientProvider(mockHttp)
+
+    when:
+    def client = provider.getAutoScaling(credentialsWithEdda, "us-east-1")
+    def result = client.describeAutoScalingGroups(
+      new DescribeAutoScalingGroupsRequest().withAutoScalingGroupNames(asgNames))
+
+    then:
+    3 * mockHttp.execute(_) >> { HttpGet get ->
+      assert asgNames.any { get.URI.rawPath.endsWith(it + ';_meta') }
+      getMockResponse(OBJECT_ASG_CONTENT)
+    }
+    result.autoScalingGroups.size() == 3
+  }
+
+  void "edda requests for many ids are collapsed into a filtered collection query"() {
+    setup:
+    def asgNames = (1..EddaTimeoutConfig.DEFAULT.batchThreshold).collect { "my-app-v00$it".toString() }
+    def mockHttp = Mock(HttpClient)
+    def provider = new AmazonClientProvider(mockHttp)
+
+    when:
+    def client = provider.getAutoScaling(credentialsWithEdda, "us-east-1")
+    def result = client.describeAutoScalingGroups(
+      new DescribeAutoScalingGroupsRequest().withAutoScalingGroupNames(asgNames))
+
+    then:
+    1 * mockHttp.execute(_) >> { HttpGet get ->
+      assert get.URI.rawPath.endsWith(
+        "autoScalingGroups;data.autoScalingGroupName=${asgNames.join(',')};_expand;_meta")
+      getMockResponse("[${asgNames.collect { asgContent(it) }.join(',')}]")
+    }
+    result.autoScalingGroups*.autoScalingGroupName == asgNames
+    provider.lastModified == MTIME
+  }
+
+  void "edda requests fail with a 404 for a missing id whether or not they are batched"() {
+    setup:
+    def asgNames = (1..count).collect { "my-app-v00$it".toString() }
+    def missing = asgNames.last()
+    def mockHttp = Mock(HttpClient)
+    def provider = new AmazonClientProvider(mockHttp)
+
+    when:
+    def client = provider.getAutoScaling(credentialsWithEdda, "us-east-1")
+    client.describeAutoScalingGroups(
+      new DescribeAutoScalingGroupsRequest().withAutoScalingGroupNames(asgNames))
+
+    then:
+    _ * mockHttp.execute(_) >> { HttpGet get ->
+      def path = get.URI.rawPath
+      if (path.contains(";data.autoScalingGroupName=")) {
+        return getMockResponse("[${(asgNames - missing).collect { asgContent(it) }.join(',')}]")
+      }
+      if (path.endsWith("/$missing;_meta")) {
+        return getMockResponse("", 404)
+      }
+      getMockResponse(asgContent(asgNames.find { path.endsWith("/$it;_meta") }))
+    }
+    def e = thrown(AmazonServiceException)
+    e.statusCode == 404
+
+    where:
+    count << [3, EddaTimeoutConfig.DEFAULT.batchThreshold]
+  }
+
+  void "full collections can be streamed from edda"() {
+    setup:
+    def mockHttp = Mock(HttpClient)
+    def provider = new AmazonClientProvider(mockHttp)
+    def names = []
+    def mtimes = []
+
+    when:
+    def client = provider.getAutoScaling(credentialsWithEdda, "us-east-1")
+    AmazonClientProvider.getEddaHandler(client).get().streamAutoScalingGroups { asg, mtime ->
+      names << asg.autoScalingGroupName
+      mtimes << mtime
+    }
+
+    then:
+    1 * mockHttp.execute(_) >> { HttpGet get ->
+      assert get.URI.rawPath.endsWith("autoScalingGroups;_expand;_meta")
+      getMockResponse("[$OBJECT_ASG_CONTENT, $OBJECT_ASG_CONTENT]")
+    }
+    names == ["my-app-v000", "my-app-v000"]
+    mtimes == [MTIME, MTIME]
+    provider.lastModified == MTIME
+  }
+
+  void "clients that do not use edda have no edda handler"() {
+    expect:
+    !AmazonClientProvider.getEddaHandler(Mock(AmazonEC2)).present
+  }
+
   void "client goes directly to amazon when edda is unavailable"() {
     setup:
     def provider = Spy(AmazonClientProvider)
@@ -152,10 +253,16 @@ class AmazonClientProviderSpec extends Specification {
   static def OBJECT_ASG_CONTENT = '{"mtime": ' + MTIME + ', "data": { "autoScalingGroupName": "my-app-v000" }}'
   static def ARRAY_ASG_CONTENT = "[$OBJECT_ASG_CONTENT]"
 
-  def getMockResponse(String content = ARRAY_ASG_CONTENT) {
+  static String asgContent(String name) {
+    '{"mtime": ' + MTIME + ', "data": { "autoScalingGroupName": "' + name + '" }}'
+  }
+
+  def getMockResponse(String content = ARRAY_ASG_CONTENT, int statusCode = 200) {
     def mock = Mock(HttpResponse)
     def statusLine = Mock(StatusLine)
-    statusLine.getStatusCode() >> 200
+    statusLine.getStatusCode() >> statusCode
+    statusLine.getReasonPhrase() >> "status $statusCode"
+    mock.getProtocolVersion() >> HttpVersion.HTTP_1_1
     mock.getStatusLine() >> statusLine
     def entity = Mock(HttpEntity)
     entity.getContent() >> { new ByteArrayInputStream(content.bytes) }
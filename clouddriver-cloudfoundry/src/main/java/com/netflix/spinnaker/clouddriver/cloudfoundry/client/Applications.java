@@ -26,6 +26,7 @@ import static java.util.stream.Collectors.toSet;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Lists;
 import com.netflix.frigga.Names;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.api.ApplicationService;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.ApplicationEnv;
@@ -41,6 +42,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
@@ -56,6 +58,9 @@ import retrofit.mime.TypedInput;
 
 @Slf4j
 public class Applications {
+  /** Application guids per process or package query, keeping the query string short. */
+  private static final int RELATED_RESOURCES_BATCH_SIZE = 50;
+
   private final String account;
   private final String appsManagerUri;
   private final String metricsUri;
@@ -117,15 +122,16 @@ public class Applications {
     log.debug("Listing all applications from account {}", this.account);
 
     List<Application> newCloudFoundryAppList =
-        collectPages("applications", page -> api.all(page, resultsPerPage, null, null));
+        collectPages(
+            "applications", page -> api.all(page, resultsPerPage, null, null), forkJoinPool);
 
     log.debug(
         "Fetched {} total apps from foundation account {}",
         newCloudFoundryAppList.size(),
         this.account);
 
-    List<String> availableAppIds =
-        newCloudFoundryAppList.stream().map(Application::getGuid).collect(toList());
+    Set<String> availableAppIds =
+        newCloudFoundryAppList.stream().map(Application::getGuid).collect(toSet());
 
     long invalidatedServerGroups =
         serverGroupCache
@@ -144,48 +150,65 @@ public class Applications {
 
     // if the update time doesn't match then we need to update the cache
     // if the app is not found in the cache we need to process with `map` and update the cache
+    List<Application> appsToMap =
+        newCloudFoundryAppList.stream()
+            .filter(
+                app -> {
+                  CloudFoundryServerGroup cachedApp = serverGroupCache.getIfPresent(app.getGuid());
+                  if (cachedApp != null) {
+                    if (!cachedApp
+                        .getUpdatedTime()
+                        .equals(app.getUpdatedAt().toInstant().toEpochMilli())) {
+                      log.trace(
+                          "App '{}' cached version is out of date on foundation '{}'",
+                          app.getName(),
+                          this.account);
+                      return true;
+                    } else {
+                      return false;
+                    }
+                  } else {
+                    log.trace(
+                        "App '{}' not found in cache for foundation '{}'",
+                        app.getName(),
+                        this.account);
+                    return true;
+                  }
+                })
+            .collect(toList());
+
     try {
-      forkJoinPool.submit(
-          () ->
-              newCloudFoundryAppList
-                  .parallelStream()
-                  .filter(
-                      app -> {
-                        CloudFoundryServerGroup cachedApp = findById(app.getGuid());
-                        if (cachedApp != null) {
-                          if (!cachedApp
-                              .getUpdatedTime()
-                              .equals(app.getUpdatedAt().toInstant().toEpochMilli())) {
-                            log.trace(
-                                "App '{}' cached version is out of date on foundation '{}'",
-                                app.getName(),
-                                this.account);
-                            return true;
-                          } else {
-                            return false;
-                          }
-                        } else {
-                          log.trace(
-                              "App '{}' not found in cache for foundation '{}'",
-                              app.getName(),
-                              this.account);
-                          return true;
-                        }
-                      })
-                  .map(this::map)
-                  .forEach(sg -> serverGroupCache.put(sg.getId(), sg)));
-
-      forkJoinPool.submit(
-          () ->
-              // execute health check on instances, set number of available instances and health
-              // status
-              newCloudFoundryAppList
-                  .parallelStream()
-                  .forEach(
-                      a ->
-                          serverGroupCache.put(
-                              a.getGuid(), checkHealthStatus(findById(a.getGuid()), a))));
-    } catch (Exception e) {
+      RelatedResources related =
+          findRelatedResources(appsToMap.stream().map(Application::getGuid).collect(toList()));
+
+      forkJoinPool
+          .submit(
+              () ->
+                  appsToMap.parallelStream()
+                      .map(app -> map(app, related))
+                      .forEach(sg -> serverGroupCache.put(sg.getId(), sg)))
+          .get();
+
+      Set<String> mappedAppIds = appsToMap.stream().map(Application::getGuid).collect(toSet());
+      forkJoinPool
+          .submit(
+              () ->
+                  // execute health check on instances, set number of available instances and
+                  // health status; freshly mapped apps had theirs checked while being mapped
+                  newCloudFoundryAppList.parallelStream()
+                      .filter(a -> !mappedAppIds.contains(a.getGuid()))
+                      .forEach(
+                          a ->
+                              serverGroupCache.put(
+                                  a.getGuid(), checkHealthStatus(findById(a.getGuid()), a))))
+          .get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
       throw new RuntimeException(e);
     }
 
@@ -261,7 +284,59 @@ public class Applications {
                     .orElse(null));
   }
 
+  /**
+   * Looks up the web processes and packages of many applications with one query per batch of
+   * application guids, rather than one query per application. Returns null if the lookup fails, in
+   * which case they are looked up for each application as it is mapped.
+   */
+  @Nullable
+  private RelatedResources findRelatedResources(List<String> appGuids) {
+    if (appGuids.size() <= 1) {
+      return null;
+    }
+
+    RelatedResources related = new RelatedResources();
+    try {
+      forkJoinPool
+          .submit(
+              () ->
+                  Lists.partition(appGuids, RELATED_RESOURCES_BATCH_SIZE).parallelStream()
+                      .forEach(batch -> findRelatedResources(batch, related)))
+          .get();
+      return related;
+    } catch (ExecutionException e) {
+      log.warn(
+          "Unable to look up processes and packages of {} apps on foundation '{}', looking them up"
+              + " for each app instead",
+          appGuids.size(),
+          this.account,
+          e.getCause());
+      return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+  }
+
+  private void findRelatedResources(List<String> appGuids, RelatedResources related) {
+    String guids = String.join(",", appGuids);
+
+    // an app's web process has the same guid as the app
+    collectPages(
+            "processes", page -> api.findProcessesByAppIds(page, resultsPerPage, guids, "web"))
+        .forEach(process -> related.processes.put(process.getGuid(), process));
+
+    // keep the first package of each app, as a lookup by app does
+    collectPages("packages", page -> api.findPackagesByAppIds(page, resultsPerPage, guids)).stream()
+        .filter(pkg -> pkg.getLinks().containsKey("app"))
+        .forEach(pkg -> related.packages.putIfAbsent(pkg.getLinks().get("app").getGuid(), pkg));
+  }
+
   private CloudFoundryServerGroup map(Application application) {
+    return map(application, null);
+  }
+
+  private CloudFoundryServerGroup map(Application application, @Nullable RelatedResources related) {
     CloudFoundryServerGroup.State state =
         CloudFoundryServerGroup.State.valueOf(application.getState());
 
@@ -271,32 +346,36 @@ public class Applications {
     String appId = application.getGuid();
     ApplicationEnv applicationEnv =
         safelyCall(() -> api.findApplicationEnvById(appId)).orElse(null);
-    Process process = safelyCall(() -> api.findProcessById(appId)).orElse(null);
+    Process process =
+        related != null
+            ? related.processes.get(appId)
+            : safelyCall(() -> api.findProcessById(appId)).orElse(null);
 
     CloudFoundryDroplet droplet = null;
     try {
+      Optional<Package> appPackage =
+          related != null
+              ? Optional.ofNullable(related.packages.get(appId))
+              : safelyCall(() -> api.findPackagesByAppId(appId))
+                  .flatMap(packages -> packages.getResources().stream().findFirst());
       CloudFoundryPackage cfPackage =
-          safelyCall(() -> api.findPackagesByAppId(appId))
-              .flatMap(
-                  packages ->
-                      packages.getResources().stream()
-                          .findFirst()
-                          .map(
-                              pkg ->
-                                  CloudFoundryPackage.builder()
-                                      .downloadUrl(
-                                          pkg.getLinks().containsKey("download")
-                                              ? pkg.getLinks().get("download").getHref()
-                                              : null)
-                                      .checksumType(
-                                          pkg.getData().getChecksum() == null
-                                              ? null
-                                              : pkg.getData().getChecksum().getType())
-                                      .checksum(
-                                          pkg.getData().getChecksum() == null
-                                              ? null
-                                              : pkg.getData().getChecksum().getValue())
-                                      .build()))
+          appPackage
+              .map(
+                  pkg ->
+                      CloudFoundryPackage.builder()
+                          .downloadUrl(
+                              pkg.getLinks().containsKey("download")
+                                  ? pkg.getLinks().get("download").getHref()
+                                  : null)
+                          .checksumType(
+                              pkg.getData().getChecksum() == null
+                                  ? null
+                                  : pkg.getData().getChecksum().getType())
+                          .checksum(
+                              pkg.getData().getChecksum() == null
+                                  ? null
+                                  : pkg.getData().getChecksum().getValue())
+                          .build())
               .orElse(null);
 
       droplet =
@@ -699,4 +778,10 @@ public class Applications {
             })
         .collect(Collectors.toList());
   }
+
+  /** Resources of the applications being mapped, keyed by application guid. */
+  private static class RelatedResources {
+    private final Map<String, Process> processes = new ConcurrentHashMap<>();
+    private final Map<String, Package> packages = new ConcurrentHashMap<>();
+  }
 }
@@ -23,6 +23,9 @@ import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v3.Pagination
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import retrofit.RetrofitError;
 
@@ -79,6 +82,50 @@ final class CloudFoundryClientUtils {
     return allResources;
   }
 
+  /**
+   * Like {@link #collectPages(String, Function)}, but once the first page has said how many pages
+   * there are, fetches the rest concurrently on {@code executor}. Resources are returned in page
+   * order.
+   */
+  static <R> List<R> collectPages(
+      String resourceNamePluralized, Function<Integer, Pagination<R>> fetchPage, Executor executor)
+      throws CloudFoundryApiException {
+    Pagination<R> firstPage =
+        safelyCall(() -> fetchPage.apply(null))
+            .orElseThrow(
+                () -> new CloudFoundryApiException("Unable to retrieve " + resourceNamePluralized));
+
+    List<CompletableFuture<List<R>>> remainingPages = new ArrayList<>();
+    for (int page = 2; page <= firstPage.getPagination().getTotalPages(); page++) {
+      final int p = page;
+      remainingPages.add(
+          CompletableFuture.supplyAsync(
+              () ->
+                  safelyCall(() -> fetchPage.apply(p))
+                      .orElseThrow(
+                          () ->
+                              new CloudFoundryApiException(
+                                  "Unable to retrieve " + resourceNamePluralized))
+                      .getResources(),
+              executor));
+    }
+
+    List<R> allResources = new ArrayList<>(firstPage.getResources());
+    try {
+      for (CompletableFuture<List<R>> page : remainingPages) {
+        allResources.addAll(page.join());
+      }
+    } catch (CompletionException e) {
+      remainingPages.forEach(page -> page.cancel(false));
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+
+    return allResources;
+  }
+
   static <R> List<Resource<R>> collectPageResources(
       String resourceNamePluralized, Function<Integer, Page<R>> fetchPage)
       throws CloudFoundryApiException {
@@ -84,6 +84,13 @@ public interface ApplicationService {
   @GET("/v3/processes/{guid}")
   Process findProcessById(@Path("guid") String guid);
 
+  @GET("/v3/processes")
+  Pagination<Process> findProcessesByAppIds(
+      @Query("page") Integer page,
+      @Query("per_page") Integer perPage,
+      @Query("app_guids") String appGuids,
+      @Query("types") String types);
+
   @GET("/v3/processes/{guid}/stats")
   ProcessResources findProcessStatsById(@Path("guid") String guid);
 
@@ -93,6 +100,12 @@ public interface ApplicationService {
   @GET("/v3/apps/{guid}/packages")
   Pagination<Package> findPackagesByAppId(@Path("guid") String appGuid);
 
+  @GET("/v3/packages")
+  Pagination<Package> findPackagesByAppIds(
+      @Query("page") Integer page,
+      @Query("per_page") Integer perPage,
+      @Query("app_guids") String appGuids);
+
   @POST("/v3/packages")
   Package createPackage(@Body CreatePackage pkg);
 
@@ -405,6 +405,65 @@ class ApplicationsTest {
     verify(applicationService, never()).findById(serverGroupId);
   }
 
+  @Test
+  void allLooksUpProcessesAndPackagesOfAppsTogether() {
+    Application app1 = getV3Application("app1-guid", "app1");
+    Application app2 = getV3Application("app2-guid", "app2");
+    when(applicationService.all(any(), any(), any(), any()))
+        .thenReturn(
+            new Pagination<Application>()
+                .setPagination(new Pagination.Details().setTotalPages(1))
+                .setResources(Arrays.asList(app1, app2)));
+    mockMap(cloudFoundrySpace, "droplet-id");
+    when(applicationService.findProcessesByAppIds(any(), any(), any(), any()))
+        .thenReturn(
+            new Pagination<Process>()
+                .setPagination(new Pagination.Details().setTotalPages(1))
+                .setResources(
+                    Arrays.asList(
+                        new Process().setGuid("app1-guid").setMemoryInMb(1024),
+                        new Process().setGuid("app2-guid").setMemoryInMb(2048))));
+    when(applicationService.findPackagesByAppIds(any(), any(), any()))
+        .thenReturn(
+            new Pagination<Package>()
+                .setPagination(new Pagination.Details().setTotalPages(1))
+                .setResources(
+                    Collections.singletonList(
+                        new Package()
+                            .setData(new PackageData())
+                            .setLinks(
+                                HashMap.of(
+                                        "app",
+                                        new Link().setHref("http://capi.io/v3/apps/app1-guid"),
+                                        "download",
+                                        new Link().setHref("http://capi.io/download/app1"))
+                                    .toJavaMap()))));
+
+    apps.all();
+
+    assertThat(apps.findById("app1-guid").getMemory()).isEqualTo(1024);
+    assertThat(apps.findById("app1-guid").getDroplet().getSourcePackage().getDownloadUrl())
+        .isEqualTo("http://capi.io/download/app1");
+    assertThat(apps.findById("app2-guid").getMemory()).isEqualTo(2048);
+    assertThat(apps.findById("app2-guid").getDroplet().getSourcePackage()).isNull();
+    verify(applicationService).findProcessesByAppIds(null, 500, "app1-guid,app2-guid", "web");
+    verify(applicationService).findPackagesByAppIds(null, 500, "app1-guid,app2-guid");
+    verify(applicationService, never()).findProcessById(any());
+    verify(applicationService, never()).findPackagesByAppId(any());
+    verify(applicationService, never()).findById(any());
+  }
+
+  private Application getV3Application(String guid, String name) {
+    return new Application()
+        .setCreatedAt(ZonedDateTime.now())
+        .setUpdatedAt(ZonedDateTime.now())
+        .setGuid(guid)
+        .setName(name)
+        .setState("STARTED")
+        .setLinks(
+            HashMap.of("space", new Link().setHref("http://capi.io/space/space-guid")).toJavaMap());
+  }
+
   private com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Application getApplication(
       String applicationName) {
     return new com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Application()
@@ -24,12 +24,20 @@ import com.netflix.spinnaker.cats.agent.DefaultAgentScheduler
 import com.netflix.spinnaker.cats.agent.ExecutionInstrumentation
 import com.netflix.spinnaker.cats.cache.Cache
 import com.netflix.spinnaker.cats.cache.NamedCacheFactory
+import com.netflix.spinnaker.cats.compression.CompressionStrategy
+import com.netflix.spinnaker.cats.compression.GZipCompression
+import com.netflix.spinnaker.cats.compression.Lz4Compression
+import com.netflix.spinnaker.cats.compression.NoopCompression
+import com.netflix.spinnaker.cats.compression.ZstdCompression
+import com.netflix.spinnaker.cats.mem.CompactInMemoryCache
+import com.netflix.spinnaker.cats.mem.InMemoryCache
 import com.netflix.spinnaker.cats.mem.InMemoryNamedCacheFactory
 import com.netflix.spinnaker.cats.module.CatsModule
 import com.netflix.spinnaker.cats.provider.Provider
 import com.netflix.spinnaker.cats.provider.ProviderRegistry
 import com.netflix.spinnaker.clouddriver.search.SearchProvider
 import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator
+import org.springframework.beans.factory.annotation.Value
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
 import org.springframework.boot.context.properties.EnableConfigurationProperties
@@ -37,18 +45,39 @@ import org.springframework.context.annotation.Bean
 import org.springframework.context.annotation.ComponentScan
 import org.springframework.context.annotation.Configuration
 
+import java.nio.file.Files
+import java.nio.file.Paths
 import java.util.concurrent.TimeUnit
 
 @Configuration
 @ComponentScan([
   'com.netflix.spinnaker.clouddriver.cache',
 ])
-@EnableConfigurationProperties(CatsInMemorySearchProperties)
+@EnableConfigurationProperties([CatsInMemorySearchProperties, CompressionStrategyProperties])
 class CacheConfig {
   @Bean
   @ConditionalOnMissingBean(NamedCacheFactory)
-  NamedCacheFactory namedCacheFactory() {
-    new InMemoryNamedCacheFactory()
+  NamedCacheFactory namedCacheFactory(@Value('${caching.in-memory.compact:false}') boolean compact,
+                                      @Value('${caching.in-memory.application-index-enabled:false}') boolean applicationIndexEnabled) {
+    new InMemoryNamedCacheFactory(compact ?
+      { new CompactInMemoryCache(applicationIndexEnabled) } :
+      { new InMemoryCache(applicationIndexEnabled) })
+  }
+
+  @Bean
+  @ConditionalOnMissingBean(CompressionStrategy)
+  CompressionStrategy compressionStrategy(CompressionStrategyProperties properties) {
+    switch (properties.algorithm) {
+      case CompressionStrategyProperties.Algorithm.NONE:
+        return new NoopCompression()
+      case CompressionStrategyProperties.Algorithm.LZ4:
+        return new Lz4Compression(properties.thresholdBytesSize, properties.compressEnabled)
+      case CompressionStrategyProperties.Algorithm.ZSTD:
+        byte[] dictionary = properties.zstdDictionary ? Files.readAllBytes(Paths.get(properties.zstdDictionary)) : null
+        return new ZstdCompression(properties.thresholdBytesSize, properties.compressEnabled, properties.zstdLevel, dictionary)
+      default:
+        return new GZipCompression(properties.thresholdBytesSize, properties.compressEnabled)
+    }
   }
 
   @Bean
@@ -107,8 +136,9 @@ class CacheConfig {
                                     List<SearchableProvider> providers,
                                     ProviderRegistry providerRegistry,
                                     Optional<FiatPermissionEvaluator> permissionEvaluator,
-                                    Optional<List<KeyParser>> keyParsers) {
-    new CatsSearchProvider(catsInMemorySearchProperties, cacheView, providers, providerRegistry, permissionEvaluator, keyParsers)
+                                    Optional<List<KeyParser>> keyParsers,
+                                    Registry registry) {
+    new CatsSearchProvider(catsInMemorySearchProperties, cacheView, providers, providerRegistry, permissionEvaluator, keyParsers, registry)
   }
 
   @Bean
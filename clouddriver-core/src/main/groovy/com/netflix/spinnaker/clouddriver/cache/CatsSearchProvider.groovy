@@ -17,7 +17,11 @@
 package com.netflix.spinnaker.clouddriver.cache
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder
+import com.netflix.spectator.api.Id
+import com.netflix.spectator.api.NoopRegistry
+import com.netflix.spectator.api.Registry
 import com.netflix.spinnaker.cats.cache.Cache
+import com.netflix.spinnaker.cats.mem.InMemoryCache
 import com.netflix.spinnaker.cats.provider.ProviderRegistry
 import com.netflix.spinnaker.clouddriver.search.SearchProvider
 import com.netflix.spinnaker.clouddriver.search.SearchResultSet
@@ -30,10 +34,11 @@ import org.springframework.security.core.Authentication
 import org.springframework.security.core.context.SecurityContextHolder
 
 import javax.annotation.PostConstruct
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.Executors
 import java.util.concurrent.ScheduledExecutorService
 import java.util.concurrent.TimeUnit
-import java.util.concurrent.atomic.AtomicReference
+import java.util.regex.Pattern
 
 import static com.netflix.spinnaker.clouddriver.cache.SearchableProvider.SearchableResource
 
@@ -52,12 +57,19 @@ class CatsSearchProvider implements SearchProvider, Runnable {
 
 
 
-  private final AtomicReference<Map<String, Collection<String>>> cachedIdentifiersByType = new AtomicReference(
-    [:]
-  )
+  /**
+   * In-memory search indexes, keyed by provider name and then type. A (provider, type) pair is only
+   * present once it has been indexed, until then searches go to the provider cache.
+   */
+  private final Map<String, Map<String, IdentifierSearchIndex>> searchIndexes = new ConcurrentHashMap<>()
 
   private final FiatPermissionEvaluator permissionEvaluator
   private final List<KeyParser> keyParsers
+  private final Registry registry
+
+  private final Id refreshTimerId
+  private final Id indexedIdentifiersId
+  private final Id indexSizeId
 
   private final ScheduledExecutorService scheduledExecutorService
 
@@ -66,7 +78,8 @@ class CatsSearchProvider implements SearchProvider, Runnable {
                      List<SearchableProvider> providers,
                      ProviderRegistry providerRegistry,
                      Optional<FiatPermissionEvaluator> permissionEvaluator,
-                     Optional<List<KeyParser>> keyParsers) {
+                     Optional<List<KeyParser>> keyParsers,
+                     Registry registry) {
     this.catsInMemorySearchProperties = catsInMemorySearchProperties
     this.cacheView = cacheView
     this.providers = providers
@@ -74,8 +87,12 @@ class CatsSearchProvider implements SearchProvider, Runnable {
     this.permissionEvaluator = permissionEvaluator.orElse(null)
     this.keyParsers = keyParsers.orElse(Collections.emptyList())
     this.providerRegistry = providerRegistry
+    this.registry = registry
+    this.refreshTimerId = registry.createId("cats.search.index.refresh")
+    this.indexedIdentifiersId = registry.createId("cats.search.index.identifiers")
+    this.indexSizeId = registry.createId("cats.search.index.estimatedSizeBytes")
 
-    defaultCaches = providers.defaultCaches.flatten()
+    defaultCaches = providers.defaultCaches.flatten().unique()
     log.info("Enabled default caches: ${defaultCaches}")
     searchResultHydrators = providers.inject([:]) { Map acc, SearchableProvider prov ->
       acc.putAll(prov.searchResultHydrators)
@@ -101,7 +118,7 @@ class CatsSearchProvider implements SearchProvider, Runnable {
                      Cache cacheView,
                      List<SearchableProvider> providers,
                      ProviderRegistry providerRegistry) {
-    this(catsInMemorySearchProperties, cacheView, providers, providerRegistry, Optional.empty(), Optional.empty())
+    this(catsInMemorySearchProperties, cacheView, providers, providerRegistry, Optional.empty(), Optional.empty(), new NoopRegistry())
 
   }
 
@@ -113,33 +130,69 @@ class CatsSearchProvider implements SearchProvider, Runnable {
   }
 
   /**
-   * Periodically refresh cache identifiers that can then be searched over in-memory vs. in-redis.
+   * Periodically refresh the in-memory search indexes of each provider's default caches, so that
+   * searches can be answered in-memory vs. in-redis.
    *
-   * This is beneficial for sets (like instances) that may have hundreds of thousands of keys.
+   * Each refresh lists the identifiers of a type once and only (un)indexes the identifiers that
+   * were added or removed since the previous refresh.
    */
   @Override
   void run() {
-    try {
-      log.info("Refreshing Cached Identifiers (instances)")
-      def instanceIdentifiers = providers.findAll { provider ->
-        provider.supportsSearch('instances', Collections.emptyMap())
-      }.collect { provider ->
-        def cache = providerRegistry.getProviderCache(provider.getProviderName())
-        return cache.getIdentifiers("instances").findResults { key ->
-          // Even though we don't need the parsed Map, we should still allow the provider to reject invalid keys
-          if (provider.parseKey(key))
-            return key?.toLowerCase()
+    providers.each { SearchableProvider provider ->
+      provider.defaultCaches.findAll { String type ->
+        provider.supportsSearch(type, Collections.emptyMap())
+      }.each { String type ->
+        try {
+          refreshIndex(provider, type)
+        } catch (Exception e) {
+          log.error("Unable to refresh search index (provider: ${provider.providerName}, type: ${type})", e)
         }
-      }.flatten()
-
-      if (instanceIdentifiers) {
-        cachedIdentifiersByType.set(["instances": instanceIdentifiers])
       }
+    }
+  }
 
-      log.info("Refreshed Cached Identifiers (found ${instanceIdentifiers.size()} instances)")
-    } catch (Exception e) {
-      log.error("Unable to refresh cached identifiers (instances)", e)
+  private void refreshIndex(SearchableProvider provider, String type) {
+    long startTime = registry.clock().monotonicTime()
+
+    def cache = providerRegistry.getProviderCache(provider.getProviderName())
+    Set<String> identifiers = cache.getIdentifiers(type).findAll { String key ->
+      // Even though we don't need the parsed Map, we should still allow the provider to reject invalid keys
+      key && provider.parseKey(key)
+    } as Set<String>
+
+    def indexes = searchIndexes.computeIfAbsent(provider.providerName) { new ConcurrentHashMap<>() }
+    def index = indexes.get(type)
+    if (index == null) {
+      if (identifiers.isEmpty()) {
+        // nothing to search yet, leave searches of this type to the provider cache
+        return
+      }
+      index = new IdentifierSearchIndex()
     }
+    def result = index.update(identifiers)
+    indexes.put(type, index)
+
+    long duration = registry.clock().monotonicTime() - startTime
+    registry.timer(refreshTimerId.withTag("type", type)).record(duration, TimeUnit.NANOSECONDS)
+    registry.gauge(indexedIdentifiersId.withTags("provider", provider.providerName, "type", type)).set(index.size())
+    registry.gauge(indexSizeId.withTags("provider", provider.providerName, "type", type)).set(index.estimatedSizeBytes())
+
+    log.info(
+      "Refreshed search index (provider: {}, type: {}, identifiers: {}, added: {}, removed: {}) in {}ms",
+      provider.providerName,
+      type,
+      index.size(),
+      result.added,
+      result.removed,
+      TimeUnit.NANOSECONDS.toMillis(duration)
+    )
+  }
+
+  /**
+   * @return the in-memory search index of a provider's type, or null if it has not been indexed
+   */
+  IdentifierSearchIndex getSearchIndex(String providerName, String type) {
+    return searchIndexes.get(providerName)?.get(type)
   }
 
   @Override
@@ -283,23 +336,21 @@ class CatsSearchProvider implements SearchProvider, Runnable {
         }
       }
 
-      def identifiers
-      def cached = cachedIdentifiersByType.get()
-      if (cached.containsKey(cache)) {
-        /**
-         * Attempt an exact match of the query against any attribute of an instance key (account, region, etc.).
-         *
-         * This is not 100% consistent with doing `*:${cache}:*${normalizedWord}*` in redis _but_ for instances it
-         * should be sufficient.
-         */
-        def identifiersForCache = cached.get(cache)
-        identifiers = identifiersForCache.findAll { it.contains(normalizedWord) }
-      } else {
-        List<SearchableProvider> validProviders = providers.findAll { it.supportsSearch(cache, filters) }
-        identifiers = new HashSet<>()
-        for (SearchableProvider sp : validProviders) {
+      List<SearchableProvider> validProviders = providers.findAll { it.supportsSearch(cache, filters) }
+      def identifiers = new HashSet<>()
+      for (SearchableProvider sp : validProviders) {
+        def searchGlob = sp.buildSearchTerm(cache, normalizedWord)
+        def index = getSearchIndex(sp.getProviderName(), cache)
+        if (index) {
+          /**
+           * The index finds keys containing the term, which are then held to the same glob the provider cache
+           * would have matched them against. The term is lowercased but the keys are not, so the glob is matched
+           * ignoring case, as the index is.
+           */
+          Pattern pattern = Pattern.compile(new InMemoryCache.Glob(searchGlob).toPattern().pattern(), Pattern.CASE_INSENSITIVE)
+          identifiers.addAll(index.find(normalizedWord).findAll { pattern.matcher(it).matches() })
+        } else {
           def providerCache = providerRegistry.getProviderCache(sp.getProviderName())
-          def searchGlob = sp.buildSearchTerm(cache, normalizedWord)
           def filteredIds = providerCache.filterIdentifiers(cache, searchGlob)
           filteredIds.removeAll(identifiers)
           def existingIds = providerCache.existingIdentifiers(cache, filteredIds)
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.clouddriver.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Selects the {@link com.netflix.spinnaker.cats.compression.CompressionStrategy} used for values
+ * in the redis cache. Compression is off until {@code caching.compression.compress-enabled} is set.
+ *
+ * <p>Every algorithm still reads values that were written uncompressed, so compression can be
+ * turned on (or off again, by unsetting compress-enabled) without flushing the cache. Values
+ * compressed with one algorithm, or zstd dictionary, can only be read back with the same one.
+ */
+@ConfigurationProperties("caching.compression")
+public class CompressionStrategyProperties {
+
+  public enum Algorithm {
+    NONE,
+    GZIP,
+    LZ4,
+    ZSTD
+  }
+
+  private Algorithm algorithm = Algorithm.GZIP;
+  private boolean compressEnabled = false;
+  private long thresholdBytesSize = 1024;
+  private int zstdLevel = 3;
+  private String zstdDictionary;
+
+  public Algorithm getAlgorithm() {
+    return algorithm;
+  }
+
+  public void setAlgorithm(Algorithm algorithm) {
+    this.algorithm = algorithm;
+  }
+
+  public boolean isCompressEnabled() {
+    return compressEnabled;
+  }
+
+  public void setCompressEnabled(boolean compressEnabled) {
+    this.compressEnabled = compressEnabled;
+  }
+
+  public long getThresholdBytesSize() {
+    return thresholdBytesSize;
+  }
+
+  public void setThresholdBytesSize(long thresholdBytesSize) {
+    this.thresholdBytesSize = thresholdBytesSize;
+  }
+
+  public int getZstdLevel() {
+    return zstdLevel;
+  }
+
+  public void setZstdLevel(int zstdLevel) {
+    this.zstdLevel = zstdLevel;
+  }
+
+  /** Path to a dictionary trained with {@code zstd --train}, or null to compress without one. */
+  public String getZstdDictionary() {
+    return zstdDictionary;
+  }
+
+  public void setZstdDictionary(String zstdDictionary) {
+    this.zstdDictionary = zstdDictionary;
+  }
+}
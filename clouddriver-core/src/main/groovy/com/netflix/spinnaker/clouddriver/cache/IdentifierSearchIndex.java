@@ -0,0 +1,226 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A trigram index over a set of cache identifiers, answering case-insensitive substring queries
+ * without scanning every identifier.
+ *
+ * <p>Each identifier is assigned an ordinal, and each distinct trigram of its lowercased form maps
+ * to the ordinals containing it. A query looks up the trigram of the term with the fewest
+ * ordinals and verifies only those candidates. Terms shorter than a trigram fall back to a scan of
+ * the identifiers held in memory.
+ *
+ * <p>The index is updated incrementally: {@link #update(Collection)} only indexes identifiers that
+ * were added and drops identifiers that disappeared since the previous update. Dropped ordinals are
+ * left in their posting lists until enough accumulate to warrant compacting the index.
+ */
+public class IdentifierSearchIndex {
+  private static final int GRAM = 3;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<String, Integer> ordinals = new HashMap<>();
+  private final List<String> identifiers = new ArrayList<>();
+  private final Map<Long, Postings> postings = new HashMap<>();
+  private int removed;
+
+  public static class UpdateResult {
+    public final int added;
+    public final int removed;
+
+    UpdateResult(int added, int removed) {
+      this.added = added;
+      this.removed = removed;
+    }
+  }
+
+  /** Makes the index hold exactly the supplied identifiers. */
+  public UpdateResult update(Collection<String> current) {
+    Set<String> currentSet = current instanceof Set ? (Set<String>) current : new HashSet<>(current);
+
+    lock.writeLock().lock();
+    try {
+      int removedCount = 0;
+      Iterator<Map.Entry<String, Integer>> existing = ordinals.entrySet().iterator();
+      while (existing.hasNext()) {
+        Map.Entry<String, Integer> entry = existing.next();
+        if (!currentSet.contains(entry.getKey())) {
+          identifiers.set(entry.getValue(), null);
+          existing.remove();
+          removedCount++;
+        }
+      }
+      removed += removedCount;
+
+      int addedCount = 0;
+      for (String identifier : currentSet) {
+        if (identifier != null && !ordinals.containsKey(identifier)) {
+          add(identifier);
+          addedCount++;
+        }
+      }
+
+      if (removed > ordinals.size() / 4) {
+        compact();
+      }
+      return new UpdateResult(addedCount, removedCount);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Returns the identifiers containing {@code term}, ignoring case. */
+  public List<String> find(String term) {
+    lock.readLock().lock();
+    try {
+      List<String> matches = new ArrayList<>();
+      if (term.length() < GRAM) {
+        for (String identifier : identifiers) {
+          if (identifier != null && containsIgnoreCase(identifier, term)) {
+            matches.add(identifier);
+          }
+        }
+        return matches;
+      }
+
+      Postings candidates = null;
+      for (int i = 0; i + GRAM <= term.length(); i++) {
+        Postings gram = postings.get(trigram(term, i));
+        if (gram == null) {
+          return Collections.emptyList();
+        }
+        if (candidates == null || gram.size < candidates.size) {
+          candidates = gram;
+        }
+      }
+
+      for (int i = 0; i < candidates.size; i++) {
+        String identifier = identifiers.get(candidates.ordinals[i]);
+        if (identifier != null && containsIgnoreCase(identifier, term)) {
+          matches.add(identifier);
+        }
+      }
+      return matches;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return ordinals.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** A rough estimate of the heap retained by the index, in bytes. */
+  public long estimatedSizeBytes() {
+    lock.readLock().lock();
+    try {
+      long bytes = 0;
+      for (String identifier : identifiers) {
+        if (identifier != null) {
+          // the String and its characters, its ordinals entry and its identifiers slot
+          bytes += 40 + 2L * identifier.length() + 48 + 8;
+        }
+      }
+      for (Postings gram : postings.values()) {
+        // the HashMap entry, boxed key and Postings, plus the ordinals array
+        bytes += 80 + 16 + 4L * gram.ordinals.length;
+      }
+      return bytes;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void add(String identifier) {
+    int ordinal = identifiers.size();
+    identifiers.add(identifier);
+    ordinals.put(identifier, ordinal);
+
+    Set<Long> grams = new HashSet<>();
+    for (int i = 0; i + GRAM <= identifier.length(); i++) {
+      long gram = trigram(identifier, i);
+      if (grams.add(gram)) {
+        postings.computeIfAbsent(gram, g -> new Postings()).add(ordinal);
+      }
+    }
+  }
+
+  private void compact() {
+    List<String> live = new ArrayList<>(ordinals.keySet());
+    ordinals.clear();
+    identifiers.clear();
+    postings.clear();
+    removed = 0;
+    for (String identifier : live) {
+      add(identifier);
+    }
+    for (Postings gram : postings.values()) {
+      gram.trim();
+    }
+  }
+
+  private static long trigram(String s, int offset) {
+    return ((long) Character.toLowerCase(s.charAt(offset)) << 32)
+        | ((long) Character.toLowerCase(s.charAt(offset + 1)) << 16)
+        | Character.toLowerCase(s.charAt(offset + 2));
+  }
+
+  private static boolean containsIgnoreCase(String identifier, String term) {
+    int last = identifier.length() - term.length();
+    for (int i = 0; i <= last; i++) {
+      if (identifier.regionMatches(true, i, term, 0, term.length())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static class Postings {
+    private int[] ordinals = new int[2];
+    private int size;
+
+    void add(int ordinal) {
+      if (size == ordinals.length) {
+        ordinals = Arrays.copyOf(ordinals, Math.max(2, size * 2));
+      }
+      ordinals[size++] = ordinal;
+    }
+
+    void trim() {
+      ordinals = Arrays.copyOf(ordinals, size);
+    }
+  }
+}
@@ -17,6 +17,7 @@ package com.netflix.spinnaker.clouddriver.cache
 
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spinnaker.cats.cache.NamedCacheFactory
+import com.netflix.spinnaker.cats.compression.CompressionStrategy
 import com.netflix.spinnaker.cats.redis.cache.RedisCache.CacheMetrics
 import com.netflix.spinnaker.cats.redis.cache.RedisCacheOptions
 import com.netflix.spinnaker.cats.redis.cache.RedisNamedCacheFactory
@@ -44,7 +45,9 @@ class JedisCacheConfig {
     RedisClientDelegate redisClientDelegate,
     ObjectMapper objectMapper,
     RedisCacheOptions redisCacheOptions,
-    CacheMetrics cacheMetrics) {
-    new RedisNamedCacheFactory(redisClientDelegate, objectMapper, redisCacheOptions, cacheMetrics)
+    CacheMetrics cacheMetrics,
+    CompressionStrategy compressionStrategy) {
+    new RedisNamedCacheFactory(
+      redisClientDelegate, objectMapper, redisCacheOptions, cacheMetrics, compressionStrategy)
   }
 }
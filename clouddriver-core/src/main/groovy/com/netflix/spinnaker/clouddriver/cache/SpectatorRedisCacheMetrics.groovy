@@ -72,6 +72,13 @@ class SpectatorRedisCacheMetrics implements CacheMetrics {
     registry.counter(id("cats.redisCache.get", "mgetOperations", tags)).increment(mgetOperations)
   }
 
+  @Override
+  void localHashes(String prefix, String type, int localHashHits, int remoteHashReads) {
+    final Iterable<Tag> tags = tags(prefix, type)
+    registry.counter(id("cats.redisCache.merge", "localHashHits", tags)).increment(localHashHits)
+    registry.counter(id("cats.redisCache.merge", "remoteHashReads", tags)).increment(remoteHashReads)
+  }
+
   private Id id(String metricGroup, String metric, Iterable<Tag> tags) {
     return registry.createId(metricGroup + '.' + metric, tags)
   }
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.requestqueue;
+
+import com.netflix.spectator.api.Registry;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Collapses concurrent {@link #executeShared} calls with the same partition and key into a single
+ * call on the delegate queue (single-flight). Callers that arrive while a matching request is in
+ * flight wait for it, within their own timeouts, and receive its result or exception; nothing is
+ * cached once it completes.
+ */
+public class CoalescingRequestQueue implements RequestQueue {
+  private final RequestQueue delegate;
+  private final Registry registry;
+  private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+  public CoalescingRequestQueue(RequestQueue delegate, Registry registry) {
+    this.delegate = delegate;
+    this.registry = registry;
+    registry.gauge("requestQueue.coalescing.inFlight", inFlight, ConcurrentMap::size);
+  }
+
+  @Override
+  public long getDefaultTimeoutMillis() {
+    return delegate.getDefaultTimeoutMillis();
+  }
+
+  @Override
+  public long getDefaultStartWorkTimeoutMillis() {
+    return delegate.getDefaultStartWorkTimeoutMillis();
+  }
+
+  @Override
+  public <T> T execute(
+      String partition, Callable<T> operation, long startWorkTimeout, long timeout, TimeUnit unit)
+      throws Throwable {
+    return delegate.execute(partition, operation, startWorkTimeout, timeout, unit);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T executeShared(
+      String partition,
+      String key,
+      Callable<T> operation,
+      long startWorkTimeout,
+      long timeout,
+      TimeUnit unit)
+      throws Throwable {
+    Key inFlightKey = new Key(partition, key);
+    CompletableFuture<Object> future = new CompletableFuture<>();
+    CompletableFuture<Object> existing = inFlight.putIfAbsent(inFlightKey, future);
+
+    if (existing != null) {
+      recordRequest(partition, true);
+      try {
+        // a follower waits no longer than the delegate would have let it wait for its own call
+        return (T) existing.get(startWorkTimeout + timeout, unit);
+      } catch (ExecutionException e) {
+        throw e.getCause();
+      } catch (TimeoutException e) {
+        registry
+            .counter(registry.createId("requestQueue.coalescing.timeout", "partition", partition))
+            .increment();
+        throw new QueuedRequestException();
+      }
+    }
+
+    recordRequest(partition, false);
+    try {
+      T result = delegate.execute(partition, operation, startWorkTimeout, timeout, unit);
+      future.complete(result);
+      return result;
+    } catch (Throwable t) {
+      future.completeExceptionally(t);
+      throw t;
+    } finally {
+      inFlight.remove(inFlightKey, future);
+    }
+  }
+
+  private void recordRequest(String partition, boolean coalesced) {
+    registry
+        .counter(
+            registry.createId(
+                "requestQueue.coalescing.requests",
+                "partition",
+                partition,
+                "coalesced",
+                Boolean.toString(coalesced)))
+        .increment();
+  }
+
+  private static class Key {
+    private final String partition;
+    private final String key;
+
+    Key(String partition, String key) {
+      this.partition = partition;
+      this.key = key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key other = (Key) o;
+      return Objects.equals(partition, other.partition) && Objects.equals(key, other.key);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(partition, key);
+    }
+  }
+}
@@ -17,6 +17,7 @@
 package com.netflix.spinnaker.clouddriver.requestqueue;
 
 import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.clouddriver.requestqueue.pooled.FairRequestQueue;
 import com.netflix.spinnaker.clouddriver.requestqueue.pooled.PooledRequestQueue;
 import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService;
 import java.util.concurrent.Callable;
@@ -32,16 +33,25 @@ public interface RequestQueue {
       DynamicConfigService dynamicConfigService,
       Registry registry,
       RequestQueueConfiguration config) {
+    RequestQueue requestQueue;
     if (!config.isEnabled()) {
-      return noop();
+      requestQueue = noop();
+    } else if (config.getDispatcher() == RequestQueueConfiguration.DispatcherType.WEIGHTED_FAIR) {
+      requestQueue = new FairRequestQueue(dynamicConfigService, registry, config);
+    } else {
+      requestQueue =
+          pooled(
+              dynamicConfigService,
+              registry,
+              config.getStartWorkTimeoutMillis(),
+              config.getTimeoutMillis(),
+              config.getPoolSize());
     }
 
-    return pooled(
-        dynamicConfigService,
-        registry,
-        config.getStartWorkTimeoutMillis(),
-        config.getTimeoutMillis(),
-        config.getPoolSize());
+    if (config.isCoalescingEnabled()) {
+      return new CoalescingRequestQueue(requestQueue, registry);
+    }
+    return requestQueue;
   }
 
   static RequestQueue noop() {
@@ -89,6 +99,38 @@ public interface RequestQueue {
       String partition, Callable<T> operation, long startWorkTimeout, long timeout, TimeUnit unit)
       throws Throwable;
 
+  default <T> T executeShared(String partition, String key, Callable<T> operation)
+      throws Throwable {
+    return executeShared(
+        partition,
+        key,
+        operation,
+        getDefaultStartWorkTimeoutMillis(),
+        getDefaultTimeoutMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Executes a read whose result may be shared with concurrent callers.
+   *
+   * <p>Implementations that coalesce requests run {@code operation} once for all concurrent calls
+   * with the same partition and key, and hand every caller the same result object, so callers must
+   * not mutate it. By default this is equivalent to {@link #execute(String, Callable, long, long,
+   * TimeUnit)}.
+   *
+   * @param key identifies the operation within the partition, e.g. the method and its arguments
+   */
+  default <T> T executeShared(
+      String partition,
+      String key,
+      Callable<T> operation,
+      long startWorkTimeout,
+      long timeout,
+      TimeUnit unit)
+      throws Throwable {
+    return execute(partition, operation, startWorkTimeout, timeout, unit);
+  }
+
   class NOOP implements RequestQueue {
     @Override
     public <T> T execute(
@@ -16,14 +16,44 @@
 
 package com.netflix.spinnaker.clouddriver.requestqueue;
 
+import java.util.HashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties("request-queue")
 public class RequestQueueConfiguration {
+  /** How queued requests are handed to workers. */
+  public enum DispatcherType {
+    /** One request per partition per pass, submitted to an unbounded executor queue. */
+    ROUND_ROBIN,
+    /**
+     * Deficit round robin across partitions, only dispatching when a worker is free so that
+     * queued work stays in its partition and partition weights are honoured.
+     */
+    WEIGHTED_FAIR
+  }
+
+  /** Which pool executes dispatched requests (only used by the weighted fair dispatcher). */
+  public enum ExecutorType {
+    FIXED,
+    WORK_STEALING
+  }
+
   private boolean enabled = false;
   private long startWorkTimeoutMillis = RequestQueue.DEFAULT_START_WORK_TIMEOUT_MILLIS;
   private long timeoutMillis = RequestQueue.DEFAULT_TIMEOUT_MILLIS;
   private int poolSize = 10;
+  private DispatcherType dispatcher = DispatcherType.ROUND_ROBIN;
+  private ExecutorType executor = ExecutorType.FIXED;
+
+  /** Whether concurrent identical reads made through {@code executeShared} share one call. */
+  private boolean coalescingEnabled = false;
+
+  /** Requests queued per partition before new requests are rejected, 0 for unbounded. */
+  private int maxQueuedPerPartition = 0;
+
+  private int defaultPartitionWeight = 1;
+  private Map<String, Integer> partitionWeights = new HashMap<>();
 
   public boolean isEnabled() {
     return enabled;
@@ -56,4 +86,52 @@ public class RequestQueueConfiguration {
   public void setPoolSize(int poolSize) {
     this.poolSize = poolSize;
   }
+
+  public boolean isCoalescingEnabled() {
+    return coalescingEnabled;
+  }
+
+  public void setCoalescingEnabled(boolean coalescingEnabled) {
+    this.coalescingEnabled = coalescingEnabled;
+  }
+
+  public DispatcherType getDispatcher() {
+    return dispatcher;
+  }
+
+  public void setDispatcher(DispatcherType dispatcher) {
+    this.dispatcher = dispatcher;
+  }
+
+  public ExecutorType getExecutor() {
+    return executor;
+  }
+
+  public void setExecutor(ExecutorType executor) {
+    this.executor = executor;
+  }
+
+  public int getMaxQueuedPerPartition() {
+    return maxQueuedPerPartition;
+  }
+
+  public void setMaxQueuedPerPartition(int maxQueuedPerPartition) {
+    this.maxQueuedPerPartition = maxQueuedPerPartition;
+  }
+
+  public int getDefaultPartitionWeight() {
+    return defaultPartitionWeight;
+  }
+
+  public void setDefaultPartitionWeight(int defaultPartitionWeight) {
+    this.defaultPartitionWeight = defaultPartitionWeight;
+  }
+
+  public Map<String, Integer> getPartitionWeights() {
+    return partitionWeights;
+  }
+
+  public void setPartitionWeights(Map<String, Integer> partitionWeights) {
+    this.partitionWeights = partitionWeights;
+  }
 }
@@ -0,0 +1,361 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.requestqueue.pooled;
+
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.histogram.PercentileTimer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dispatches queued requests across partitions using deficit round robin.
+ *
+ * <p>Each time a partition reaches the head of the active list it is credited with its weight, and
+ * it is served until that credit is spent or it runs out of requests. Requests are only handed to
+ * the executor while fewer than {@code maxInFlight} are running, so a backlog stays in the
+ * partition queues (where the weights apply) instead of in the executor's FIFO queue. The
+ * dispatcher blocks while there is nothing to dispatch rather than polling.
+ *
+ * <p>A partition is forgotten once it has nothing queued or in flight. Per-partition metrics are
+ * tagged with {@code metricPartition} of the partition name rather than the name itself, so that
+ * their cardinality stays bounded however many partitions come and go.
+ */
+class FairRequestDispatcher implements Runnable {
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition dispatchable = lock.newCondition();
+  private final Map<String, Partition> partitions = new HashMap<>();
+  private final Deque<Partition> activePartitions = new ArrayDeque<>();
+  private final Map<String, PartitionMetrics> partitionMetrics = new HashMap<>();
+
+  private final Registry registry;
+  private final Executor executor;
+  private final ToIntFunction<String> partitionWeight;
+  private final Function<String, String> metricPartition;
+  private final int maxQueuedPerPartition;
+  private final Counter submissionCounter;
+
+  private volatile boolean continueRunning = true;
+  private volatile int maxInFlight;
+  private volatile int inFlight;
+
+  FairRequestDispatcher(
+      Registry registry,
+      Executor executor,
+      ToIntFunction<String> partitionWeight,
+      Function<String, String> metricPartition,
+      int maxInFlight,
+      int maxQueuedPerPartition) {
+    this.registry = registry;
+    this.executor = executor;
+    this.partitionWeight = partitionWeight;
+    this.metricPartition = metricPartition;
+    this.maxInFlight = maxInFlight;
+    this.maxQueuedPerPartition = maxQueuedPerPartition;
+    this.submissionCounter = registry.counter("pooledRequestQueue.submitted");
+
+    registry.gauge("pooledRequestQueue.inFlight", this, d -> d.inFlight);
+    registry.gauge(
+        "pooledRequestQueue.saturation", this, d -> (double) d.inFlight / d.maxInFlight);
+  }
+
+  /**
+   * Queues a request for dispatch.
+   *
+   * @return false if the partition already has {@code maxQueuedPerPartition} requests waiting
+   */
+  boolean offer(String partition, PooledRequest<?> request) {
+    lock.lock();
+    try {
+      Partition p = partitions.computeIfAbsent(partition, Partition::new);
+      if (maxQueuedPerPartition > 0 && p.requests.size() >= maxQueuedPerPartition) {
+        p.metrics.rejected.increment();
+        return false;
+      }
+
+      p.requests.add(new QueuedRequest(request));
+      p.metrics.size.incrementAndGet();
+      if (!p.active) {
+        p.active = true;
+        activePartitions.addLast(p);
+      }
+      dispatchable.signal();
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  Collection<String> getPartitions() {
+    lock.lock();
+    try {
+      return new ArrayList<>(partitions.keySet());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  void setMaxInFlight(int maxInFlight) {
+    lock.lock();
+    try {
+      this.maxInFlight = maxInFlight;
+      dispatchable.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  void shutdown() {
+    lock.lock();
+    try {
+      continueRunning = false;
+      for (Partition p : new ArrayList<>(partitions.values())) {
+        QueuedRequest queued;
+        while ((queued = p.requests.poll()) != null) {
+          queued.request.cancel();
+          p.metrics.size.decrementAndGet();
+        }
+        p.active = false;
+        forgetIfIdle(p);
+      }
+      activePartitions.clear();
+      dispatchable.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void run() {
+    while (continueRunning) {
+      try {
+        Dispatch dispatch = awaitNext();
+        if (dispatch != null) {
+          submit(dispatch);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Throwable t) {
+        log.warn("Throwable during dispatch", t);
+      }
+    }
+  }
+
+  /**
+   * Dispatches the next request if one is eligible, without blocking.
+   *
+   * @return true if a request was handed to the executor
+   */
+  boolean tryDispatch() {
+    Dispatch dispatch;
+    lock.lock();
+    try {
+      dispatch = next();
+    } finally {
+      lock.unlock();
+    }
+
+    if (dispatch == null) {
+      return false;
+    }
+    submit(dispatch);
+    return true;
+  }
+
+  private Dispatch awaitNext() throws InterruptedException {
+    lock.lock();
+    try {
+      Dispatch dispatch;
+      while ((dispatch = next()) == null) {
+        if (!continueRunning) {
+          return null;
+        }
+        dispatchable.await();
+      }
+      return dispatch;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Must be called while holding {@code lock}. */
+  private Dispatch next() {
+    if (inFlight >= maxInFlight) {
+      return null;
+    }
+
+    while (!activePartitions.isEmpty()) {
+      Partition p = activePartitions.peekFirst();
+      if (!p.credited) {
+        p.deficit += Math.max(1, partitionWeight.applyAsInt(p.name));
+        p.credited = true;
+      }
+
+      if (p.deficit < 1) {
+        // this partition has used its share for the round, move on to the next one
+        activePartitions.pollFirst();
+        p.credited = false;
+        activePartitions.addLast(p);
+        continue;
+      }
+
+      p.deficit--;
+      QueuedRequest queued = p.requests.poll();
+      p.metrics.size.decrementAndGet();
+      if (p.requests.isEmpty()) {
+        activePartitions.pollFirst();
+        p.active = false;
+        p.credited = false;
+        p.deficit = 0;
+      }
+
+      inFlight++;
+      p.inFlight++;
+      p.metrics.inFlight.incrementAndGet();
+      return new Dispatch(p, queued);
+    }
+
+    return null;
+  }
+
+  private void submit(Dispatch dispatch) {
+    Partition p = dispatch.partition;
+    p.metrics.waitTime.record(
+        System.nanoTime() - dispatch.queued.enqueueTime, TimeUnit.NANOSECONDS);
+    submissionCounter.increment();
+    try {
+      executor.execute(
+          () -> {
+            long startTime = System.nanoTime();
+            try {
+              dispatch.queued.request.run();
+            } finally {
+              p.metrics.executionTime.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+              completed(p);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      dispatch.queued.request.cancel();
+      completed(p);
+    }
+  }
+
+  private void completed(Partition p) {
+    lock.lock();
+    try {
+      inFlight--;
+      p.inFlight--;
+      p.metrics.inFlight.decrementAndGet();
+      forgetIfIdle(p);
+      dispatchable.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Must be called while holding {@code lock}. */
+  private void forgetIfIdle(Partition p) {
+    if (!p.active && p.inFlight == 0) {
+      partitions.remove(p.name, p);
+    }
+  }
+
+  private class Partition {
+    private final String name;
+    private final PartitionMetrics metrics;
+    private final Deque<QueuedRequest> requests = new ArrayDeque<>();
+
+    private boolean active;
+    private boolean credited;
+    private int deficit;
+    private int inFlight;
+
+    Partition(String name) {
+      this.name = name;
+      this.metrics =
+          partitionMetrics.computeIfAbsent(metricPartition.apply(name), PartitionMetrics::new);
+    }
+  }
+
+  /** Metrics shared by every partition that maps to the same {@code metricPartition} tag. */
+  private class PartitionMetrics {
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejected;
+    private final PercentileTimer waitTime;
+    private final PercentileTimer executionTime;
+
+    PartitionMetrics(String name) {
+      Id sizeId = registry.createId("pooledRequestQueue.partition.size", "partition", name);
+      registry.gauge(sizeId, size);
+      registry.gauge(sizeId.withName("pooledRequestQueue.partition.inFlight"), inFlight);
+
+      this.rejected =
+          registry.counter(
+              registry.createId("pooledRequestQueue.partition.rejected", "partition", name));
+      this.waitTime =
+          PercentileTimer.get(
+              registry,
+              registry.createId("pooledRequestQueue.partition.waitTime", "partition", name));
+      this.executionTime =
+          PercentileTimer.get(
+              registry,
+              registry.createId("pooledRequestQueue.partition.executionTime", "partition", name));
+    }
+  }
+
+  private static class QueuedRequest {
+    private final PooledRequest<?> request;
+    private final long enqueueTime = System.nanoTime();
+
+    QueuedRequest(PooledRequest<?> request) {
+      this.request = request;
+    }
+  }
+
+  private static class Dispatch {
+    private final Partition partition;
+    private final QueuedRequest queued;
+
+    Dispatch(Partition partition, QueuedRequest queued) {
+      this.partition = partition;
+      this.queued = queued;
+    }
+  }
+}
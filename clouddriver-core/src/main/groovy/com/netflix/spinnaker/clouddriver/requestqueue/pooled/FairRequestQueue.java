@@ -0,0 +1,250 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.requestqueue.pooled;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.clouddriver.requestqueue.RequestQueue;
+import com.netflix.spinnaker.clouddriver.requestqueue.RequestQueueConfiguration;
+import com.netflix.spinnaker.clouddriver.requestqueue.RequestQueueConfiguration.ExecutorType;
+import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * A {@link RequestQueue} that shares its workers between partitions in proportion to their
+ * weights (see {@link FairRequestDispatcher}).
+ *
+ * <p>Weights default to {@code request-queue.partition-weights.<partition>} and can be overridden
+ * at runtime through the dynamic config service under the same key. When {@code
+ * request-queue.max-queued-per-partition} is set, requests beyond that depth are rejected
+ * immediately with a 429 rather than waiting to time out.
+ *
+ * <p>Metrics are only tagged with the names of partitions that have a configured weight; all other
+ * partitions are reported together as {@value #OTHER_PARTITION}.
+ *
+ * <p>A {@code WORK_STEALING} executor cannot be resized once created, so changes to {@code
+ * request-queue.pool-size} only change how many requests are dispatched concurrently.
+ */
+public class FairRequestQueue implements RequestQueue {
+  static final String OTHER_PARTITION = "other";
+
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final long defaultStartWorkTimeout;
+  private final long defaultTimeout;
+  private final int defaultPoolSize;
+  private final int defaultPartitionWeight;
+  private final Map<String, Integer> configuredWeights;
+  private final Map<String, Integer> partitionWeights = new ConcurrentHashMap<>();
+
+  private final ExecutorService executorService;
+  private final ExecutorService dispatcherService;
+  private final FairRequestDispatcher dispatcher;
+
+  private final DynamicConfigService dynamicConfigService;
+  private final Registry registry;
+
+  private final AtomicBoolean isEnabled = new AtomicBoolean(true);
+
+  public FairRequestQueue(
+      DynamicConfigService dynamicConfigService,
+      Registry registry,
+      RequestQueueConfiguration config) {
+    if (config.getStartWorkTimeoutMillis() <= 0) {
+      throw new IllegalArgumentException("startWorkTimeoutMillis");
+    }
+
+    if (config.getTimeoutMillis() <= 0) {
+      throw new IllegalArgumentException("timeoutMillis");
+    }
+
+    if (config.getPoolSize() < 1) {
+      throw new IllegalArgumentException("poolSize");
+    }
+
+    this.dynamicConfigService = dynamicConfigService;
+    this.registry = registry;
+
+    this.defaultStartWorkTimeout = config.getStartWorkTimeoutMillis();
+    this.defaultTimeout = config.getTimeoutMillis();
+    this.defaultPoolSize = config.getPoolSize();
+    this.defaultPartitionWeight = Math.max(1, config.getDefaultPartitionWeight());
+    this.configuredWeights = new HashMap<>(config.getPartitionWeights());
+
+    this.executorService = createExecutor(config.getExecutor(), config.getPoolSize());
+    this.dispatcher =
+        new FairRequestDispatcher(
+            registry,
+            executorService,
+            this::getPartitionWeight,
+            this::metricPartition,
+            config.getPoolSize(),
+            config.getMaxQueuedPerPartition());
+    this.dispatcherService =
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat(FairRequestQueue.class.getSimpleName() + "-dispatcher")
+                .build());
+    dispatcherService.submit(dispatcher);
+
+    registry.gauge("pooledRequestQueue.corePoolSize", dispatcher, d -> d.getMaxInFlight());
+    registry.gauge("pooledRequestQueue.enabled", isEnabled, value -> value.get() ? 1.0 : 0.0);
+  }
+
+  private static ExecutorService createExecutor(ExecutorType executorType, int poolSize) {
+    String namePrefix = FairRequestQueue.class.getSimpleName() + "-";
+    if (executorType == ExecutorType.WORK_STEALING) {
+      AtomicInteger threadCount = new AtomicInteger();
+      return new ForkJoinPool(
+          poolSize,
+          pool -> {
+            ForkJoinWorkerThread thread =
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(namePrefix + threadCount.getAndIncrement());
+            return thread;
+          },
+          null,
+          true);
+    }
+
+    return new ThreadPoolExecutor(
+        poolSize,
+        poolSize,
+        0,
+        TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(),
+        new ThreadFactoryBuilder().setNameFormat(namePrefix + "%d").build());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    dispatcher.shutdown();
+    dispatcherService.shutdownNow();
+    executorService.shutdown();
+  }
+
+  @Override
+  public long getDefaultTimeoutMillis() {
+    return defaultTimeout;
+  }
+
+  @Override
+  public long getDefaultStartWorkTimeoutMillis() {
+    return defaultStartWorkTimeout;
+  }
+
+  @Override
+  public <T> T execute(
+      String partition, Callable<T> operation, long startWorkTimeout, long timeout, TimeUnit unit)
+      throws Throwable {
+    if (!isEnabled.get()) {
+      return operation.call();
+    }
+
+    final long startTime = System.nanoTime();
+    final String metricPartition = metricPartition(partition);
+    final PooledRequest<T> request = new PooledRequest<>(registry, metricPartition, operation);
+
+    Id id = registry.createId("pooledRequestQueue.totalTime", "partition", metricPartition);
+    try {
+      if (!dispatcher.offer(partition, request)) {
+        throw new PartitionQueueFullException();
+      }
+      T result = request.getPromise().blockingGetOrThrow(startWorkTimeout, timeout, unit);
+      id = id.withTag("success", "true");
+      return result;
+    } catch (Throwable t) {
+      id = id.withTags("success", "false", "cause", t.getClass().getSimpleName());
+      throw t;
+    } finally {
+      registry.timer(id).record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private int getPartitionWeight(String partition) {
+    Integer weight = partitionWeights.get(partition);
+    if (weight == null) {
+      weight = configuredWeights.getOrDefault(partition, defaultPartitionWeight);
+    }
+    return weight;
+  }
+
+  private String metricPartition(String partition) {
+    return configuredWeights.containsKey(partition) ? partition : OTHER_PARTITION;
+  }
+
+  @Scheduled(fixedDelayString = "${request-queue.core-pool-size-refresh-ms:120000}")
+  public void refreshCorePoolSize() {
+    int currentPoolSize = dispatcher.getMaxInFlight();
+    int desiredPoolSize =
+        dynamicConfigService.getConfig(Integer.class, "request-queue.pool-size", defaultPoolSize);
+
+    if (desiredPoolSize != currentPoolSize && desiredPoolSize > 0) {
+      log.info(
+          "Updating core pool size (original: {}, updated: {})", currentPoolSize, desiredPoolSize);
+      if (executorService instanceof ThreadPoolExecutor) {
+        ThreadPoolExecutor threadPoolExecutor = (ThreadPoolExecutor) executorService;
+        if (desiredPoolSize > currentPoolSize) {
+          threadPoolExecutor.setMaximumPoolSize(desiredPoolSize);
+          threadPoolExecutor.setCorePoolSize(desiredPoolSize);
+        } else {
+          threadPoolExecutor.setCorePoolSize(desiredPoolSize);
+          threadPoolExecutor.setMaximumPoolSize(desiredPoolSize);
+        }
+      }
+      dispatcher.setMaxInFlight(desiredPoolSize);
+    }
+
+    // only overrides are kept, so partitions that have drained do not accumulate here
+    Set<String> partitions = new HashSet<>(dispatcher.getPartitions());
+    partitions.addAll(partitionWeights.keySet());
+    for (String partition : partitions) {
+      int configuredWeight = configuredWeights.getOrDefault(partition, defaultPartitionWeight);
+      int weight =
+          Math.max(
+              1,
+              dynamicConfigService.getConfig(
+                  Integer.class, "request-queue.partition-weights." + partition, configuredWeight));
+      if (weight == configuredWeight) {
+        partitionWeights.remove(partition);
+      } else {
+        partitionWeights.put(partition, weight);
+      }
+    }
+
+    isEnabled.set(dynamicConfigService.isEnabled("request-queue", true));
+  }
+}
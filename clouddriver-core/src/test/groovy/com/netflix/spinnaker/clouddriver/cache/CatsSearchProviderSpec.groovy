@@ -33,12 +33,17 @@ class CatsSearchProviderSpec extends Specification {
 
   def providers = [
     Stub(SearchableProvider) {
+      getProviderName() >> "unparseable"
+      getDefaultCaches() >> ["instances"]
       supportsSearch('instances', _) >> true
       getAgents() >> [ instanceAgent ]
       parseKey(_) >> { String k -> return null }
     },
     Stub(SearchableProvider) {
+      getProviderName() >> "parseable"
+      getDefaultCaches() >> ["instances"]
       supportsSearch('instances', _) >> true
+      buildSearchTerm(_, _) >> { String type, String term -> "*:${type}:*${term}*".toString() }
       getAgents() >> [ instanceAgent ]
       parseKey(_) >> { String k -> return ["originalKey": k] }
     }
@@ -70,9 +75,52 @@ class CatsSearchProviderSpec extends Specification {
     catsSearchProvider.run()
 
     then:
-    catsSearchProvider.cachedIdentifiersByType.get() == [
-      "instances": instanceIdentifiers.collect { it.toLowerCase() }
-    ]
+    catsSearchProvider.getSearchIndex("unparseable", "instances") == null
+    catsSearchProvider.getSearchIndex("parseable", "instances").find("instances").sort() == instanceIdentifiers.sort()
+  }
+
+  def "should search indexed identifiers in-memory"() {
+    given:
+    cache.getIdentifiers("instances") >> { return instanceIdentifiers }
+    catsSearchProvider.run()
+
+    when:
+    def results = catsSearchProvider.search("i-12", ["instances"], 1, 10)
+
+    then:
+    0 * cache.filterIdentifiers(_, _)
+    results.totalMatches == 1
+    results.results*.originalKey == ["aws:instances:prod:us-west-2:I-1234"]
+  }
+
+  def "should search indexed identifiers ignoring case"() {
+    given:
+    cache.getIdentifiers("instances") >> { return instanceIdentifiers }
+    catsSearchProvider.run()
+
+    expect:
+    catsSearchProvider.search(query, ["instances"], 1, 10).results*.originalKey == ["aws:instances:prod:us-west-2:I-5678"]
+
+    where:
+    query << ["i-56", "I-56", "Prod:US-West-2:i-5678"]
+  }
+
+  def "should only index identifiers that changed"() {
+    given:
+    def identifiers = new ArrayList<>(instanceIdentifiers)
+    cache.getIdentifiers("instances") >> { return identifiers }
+    catsSearchProvider.run()
+
+    when:
+    identifiers.remove("aws:instances:prod:us-west-2:I-1234")
+    identifiers.add("aws:instances:prod:us-west-2:I-4321")
+    catsSearchProvider.run()
+    def index = catsSearchProvider.getSearchIndex("parseable", "instances")
+
+    then:
+    index.size() == instanceIdentifiers.size()
+    index.find("i-1234").isEmpty()
+    index.find("i-4321") == ["aws:instances:prod:us-west-2:I-4321"]
   }
 
   def "should handle unparseable instance identifiers"() {
@@ -83,7 +131,8 @@ class CatsSearchProviderSpec extends Specification {
     catsSearchProvider.run()
 
     then:
-    catsSearchProvider.cachedIdentifiersByType.get() == [:]
+    catsSearchProvider.getSearchIndex("unparseable", "instances") == null
+    catsSearchProvider.getSearchIndex("parseable", "instances") == null
 
     when:
     providers.add(
@@ -93,6 +142,6 @@ class CatsSearchProviderSpec extends Specification {
     )
 
     then:
-    catsSearchProvider.cachedIdentifiersByType.get() == [:]
+    catsSearchProvider.getSearchIndex("unparseable", "instances") == null
   }
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.requestqueue
+
+import com.netflix.spectator.api.DefaultRegistry
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class CoalescingRequestQueueSpec extends Specification {
+  def registry = new DefaultRegistry()
+  def queue = new CoalescingRequestQueue(RequestQueue.noop(), registry)
+  def executor = Executors.newFixedThreadPool(4)
+
+  def cleanup() {
+    executor.shutdownNow()
+  }
+
+  def "should share one in-flight call between concurrent callers with the same key"() {
+    given:
+    def calls = new AtomicInteger()
+    def started = new CountDownLatch(1)
+    def release = new CountDownLatch(1)
+    Callable<String> operation = {
+      calls.incrementAndGet()
+      started.countDown()
+      release.await()
+      return "result"
+    }
+
+    when:
+    def leader = executor.submit({ queue.executeShared("app", "key", operation) } as Callable)
+    started.await()
+    def followers = (1..3).collect {
+      executor.submit({ queue.executeShared("app", "key", { calls.incrementAndGet(); "other" }) } as Callable)
+    }
+    waitForCoalescedRequests(3)
+    release.countDown()
+
+    then:
+    leader.get(1, TimeUnit.SECONDS) == "result"
+    followers*.get(1, TimeUnit.SECONDS) == ["result", "result", "result"]
+    calls.get() == 1
+  }
+
+  def "should propagate the in-flight call's exception to every caller"() {
+    given:
+    def started = new CountDownLatch(1)
+    def release = new CountDownLatch(1)
+    Callable<String> operation = {
+      started.countDown()
+      release.await()
+      throw new IllegalStateException("boom")
+    }
+
+    when:
+    def leader = executor.submit({ queue.executeShared("app", "key", operation) } as Callable)
+    started.await()
+    def follower = executor.submit({ queue.executeShared("app", "key", { "other" }) } as Callable)
+    waitForCoalescedRequests(1)
+    release.countDown()
+
+    then:
+    [leader, follower].every {
+      try {
+        it.get(1, TimeUnit.SECONDS)
+        return false
+      } catch (e) {
+        return e.cause instanceof IllegalStateException
+      }
+    }
+  }
+
+  def "should time out a waiting caller within its own timeouts"() {
+    given:
+    def started = new CountDownLatch(1)
+    def release = new CountDownLatch(1)
+    Callable<String> operation = {
+      started.countDown()
+      release.await()
+      return "result"
+    }
+
+    when:
+    def leader = executor.submit({ queue.executeShared("app", "key", operation) } as Callable)
+    started.await()
+    queue.executeShared("app", "key", { "other" }, 10, 10, TimeUnit.MILLISECONDS)
+
+    then:
+    thrown(QueuedRequestException)
+    registry.counter("requestQueue.coalescing.timeout", "partition", "app").count() == 1
+
+    when:
+    release.countDown()
+
+    then:
+    leader.get(1, TimeUnit.SECONDS) == "result"
+  }
+
+  def "should not share results between different keys or once a call has completed"() {
+    given:
+    def calls = new AtomicInteger()
+
+    expect:
+    queue.executeShared("app", "a", { calls.incrementAndGet() }) == 1
+    queue.executeShared("app", "a", { calls.incrementAndGet() }) == 2
+    queue.executeShared("app", "b", { calls.incrementAndGet() }) == 3
+    queue.executeShared("other", "a", { calls.incrementAndGet() }) == 4
+  }
+
+  def "should not coalesce unless the queue is configured to"() {
+    given:
+    def calls = new AtomicInteger()
+    def noop = RequestQueue.noop()
+
+    expect:
+    noop.executeShared("app", "a", { calls.incrementAndGet() }) == 1
+    RequestQueue.forConfig(null, registry, new RequestQueueConfiguration()) instanceof RequestQueue.NOOP
+    RequestQueue.forConfig(null, registry, new RequestQueueConfiguration(coalescingEnabled: true)) instanceof CoalescingRequestQueue
+  }
+
+  private void waitForCoalescedRequests(int expected) {
+    def counter = registry.counter("requestQueue.coalescing.requests", "partition", "app", "coalesced", "true")
+    long deadline = System.currentTimeMillis() + 5000
+    while (counter.count() < expected && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5)
+    }
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.requestqueue.pooled
+
+import com.netflix.spectator.api.DefaultRegistry
+import com.netflix.spectator.api.NoopRegistry
+import com.netflix.spectator.api.Registry
+import spock.lang.Specification
+
+import java.util.concurrent.CancellationException
+import java.util.concurrent.Executor
+import java.util.concurrent.TimeUnit
+
+class FairRequestDispatcherSpec extends Specification {
+  Registry registry = new NoopRegistry()
+  List<String> executed = []
+
+  def "should share dispatches between partitions in proportion to their weight"() {
+    given:
+    def dispatcher = new FairRequestDispatcher(registry, { it.run() } as Executor, { it == "appA" ? 2 : 1 }, { it }, 10, 0)
+    4.times {
+      dispatcher.offer("appA", request("appA"))
+      dispatcher.offer("appB", request("appB"))
+    }
+
+    when:
+    while (dispatcher.tryDispatch()) {}
+
+    then:
+    executed == ["appA", "appA", "appB", "appA", "appA", "appB", "appB", "appB"]
+  }
+
+  def "should not dispatch more than maxInFlight requests at once"() {
+    given:
+    List<Runnable> submitted = []
+    def dispatcher = new FairRequestDispatcher(registry, { submitted << it } as Executor, { 1 }, { it }, 1, 0)
+    dispatcher.offer("appA", request("appA"))
+    dispatcher.offer("appB", request("appB"))
+
+    expect:
+    dispatcher.tryDispatch()
+    !dispatcher.tryDispatch()
+
+    when:
+    submitted[0].run()
+
+    then:
+    dispatcher.tryDispatch()
+    executed == ["appA"]
+  }
+
+  def "should reject requests once a partition is full"() {
+    given:
+    def dispatcher = new FairRequestDispatcher(registry, { it.run() } as Executor, { 1 }, { it }, 1, 2)
+
+    expect:
+    dispatcher.offer("appA", request("appA"))
+    dispatcher.offer("appA", request("appA"))
+    !dispatcher.offer("appA", request("appA"))
+    dispatcher.offer("appB", request("appB"))
+  }
+
+  def "should cancel queued requests on shutdown"() {
+    given:
+    def dispatcher = new FairRequestDispatcher(registry, { it.run() } as Executor, { 1 }, { it }, 1, 0)
+    def queued = request("appA")
+    dispatcher.offer("appA", queued)
+
+    when:
+    dispatcher.shutdown()
+    queued.getPromise().blockingGetOrThrow(1, 1, TimeUnit.MILLISECONDS)
+
+    then:
+    thrown(CancellationException)
+    !dispatcher.tryDispatch()
+    executed.isEmpty()
+  }
+
+  def "should forget partitions once they have nothing queued or in flight"() {
+    given:
+    List<Runnable> submitted = []
+    def dispatcher = new FairRequestDispatcher(registry, { submitted << it } as Executor, { 1 }, { it }, 10, 0)
+    dispatcher.offer("appA", request("appA"))
+    dispatcher.offer("appB", request("appB"))
+
+    when:
+    while (dispatcher.tryDispatch()) {}
+
+    then: 'both are still in flight'
+    dispatcher.getPartitions().sort() == ["appA", "appB"]
+
+    when:
+    submitted[0].run()
+
+    then:
+    dispatcher.getPartitions() == ["appB"]
+    executed == ["appA"]
+  }
+
+  def "should tag partition metrics with the metric partition"() {
+    given:
+    def registry = new DefaultRegistry()
+    def dispatcher = new FairRequestDispatcher(registry, { it.run() } as Executor, { 1 }, { it == "appA" ? it : "other" }, 1, 1)
+
+    when:
+    ["appA", "appB", "appC"].each {
+      dispatcher.offer(it, request(it))
+      dispatcher.offer(it, request(it))
+    }
+
+    then:
+    registry.counter("pooledRequestQueue.partition.rejected", "partition", "appA").count() == 1
+    registry.counter("pooledRequestQueue.partition.rejected", "partition", "other").count() == 2
+    registry.counters().filter { it.id().name() == "pooledRequestQueue.partition.rejected" }.count() == 2
+  }
+
+  private PooledRequest<String> request(String partition) {
+    return new PooledRequest<String>(registry, partition, {
+      executed << partition
+      return partition
+    })
+  }
+}
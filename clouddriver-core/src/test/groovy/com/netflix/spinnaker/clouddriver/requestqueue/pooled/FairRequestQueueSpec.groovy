@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.requestqueue.pooled
+
+import com.netflix.spectator.api.NoopRegistry
+import com.netflix.spinnaker.clouddriver.requestqueue.RequestQueueConfiguration
+import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+
+class FairRequestQueueSpec extends Specification {
+  def dynamicConfigService = Mock(DynamicConfigService)
+
+  @Unroll
+  def "should execute requests with a #executorType executor"() {
+    given:
+    def queue = new FairRequestQueue(dynamicConfigService, new NoopRegistry(), config(executorType, 0))
+
+    when:
+    Long result = queue.execute("foo", { return 12345L })
+
+    then:
+    result == 12345L
+
+    cleanup:
+    queue.shutdown()
+
+    where:
+    executorType << RequestQueueConfiguration.ExecutorType.values()
+  }
+
+  def "should time out if request does not complete"() {
+    given:
+    def config = config(RequestQueueConfiguration.ExecutorType.FIXED, 0)
+    config.timeoutMillis = 10
+    def queue = new FairRequestQueue(dynamicConfigService, new NoopRegistry(), config)
+
+    when:
+    queue.execute("foo", { Thread.sleep(20); return 12345L })
+
+    then:
+    thrown(PromiseTimeoutException)
+
+    cleanup:
+    queue.shutdown()
+  }
+
+  def "should reject requests when a partition queue is full"() {
+    given: "a queue with one worker and room for one waiting request per partition"
+    def queue = new FairRequestQueue(
+      dynamicConfigService, new NoopRegistry(), config(RequestQueueConfiguration.ExecutorType.FIXED, 1)
+    )
+    def started = new CountDownLatch(1)
+    def release = new CountDownLatch(1)
+    Callable<Void> blocking = {
+      started.countDown()
+      release.await()
+      return null
+    }
+
+    when: "the worker is busy and one request is already waiting"
+    Thread.start { queue.execute("foo", blocking) }
+    started.await()
+    Thread.start { queue.execute("foo", { return null }) }
+    Thread.sleep(50)
+    queue.execute("foo", { return null })
+
+    then:
+    thrown(PartitionQueueFullException)
+
+    cleanup:
+    release.countDown()
+    queue.shutdown()
+  }
+
+  private static RequestQueueConfiguration config(RequestQueueConfiguration.ExecutorType executorType,
+                                                  int maxQueuedPerPartition) {
+    return new RequestQueueConfiguration(
+      enabled: true,
+      dispatcher: RequestQueueConfiguration.DispatcherType.WEIGHTED_FAIR,
+      executor: executorType,
+      poolSize: 1,
+      startWorkTimeoutMillis: 1000,
+      timeoutMillis: 1000,
+      maxQueuedPerPartition: maxQueuedPerPartition
+    )
+  }
+}
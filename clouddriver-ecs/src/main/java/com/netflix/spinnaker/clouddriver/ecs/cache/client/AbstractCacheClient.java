@@ -18,10 +18,16 @@ package com.netflix.spinnaker.clouddriver.ecs.cache.client;
 
 import com.netflix.spinnaker.cats.cache.Cache;
 import com.netflix.spinnaker.cats.cache.CacheData;
+import com.netflix.spinnaker.cats.cache.RelationshipCacheFilter;
 import com.netflix.spinnaker.clouddriver.ecs.cache.Keys;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -30,6 +36,9 @@ abstract class AbstractCacheClient<T> {
   private final String keyNamespace;
   protected final Cache cacheView;
 
+  /** Owns what a {@link CacheClientScope} remembers of reads by key pattern. */
+  private final Object readsByPattern = new Object();
+
   /**
    * @param cacheView The Cache that the client will query.
    * @param keyNamespace The key namespace that the client is responsible for.
@@ -58,8 +67,16 @@ abstract class AbstractCacheClient<T> {
    *     namespace.
    */
   public Collection<T> getAll(String account, String region) {
-    Collection<CacheData> data = fetchFromCache(account, region);
-    return convertAll(data);
+    return getAll(account, region, "*");
+  }
+
+  /**
+   * @param keys Keys within the key namespace that will be used to retrieve the objects, with a
+   *     single read of the cache.
+   * @return The objects associated to those keys that are cached, in the order of the keys.
+   */
+  public Collection<T> getAll(Collection<String> keys) {
+    return new ArrayList<>(get(keys).values());
   }
 
   /**
@@ -67,6 +84,94 @@ abstract class AbstractCacheClient<T> {
    * @return An object of the generic type that is associated to the key.
    */
   public T get(String key) {
+    CacheClientScope scope = CacheClientScope.current();
+    if (scope == null) {
+      return read(key);
+    }
+
+    Map<String, Optional<T>> entries = scope.values(this);
+    Optional<T> entry = entries.get(key);
+    if (entry == null) {
+      entry = Optional.ofNullable(read(key));
+      entries.put(key, entry);
+    }
+    return entry.orElse(null);
+  }
+
+  /**
+   * @param keys Keys within the key namespace that will be used to retrieve the objects, with a
+   *     single read of the cache.
+   * @return The objects associated to those keys that are cached, by key.
+   */
+  public Map<String, T> get(Collection<String> keys) {
+    CacheClientScope scope = CacheClientScope.current();
+    if (scope == null) {
+      return read(keys);
+    }
+
+    Map<String, Optional<T>> entries = scope.values(this);
+    prefetch(keys);
+    Map<String, T> result = new LinkedHashMap<>();
+    for (String key : keys) {
+      entries.get(key).ifPresent(value -> result.put(key, value));
+    }
+    return result;
+  }
+
+  /**
+   * Reads the objects associated to {@code keys} that have not been read yet with a single read of
+   * the cache, so that retrieving them later in the open {@link CacheClientScope} does not read
+   * the cache again. Has no effect when no scope is open.
+   *
+   * @param keys Keys within the key namespace of objects that are about to be retrieved.
+   */
+  public void prefetch(Collection<String> keys) {
+    CacheClientScope scope = CacheClientScope.current();
+    if (scope == null) {
+      return;
+    }
+
+    Map<String, Optional<T>> entries = scope.values(this);
+    Set<String> missing =
+        keys.stream()
+            .filter(key -> !entries.containsKey(key))
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    Map<String, T> read = read(missing);
+    for (String key : missing) {
+      entries.put(key, Optional.ofNullable(read.get(key)));
+    }
+  }
+
+  /**
+   * @param account name of the AWS account, as defined in clouddriver.yml
+   * @param region region of the AWS account, as defined in clouddriver.yml
+   * @param namePattern glob matching the last part of the keys of the objects to retrieve
+   * @return A list of the generic type objects belonging to the account and region in the key
+   *     namespace whose key matches the pattern.
+   */
+  protected Collection<T> getAll(String account, String region, String namePattern) {
+    CacheClientScope scope = CacheClientScope.current();
+    if (scope == null) {
+      return convertAll(fetchFromCache(account, region, namePattern));
+    }
+
+    String pattern = getKeyPattern(account, region, namePattern);
+    Map<String, Collection<T>> reads = scope.values(readsByPattern);
+    Collection<T> result = reads.get(pattern);
+    if (result == null) {
+      Map<String, Optional<T>> entries = scope.values(this);
+      result = new ArrayList<>();
+      for (CacheData cacheData : fetchFromCache(account, region, namePattern)) {
+        T value = convert(cacheData);
+        entries.put(cacheData.getId(), Optional.of(value));
+        result.add(value);
+      }
+      reads.put(pattern, result);
+    }
+    return result;
+  }
+
+  private T read(String key) {
     CacheData cacheData = cacheView.get(keyNamespace, key);
     if (cacheData != null) {
       return convert(cacheData);
@@ -74,6 +179,30 @@ abstract class AbstractCacheClient<T> {
     return null;
   }
 
+  /** Reads the objects associated to {@code keys} without their relationships, which are unused. */
+  private Map<String, T> read(Collection<String> keys) {
+    Map<String, T> result = new LinkedHashMap<>();
+    if (keys.isEmpty()) {
+      return result;
+    }
+
+    Collection<CacheData> data =
+        cacheView.getAll(keyNamespace, keys, RelationshipCacheFilter.none());
+    if (data != null) {
+      Map<String, CacheData> byKey = new LinkedHashMap<>();
+      for (CacheData cacheData : data) {
+        byKey.put(cacheData.getId(), cacheData);
+      }
+      for (String key : keys) {
+        CacheData cacheData = byKey.get(key);
+        if (cacheData != null) {
+          result.put(key, convert(cacheData));
+        }
+      }
+    }
+    return result;
+  }
+
   /**
    * @param cacheData A collection of CacheData that will be converted into a collection of generic
    *     typ objects.
@@ -86,14 +215,12 @@ abstract class AbstractCacheClient<T> {
   /**
    * @param account name of the AWS account, as defined in clouddriver.yml
    * @param region region of the AWS account, as defined in clouddriver.yml
+   * @param namePattern glob matching the last part of the keys
    * @return
    */
-  private Collection<CacheData> fetchFromCache(String account, String region) {
-    String accountFilter = account != null ? account + Keys.SEPARATOR : "*" + Keys.SEPARATOR;
-    String regionFilter = region != null ? region + Keys.SEPARATOR : "*" + Keys.SEPARATOR;
+  private Collection<CacheData> fetchFromCache(String account, String region, String namePattern) {
     Set<String> keys = new HashSet<>();
-    String pattern =
-        "ecs" + Keys.SEPARATOR + keyNamespace + Keys.SEPARATOR + accountFilter + regionFilter + "*";
+    String pattern = getKeyPattern(account, region, namePattern);
     Collection<String> nameMatches = cacheView.filterIdentifiers(keyNamespace, pattern);
 
     keys.addAll(nameMatches);
@@ -106,4 +233,16 @@ abstract class AbstractCacheClient<T> {
 
     return allData;
   }
+
+  private String getKeyPattern(String account, String region, String namePattern) {
+    String accountFilter = account != null ? account + Keys.SEPARATOR : "*" + Keys.SEPARATOR;
+    String regionFilter = region != null ? region + Keys.SEPARATOR : "*" + Keys.SEPARATOR;
+    return "ecs"
+        + Keys.SEPARATOR
+        + keyNamespace
+        + Keys.SEPARATOR
+        + accountFilter
+        + regionFilter
+        + namePattern;
+  }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.ecs.cache.client;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Remembers what the cache clients read on the current thread while the scope is open, so that
+ * building a view reads each cache entry at most once however many resources refer to it, and
+ * entries read in bulk up front (see {@link AbstractCacheClient#prefetch}) are not read again one
+ * at a time.
+ *
+ * <p>Scopes are meant to last for a single request or caching agent run; what they remember is
+ * not refreshed. Opening a scope while one is already open on the thread joins the open scope,
+ * which is only discarded when the outermost caller closes it.
+ */
+public final class CacheClientScope implements AutoCloseable {
+  private static final ThreadLocal<CacheClientScope> CURRENT = new ThreadLocal<>();
+
+  private final Map<Object, Map<String, ?>> values = new IdentityHashMap<>();
+  private int depth = 1;
+
+  private CacheClientScope() {}
+
+  public static CacheClientScope open() {
+    CacheClientScope scope = CURRENT.get();
+    if (scope != null) {
+      scope.depth++;
+      return scope;
+    }
+    scope = new CacheClientScope();
+    CURRENT.set(scope);
+    return scope;
+  }
+
+  /** @return The scope open on the current thread, or null if there is none. */
+  static CacheClientScope current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * @param owner The client remembering the values, which is the only one to read or write them.
+   * @return The values remembered by {@code owner} in this scope, by key.
+   */
+  @SuppressWarnings("unchecked")
+  <V> Map<String, V> values(Object owner) {
+    return (Map<String, V>) values.computeIfAbsent(owner, o -> new HashMap<String, V>());
+  }
+
+  @Override
+  public void close() {
+    if (--depth == 0) {
+      CURRENT.remove();
+    }
+  }
+}
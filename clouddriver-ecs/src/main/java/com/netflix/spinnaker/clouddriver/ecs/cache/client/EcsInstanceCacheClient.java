@@ -23,6 +23,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.netflix.spinnaker.cats.cache.Cache;
 import com.netflix.spinnaker.clouddriver.aws.data.Keys;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Component;
@@ -48,6 +49,17 @@ public class EcsInstanceCacheClient {
     region = region != null ? region : "*";
 
     String searchKey = Keys.getInstanceKey(instanceId, account, region);
+    CacheClientScope scope = CacheClientScope.current();
+    if (scope == null) {
+      return read(searchKey);
+    }
+
+    // Tasks sharing a container instance are described with the same EC2 instance
+    Map<String, Set<Instance>> reads = scope.values(this);
+    return reads.computeIfAbsent(searchKey, this::read);
+  }
+
+  private Set<Instance> read(String searchKey) {
     Collection<String> instanceKeys = cacheView.filterIdentifiers(INSTANCES.getNs(), searchKey);
 
     return cacheView.getAll(INSTANCES.getNs(), instanceKeys).stream()
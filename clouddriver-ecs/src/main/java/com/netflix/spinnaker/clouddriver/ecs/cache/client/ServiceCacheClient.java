@@ -24,9 +24,11 @@ import com.netflix.spinnaker.cats.cache.Cache;
 import com.netflix.spinnaker.cats.cache.CacheData;
 import com.netflix.spinnaker.clouddriver.ecs.cache.model.Service;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -40,6 +42,20 @@ public class ServiceCacheClient extends AbstractCacheClient<Service> {
     this.objectMapper = objectMapper;
   }
 
+  /**
+   * @param account name of the AWS account, as defined in clouddriver.yml
+   * @param region region of the AWS account, as defined in clouddriver.yml
+   * @param application name of the Spinnaker application
+   * @return The services of the application in the account and region, reading only the services
+   *     whose name is prefixed by the application's.
+   */
+  public Collection<Service> getAllByApplication(
+      String account, String region, String application) {
+    return getAll(account, region, application + "*").stream()
+        .filter(service -> application.equals(service.getApplicationName()))
+        .collect(Collectors.toList());
+  }
+
   @Override
   protected Service convert(CacheData cacheData) {
     Service service = new Service();
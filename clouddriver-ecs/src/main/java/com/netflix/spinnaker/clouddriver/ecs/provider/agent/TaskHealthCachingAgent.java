@@ -48,7 +48,9 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -105,15 +107,51 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
     Collection<Task> tasks = taskCacheClient.getAll(accountName, region);
     if (tasks != null) {
       log.debug("Found {} tasks to retrieve health for.", tasks.size());
+
+      // Read everything the tasks refer to up front, with one read of each type rather than
+      // several reads per task.
+      Map<String, ContainerInstance> containerInstances =
+          containerInstanceCacheClient.get(
+              tasks.stream()
+                  .map(
+                      task ->
+                          Keys.getContainerInstanceKey(
+                              accountName, region, task.getContainerInstanceArn()))
+                  .collect(Collectors.toSet()));
+      Map<String, Service> services =
+          serviceCacheClient.get(
+              tasks.stream()
+                  .map(task -> Keys.getServiceKey(accountName, region, getServiceName(task)))
+                  .collect(Collectors.toSet()));
+      Map<String, TaskDefinition> taskDefinitions =
+          taskDefinitionCacheClient.get(
+              services.values().stream()
+                  .map(
+                      service ->
+                          Keys.getTaskDefinitionKey(
+                              accountName, region, service.getTaskDefinition()))
+                  .collect(Collectors.toSet()));
+      Map<String, EcsTargetHealth> cachedTargetHealths =
+          targetHealthCacheClient.get(
+              services.values().stream()
+                  .map(Service::getLoadBalancers)
+                  .filter(Objects::nonNull)
+                  .flatMap(Collection::stream)
+                  .map(LoadBalancer::getTargetGroupArn)
+                  .filter(Objects::nonNull)
+                  .map(arn -> Keys.getTargetHealthKey(accountName, region, arn))
+                  .collect(Collectors.toSet()));
+      Map<String, Map<String, TargetHealthDescription>> targetHealths = new HashMap<>();
+      cachedTargetHealths.forEach((key, health) -> targetHealths.put(key, indexByTarget(health)));
+
       for (Task task : tasks) {
         String containerInstanceCacheKey =
             Keys.getContainerInstanceKey(accountName, region, task.getContainerInstanceArn());
-        ContainerInstance containerInstance =
-            containerInstanceCacheClient.get(containerInstanceCacheKey);
+        ContainerInstance containerInstance = containerInstances.get(containerInstanceCacheKey);
 
-        String serviceName = StringUtils.substringAfter(task.getGroup(), "service:");
+        String serviceName = getServiceName(task);
         String serviceKey = Keys.getServiceKey(accountName, region, serviceName);
-        Service service = serviceCacheClient.get(serviceKey);
+        Service service = services.get(serviceKey);
 
         if (service == null) {
           String taskEvictionKey = Keys.getTaskKey(accountName, region, task.getTaskId());
@@ -127,7 +165,7 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
 
         String taskDefinitionCacheKey =
             Keys.getTaskDefinitionKey(accountName, region, service.getTaskDefinition());
-        TaskDefinition taskDefinition = taskDefinitionCacheClient.get(taskDefinitionCacheKey);
+        TaskDefinition taskDefinition = taskDefinitions.get(taskDefinitionCacheKey);
 
         if (isContainerMissingNetworking(task)) {
           log.debug(
@@ -142,7 +180,7 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
           if (container.getNetworkBindings().size() >= 1) {
             taskHealth =
                 inferHealthNetworkBindedContainer(
-                    targetHealthCacheClient,
+                    targetHealths,
                     task,
                     containerInstance,
                     serviceName,
@@ -155,7 +193,7 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
         if (taskHealth == null) {
           taskHealth =
               inferHealthNetworkInterfacedContainer(
-                  targetHealthCacheClient, task, serviceName, service, taskDefinition);
+                  targetHealths, task, serviceName, service, taskDefinition);
         }
         log.debug("Task Health contains the following elements: {}", taskHealth);
 
@@ -171,8 +209,29 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
     return taskHealthList;
   }
 
+  private static String getServiceName(Task task) {
+    return StringUtils.substringAfter(task.getGroup(), "service:");
+  }
+
+  /** Indexes the health of a target group's targets by {@link #targetKey}. */
+  private static Map<String, TargetHealthDescription> indexByTarget(EcsTargetHealth targetHealth) {
+    Map<String, TargetHealthDescription> index = new HashMap<>();
+    if (targetHealth.getTargetHealthDescriptions() != null) {
+      for (TargetHealthDescription description : targetHealth.getTargetHealthDescriptions()) {
+        index.putIfAbsent(
+            targetKey(description.getTarget().getId(), description.getTarget().getPort()),
+            description);
+      }
+    }
+    return index;
+  }
+
+  private static String targetKey(String targetId, Integer targetPort) {
+    return targetId + ":" + targetPort;
+  }
+
   private TaskHealth inferHealthNetworkInterfacedContainer(
-      TargetHealthCacheClient targetHealthCacheClient,
+      Map<String, Map<String, TargetHealthDescription>> targetHealths,
       Task task,
       String serviceName,
       Service loadBalancerService,
@@ -213,7 +272,7 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
 
       overallTaskHealth =
           describeTargetHealth(
-              targetHealthCacheClient,
+              targetHealths,
               task,
               loadBalancerService,
               serviceName,
@@ -247,7 +306,7 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
   }
 
   private TaskHealth inferHealthNetworkBindedContainer(
-      TargetHealthCacheClient targetHealthCacheClient,
+      Map<String, Map<String, TargetHealthDescription>> targetHealths,
       Task task,
       ContainerInstance containerInstance,
       String serviceName,
@@ -284,7 +343,7 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
 
       overallTaskHealth =
           describeTargetHealth(
-              targetHealthCacheClient,
+              targetHealths,
               task,
               loadBalancerService,
               serviceName,
@@ -297,20 +356,8 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
     return overallTaskHealth;
   }
 
-  private TargetHealthDescription findHealthDescription(
-      List<TargetHealthDescription> targetHealths, String targetId, Integer targetPort) {
-
-    return targetHealths.stream()
-        .filter(
-            h ->
-                h.getTarget().getId().equals(targetId)
-                    && h.getTarget().getPort().equals(targetPort))
-        .findFirst()
-        .orElse(null);
-  }
-
   private TaskHealth describeTargetHealth(
-      TargetHealthCacheClient targetHealthCacheClient,
+      Map<String, Map<String, TargetHealthDescription>> targetHealths,
       Task task,
       Service loadBalancerService,
       String serviceName,
@@ -320,14 +367,14 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
       TaskHealth overallTaskHealth) {
 
     String targetHealthKey = Keys.getTargetHealthKey(accountName, region, targetGroupArn);
-    EcsTargetHealth targetHealth = targetHealthCacheClient.get(targetHealthKey);
+    Map<String, TargetHealthDescription> targetHealth = targetHealths.get(targetHealthKey);
 
     if (targetHealth == null) {
       log.debug("Cached EcsTargetHealth is empty for targetGroup {}", targetGroupArn);
       return makeTaskHealth(task, serviceName, null);
     }
     TargetHealthDescription targetHealthDescription =
-        findHealthDescription(targetHealth.getTargetHealthDescriptions(), targetId, targetPort);
+        targetHealth.get(targetKey(targetId, targetPort));
 
     if (targetHealthDescription == null) {
       log.debug(
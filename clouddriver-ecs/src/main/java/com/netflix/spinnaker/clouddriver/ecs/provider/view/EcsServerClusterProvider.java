@@ -24,6 +24,7 @@ import com.google.common.collect.Sets;
 import com.netflix.spinnaker.clouddriver.aws.security.AmazonCredentials;
 import com.netflix.spinnaker.clouddriver.ecs.EcsCloudProvider;
 import com.netflix.spinnaker.clouddriver.ecs.cache.Keys;
+import com.netflix.spinnaker.clouddriver.ecs.cache.client.CacheClientScope;
 import com.netflix.spinnaker.clouddriver.ecs.cache.client.EcsCloudWatchAlarmCacheClient;
 import com.netflix.spinnaker.clouddriver.ecs.cache.client.EcsLoadbalancerCacheClient;
 import com.netflix.spinnaker.clouddriver.ecs.cache.client.ScalableTargetCacheClient;
@@ -47,6 +48,7 @@ import com.netflix.spinnaker.clouddriver.security.AccountCredentials;
 import com.netflix.spinnaker.clouddriver.security.AccountCredentialsProvider;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -106,8 +108,10 @@ public class EcsServerClusterProvider implements ClusterProvider<EcsServerCluste
       Map<String, Set<EcsServerCluster>> clusterMap,
       AmazonCredentials credentials,
       String application) {
-    for (AmazonCredentials.AWSRegion awsRegion : credentials.getRegions()) {
-      clusterMap = findClustersForRegion(clusterMap, credentials, awsRegion, application);
+    try (CacheClientScope scope = CacheClientScope.open()) {
+      for (AmazonCredentials.AWSRegion awsRegion : credentials.getRegions()) {
+        clusterMap = findClustersForRegion(clusterMap, credentials, awsRegion, application);
+      }
     }
 
     return clusterMap;
@@ -119,25 +123,33 @@ public class EcsServerClusterProvider implements ClusterProvider<EcsServerCluste
       AmazonCredentials.AWSRegion awsRegion,
       String application) {
 
+    String account = credentials.getName();
+    String region = awsRegion.getName();
+
     Collection<Service> services =
-        serviceCacheClient.getAll(credentials.getName(), awsRegion.getName());
-    Collection<Task> allTasks = taskCacheClient.getAll(credentials.getName(), awsRegion.getName());
+        application != null
+            ? serviceCacheClient.getAllByApplication(account, region, application)
+            : serviceCacheClient.getAll(account, region);
+    if (services.isEmpty()) {
+      return clusterMap;
+    }
+
+    Map<String, List<Task>> tasksByGroup =
+        taskCacheClient.getAll(account, region).stream()
+            .filter(task -> task.getGroup() != null)
+            .collect(Collectors.groupingBy(Task::getGroup));
+    prefetch(account, region, services, tasksByGroup);
+    Collection<? extends LoadBalancer> regionLoadBalancers =
+        ecsLoadbalancerCacheClient.find(account, region);
 
     for (Service service : services) {
       String applicationName = service.getApplicationName();
       String serviceName = service.getServiceName();
 
-      if (application != null && !applicationName.equals(application)) {
-        continue;
-      }
-
-      Set<LoadBalancer> loadBalancers =
-          new HashSet<>(
-              ecsLoadbalancerCacheClient.find(credentials.getName(), awsRegion.getName()));
+      Set<LoadBalancer> loadBalancers = new HashSet<>(regionLoadBalancers);
 
       Set<Instance> instances =
-          allTasks.stream()
-              .filter(task -> task.getGroup().equals("service:" + serviceName))
+          getTasks(tasksByGroup, serviceName).stream()
               .map(
                   task ->
                       convertToEcsTask(
@@ -198,6 +210,44 @@ public class EcsServerClusterProvider implements ClusterProvider<EcsServerCluste
     return clusterMap;
   }
 
+  /**
+   * Reads what the server groups of {@code services} are built from in bulk, rather than for one
+   * service or task at a time.
+   */
+  private void prefetch(
+      String account,
+      String region,
+      Collection<Service> services,
+      Map<String, List<Task>> tasksByGroup) {
+    taskDefinitionCacheClient.prefetch(
+        services.stream()
+            .map(service -> Keys.getTaskDefinitionKey(account, region, service.getTaskDefinition()))
+            .collect(Collectors.toList()));
+    scalableTargetCacheClient.prefetch(
+        services.stream()
+            .map(
+                service ->
+                    getScalableTargetKey(
+                        account, region, service.getClusterName(), service.getServiceName()))
+            .collect(Collectors.toList()));
+    containerInformationService.prefetchTaskInformation(
+        account,
+        region,
+        services.stream()
+            .flatMap(service -> getTasks(tasksByGroup, service.getServiceName()).stream())
+            .collect(Collectors.toList()));
+  }
+
+  private static List<Task> getTasks(Map<String, List<Task>> tasksByGroup, String serviceName) {
+    return tasksByGroup.getOrDefault("service:" + serviceName, Collections.emptyList());
+  }
+
+  private static String getScalableTargetKey(
+      String account, String region, String ecsCluster, String serviceName) {
+    String scalableTargetId = "service/" + ecsCluster + "/" + serviceName;
+    return Keys.getScalableTargetKey(account, region, scalableTargetId);
+  }
+
   private EcsTask convertToEcsTask(String account, String region, String serviceName, Task task) {
     String taskId = task.getTaskId();
     Long launchTime = task.getStartedAt();
@@ -305,8 +355,7 @@ public class EcsServerClusterProvider implements ClusterProvider<EcsServerCluste
     image.setImageId(ecsTaskDefinition.getContainerImage());
     image.setName(ecsTaskDefinition.getContainerImage());
 
-    String scalableTargetId = "service/" + ecsCluster + "/" + serviceName;
-    String scalableTargetKey = Keys.getScalableTargetKey(account, region, scalableTargetId);
+    String scalableTargetKey = getScalableTargetKey(account, region, ecsCluster, serviceName);
     ScalableTarget scalableTarget = scalableTargetCacheClient.get(scalableTargetKey);
     if (scalableTarget == null) {
       return null;
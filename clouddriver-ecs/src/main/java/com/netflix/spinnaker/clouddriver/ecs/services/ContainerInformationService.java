@@ -19,6 +19,7 @@ package com.netflix.spinnaker.clouddriver.ecs.services;
 import com.amazonaws.services.ec2.model.Instance;
 import com.amazonaws.services.ecs.model.NetworkBinding;
 import com.netflix.spinnaker.clouddriver.ecs.cache.Keys;
+import com.netflix.spinnaker.clouddriver.ecs.cache.client.CacheClientScope;
 import com.netflix.spinnaker.clouddriver.ecs.cache.client.ContainerInstanceCacheClient;
 import com.netflix.spinnaker.clouddriver.ecs.cache.client.EcsInstanceCacheClient;
 import com.netflix.spinnaker.clouddriver.ecs.cache.client.ServiceCacheClient;
@@ -30,10 +31,13 @@ import com.netflix.spinnaker.clouddriver.ecs.cache.model.Task;
 import com.netflix.spinnaker.clouddriver.ecs.cache.model.TaskHealth;
 import com.netflix.spinnaker.clouddriver.ecs.security.ECSCredentialsConfig;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -63,6 +67,24 @@ public class ContainerInformationService {
     this.containerInstanceCacheClient = containerInstanceCacheClient;
   }
 
+  /**
+   * Reads the health and container instances of {@code tasks} in bulk, so that describing the
+   * tasks while a {@link CacheClientScope} is open does not read them one task at a time.
+   */
+  public void prefetchTaskInformation(String accountName, String region, Collection<Task> tasks) {
+    taskHealthCacheClient.prefetch(
+        tasks.stream()
+            .map(task -> Keys.getTaskHealthKey(accountName, region, task.getTaskId()))
+            .collect(Collectors.toList()));
+    containerInstanceCacheClient.prefetch(
+        tasks.stream()
+            .map(Task::getContainerInstanceArn)
+            .filter(Objects::nonNull)
+            .distinct()
+            .map(arn -> Keys.getContainerInstanceKey(accountName, region, arn))
+            .collect(Collectors.toList()));
+  }
+
   public List<Map<String, Object>> getHealthStatus(
       String taskId, String serviceName, String accountName, String region) {
     String serviceCacheKey = Keys.getServiceKey(accountName, region, serviceName);
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.ecs.cache
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spinnaker.cats.cache.Cache
+import com.netflix.spinnaker.cats.cache.DefaultCacheData
+import com.netflix.spinnaker.clouddriver.ecs.cache.client.CacheClientScope
+import com.netflix.spinnaker.clouddriver.ecs.cache.client.ServiceCacheClient
+import spock.lang.Specification
+import spock.lang.Subject
+
+import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.SERVICES
+
+class CacheClientScopeSpec extends Specification {
+  def cacheView = Mock(Cache)
+
+  @Subject
+  ServiceCacheClient client = new ServiceCacheClient(cacheView, new ObjectMapper())
+
+  def keyA = Keys.getServiceKey('test-account', 'us-west-1', 'myapp-a-v001')
+  def keyB = Keys.getServiceKey('test-account', 'us-west-1', 'myapp-b-v001')
+  def missingKey = Keys.getServiceKey('test-account', 'us-west-1', 'myapp-c-v001')
+
+  def 'should read entries in bulk once while a scope is open'() {
+    when:
+    def scope = CacheClientScope.open()
+    client.prefetch([keyA, missingKey])
+    def services = client.getAll([keyA, keyB, missingKey])
+    def serviceA = client.get(keyA)
+    def missing = client.get(missingKey)
+    scope.close()
+
+    then:
+    1 * cacheView.getAll(SERVICES.ns, [keyA, missingKey] as Set, _) >> [cacheData(keyA, 'myapp')]
+    1 * cacheView.getAll(SERVICES.ns, [keyB] as Set, _) >> [cacheData(keyB, 'myapp')]
+    0 * cacheView.get(_, _)
+    services*.serviceName == ['myapp-a-v001', 'myapp-b-v001']
+    serviceA.serviceName == 'myapp-a-v001'
+    missing == null
+  }
+
+  def 'should read entries again once the scope is closed'() {
+    given:
+    CacheClientScope.open().close()
+
+    when:
+    client.prefetch([keyA])
+    client.get(keyA)
+    client.get(keyA)
+
+    then:
+    0 * cacheView.getAll(_, _, _)
+    2 * cacheView.get(SERVICES.ns, keyA) >> cacheData(keyA, 'myapp')
+  }
+
+  def 'should only return services of the application'() {
+    given:
+    def pattern = "ecs;${SERVICES.ns};test-account;us-west-1;myapp*".toString()
+    def otherKey = Keys.getServiceKey('test-account', 'us-west-1', 'myapp2-v001')
+
+    when:
+    def scope = CacheClientScope.open()
+    def services = client.getAllByApplication('test-account', 'us-west-1', 'myapp')
+    def serviceA = client.get(keyA)
+    scope.close()
+
+    then:
+    1 * cacheView.filterIdentifiers(SERVICES.ns, pattern) >> [keyA, otherKey]
+    1 * cacheView.getAll(SERVICES.ns, [keyA, otherKey] as Set) >> [
+      cacheData(keyA, 'myapp'), cacheData(otherKey, 'myapp2')
+    ]
+    0 * cacheView.get(_, _)
+    services*.serviceName == ['myapp-a-v001']
+    serviceA.serviceName == 'myapp-a-v001'
+  }
+
+  private static cacheData(String key, String application) {
+    def attributes = [
+      serviceName          : Keys.parse(key).get('serviceName'),
+      applicationName      : application,
+      desiredCount         : 1,
+      maximumPercent       : 100,
+      minimumHealthyPercent: 50,
+      createdAt            : 0L
+    ]
+    new DefaultCacheData(key, attributes, [:])
+  }
+}
@@ -55,6 +55,7 @@ class TaskHealthCachingAgentSpec extends Specification {
   def credentialsProvider = Mock(AWSCredentialsProvider)
   def targetGroupArn = 'arn:aws:elasticloadbalancing:' + CommonCachingAgent.REGION + ':' + CommonCachingAgent.ACCOUNT_ID + ':targetgroup/test-target-group/9e8997b7cff00c62'
   ObjectMapper mapper = new ObjectMapper()
+  Map<String, Map<String, CacheData>> cached = [:].withDefault { [:] }
 
 
   @Subject
@@ -78,6 +79,9 @@ class TaskHealthCachingAgentSpec extends Specification {
     targetHealths.add(targetHealthMap2)
 
     providerCache.filterIdentifiers(_, _) >> []
+    providerCache.getAll({ it != TASKS.toString() }, _ as Collection, _) >> { String namespace, Collection<String> keys, filter ->
+      keys.collect { cached[namespace][it] }.findAll()
+    }
 
     def serviceAttributes = [
       loadBalancers        : Collections.singletonList(loadbalancerMap),
@@ -88,13 +92,13 @@ class TaskHealthCachingAgentSpec extends Specification {
       createdAt            : new Date().getTime()
     ]
     def serviceCacheData = new DefaultCacheData(serviceKey, serviceAttributes, Collections.emptyMap())
-    providerCache.get(Keys.Namespace.SERVICES.toString(), serviceKey) >> serviceCacheData
+    cached[Keys.Namespace.SERVICES.toString()][serviceKey] = serviceCacheData
 
     def containerInstanceAttributes = [
       ec2InstanceId: CommonCachingAgent.EC2_INSTANCE_ID_1
     ]
     def containerInstanceCache = new DefaultCacheData(containerInstanceKey, containerInstanceAttributes, Collections.emptyMap())
-    providerCache.get(Keys.Namespace.CONTAINER_INSTANCES.toString(), containerInstanceKey) >> containerInstanceCache
+    cached[Keys.Namespace.CONTAINER_INSTANCES.toString()][containerInstanceKey] = containerInstanceCache
 
     def targetHealthAttributes = [
       targetGroupArn : targetGroupArn,
@@ -102,7 +106,7 @@ class TaskHealthCachingAgentSpec extends Specification {
     ]
 
     def targetHealthCache = new DefaultCacheData(targetHealthKey, targetHealthAttributes, Collections.emptyMap())
-    providerCache.get(TARGET_HEALTHS.toString(), targetHealthKey) >> targetHealthCache
+    cached[TARGET_HEALTHS.toString()][targetHealthKey] = targetHealthCache
   }
 
   def 'should get a list of task health'() {
@@ -130,7 +134,7 @@ class TaskHealthCachingAgentSpec extends Specification {
     ]
     def taskDefKey = Keys.getTaskDefinitionKey(CommonCachingAgent.ACCOUNT, CommonCachingAgent.REGION, CommonCachingAgent.TASK_DEFINITION_ARN_1)
     def taskDefCacheData = new DefaultCacheData(taskDefKey, taskDefAttributes, Collections.emptyMap())
-    providerCache.get(TASK_DEFINITIONS.toString(), taskDefKey) >> taskDefCacheData
+    cached[TASK_DEFINITIONS.toString()][taskDefKey] = taskDefCacheData
 
 
     when:
@@ -147,6 +151,42 @@ class TaskHealthCachingAgentSpec extends Specification {
     taskHealth.getTaskId() == CommonCachingAgent.TASK_ID_1
   }
 
+  def 'should read what tasks refer to once for all tasks'() {
+    given:
+    ObjectMapper mapper = new ObjectMapper()
+    Map<String, Object> containerMap = mapper.convertValue(new Container().withNetworkBindings(new NetworkBinding().withContainerPort(1338).withHostPort(1338)), Map.class)
+    def taskCacheData = [CommonCachingAgent.TASK_ID_1, CommonCachingAgent.TASK_ID_2].collect { taskId ->
+      def taskAttributes = [
+        taskId               : taskId,
+        taskArn              : CommonCachingAgent.TASK_ARN_1,
+        startedAt            : new Date().getTime(),
+        containerInstanceArn : CommonCachingAgent.CONTAINER_INSTANCE_ARN_1,
+        group                : 'service:' + CommonCachingAgent.SERVICE_NAME_1,
+        containers           : Collections.singletonList(containerMap)
+      ]
+      new DefaultCacheData(Keys.getTaskKey(CommonCachingAgent.ACCOUNT, CommonCachingAgent.REGION, taskId), taskAttributes, Collections.emptyMap())
+    }
+    providerCache.getAll(TASKS.toString(), _) >> taskCacheData
+
+    Map<String, Object> containerDefinitionMap = mapper.convertValue(new ContainerDefinition().withPortMappings(
+      new PortMapping().withHostPort(1338)
+    ), Map.class)
+    def taskDefAttributes = [
+      taskDefinitionArn    : CommonCachingAgent.TASK_DEFINITION_ARN_1,
+      containerDefinitions : [ containerDefinitionMap ]
+    ]
+    def taskDefKey = Keys.getTaskDefinitionKey(CommonCachingAgent.ACCOUNT, CommonCachingAgent.REGION, CommonCachingAgent.TASK_DEFINITION_ARN_1)
+    cached[TASK_DEFINITIONS.toString()][taskDefKey] = new DefaultCacheData(taskDefKey, taskDefAttributes, Collections.emptyMap())
+
+    when:
+    def taskHealthList = agent.getItems(ecs, providerCache)
+
+    then:
+    taskHealthList*.taskId == [CommonCachingAgent.TASK_ID_1, CommonCachingAgent.TASK_ID_2]
+    taskHealthList*.state == ['Up', 'Up']
+    0 * providerCache.get(_, _)
+  }
+
   def 'should get a list of task health with host port mapping of 0'() {
     given:
     ObjectMapper mapper = new ObjectMapper()
@@ -176,7 +216,7 @@ class TaskHealthCachingAgentSpec extends Specification {
     ]
     def taskDefKey = Keys.getTaskDefinitionKey(CommonCachingAgent.ACCOUNT, CommonCachingAgent.REGION, CommonCachingAgent.TASK_DEFINITION_ARN_1)
     def taskDefCacheData = new DefaultCacheData(taskDefKey, taskDefAttributes, Collections.emptyMap())
-    providerCache.get(TASK_DEFINITIONS.toString(), taskDefKey) >> taskDefCacheData
+    cached[TASK_DEFINITIONS.toString()][taskDefKey] = taskDefCacheData
 
 
     when:
@@ -222,7 +262,7 @@ class TaskHealthCachingAgentSpec extends Specification {
     ]
     def taskDefKey = Keys.getTaskDefinitionKey(CommonCachingAgent.ACCOUNT, CommonCachingAgent.REGION, CommonCachingAgent.TASK_DEFINITION_ARN_1)
     def taskDefCacheData = new DefaultCacheData(taskDefKey, taskDefAttributes, Collections.emptyMap())
-    providerCache.get(TASK_DEFINITIONS.toString(), taskDefKey) >> taskDefCacheData
+    cached[TASK_DEFINITIONS.toString()][taskDefKey] = taskDefCacheData
 
     when:
     def taskHealthList = agent.getItems(ecs, providerCache)
@@ -287,7 +327,7 @@ class TaskHealthCachingAgentSpec extends Specification {
     ]
     def taskDefKey = Keys.getTaskDefinitionKey(CommonCachingAgent.ACCOUNT, CommonCachingAgent.REGION, CommonCachingAgent.TASK_DEFINITION_ARN_1)
     def taskDefCacheData = new DefaultCacheData(taskDefKey, taskDefAttributes, Collections.emptyMap())
-    providerCache.get(TASK_DEFINITIONS.toString(), taskDefKey) >> taskDefCacheData
+    cached[TASK_DEFINITIONS.toString()][taskDefKey] = taskDefCacheData
 
     when:
     def taskHealthList = agent.getItems(ecs, providerCache)
@@ -358,7 +398,7 @@ class TaskHealthCachingAgentSpec extends Specification {
     ]
     def taskDefKey = Keys.getTaskDefinitionKey(CommonCachingAgent.ACCOUNT, CommonCachingAgent.REGION, CommonCachingAgent.TASK_DEFINITION_ARN_1)
     def taskDefCacheData = new DefaultCacheData(taskDefKey, taskDefAttributes, Collections.emptyMap())
-    providerCache.get(TASK_DEFINITIONS.toString(), taskDefKey) >> taskDefCacheData
+    cached[TASK_DEFINITIONS.toString()][taskDefKey] = taskDefCacheData
 
     when:
     def taskHealthList = agent.getItems(ecs, providerCache)
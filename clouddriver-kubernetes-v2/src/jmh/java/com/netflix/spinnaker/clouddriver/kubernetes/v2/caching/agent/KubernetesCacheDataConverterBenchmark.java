@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.agent;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.netflix.spinnaker.cats.cache.CacheData;
+import com.netflix.spinnaker.cats.cache.DefaultCacheData;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesManifest;
+import io.kubernetes.client.openapi.JSON;
+import io.kubernetes.client.openapi.models.V1Deployment;
+import io.kubernetes.client.openapi.models.V1Pod;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures materializing manifests and typed resources from cache data, as the view providers do
+ * for every resource they return. The {@code legacy} benchmarks are the Jackson and string
+ * round-trips the converter used to do, for comparison. Run with {@code -prof gc} to compare
+ * allocation rates as well as times.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KubernetesCacheDataConverterBenchmark {
+  private static final ImmutableMap<String, Class<?>> RESOURCE_TYPES =
+      ImmutableMap.of("deployment", V1Deployment.class, "pod", V1Pod.class);
+
+  @Param({"deployment", "pod"})
+  public String manifest;
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final JSON json = new JSON();
+
+  private CacheData cacheData;
+  private KubernetesManifest kubernetesManifest;
+  private Class<?> resourceType;
+
+  @Setup
+  public void setup() throws IOException {
+    // Cached attributes come back from the cache as plain maps parsed from JSON
+    Map<?, ?> parsed;
+    try (InputStream in = getClass().getResourceAsStream("/manifests/" + manifest + ".json")) {
+      parsed = mapper.readValue(in, Map.class);
+    }
+    cacheData =
+        new DefaultCacheData(
+            "id", ImmutableMap.<String, Object>of("manifest", parsed), ImmutableMap.of());
+    kubernetesManifest = KubernetesCacheDataConverter.getManifest(cacheData);
+    resourceType = RESOURCE_TYPES.get(manifest);
+  }
+
+  @Benchmark
+  public KubernetesManifest getManifest() {
+    return KubernetesCacheDataConverter.getManifest(cacheData);
+  }
+
+  @Benchmark
+  public KubernetesManifest legacyGetManifest() {
+    return mapper.convertValue(cacheData.getAttributes().get("manifest"), KubernetesManifest.class);
+  }
+
+  @Benchmark
+  public Object getResource() {
+    return KubernetesCacheDataConverter.getResource(kubernetesManifest, resourceType);
+  }
+
+  @Benchmark
+  public Object legacyGetResource() {
+    return json.deserialize(json.serialize(kubernetesManifest), resourceType);
+  }
+}
@@ -24,6 +24,7 @@ import static java.lang.Math.toIntExact;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
+import com.google.gson.Gson;
 import com.netflix.spinnaker.cats.cache.CacheData;
 import com.netflix.spinnaker.cats.cache.DefaultCacheData;
 import com.netflix.spinnaker.clouddriver.kubernetes.KubernetesCloudProvider;
@@ -230,16 +231,48 @@ public class KubernetesCacheDataConverter {
   }
 
   public static KubernetesManifest getManifest(CacheData cacheData) {
-    return mapper.convertValue(cacheData.getAttributes().get("manifest"), KubernetesManifest.class);
+    return convertToManifest(cacheData.getAttributes().get("manifest"));
   }
 
+  /**
+   * Manifests are cached as the maps they were parsed into, which already have the structure of a
+   * {@link KubernetesManifest}, so rather than have Jackson serialize and re-parse the whole
+   * manifest this copies its maps and lists directly. They are copied all the way down, as the
+   * source map may be the entry of an in-memory cache, which the manifest must not write to.
+   */
+  @SuppressWarnings("unchecked")
   public static KubernetesManifest convertToManifest(Object o) {
+    if (o instanceof Map) {
+      KubernetesManifest manifest = new KubernetesManifest();
+      ((Map<String, Object>) o).forEach((key, value) -> manifest.put(key, deepCopy(value)));
+      return manifest;
+    }
     return mapper.convertValue(o, KubernetesManifest.class);
   }
 
+  /** Copies maps and lists; everything else in a parsed manifest is immutable. */
+  private static Object deepCopy(Object value) {
+    if (value instanceof Map) {
+      Map<?, ?> map = (Map<?, ?>) value;
+      Map<Object, Object> copy = new LinkedHashMap<>(Math.max(4, map.size() * 4 / 3 + 1));
+      map.forEach((k, v) -> copy.put(k, deepCopy(v)));
+      return copy;
+    }
+    if (value instanceof List) {
+      List<?> list = (List<?>) value;
+      List<Object> copy = new ArrayList<>(list.size());
+      list.forEach(v -> copy.add(deepCopy(v)));
+      return copy;
+    }
+    return value;
+  }
+
   public static <T> T getResource(Object manifest, Class<T> clazz) {
-    // A little hacky, but the only way to deserialize any timestamps using string constructors
-    return json.deserialize(json.serialize(manifest), clazz);
+    // A little hacky, but the only way to deserialize any timestamps using string constructors.
+    // Going through a JSON tree rather than a string avoids writing out and re-tokenizing the
+    // whole manifest.
+    Gson gson = json.getGson();
+    return gson.fromJson(gson.toJsonTree(manifest), clazz);
   }
 
   private static CacheData defaultCacheData(
@@ -17,6 +17,7 @@
 
 package com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.agent;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.netflix.spinnaker.cats.agent.AgentDataType.Authority.AUTHORITATIVE;
 
@@ -55,8 +56,11 @@ public class KubernetesCoreCachingAgent extends KubernetesV2OnDemandCachingAgent
         .collect(toImmutableSet());
   }
 
+  /** Kinds configured as streaming kinds are cached by {@link KubernetesStreamingCachingAgent}. */
   @Override
   protected List<KubernetesKind> primaryKinds() {
-    return credentials.getGlobalKinds();
+    return credentials.getGlobalKinds().stream()
+        .filter(k -> !credentials.isStreamingKind(k))
+        .collect(toImmutableList());
   }
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.agent;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.histogram.PercentileTimer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runs per-namespace loads for an account's caching agents on a bounded pool of threads dedicated
+ * to that account, so that a large or slow cluster can neither starve other accounts nor tie up
+ * the common fork-join pool. Loads beyond the pool size wait in an unbounded queue.
+ *
+ * <p>The pool's threads time out when idle, so an executor belonging to credentials that have
+ * been replaced does not need to be shut down.
+ */
+public class KubernetesNamespaceExecutor {
+  private static final long KEEP_ALIVE_SECONDS = 60;
+
+  private final ThreadPoolExecutor executor;
+  private final Registry registry;
+  private final String accountName;
+  private final PercentileTimer queueTimer;
+
+  public KubernetesNamespaceExecutor(Registry registry, String accountName, int threads) {
+    this.registry = registry;
+    this.accountName = accountName;
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder()
+                .setNameFormat("kubernetes-" + accountName + "-namespace-%d")
+                .setDaemon(true)
+                .build());
+    this.executor.allowCoreThreadTimeOut(true);
+
+    registry.gauge(
+        registry.createId("kubernetes.namespaceExecutor.queued", "account", accountName),
+        executor,
+        e -> e.getQueue().size());
+    registry.gauge(
+        registry.createId("kubernetes.namespaceExecutor.active", "account", accountName),
+        executor,
+        ThreadPoolExecutor::getActiveCount);
+    this.queueTimer =
+        PercentileTimer.get(
+            registry,
+            registry.createId("kubernetes.namespaceExecutor.queueTime", "account", accountName));
+  }
+
+  /**
+   * Applies {@code load} to each namespace on this executor, returning the results in the order
+   * of {@code namespaces}. The time spent loading each namespace is recorded in {@code
+   * loadTimesMs}.
+   *
+   * <p>If any load fails, the loads that have not yet started are cancelled and the first failure
+   * is rethrown unchanged.
+   */
+  public <T> ImmutableList<T> loadAll(
+      Collection<String> namespaces, Function<String, T> load, Map<String, Long> loadTimesMs) {
+    List<Future<T>> futures = new ArrayList<>(namespaces.size());
+    for (String namespace : namespaces) {
+      long queuedAt = System.nanoTime();
+      futures.add(
+          executor.submit(
+              () -> {
+                long start = System.nanoTime();
+                queueTimer.record(start - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                  return load.apply(namespace);
+                } finally {
+                  long elapsed = System.nanoTime() - start;
+                  loadTimesMs.put(namespace, TimeUnit.NANOSECONDS.toMillis(elapsed));
+                  loadTimer(namespace).record(elapsed, TimeUnit.NANOSECONDS);
+                }
+              }));
+    }
+
+    try {
+      ImmutableList.Builder<T> results = ImmutableList.builder();
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+      return results.build();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException(cause);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while loading namespaces", e);
+    } finally {
+      futures.forEach(f -> f.cancel(false));
+    }
+  }
+
+  private PercentileTimer loadTimer(String namespace) {
+    Id id =
+        registry.createId(
+            "kubernetes.namespaceExecutor.loadTime",
+            "account",
+            accountName,
+            "namespace",
+            namespace);
+    return PercentileTimer.get(registry, id);
+  }
+}
@@ -0,0 +1,483 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.agent;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.netflix.spinnaker.cats.agent.AgentDataType.Authority.AUTHORITATIVE;
+import static com.netflix.spinnaker.cats.agent.AgentDataType.Authority.INFORMATIVE;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.histogram.PercentileTimer;
+import com.netflix.spinnaker.cats.agent.Agent;
+import com.netflix.spinnaker.cats.agent.AgentDataType;
+import com.netflix.spinnaker.cats.agent.AgentExecution;
+import com.netflix.spinnaker.cats.agent.CacheResult;
+import com.netflix.spinnaker.cats.agent.DefaultCacheResult;
+import com.netflix.spinnaker.cats.cache.CacheData;
+import com.netflix.spinnaker.cats.provider.ProviderCache;
+import com.netflix.spinnaker.cats.provider.ProviderRegistry;
+import com.netflix.spinnaker.clouddriver.cache.CustomScheduledAgent;
+import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesNamedAccountCredentials;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.Keys;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesKind;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesKindProperties.ResourceScope;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesManifest;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.job.KubectlJobExecutor.NoResourceTypeException;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.job.KubectlJobExecutor.WatchEvent;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.security.KubernetesV2Credentials;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caches the account's {@code streamingKinds} from kubectl watches instead of re-listing them on
+ * every cycle.
+ *
+ * <p>Each execution starts with a full list of the streamed kinds, written with {@code
+ * putCacheResult} so that anything deleted since the previous execution is evicted; this is the
+ * periodic full resync. It then runs one {@code kubectl get --watch} per kind until shortly before
+ * the agent's timeout, applying changes to an in-memory copy of the resources and flushing them
+ * with {@code addCacheResult} once {@link #CHANGE_THRESHOLD} changes have queued up or {@link
+ * #FLUSH_INTERVAL_MILLIS} has passed.
+ *
+ * <p>There is a single streaming agent per account, and each kind is watched once across all
+ * namespaces, ignoring changes outside the account's namespaces, so the number of watches does not
+ * grow with the number of namespaces or cache threads. Accounts configured with an explicit list
+ * of {@code namespaces} are usually not allowed to watch the whole cluster, so they are instead
+ * watched one namespace at a time, up to {@link #MAX_WATCHES} kubectl processes per account;
+ * namespaces beyond that are only refreshed when the agent resyncs.
+ *
+ * <p>A flush rebuilds every resource in the namespaces that changed (or every resource, if any
+ * streamed kind has cluster relationships) so that relationships and logical entries written by
+ * this agent stay complete; only the kubectl calls are saved. Deleted resources are evicted
+ * directly. Relationships to kinds cached by other agents are not computed, so kinds that are
+ * related to each other (such as services and replica sets) should be streamed together.
+ *
+ * <p>kubectl cannot resume a watch from a resource version, so a restarted watch replays the
+ * current state of its kind; replayed resources whose resource version has not changed are
+ * skipped. A resource deleted while a watch is being restarted stays cached until the next
+ * resync.
+ */
+@Slf4j
+public class KubernetesStreamingCachingAgent extends KubernetesV2CachingAgent
+    implements CustomScheduledAgent {
+  private static final long RESYNC_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+  private static final long PAD_MILLIS = TimeUnit.SECONDS.toMillis(10);
+  private static final long FLUSH_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(5);
+  private static final long RETRY_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(5);
+  private static final int CHANGE_THRESHOLD = 500;
+  private static final int MAX_WATCHES = 50;
+
+  private static final String ALL_NAMESPACES = "*";
+
+  private final PercentileTimer flushTimer;
+
+  public KubernetesStreamingCachingAgent(
+      KubernetesNamedAccountCredentials<KubernetesV2Credentials> namedAccountCredentials,
+      ObjectMapper objectMapper,
+      Registry registry,
+      int agentIndex,
+      int agentCount,
+      Long agentInterval) {
+    super(namedAccountCredentials, objectMapper, registry, agentIndex, agentCount, agentInterval);
+    this.flushTimer =
+        PercentileTimer.get(
+            registry,
+            registry.createId("kubernetes.streaming.flushTime", "account", accountName));
+  }
+
+  @Override
+  public Collection<AgentDataType> getProvidedDataTypes() {
+    Stream<AgentDataType> logicalTypes =
+        Stream.of(Keys.LogicalKind.APPLICATIONS, Keys.LogicalKind.CLUSTERS, Keys.Kind.ARTIFACT)
+            .map(Enum::toString)
+            .map(INFORMATIVE::forType);
+    Stream<AgentDataType> kubernetesTypes =
+        primaryKinds().stream().map(KubernetesKind::toString).map(AUTHORITATIVE::forType);
+
+    return Stream.concat(logicalTypes, kubernetesTypes).collect(toImmutableSet());
+  }
+
+  @Override
+  protected List<KubernetesKind> primaryKinds() {
+    return credentials.getGlobalKinds().stream()
+        .filter(credentials::isStreamingKind)
+        .collect(toImmutableList());
+  }
+
+  @Override
+  public AgentExecution getAgentExecution(ProviderRegistry providerRegistry) {
+    return new StreamingCacheExecution(providerRegistry.getProviderCache(getProviderName()));
+  }
+
+  @Override
+  public long getPollIntervalMillis() {
+    return RESYNC_INTERVAL_MILLIS;
+  }
+
+  @Override
+  public long getTimeoutMillis() {
+    return RESYNC_INTERVAL_MILLIS;
+  }
+
+  private Collection<String> authoritativeTypes() {
+    return primaryKinds().stream().map(KubernetesKind::toString).collect(toImmutableSet());
+  }
+
+  /**
+   * Resources in different namespaces can only share cache entries through logical (application
+   * and cluster) relationships, so without those a namespace can be rebuilt on its own.
+   */
+  private boolean rebuildByNamespace() {
+    return primaryKinds().stream()
+        .noneMatch(k -> credentials.getKindProperties(k).hasClusterRelationship());
+  }
+
+  class StreamingCacheExecution implements AgentExecution {
+    private final ProviderCache cache;
+
+    StreamingCacheExecution(ProviderCache cache) {
+      this.cache = cache;
+    }
+
+    @Override
+    public void executeAgent(Agent agent) {
+      execute(System.currentTimeMillis() + getTimeoutMillis() - PAD_MILLIS);
+    }
+
+    void execute(long deadline) {
+      StreamingCacheState state =
+          new StreamingCacheState(rebuildByNamespace(), ImmutableSet.copyOf(getNamespaces()));
+
+      try {
+        loadPrimaryResourceList().values().stream()
+            .flatMap(Collection::stream)
+            .forEach(state::put);
+      } catch (NoResourceTypeException e) {
+        log.warn(
+            "{}: resources streamed by this agent are not supported for this cluster",
+            getAgentType());
+        return;
+      }
+      CacheResult snapshot = buildCacheResult(state, state.allScopes());
+      cache.putCacheResult(
+          getAgentType(),
+          authoritativeTypes(),
+          new DefaultCacheResult(snapshot.getCacheResults(), unlisted(state, snapshot)));
+      state.clearChanges();
+
+      List<Runnable> watches = watches(state.events, deadline);
+      if (watches.isEmpty()) {
+        return;
+      }
+
+      ExecutorService executor =
+          Executors.newFixedThreadPool(
+              watches.size(),
+              new ThreadFactoryBuilder()
+                  .setNameFormat(KubernetesStreamingCachingAgent.class.getSimpleName() + "-%d")
+                  .setDaemon(true)
+                  .build());
+      try {
+        watches.forEach(executor::submit);
+        consumeEvents(state, deadline);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        // any kubectl processes still running exit by themselves once their request timeout passes
+        executor.shutdownNow();
+      }
+    }
+
+    /**
+     * The streamed resources in this agent's namespaces that are cached but were not listed.
+     * Flushes only record the ids they write as this agent's, so the resources it cached before
+     * the last flush have to be found in the cache to be evicted.
+     */
+    private Map<String, Collection<String>> unlisted(
+        StreamingCacheState state, CacheResult snapshot) {
+      Map<String, Collection<String>> unlisted = new HashMap<>();
+      for (KubernetesKind kind : primaryKinds()) {
+        String type = kind.toString();
+        Set<String> ids =
+            cache
+                .filterIdentifiers(
+                    type, Keys.InfrastructureCacheKey.createKey(kind, accountName, "*", "*"))
+                .stream()
+                .filter(state::owns)
+                .collect(Collectors.toSet());
+        snapshot.getCacheResults().getOrDefault(type, new ArrayList<>()).stream()
+            .map(CacheData::getId)
+            .forEach(ids::remove);
+        if (!ids.isEmpty()) {
+          unlisted.put(type, ids);
+        }
+      }
+      return unlisted;
+    }
+
+    private List<Runnable> watches(BlockingQueue<WatchEvent> events, long deadline) {
+      List<Runnable> watches = new ArrayList<>();
+      List<KubernetesKind> byNamespace = new ArrayList<>();
+      for (KubernetesKind kind : primaryKinds()) {
+        if (credentials.getKindProperties(kind).getResourceScope() == ResourceScope.CLUSTER) {
+          if (handleClusterScopedResources()) {
+            watches.add(() -> watch(kind, null, events, deadline));
+          }
+        } else if (credentials.getNamespaces().isEmpty()) {
+          watches.add(() -> watch(kind, null, events, deadline));
+        } else {
+          byNamespace.add(kind);
+        }
+      }
+
+      int skipped = 0;
+      for (String namespace : getNamespaces()) {
+        for (KubernetesKind kind : byNamespace) {
+          if (watches.size() < MAX_WATCHES) {
+            watches.add(() -> watch(kind, namespace, events, deadline));
+          } else {
+            skipped++;
+          }
+        }
+      }
+      if (skipped > 0) {
+        log.warn(
+            "{}: not watching {} kinds and namespaces beyond the limit of {} watches, they are only"
+                + " refreshed when the agent resyncs",
+            getAgentType(),
+            skipped,
+            MAX_WATCHES);
+      }
+      return watches;
+    }
+
+    /** Watches {@code kind} in {@code namespace}, or in all namespaces if it is null. */
+    private void watch(
+        KubernetesKind kind,
+        @Nullable String namespace,
+        BlockingQueue<WatchEvent> events,
+        long deadline) {
+      while (!Thread.currentThread().isInterrupted()) {
+        long remainingSeconds =
+            TimeUnit.MILLISECONDS.toSeconds(deadline - System.currentTimeMillis());
+        if (remainingSeconds <= 0) {
+          return;
+        }
+
+        try {
+          credentials.watch(kind, namespace, remainingSeconds, events::add);
+        } catch (NoResourceTypeException e) {
+          log.warn(
+              "{}: cannot watch {}, it is not supported for this cluster", getAgentType(), kind);
+          return;
+        } catch (Exception e) {
+          log.warn(
+              "{}: watch of {} in {} failed, restarting: {}",
+              getAgentType(),
+              kind,
+              namespace != null ? namespace : "all namespaces",
+              e.getMessage());
+          try {
+            Thread.sleep(RETRY_BACKOFF_MILLIS);
+          } catch (InterruptedException ie) {
+            return;
+          }
+        }
+      }
+    }
+
+    private void consumeEvents(StreamingCacheState state, long deadline)
+        throws InterruptedException {
+      long lastFlush = System.currentTimeMillis();
+      long now = lastFlush;
+      while (now < deadline) {
+        WatchEvent event =
+            state.events.poll(
+                Math.min(FLUSH_INTERVAL_MILLIS, deadline - now), TimeUnit.MILLISECONDS);
+        if (event != null) {
+          state.apply(event);
+          registry
+              .counter(
+                  "kubernetes.streaming.events",
+                  "account",
+                  accountName,
+                  "type",
+                  event.getType().toString())
+              .increment();
+        }
+
+        now = System.currentTimeMillis();
+        if (state.changeCount >= CHANGE_THRESHOLD
+            || (state.changeCount > 0 && now - lastFlush >= FLUSH_INTERVAL_MILLIS)) {
+          flush(state);
+          lastFlush = now;
+        }
+      }
+
+      if (state.changeCount > 0) {
+        flush(state);
+      }
+    }
+
+    private void flush(StreamingCacheState state) {
+      long start = System.nanoTime();
+      try {
+        cache.addCacheResult(
+            getAgentType(), authoritativeTypes(), buildCacheResult(state, state.changedScopes));
+        state.deletedIds.forEach(cache::evictDeletedItems);
+        log.debug(
+            "{}: flushed {} changes in {} namespaces",
+            getAgentType(),
+            state.changeCount,
+            state.changedScopes.size());
+      } catch (Exception e) {
+        log.warn("{}: failed to flush streamed changes", getAgentType(), e);
+      } finally {
+        state.clearChanges();
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    private CacheResult buildCacheResult(StreamingCacheState state, Collection<String> scopes) {
+      Map<String, Collection<CacheData>> cacheResults = new HashMap<>();
+      for (String scope : scopes) {
+        Map<KubernetesKind, List<KubernetesManifest>> resources =
+            state.resources.getOrDefault(scope, new HashMap<>()).values().stream()
+                .collect(Collectors.groupingBy(KubernetesManifest::getKind));
+        KubernetesStreamingCachingAgent.this
+            .buildCacheResult(resources)
+            .getCacheResults()
+            .forEach(
+                (type, data) ->
+                    cacheResults.computeIfAbsent(type, t -> new ArrayList<>()).addAll(data));
+      }
+      return new DefaultCacheResult(cacheResults);
+    }
+  }
+
+  /** The streamed resources, grouped by the scope a flush rebuilds them in. */
+  private class StreamingCacheState {
+    private final boolean byNamespace;
+    private final ImmutableSet<String> namespaces;
+    private final Map<String, Map<String, KubernetesManifest>> resources = new HashMap<>();
+    private final BlockingQueue<WatchEvent> events = new LinkedBlockingQueue<>();
+
+    private final Set<String> changedScopes = new HashSet<>();
+    private final Map<String, Collection<String>> deletedIds = new HashMap<>();
+    private int changeCount;
+
+    StreamingCacheState(boolean byNamespace, ImmutableSet<String> namespaces) {
+      this.byNamespace = byNamespace;
+      this.namespaces = namespaces;
+    }
+
+    /** Whether the resource with cache key {@code id} is cached by this agent. */
+    boolean owns(String id) {
+      return Keys.parseKey(id)
+          .filter(Keys.InfrastructureCacheKey.class::isInstance)
+          .map(key -> ((Keys.InfrastructureCacheKey) key).getNamespace())
+          .map(n -> n.isEmpty() ? handleClusterScopedResources() : namespaces.contains(n))
+          .orElse(false);
+    }
+
+    private String scope(KubernetesManifest manifest) {
+      return byNamespace ? manifest.getNamespace() : ALL_NAMESPACES;
+    }
+
+    Collection<String> allScopes() {
+      return new ArrayList<>(resources.keySet());
+    }
+
+    void put(KubernetesManifest manifest) {
+      resources
+          .computeIfAbsent(scope(manifest), s -> new HashMap<>())
+          .put(Keys.InfrastructureCacheKey.createKey(manifest, accountName), manifest);
+    }
+
+    void apply(WatchEvent event) {
+      if (event.getType() == WatchEvent.Type.ERROR) {
+        log.warn("{}: error from watch: {}", getAgentType(), event.getObject());
+        return;
+      } else if (event.getType() == WatchEvent.Type.BOOKMARK) {
+        return;
+      }
+
+      KubernetesManifest manifest = event.getObject();
+      if (!Strings.isNullOrEmpty(manifest.getNamespace())
+          && !namespaces.contains(manifest.getNamespace())) {
+        // watched across all namespaces, but cached by another agent or not at all
+        return;
+      }
+
+      String scope = scope(manifest);
+      String key = Keys.InfrastructureCacheKey.createKey(manifest, accountName);
+      String type = manifest.getKind().toString();
+      Map<String, KubernetesManifest> scoped =
+          resources.computeIfAbsent(scope, s -> new HashMap<>());
+
+      if (event.getType() == WatchEvent.Type.DELETED) {
+        if (scoped.remove(key) != null) {
+          changed(scope);
+          deletedIds.computeIfAbsent(type, t -> new HashSet<>()).add(key);
+        }
+        return;
+      }
+
+      KubernetesManifest previous = scoped.put(key, manifest);
+      if (previous == null
+          || !Objects.equals(previous.getResourceVersion(), manifest.getResourceVersion())) {
+        changed(scope);
+        Collection<String> deleted = deletedIds.get(type);
+        if (deleted != null) {
+          deleted.remove(key);
+        }
+      }
+    }
+
+    private void changed(String scope) {
+      changedScopes.add(scope);
+      changeCount++;
+    }
+
+    void clearChanges() {
+      changedScopes.clear();
+      deletedIds.clear();
+      changeCount = 0;
+    }
+  }
+}
@@ -19,6 +19,7 @@ package com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.agent;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.cats.agent.AgentIntervalAware;
@@ -44,6 +45,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -60,6 +62,9 @@ public abstract class KubernetesV2CachingAgent
 
   @Getter protected final Long agentInterval;
 
+  /** How long each namespace took to load on this agent's most recent run. */
+  private volatile ImmutableMap<String, Long> namespaceLoadTimesMs = ImmutableMap.of();
+
   protected KubernetesV2CachingAgent(
       KubernetesNamedAccountCredentials<KubernetesV2Credentials> namedAccountCredentials,
       ObjectMapper objectMapper,
@@ -99,11 +104,22 @@ public abstract class KubernetesV2CachingAgent
   @Nonnull
   private ImmutableList<KubernetesManifest> loadNamespaceScopedResources(
       @Nonnull Iterable<KubernetesKind> kubernetesKinds) {
-    return getNamespaces()
-        .parallelStream()
-        .map(n -> loadResources(kubernetesKinds, Optional.of(n)))
-        .flatMap(Collection::stream)
-        .collect(ImmutableList.toImmutableList());
+    Map<String, Long> loadTimesMs = new ConcurrentHashMap<>();
+    try {
+      return credentials
+          .getNamespaceExecutor()
+          .loadAll(
+              getNamespaces(), n -> loadResources(kubernetesKinds, Optional.of(n)), loadTimesMs)
+          .stream()
+          .flatMap(Collection::stream)
+          .collect(ImmutableList.toImmutableList());
+    } finally {
+      namespaceLoadTimesMs = ImmutableMap.copyOf(loadTimesMs);
+    }
+  }
+
+  protected ImmutableMap<String, Long> getNamespaceLoadTimesMs() {
+    return namespaceLoadTimesMs;
   }
 
   @Nonnull
@@ -175,7 +191,9 @@ public abstract class KubernetesV2CachingAgent
       long start = System.currentTimeMillis();
       Map<KubernetesKind, List<KubernetesManifest>> primaryResourceList = loadPrimaryResourceList();
       details.put("timeSpentInKubectlMs", System.currentTimeMillis() - start);
-      return buildCacheResult(primaryResourceList);
+      details.put("namespaceLoadTimesMs", getNamespaceLoadTimesMs());
+      CacheResult result = buildCacheResult(primaryResourceList);
+      return new DefaultCacheResult(result.getCacheResults(), result.getEvictions(), details);
     } catch (KubectlJobExecutor.NoResourceTypeException e) {
       log.warn(
           getAgentType() + ": resource for this caching agent is not supported for this cluster");
@@ -92,6 +92,13 @@ public class KubernetesV2CachingAgentDispatcher
                         credentials.getCacheThreads(),
                         agentInterval)));
 
+    if (!v2Credentials.getStreamingKinds().isEmpty()) {
+      // A single agent, so that each kind is watched once per account rather than once per thread
+      result.add(
+          new KubernetesStreamingCachingAgent(
+              credentials, objectMapper, registry, 0, 1, agentInterval));
+    }
+
     return result.stream()
         .collect(Collectors.toMap(KubernetesCachingAgent::getAgentType, c -> c, (a, b) -> b))
         .values();
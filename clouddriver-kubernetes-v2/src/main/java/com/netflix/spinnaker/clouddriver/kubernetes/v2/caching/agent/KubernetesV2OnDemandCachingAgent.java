@@ -97,6 +97,7 @@ public abstract class KubernetesV2OnDemandCachingAgent extends KubernetesV2Cachi
     }
 
     details.put("timeSpentInKubectlMs", System.currentTimeMillis() - start);
+    details.put("namespaceLoadTimesMs", getNamespaceLoadTimesMs());
 
     List<String> primaryKeys =
         primaryResource.values().stream()
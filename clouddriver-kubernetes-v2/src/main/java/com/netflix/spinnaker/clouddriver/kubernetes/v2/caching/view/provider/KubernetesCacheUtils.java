@@ -111,10 +111,15 @@ public class KubernetesCacheUtils {
 
   public Collection<CacheData> getAllRelationshipsOfSpinnakerKind(
       Collection<CacheData> cacheData, SpinnakerKind spinnakerKind) {
-    return kindMap.translateSpinnakerKind(spinnakerKind).stream()
-        .map(kind -> loadRelationshipsFromCache(cacheData, kind.toString()))
-        .flatMap(Collection::stream)
-        .collect(Collectors.toList());
+    return newRelationshipLoader().load(cacheData, spinnakerKind);
+  }
+
+  /**
+   * Returns a loader for the relationships of entries read while serving a single request. Views
+   * that walk several levels of relationships should share one loader between them.
+   */
+  public KubernetesRelationshipLoader newRelationshipLoader() {
+    return new KubernetesRelationshipLoader(cache, kindMap);
   }
 
   public Collection<CacheData> loadRelationshipsFromCache(
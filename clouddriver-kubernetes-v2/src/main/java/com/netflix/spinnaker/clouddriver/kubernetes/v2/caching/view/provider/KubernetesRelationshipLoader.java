@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.view.provider;
+
+import com.google.common.collect.ImmutableList;
+import com.netflix.spinnaker.cats.cache.Cache;
+import com.netflix.spinnaker.cats.cache.CacheData;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.SpinnakerKind;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesSpinnakerKindMap;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesKind;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the entries related to a set of cache entries for the duration of a single request, so
+ * that building a view of many resources costs one cache read per type rather than one per
+ * resource and type.
+ *
+ * <p>Each read is for the distinct keys of a type that have not already been loaded; types that
+ * none of the sources are related to are not read at all. Every entry loaded is remembered, so an
+ * entry reached through several sources (e.g. a service in front of many replica sets) or through
+ * several loads is read and returned once.
+ *
+ * <p>Instances are not thread-safe and are meant to be discarded at the end of the request.
+ */
+public class KubernetesRelationshipLoader {
+  private final Cache cache;
+  private final KubernetesSpinnakerKindMap kindMap;
+  private final Map<String, CacheData> loaded = new HashMap<>();
+
+  KubernetesRelationshipLoader(Cache cache, KubernetesSpinnakerKindMap kindMap) {
+    this.cache = cache;
+    this.kindMap = kindMap;
+  }
+
+  /** Loads the entries of any kind making up {@code spinnakerKind} related to {@code sources}. */
+  public ImmutableList<CacheData> load(Collection<CacheData> sources, SpinnakerKind spinnakerKind) {
+    ImmutableList.Builder<CacheData> result = ImmutableList.builder();
+    for (KubernetesKind kind : kindMap.translateSpinnakerKind(spinnakerKind)) {
+      result.addAll(load(sources, kind.toString()));
+    }
+    return result.build();
+  }
+
+  /** Loads the entries of type {@code relationshipType} related to {@code sources}. */
+  public ImmutableList<CacheData> load(Collection<CacheData> sources, String relationshipType) {
+    Set<String> keys =
+        sources.stream()
+            .filter(Objects::nonNull)
+            .map(CacheData::getRelationships)
+            .filter(Objects::nonNull)
+            .map(r -> r.get(relationshipType))
+            .filter(Objects::nonNull)
+            .flatMap(Collection::stream)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    if (keys.isEmpty()) {
+      return ImmutableList.of();
+    }
+
+    List<String> missing =
+        keys.stream().filter(k -> !loaded.containsKey(k)).collect(Collectors.toList());
+    if (!missing.isEmpty()) {
+      Collection<CacheData> data = cache.getAll(relationshipType, missing);
+      if (data != null) {
+        data.stream().filter(Objects::nonNull).forEach(d -> loaded.put(d.getId(), d));
+      }
+    }
+
+    return keys.stream()
+        .map(loaded::get)
+        .filter(Objects::nonNull)
+        .collect(ImmutableList.toImmutableList());
+  }
+}
@@ -149,23 +149,11 @@ public class KubernetesV2ClusterProvider implements ClusterProvider<KubernetesV2
     return serverGroupData
         .map(
             cd -> {
+              KubernetesRelationshipLoader loader = cacheUtils.newRelationshipLoader();
               List<CacheData> instanceData =
-                  kindMap.translateSpinnakerKind(INSTANCES).stream()
-                      .map(
-                          k ->
-                              cacheUtils.loadRelationshipsFromCache(
-                                  Collections.singletonList(cd), k.toString()))
-                      .flatMap(Collection::stream)
-                      .collect(Collectors.toList());
-
+                  loader.load(Collections.singletonList(cd), INSTANCES);
               List<CacheData> loadBalancerData =
-                  kindMap.translateSpinnakerKind(LOAD_BALANCERS).stream()
-                      .map(
-                          k ->
-                              cacheUtils.loadRelationshipsFromCache(
-                                  Collections.singletonList(cd), k.toString()))
-                      .flatMap(Collection::stream)
-                      .collect(Collectors.toList());
+                  loader.load(Collections.singletonList(cd), LOAD_BALANCERS);
 
               return cacheUtils.<KubernetesV2ServerGroup>resourceModelFromCacheData(
                   KubernetesV2ServerGroupCacheData.builder()
@@ -218,25 +206,10 @@ public class KubernetesV2ClusterProvider implements ClusterProvider<KubernetesV2
 
   private Set<KubernetesV2Cluster> translateClustersWithRelationships(
       Collection<CacheData> clusterData) {
-    // TODO(lwander) possible optimization: store lb relationships in cluster object to cut down on
-    // number of loads here.
-    List<CacheData> serverGroupData =
-        kindMap.translateSpinnakerKind(SERVER_GROUPS).stream()
-            .map(kind -> cacheUtils.loadRelationshipsFromCache(clusterData, kind.toString()))
-            .flatMap(Collection::stream)
-            .collect(Collectors.toList());
-
-    List<CacheData> loadBalancerData =
-        kindMap.translateSpinnakerKind(LOAD_BALANCERS).stream()
-            .map(kind -> cacheUtils.loadRelationshipsFromCache(serverGroupData, kind.toString()))
-            .flatMap(Collection::stream)
-            .collect(Collectors.toList());
-
-    List<CacheData> instanceData =
-        kindMap.translateSpinnakerKind(INSTANCES).stream()
-            .map(kind -> cacheUtils.loadRelationshipsFromCache(serverGroupData, kind.toString()))
-            .flatMap(Collection::stream)
-            .collect(Collectors.toList());
+    KubernetesRelationshipLoader loader = cacheUtils.newRelationshipLoader();
+    List<CacheData> serverGroupData = loader.load(clusterData, SERVER_GROUPS);
+    List<CacheData> loadBalancerData = loader.load(serverGroupData, LOAD_BALANCERS);
+    List<CacheData> instanceData = loader.load(serverGroupData, INSTANCES);
 
     Map<String, List<CacheData>> clusterToServerGroups = new HashMap<>();
     for (CacheData serverGroupDatum : serverGroupData) {
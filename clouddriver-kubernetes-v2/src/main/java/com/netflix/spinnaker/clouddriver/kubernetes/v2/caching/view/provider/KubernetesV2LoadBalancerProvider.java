@@ -117,17 +117,9 @@ public class KubernetesV2LoadBalancerProvider
 
   private Set<KubernetesV2LoadBalancer> fromLoadBalancerCacheData(
       List<CacheData> loadBalancerData) {
-    List<CacheData> serverGroupData =
-        kindMap.translateSpinnakerKind(SERVER_GROUPS).stream()
-            .map(kind -> cacheUtils.loadRelationshipsFromCache(loadBalancerData, kind.toString()))
-            .flatMap(Collection::stream)
-            .collect(Collectors.toList());
-
-    List<CacheData> instanceData =
-        kindMap.translateSpinnakerKind(INSTANCES).stream()
-            .map(kind -> cacheUtils.loadRelationshipsFromCache(serverGroupData, kind.toString()))
-            .flatMap(Collection::stream)
-            .collect(Collectors.toList());
+    KubernetesRelationshipLoader loader = cacheUtils.newRelationshipLoader();
+    List<CacheData> serverGroupData = loader.load(loadBalancerData, SERVER_GROUPS);
+    List<CacheData> instanceData = loader.load(serverGroupData, INSTANCES);
 
     Map<String, List<CacheData>> loadBalancerToServerGroups =
         cacheUtils.mapByRelationship(serverGroupData, LOAD_BALANCERS);
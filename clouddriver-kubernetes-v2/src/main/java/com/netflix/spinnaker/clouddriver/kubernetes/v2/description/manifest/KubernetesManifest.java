@@ -122,6 +122,11 @@ public class KubernetesManifest extends HashMap<String, Object> {
     return (String) getMetadata().get("uid");
   }
 
+  @JsonIgnore
+  public String getResourceVersion() {
+    return (String) getMetadata().get("resourceVersion");
+  }
+
   @JsonIgnore
   public void setName(String name) {
     getMetadata().put("name", name);
@@ -22,6 +22,7 @@ import com.google.common.collect.ImmutableSetMultimap;
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.netflix.spinnaker.clouddriver.jobs.JobExecutor;
 import com.netflix.spinnaker.clouddriver.jobs.JobRequest;
 import com.netflix.spinnaker.clouddriver.jobs.JobResult;
@@ -38,8 +39,10 @@ import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -460,6 +463,51 @@ public class KubectlJobExecutor {
     return status.getOutput();
   }
 
+  /**
+   * Watches a single kind in a namespace, or in all namespaces if {@code namespace} is null,
+   * passing each change to the supplied consumer as it is printed by kubectl, until either the
+   * request timeout elapses or kubectl exits.
+   *
+   * <p>kubectl cannot resume a watch from a resource version, so every watch begins by replaying
+   * the current state of each matching resource as an ADDED event. Requires kubectl 1.16 or later
+   * for {@code --output-watch-events}.
+   */
+  public void watch(
+      KubernetesV2Credentials credentials,
+      KubernetesKind kind,
+      String namespace,
+      long timeoutSeconds,
+      Consumer<WatchEvent> consumer) {
+    List<String> command =
+        kubectlNamespacedGet(credentials, Collections.singletonList(kind), namespace);
+    if (namespace == null) {
+      // overrides the account's default namespace
+      command.add("--all-namespaces");
+    }
+    command.add("--watch");
+    command.add("--output-watch-events");
+    // kubectl honours the last occurrence of a flag, so this overrides the account's own timeout
+    command.add("--request-timeout=" + timeoutSeconds);
+
+    JobResult<Void> status =
+        jobExecutor.runJob(new JobRequest(command), parseWatchEvents(consumer));
+
+    if (status.getResult() != JobResult.Result.SUCCESS) {
+      if (status.getError().contains(NO_RESOURCE_TYPE_ERROR)) {
+        throw new NoResourceTypeException(status.getError());
+      } else if (!status.getError().contains("Client.Timeout")
+          && !status.getError().contains("context deadline exceeded")) {
+        throw new KubectlException(
+            "Failed to watch "
+                + kind
+                + " in "
+                + (namespace != null ? namespace : "all namespaces")
+                + ": "
+                + status.getError());
+      }
+    }
+  }
+
   public Void deploy(KubernetesV2Credentials credentials, KubernetesManifest manifest) {
     List<String> command = kubectlAuthPrefix(credentials);
 
@@ -748,6 +796,45 @@ public class KubectlJobExecutor {
     };
   }
 
+  private ReaderConsumer<Void> parseWatchEvents(Consumer<WatchEvent> consumer) {
+    return (BufferedReader r) -> {
+      try (JsonReader reader = new JsonReader(r)) {
+        // kubectl prints each event as its own top-level JSON object
+        reader.setLenient(true);
+        while (reader.peek() != JsonToken.END_DOCUMENT) {
+          WatchEvent event = gson.fromJson(reader, WatchEvent.class);
+          if (event != null && event.getType() != null) {
+            consumer.accept(event);
+          }
+        }
+        return null;
+      }
+    };
+  }
+
+  /** A single change reported by {@link #watch}. */
+  public static class WatchEvent {
+    public enum Type {
+      ADDED,
+      MODIFIED,
+      DELETED,
+      BOOKMARK,
+      ERROR
+    }
+
+    @Getter private Type type;
+
+    /** The changed resource, or a {@code Status} object for an ERROR event. */
+    @Getter private KubernetesManifest object;
+
+    public WatchEvent() {}
+
+    public WatchEvent(Type type, KubernetesManifest object) {
+      this.type = type;
+      this.object = object;
+    }
+  }
+
   public static class NoResourceTypeException extends RuntimeException {
     protected NoResourceTypeException(String message) {
       super(message);
@@ -0,0 +1,411 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.v2.op.job;
+
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesApiGroup;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesKind;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesManifest;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.security.KubernetesSelectorList;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.Pair;
+import io.kubernetes.client.util.ClientBuilder;
+import io.kubernetes.client.util.KubeConfig;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Response;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Reads resources straight from the API server over a pooled HTTP client instead of forking
+ * kubectl, parsing each response as it streams in. Errors are reported with the same exceptions
+ * as {@link KubectlJobExecutor}, so callers can use either interchangeably.
+ *
+ * <p>Resource paths come from the API server's discovery endpoints, using the preferred version of
+ * each group as kubectl does.
+ *
+ * <p>The API client resolves exec and auth-provider credentials into a token once, when it is
+ * built, where kubectl resolves them on every call. The client is therefore rebuilt every {@link
+ * #CLIENT_EXPIRY_SECONDS}, and whenever a request is not authorized; a request that is still not
+ * authorized with a new client fails with an {@link AuthenticationException}.
+ */
+@Slf4j
+public class KubernetesApiReader {
+  private static final long DISCOVERY_EXPIRY_SECONDS = TimeUnit.MINUTES.toSeconds(10);
+  private static final long CLIENT_EXPIRY_SECONDS = TimeUnit.MINUTES.toSeconds(10);
+  private static final String[] AUTH_NAMES = new String[] {"BearerToken"};
+
+  private final Supplier<ApiClient> clientFactory;
+  private volatile Supplier<ApiClient> client;
+  private final Gson gson = new Gson();
+  private final Supplier<ImmutableMap<KubernetesKind, ResourcePath>> resourcePaths =
+      Suppliers.memoizeWithExpiration(
+          this::discoverResourcePaths, DISCOVERY_EXPIRY_SECONDS, TimeUnit.SECONDS);
+
+  public KubernetesApiReader(ApiClient client) {
+    this(() -> client);
+  }
+
+  KubernetesApiReader(Supplier<ApiClient> clientFactory) {
+    this.clientFactory = clientFactory;
+    this.client = memoizedClient();
+  }
+
+  /**
+   * Builds a reader using the same credentials kubectl would: the given context of the kubeconfig
+   * file, or the pod's service account. Like kubectl, requests have no read timeout unless one is
+   * given.
+   */
+  public static KubernetesApiReader create(
+      @Nullable String kubeconfigFile,
+      @Nullable String context,
+      boolean serviceAccount,
+      @Nullable Integer requestTimeoutSeconds)
+      throws IOException {
+    // fails now, rather than on the first read, if the credentials cannot be loaded at all
+    buildClient(kubeconfigFile, context, serviceAccount, requestTimeoutSeconds);
+    return new KubernetesApiReader(
+        () -> {
+          try {
+            return buildClient(kubeconfigFile, context, serviceAccount, requestTimeoutSeconds);
+          } catch (IOException e) {
+            throw new KubectlJobExecutor.KubectlException(
+                "Could not create an API client: " + e.getMessage(), e);
+          }
+        });
+  }
+
+  private static ApiClient buildClient(
+      @Nullable String kubeconfigFile,
+      @Nullable String context,
+      boolean serviceAccount,
+      @Nullable Integer requestTimeoutSeconds)
+      throws IOException {
+    ApiClient client;
+    if (serviceAccount) {
+      client = ClientBuilder.cluster().build();
+    } else {
+      try (Reader reader = new FileReader(kubeconfigFile)) {
+        KubeConfig kubeConfig = KubeConfig.loadKubeConfig(reader);
+        kubeConfig.setFile(Paths.get(kubeconfigFile).toFile());
+        if (StringUtils.isNotEmpty(context)) {
+          kubeConfig.setContext(context);
+        }
+        client = ClientBuilder.kubeconfig(kubeConfig).build();
+      }
+    }
+
+    client.setReadTimeout(
+        requestTimeoutSeconds == null
+            ? 0
+            : (int) TimeUnit.SECONDS.toMillis(requestTimeoutSeconds));
+    return client;
+  }
+
+  private Supplier<ApiClient> memoizedClient() {
+    return Suppliers.memoizeWithExpiration(
+        clientFactory::get, CLIENT_EXPIRY_SECONDS, TimeUnit.SECONDS);
+  }
+
+  /** Rebuilds the client on the next request, unless another request already has. */
+  private synchronized void discard(Supplier<ApiClient> stale) {
+    if (client == stale) {
+      client = memoizedClient();
+    }
+  }
+
+  @Nonnull
+  public ImmutableList<KubernetesManifest> list(
+      List<KubernetesKind> kinds, String namespace, KubernetesSelectorList selectors) {
+    ImmutableList.Builder<KubernetesManifest> result = ImmutableList.builder();
+    for (KubernetesKind kind : kinds) {
+      List<Pair> query = new ArrayList<>();
+      if (selectors.isNotEmpty()) {
+        query.add(new Pair("labelSelector", selectors.toString()));
+      }
+      result.addAll(readList(resourcePath(kind), namespace, query, kind + " from " + namespace));
+    }
+    return result.build();
+  }
+
+  @Nullable
+  public KubernetesManifest get(KubernetesKind kind, String namespace, String name) {
+    String path = resourcePath(kind).path(namespace, name);
+    try (Response response = execute(path, Collections.emptyList())) {
+      if (response.code() == 404) {
+        return null;
+      }
+      checkResponse(response, kind + " from " + namespace);
+      return gson.fromJson(response.body().charStream(), KubernetesManifest.class);
+    }
+  }
+
+  @Nonnull
+  public ImmutableList<KubernetesManifest> eventsFor(
+      KubernetesKind kind, String namespace, String name) {
+    List<Pair> query =
+        Collections.singletonList(
+            new Pair(
+                "fieldSelector",
+                String.format(
+                    "involvedObject.name=%s,involvedObject.kind=%s",
+                    name, StringUtils.capitalize(kind.toString()))));
+    return readList(
+        resourcePath(KubernetesKind.EVENT), namespace, query, "events from " + namespace);
+  }
+
+  /**
+   * The API server leaves the kind and API version off the items of a list, so they are set on
+   * each item from the list's own kind and API version, as kubectl does.
+   */
+  private ImmutableList<KubernetesManifest> readList(
+      ResourcePath resourcePath, String namespace, List<Pair> query, String description) {
+    try (Response response = execute(resourcePath.path(namespace, null), query)) {
+      checkResponse(response, description);
+      try (JsonReader reader = new JsonReader(response.body().charStream())) {
+        List<KubernetesManifest> manifests = new ArrayList<>();
+        String kind = resourcePath.kind;
+        String apiVersion = resourcePath.apiVersion();
+        reader.beginObject();
+        while (reader.hasNext()) {
+          switch (reader.nextName()) {
+            case "items":
+              reader.beginArray();
+              while (reader.hasNext()) {
+                manifests.add(gson.fromJson(reader, KubernetesManifest.class));
+              }
+              reader.endArray();
+              break;
+            case "kind":
+              kind = StringUtils.removeEnd(reader.nextString(), "List");
+              break;
+            case "apiVersion":
+              apiVersion = reader.nextString();
+              break;
+            default:
+              reader.skipValue();
+          }
+        }
+        reader.endObject();
+
+        for (KubernetesManifest manifest : manifests) {
+          manifest.putIfAbsent("kind", kind);
+          manifest.putIfAbsent("apiVersion", apiVersion);
+        }
+        return ImmutableList.copyOf(manifests);
+      }
+    } catch (IOException e) {
+      throw new KubectlJobExecutor.KubectlException(
+          "Failed to read " + description + ": " + e.getMessage(), e);
+    }
+  }
+
+  private Response execute(String path, List<Pair> query) {
+    Supplier<ApiClient> current = client;
+    Response response = execute(current.get(), path, query);
+    if (response.code() != 401) {
+      return response;
+    }
+
+    response.close();
+    discard(current);
+    response = execute(client.get(), path, query);
+    if (response.code() == 401) {
+      response.close();
+      throw new AuthenticationException("Request to " + path + " was not authorized");
+    }
+    return response;
+  }
+
+  private Response execute(ApiClient client, String path, List<Pair> query) {
+    // auth headers are added to this map, so it must be mutable
+    Map<String, String> headers = new HashMap<>();
+    headers.put("Accept", "application/json");
+    try {
+      Call call =
+          client.buildCall(
+              path,
+              "GET",
+              query,
+              new ArrayList<>(),
+              null,
+              headers,
+              new HashMap<>(),
+              new HashMap<>(),
+              AUTH_NAMES,
+              null);
+      return call.execute();
+    } catch (ApiException | IOException e) {
+      throw new KubectlJobExecutor.KubectlException(
+          "Request to " + path + " failed: " + e.getMessage(), e);
+    }
+  }
+
+  private void checkResponse(Response response, String description) {
+    if (!response.isSuccessful()) {
+      String error;
+      try {
+        error = response.body().string();
+      } catch (IOException e) {
+        error = response.message();
+      }
+      throw new KubectlJobExecutor.KubectlException(
+          "Failed to read " + description + " (" + response.code() + "): " + error);
+    }
+  }
+
+  private ResourcePath resourcePath(KubernetesKind kind) {
+    ResourcePath path = resourcePaths.get().get(kind);
+    if (path == null) {
+      throw new KubectlJobExecutor.NoResourceTypeException(
+          "the server doesn't have a resource type \"" + kind + "\"");
+    }
+    return path;
+  }
+
+  private ImmutableMap<KubernetesKind, ResourcePath> discoverResourcePaths() {
+    Map<KubernetesKind, ResourcePath> paths = new HashMap<>();
+    addResources(paths, "", "/api/v1");
+
+    try (Response response = execute("/apis", Collections.emptyList())) {
+      checkResponse(response, "API groups");
+      ApiGroupList groups = gson.fromJson(response.body().charStream(), ApiGroupList.class);
+      for (ApiGroup group : groups.groups) {
+        if (group.preferredVersion != null) {
+          addResources(paths, group.name, "/apis/" + group.preferredVersion.groupVersion);
+        }
+      }
+    }
+
+    return ImmutableMap.copyOf(paths);
+  }
+
+  private void addResources(Map<KubernetesKind, ResourcePath> paths, String group, String base) {
+    ApiResourceList resources;
+    try (Response response = execute(base, Collections.emptyList())) {
+      if (!response.isSuccessful()) {
+        // an aggregated API server that is unavailable shouldn't hide the rest of the cluster
+        log.warn("Failed to discover resources in {} ({})", base, response.code());
+        return;
+      }
+      resources = gson.fromJson(response.body().charStream(), ApiResourceList.class);
+    }
+
+    for (ApiResource resource : resources.resources) {
+      if (resource.name.contains("/")) {
+        // subresources such as pods/log
+        continue;
+      }
+      KubernetesKind kind =
+          KubernetesKind.from(resource.kind, KubernetesApiGroup.fromString(group));
+      // native kinds ignore their group, so the first group serving a kind wins unless it is the
+      // deprecated extensions group
+      ResourcePath existing = paths.get(kind);
+      if (existing == null || existing.isDeprecated()) {
+        paths.put(
+            kind,
+            new ResourcePath(group, base, resource.name, resource.kind, resource.namespaced));
+      }
+    }
+  }
+
+  /** Thrown when the API server does not accept the credentials, even after rebuilding them. */
+  public static class AuthenticationException extends KubectlJobExecutor.KubectlException {
+    AuthenticationException(String message) {
+      super(message);
+    }
+  }
+
+  private static class ResourcePath {
+    private final String group;
+    private final String base;
+    private final String plural;
+    private final String kind;
+    private final boolean namespaced;
+
+    ResourcePath(String group, String base, String plural, String kind, boolean namespaced) {
+      this.group = group;
+      this.base = base;
+      this.plural = plural;
+      this.kind = kind;
+      this.namespaced = namespaced;
+    }
+
+    /** The version served at the base path, such as v1 for /api/v1 or apps/v1 for /apis/apps/v1. */
+    String apiVersion() {
+      return base.substring(base.indexOf('/', 1) + 1);
+    }
+
+    boolean isDeprecated() {
+      return group.equals("extensions");
+    }
+
+    String path(String namespace, @Nullable String name) {
+      StringBuilder path = new StringBuilder(base);
+      if (namespaced && StringUtils.isNotEmpty(namespace)) {
+        path.append("/namespaces/").append(namespace);
+      }
+      path.append('/').append(plural);
+      if (name != null) {
+        path.append('/').append(name);
+      }
+      return path.toString();
+    }
+  }
+
+  private static class ApiGroupList {
+    private List<ApiGroup> groups = new ArrayList<>();
+  }
+
+  private static class ApiGroup {
+    private String name;
+    private GroupVersion preferredVersion;
+  }
+
+  private static class GroupVersion {
+    private String groupVersion;
+  }
+
+  private static class ApiResourceList {
+    private List<ApiResource> resources = new ArrayList<>();
+  }
+
+  private static class ApiResource {
+    private String name;
+    private String kind;
+    private boolean namespaced;
+  }
+}
@@ -40,6 +40,7 @@ import com.netflix.spinnaker.clouddriver.kubernetes.security.KubeconfigFileHashe
 import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesCredentialFactory;
 import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesCredentials;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.agent.KubernetesCacheDataConverter;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.agent.KubernetesNamespaceExecutor;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.AccountResourcePropertyRegistry;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.JsonPatch;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesPatchOptions;
@@ -52,6 +53,7 @@ import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.Kube
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesManifest;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.job.KubectlJobExecutor;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.job.KubectlJobExecutor.KubectlException;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.job.KubernetesApiReader;
 import com.netflix.spinnaker.clouddriver.names.NamerRegistry;
 import com.netflix.spinnaker.kork.configserver.ConfigFileService;
 import io.kubernetes.client.openapi.models.V1DeleteOptions;
@@ -64,6 +66,7 @@ import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -98,6 +101,8 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
 
   @Include private final ImmutableSet<KubernetesKind> omitKinds;
 
+  @Include @Getter private final ImmutableSet<KubernetesKind> streamingKinds;
+
   @Include @Getter private final List<CustomKubernetesResource> customResources;
 
   @Include @Getter private final String kubectlExecutable;
@@ -116,6 +121,10 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
 
   @Include @Getter private final boolean liveManifestCalls;
 
+  @Include @Getter private final boolean directApiReads;
+
+  @Include @Getter private final int namespaceCacheThreads;
+
   @Include private final boolean checkPermissionsOnStartup;
 
   @Include @Getter private final List<KubernetesCachingPolicy> cachingPolicies;
@@ -135,6 +144,11 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
   private final PermissionValidator permissionValidator;
   private final Supplier<ImmutableMap<KubernetesKind, KubernetesKindProperties>> crdSupplier =
       Suppliers.memoizeWithExpiration(this::crdSupplier, CRD_EXPIRY_SECONDS, TimeUnit.SECONDS);
+  private final Supplier<Optional<KubernetesApiReader>> apiReader =
+      Suppliers.memoize(this::createApiReader);
+  private final Supplier<KubernetesNamespaceExecutor> namespaceExecutor =
+      Suppliers.memoize(
+          () -> new KubernetesNamespaceExecutor(registry, accountName, namespaceCacheThreads));
   private final Supplier<ImmutableList<String>> liveNamespaceSupplier =
       Memoizer.memoizeWithExpiration(
           this::namespaceSupplier, NAMESPACE_EXPIRY_SECONDS, TimeUnit.SECONDS);
@@ -171,6 +185,10 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
         managedAccount.getOmitKinds().stream()
             .map(KubernetesKind::fromString)
             .collect(toImmutableSet());
+    this.streamingKinds =
+        managedAccount.getStreamingKinds().stream()
+            .map(KubernetesKind::fromString)
+            .collect(toImmutableSet());
     this.permissionValidator = new PermissionValidator();
 
     this.customResources = managedAccount.getCustomResources();
@@ -190,6 +208,8 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
 
     this.onlySpinnakerManaged = managedAccount.isOnlySpinnakerManaged();
     this.liveManifestCalls = managedAccount.isLiveManifestCalls();
+    this.directApiReads = managedAccount.isDirectApiReads();
+    this.namespaceCacheThreads = managedAccount.getNamespaceCacheThreads();
     this.checkPermissionsOnStartup = managedAccount.isCheckPermissionsOnStartup();
     this.cachingPolicies = managedAccount.getCachingPolicies();
 
@@ -426,7 +446,13 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
 
   public KubernetesManifest get(KubernetesKind kind, String namespace, String name) {
     return runAndRecordMetrics(
-        "get", kind, namespace, () -> jobExecutor.get(this, kind, namespace, name));
+        "get",
+        kind,
+        namespace,
+        () ->
+            readDirectly(
+                r -> r.get(kind, resolveNamespace(namespace), name),
+                () -> jobExecutor.get(this, kind, namespace, name)));
   }
 
   @Nonnull
@@ -435,9 +461,7 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
         "list",
         kind,
         namespace,
-        () ->
-            jobExecutor.list(
-                this, Collections.singletonList(kind), namespace, new KubernetesSelectorList()));
+        () -> read(Collections.singletonList(kind), namespace, new KubernetesSelectorList()));
   }
 
   @Nonnull
@@ -447,7 +471,7 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
         "list",
         kind,
         namespace,
-        () -> jobExecutor.list(this, Collections.singletonList(kind), namespace, selectors));
+        () -> read(Collections.singletonList(kind), namespace, selectors));
   }
 
   @Nonnull
@@ -459,10 +483,93 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
           "list",
           kinds,
           namespace,
-          () -> jobExecutor.list(this, kinds, namespace, new KubernetesSelectorList()));
+          () -> read(kinds, namespace, new KubernetesSelectorList()));
     }
   }
 
+  private ImmutableList<KubernetesManifest> read(
+      List<KubernetesKind> kinds, String namespace, KubernetesSelectorList selectors) {
+    return readDirectly(
+        r -> r.list(kinds, resolveNamespace(namespace), selectors),
+        () -> jobExecutor.list(this, kinds, namespace, selectors));
+  }
+
+  /**
+   * Reads from the API server when direct reads are enabled, and with kubectl otherwise or when
+   * the API server does not accept the direct reader's credentials.
+   */
+  private <T> T readDirectly(Function<KubernetesApiReader, T> direct, Supplier<T> kubectl) {
+    Optional<KubernetesApiReader> reader = apiReader.get();
+    if (reader.isPresent()) {
+      try {
+        return direct.apply(reader.get());
+      } catch (KubernetesApiReader.AuthenticationException e) {
+        log.warn(
+            "Direct API read for account {} was not authorized, reading with kubectl: {}",
+            accountName,
+            e.getMessage());
+      }
+    }
+    return kubectl.get();
+  }
+
+  /** Applies the default namespace to an empty namespace, as kubectl does. */
+  private String resolveNamespace(String namespace) {
+    return StringUtils.isEmpty(namespace) ? getDefaultNamespace() : namespace;
+  }
+
+  private Optional<KubernetesApiReader> createApiReader() {
+    if (!directApiReads) {
+      return Optional.empty();
+    }
+
+    if (StringUtils.isNotEmpty(oAuthServiceAccount)) {
+      log.warn(
+          "Direct API reads are not supported with OAuth for account {}, reading with kubectl",
+          accountName);
+      return Optional.empty();
+    }
+
+    try {
+      return Optional.of(
+          KubernetesApiReader.create(
+              kubeconfigFile, context, serviceAccount, kubectlRequestTimeoutSeconds));
+    } catch (Exception e) {
+      log.warn(
+          "Could not create an API client for account {}, reading with kubectl", accountName, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Streams changes to a kind in a namespace, or in all namespaces if it is null, to the consumer
+   * until the timeout elapses; see {@link KubectlJobExecutor#watch}.
+   */
+  public void watch(
+      KubernetesKind kind,
+      String namespace,
+      long timeoutSeconds,
+      Consumer<KubectlJobExecutor.WatchEvent> consumer) {
+    runAndRecordMetrics(
+        "watch",
+        kind,
+        namespace,
+        () -> {
+          jobExecutor.watch(this, kind, namespace, timeoutSeconds, consumer);
+          return null;
+        });
+  }
+
+  /** The executor this account's caching agents use to load their namespaces concurrently. */
+  public KubernetesNamespaceExecutor getNamespaceExecutor() {
+    return namespaceExecutor.get();
+  }
+
+  /** Whether changes to this kind are cached by a streaming agent rather than by polling. */
+  public boolean isStreamingKind(KubernetesKind kind) {
+    return streamingKinds.contains(kind);
+  }
+
   @Nonnull
   public ImmutableList<KubernetesManifest> eventsFor(
       KubernetesKind kind, String namespace, String name) {
@@ -470,7 +577,10 @@ public class KubernetesV2Credentials implements KubernetesCredentials {
         "list",
         KubernetesKind.EVENT,
         namespace,
-        () -> jobExecutor.eventsFor(this, kind, namespace, name));
+        () ->
+            readDirectly(
+                r -> r.eventsFor(kind, resolveNamespace(namespace), name),
+                () -> jobExecutor.eventsFor(this, kind, namespace, name)));
   }
 
   public String logs(String namespace, String podName, String containerName) {
@@ -19,6 +19,7 @@ package com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.agent
 
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spinnaker.cats.cache.CacheData
+import com.netflix.spinnaker.cats.cache.DefaultCacheData
 import com.netflix.spinnaker.clouddriver.kubernetes.KubernetesCloudProvider
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.Keys
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesPodMetric
@@ -32,6 +33,7 @@ import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.Kube
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.names.KubernetesManifestNamer
 import com.netflix.spinnaker.clouddriver.names.NamerRegistry
 import com.netflix.spinnaker.moniker.Moniker
+import io.kubernetes.client.openapi.models.V1Deployment
 import org.apache.commons.lang3.tuple.Pair
 import org.yaml.snakeyaml.Yaml
 import org.yaml.snakeyaml.constructor.SafeConstructor
@@ -168,6 +170,46 @@ metadata:
     ]
   }
 
+  def "reads manifests and typed resources back from cache data"() {
+    setup:
+    def manifestYaml = """
+apiVersion: apps/v1
+kind: Deployment
+metadata:
+  name: my-deployment
+  namespace: $NAMESPACE
+  creationTimestamp: "2020-02-11T18:27:31Z"
+  labels:
+    app: my-app
+spec:
+  replicas: 3
+"""
+    def attributes = [manifest: mapper.readValue(mapper.writeValueAsString(yaml.load(manifestYaml)), Map)]
+    def cacheData = new DefaultCacheData("id", attributes, [:])
+
+    when:
+    def manifest = KubernetesCacheDataConverter.getManifest(cacheData)
+    def deployment = KubernetesCacheDataConverter.getResource(manifest, V1Deployment)
+
+    then:
+    manifest.getKind() == KubernetesKind.DEPLOYMENT
+    manifest.getName() == "my-deployment"
+    manifest.getLabels() == [app: "my-app"]
+    deployment.metadata.name == "my-deployment"
+    deployment.metadata.creationTimestamp.getYear() == 2020
+    deployment.spec.replicas == 3
+
+    when:
+    manifest.put("kind", "ReplicaSet")
+    manifest.getLabels().put("app", "other-app")
+    manifest.getAnnotations()
+
+    then:
+    attributes.manifest.kind == "Deployment"
+    attributes.manifest.metadata.labels == [app: "my-app"]
+    !attributes.manifest.metadata.containsKey("annotations")
+  }
+
   def containerMetric(String containerName) {
     return new KubernetesPodMetric.ContainerMetric(containerName, [
         "CPU(cores)": "10m",
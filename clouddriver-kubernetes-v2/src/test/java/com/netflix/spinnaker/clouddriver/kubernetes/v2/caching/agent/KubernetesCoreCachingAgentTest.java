@@ -123,6 +123,8 @@ final class KubernetesCoreCachingAgentTest {
         .thenAnswer(invocation -> kindProperties.get(invocation.getArgument(0)));
     when(v2Credentials.getDeclaredNamespaces())
         .thenReturn(ImmutableList.of(NAMESPACE1, NAMESPACE2));
+    when(v2Credentials.getNamespaceExecutor())
+        .thenReturn(new KubernetesNamespaceExecutor(new NoopRegistry(), ACCOUNT, 2));
     when(v2Credentials.getResourcePropertyRegistry()).thenReturn(resourcePropertyRegistry);
     when(v2Credentials.get(KubernetesKind.DEPLOYMENT, NAMESPACE1, DEPLOYMENT_NAME))
         .thenReturn(deploymentManifest());
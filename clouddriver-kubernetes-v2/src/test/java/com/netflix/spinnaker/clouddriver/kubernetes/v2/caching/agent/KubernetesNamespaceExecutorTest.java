@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.agent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ImmutableList;
+import com.netflix.spectator.api.NoopRegistry;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.job.KubectlJobExecutor.KubectlException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+final class KubernetesNamespaceExecutorTest {
+  private static final ImmutableList<String> NAMESPACES =
+      ImmutableList.of("ns-1", "ns-2", "ns-3", "ns-4", "ns-5");
+
+  @Test
+  void returnsResultsInNamespaceOrder() {
+    KubernetesNamespaceExecutor executor =
+        new KubernetesNamespaceExecutor(new NoopRegistry(), "account", 3);
+    Map<String, Long> loadTimes = new ConcurrentHashMap<>();
+
+    ImmutableList<String> results = executor.loadAll(NAMESPACES, n -> n + "-loaded", loadTimes);
+
+    assertThat(results)
+        .containsExactly("ns-1-loaded", "ns-2-loaded", "ns-3-loaded", "ns-4-loaded", "ns-5-loaded");
+    assertThat(loadTimes).containsOnlyKeys(NAMESPACES);
+  }
+
+  @Test
+  void limitsConcurrentLoads() {
+    KubernetesNamespaceExecutor executor =
+        new KubernetesNamespaceExecutor(new NoopRegistry(), "account", 2);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+
+    executor.loadAll(
+        NAMESPACES,
+        n -> {
+          maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+          try {
+            Thread.sleep(20);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return running.decrementAndGet();
+        },
+        new ConcurrentHashMap<>());
+
+    assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+  }
+
+  @Test
+  void rethrowsLoadFailuresUnchanged() {
+    KubernetesNamespaceExecutor executor =
+        new KubernetesNamespaceExecutor(new NoopRegistry(), "account", 2);
+
+    assertThatThrownBy(
+            () ->
+                executor.loadAll(
+                    NAMESPACES,
+                    n -> {
+                      if (n.equals("ns-3")) {
+                        throw new KubectlException("Failed to read " + n, null);
+                      }
+                      return n;
+                    },
+                    new ConcurrentHashMap<>()))
+        .isInstanceOf(KubectlException.class)
+        .hasMessage("Failed to read ns-3");
+  }
+}
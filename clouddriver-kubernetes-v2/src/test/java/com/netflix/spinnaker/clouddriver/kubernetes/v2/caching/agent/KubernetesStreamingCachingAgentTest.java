@@ -0,0 +1,196 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.agent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.netflix.spectator.api.NoopRegistry;
+import com.netflix.spinnaker.cats.mem.InMemoryCache;
+import com.netflix.spinnaker.cats.provider.DefaultProviderCache;
+import com.netflix.spinnaker.cats.provider.ProviderCache;
+import com.netflix.spinnaker.clouddriver.kubernetes.config.KubernetesConfigurationProperties;
+import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesNamedAccountCredentials;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.Keys;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.GlobalResourcePropertyRegistry;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesApiVersion;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesKind;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesKindProperties;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesManifest;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.handler.KubernetesUnregisteredCustomResourceHandler;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.job.KubectlJobExecutor.WatchEvent;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.security.KubernetesV2Credentials;
+import com.netflix.spinnaker.clouddriver.security.ProviderVersion;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+final class KubernetesStreamingCachingAgentTest {
+  private static final String ACCOUNT = "my-account";
+  private static final String NAMESPACE1 = "test-namespace";
+  private static final String NAMESPACE2 = "test-namespace2";
+  private static final String OTHER_NAMESPACE = "other-namespace";
+  private static final long EXECUTION_MILLIS = TimeUnit.SECONDS.toMillis(2);
+
+  private final List<KubernetesManifest> listed = new ArrayList<>();
+  private final List<WatchEvent> watched = new ArrayList<>();
+  private KubernetesV2Credentials credentials;
+  private KubernetesStreamingCachingAgent agent;
+
+  @BeforeEach
+  void setUp() {
+    credentials = mock(KubernetesV2Credentials.class);
+    when(credentials.getGlobalKinds()).thenReturn(ImmutableList.of(KubernetesKind.DEPLOYMENT));
+    when(credentials.isStreamingKind(KubernetesKind.DEPLOYMENT)).thenReturn(true);
+    when(credentials.getKindProperties(KubernetesKind.DEPLOYMENT))
+        .thenReturn(KubernetesKindProperties.create(KubernetesKind.DEPLOYMENT, true));
+    when(credentials.getNamespaces()).thenReturn(ImmutableList.of());
+    when(credentials.getDeclaredNamespaces()).thenReturn(ImmutableList.of(NAMESPACE1, NAMESPACE2));
+    when(credentials.getNamespaceExecutor())
+        .thenReturn(new KubernetesNamespaceExecutor(new NoopRegistry(), ACCOUNT, 2));
+    when(credentials.getResourcePropertyRegistry())
+        .thenReturn(
+            new GlobalResourcePropertyRegistry(
+                ImmutableList.of(), new KubernetesUnregisteredCustomResourceHandler()));
+    when(credentials.list(any(List.class), any()))
+        .thenAnswer(
+            invocation ->
+                listed.stream()
+                    .filter(m -> m.getNamespace().equals(invocation.getArgument(1)))
+                    .collect(ImmutableList.toImmutableList()));
+    // Watches replay the events once and then wait for the execution to end as kubectl would;
+    // there is a single watch of all namespaces unless the account lists its namespaces
+    doAnswer(
+            invocation -> {
+              Consumer<WatchEvent> consumer = invocation.getArgument(3);
+              List<WatchEvent> events = new ArrayList<>(watched);
+              watched.clear();
+              events.forEach(consumer);
+              try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(invocation.getArgument(2)));
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              return null;
+            })
+        .when(credentials)
+        .watch(eq(KubernetesKind.DEPLOYMENT), any(), anyLong(), any());
+
+    KubernetesConfigurationProperties.ManagedAccount managedAccount =
+        new KubernetesConfigurationProperties.ManagedAccount();
+    managedAccount.setName(ACCOUNT);
+    managedAccount.setProviderVersion(ProviderVersion.v2);
+    KubernetesV2Credentials.Factory credentialFactory = mock(KubernetesV2Credentials.Factory.class);
+    when(credentialFactory.build(managedAccount)).thenReturn(credentials);
+
+    agent =
+        new KubernetesStreamingCachingAgent(
+            new KubernetesNamedAccountCredentials<>(managedAccount, credentialFactory),
+            new ObjectMapper(),
+            new NoopRegistry(),
+            0,
+            1,
+            10L);
+  }
+
+  @Test
+  void appliesWatchedChangesToTheCache() {
+    ProviderCache cache = new DefaultProviderCache(new InMemoryCache());
+    listed.add(deployment(NAMESPACE1, "a"));
+    listed.add(deployment(NAMESPACE1, "b"));
+    watched.add(new WatchEvent(WatchEvent.Type.ADDED, deployment(NAMESPACE1, "c")));
+    watched.add(new WatchEvent(WatchEvent.Type.DELETED, deployment(NAMESPACE1, "b")));
+    watched.add(new WatchEvent(WatchEvent.Type.ADDED, deployment(OTHER_NAMESPACE, "d")));
+
+    execute(cache);
+
+    assertThat(cachedNames(cache)).containsExactlyInAnyOrder("a", "c");
+  }
+
+  @Test
+  void resyncEvictsResourcesCachedBeforeTheLastFlush() {
+    ProviderCache cache = new DefaultProviderCache(new InMemoryCache());
+    listed.add(deployment(NAMESPACE1, "a"));
+    listed.add(deployment(NAMESPACE2, "e"));
+    // Only flushes NAMESPACE1, which must not make the agent forget that it cached "e"
+    watched.add(new WatchEvent(WatchEvent.Type.ADDED, deployment(NAMESPACE1, "c")));
+    execute(cache);
+    assertThat(cachedNames(cache)).containsExactlyInAnyOrder("a", "c", "e");
+
+    listed.clear();
+    listed.add(deployment(NAMESPACE1, "a"));
+    execute(cache);
+
+    assertThat(cachedNames(cache)).containsExactly("a");
+  }
+
+  @Test
+  void watchesEachConfiguredNamespace() {
+    when(credentials.getNamespaces()).thenReturn(ImmutableList.of(NAMESPACE1, NAMESPACE2));
+    ProviderCache cache = new DefaultProviderCache(new InMemoryCache());
+
+    execute(cache);
+
+    verify(credentials, atLeastOnce())
+        .watch(eq(KubernetesKind.DEPLOYMENT), eq(NAMESPACE1), anyLong(), any());
+    verify(credentials, atLeastOnce())
+        .watch(eq(KubernetesKind.DEPLOYMENT), eq(NAMESPACE2), anyLong(), any());
+    verify(credentials, never()).watch(eq(KubernetesKind.DEPLOYMENT), isNull(), anyLong(), any());
+  }
+
+  private void execute(ProviderCache cache) {
+    agent.new StreamingCacheExecution(cache).execute(System.currentTimeMillis() + EXECUTION_MILLIS);
+  }
+
+  private static ImmutableSet<String> cachedNames(ProviderCache cache) {
+    return cache.getIdentifiers(KubernetesKind.DEPLOYMENT.toString()).stream()
+        .map(Keys::parseKey)
+        .map(key -> key.get().getName())
+        .collect(ImmutableSet.toImmutableSet());
+  }
+
+  private static KubernetesManifest deployment(String namespace, String name) {
+    KubernetesManifest deployment = new KubernetesManifest();
+    deployment.put("metadata", new HashMap<>());
+    deployment.setNamespace(namespace);
+    deployment.setKind(KubernetesKind.DEPLOYMENT);
+    deployment.setApiVersion(KubernetesApiVersion.APPS_V1);
+    deployment.setName(name);
+    return deployment;
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.v2.caching.view.provider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.netflix.spinnaker.cats.cache.Cache;
+import com.netflix.spinnaker.cats.cache.CacheData;
+import com.netflix.spinnaker.cats.cache.DefaultCacheData;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.SpinnakerKind;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesSpinnakerKindMap;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesKind;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+final class KubernetesRelationshipLoaderTest {
+  private static final String SERVICE = KubernetesKind.SERVICE.toString();
+  private static final String INGRESS = KubernetesKind.INGRESS.toString();
+
+  private Cache cache;
+  private KubernetesRelationshipLoader loader;
+
+  @BeforeEach
+  void setup() {
+    cache = mock(Cache.class);
+    KubernetesSpinnakerKindMap kindMap = mock(KubernetesSpinnakerKindMap.class);
+    when(kindMap.translateSpinnakerKind(SpinnakerKind.LOAD_BALANCERS))
+        .thenReturn(ImmutableSet.of(KubernetesKind.SERVICE, KubernetesKind.INGRESS));
+    when(cache.getAll(eq(SERVICE), anyCollection()))
+        .thenAnswer(
+            invocation -> {
+              Collection<String> keys = invocation.getArgument(1);
+              return keys.stream()
+                  .map(KubernetesRelationshipLoaderTest::entry)
+                  .collect(Collectors.toList());
+            });
+    loader = new KubernetesRelationshipLoader(cache, kindMap);
+  }
+
+  @Test
+  void readsEachTypeOnceForDistinctKeys() {
+    List<CacheData> serverGroups =
+        ImmutableList.of(
+            entry("replicaSet a", ImmutableList.of("service x", "service y")),
+            entry("replicaSet b", ImmutableList.of("service x")));
+
+    ImmutableList<CacheData> loadBalancers =
+        loader.load(serverGroups, SpinnakerKind.LOAD_BALANCERS);
+
+    assertThat(loadBalancers)
+        .extracting(CacheData::getId)
+        .containsExactly("service x", "service y");
+    verify(cache).getAll(SERVICE, ImmutableList.of("service x", "service y"));
+    verify(cache, never()).getAll(eq(INGRESS), anyCollection());
+  }
+
+  @Test
+  void reusesEntriesLoadedEarlierInTheRequest() {
+    loader.load(ImmutableList.of(entry("replicaSet a", ImmutableList.of("service x"))), SERVICE);
+    ImmutableList<CacheData> loadBalancers =
+        loader.load(
+            ImmutableList.of(entry("replicaSet b", ImmutableList.of("service x", "service y"))),
+            SERVICE);
+
+    assertThat(loadBalancers)
+        .extracting(CacheData::getId)
+        .containsExactly("service x", "service y");
+    verify(cache).getAll(SERVICE, ImmutableList.of("service x"));
+    verify(cache).getAll(SERVICE, ImmutableList.of("service y"));
+    verify(cache, times(2)).getAll(any(String.class), anyCollection());
+  }
+
+  private static CacheData entry(String id) {
+    return new DefaultCacheData(id, ImmutableMap.of(), ImmutableMap.of());
+  }
+
+  private static CacheData entry(String id, List<String> services) {
+    return new DefaultCacheData(
+        id, ImmutableMap.of(), ImmutableMap.<String, Collection<String>>of(SERVICE, services));
+  }
+}
@@ -30,11 +30,18 @@ import com.netflix.spinnaker.clouddriver.jobs.JobExecutor;
 import com.netflix.spinnaker.clouddriver.jobs.JobRequest;
 import com.netflix.spinnaker.clouddriver.jobs.JobResult;
 import com.netflix.spinnaker.clouddriver.jobs.JobResult.Result;
+import com.netflix.spinnaker.clouddriver.jobs.local.ReaderConsumer;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesPodMetric;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.KubernetesPodMetric.ContainerMetric;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesKind;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.op.job.KubectlJobExecutor.WatchEvent;
 import com.netflix.spinnaker.clouddriver.kubernetes.v2.security.KubernetesV2Credentials;
+import java.io.BufferedReader;
+import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.junit.platform.runner.JUnitPlatform;
@@ -118,6 +125,38 @@ final class KubernetesJobExecutorTest {
     }
   }
 
+  @Test
+  void watchParsesConcatenatedEvents() {
+    String output =
+        "{\"type\": \"ADDED\", \"object\": {\"kind\": \"Pod\", \"apiVersion\": \"v1\","
+            + " \"metadata\": {\"name\": \"pod-a\", \"resourceVersion\": \"1\"}}}\n"
+            + "{\n  \"type\": \"DELETED\",\n  \"object\": {\"kind\": \"Pod\","
+            + " \"apiVersion\": \"v1\", \"metadata\": {\"name\": \"pod-a\"}}\n}\n";
+    JobExecutor jobExecutor = mock(JobExecutor.class);
+    when(jobExecutor.runJob(any(JobRequest.class), any(ReaderConsumer.class)))
+        .thenAnswer(
+            invocation -> {
+              ReaderConsumer<?> consumer = invocation.getArgument(1);
+              return JobResult.builder()
+                  .result(Result.SUCCESS)
+                  .output(consumer.consume(new BufferedReader(new StringReader(output))))
+                  .error("")
+                  .build();
+            });
+
+    KubectlJobExecutor kubectlJobExecutor =
+        new KubectlJobExecutor(jobExecutor, "kubectl", "oauth2l");
+    List<WatchEvent> events = new ArrayList<>();
+    kubectlJobExecutor.watch(
+        mockKubernetesV2Credentials(), KubernetesKind.POD, NAMESPACE, 60, events::add);
+
+    assertThat(events)
+        .extracting(WatchEvent::getType)
+        .containsExactly(WatchEvent.Type.ADDED, WatchEvent.Type.DELETED);
+    assertThat(events.get(0).getObject().getName()).isEqualTo("pod-a");
+    assertThat(events.get(0).getObject().getResourceVersion()).isEqualTo("1");
+  }
+
   /** Returns a mock KubernetesV2Credentials object */
   private static KubernetesV2Credentials mockKubernetesV2Credentials() {
     KubernetesV2Credentials v2Credentials = mock(KubernetesV2Credentials.class);
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.v2.op.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesKind;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.description.manifest.KubernetesManifest;
+import com.netflix.spinnaker.clouddriver.kubernetes.v2.security.KubernetesSelectorList;
+import io.kubernetes.client.openapi.ApiClient;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+final class KubernetesApiReaderTest {
+  private static final String NAMESPACE = "test-namespace";
+
+  private static final ImmutableMap<String, String> responses =
+      ImmutableMap.<String, String>builder()
+          .put(
+              "/api/v1",
+              "{\"resources\": ["
+                  + "{\"name\": \"pods\", \"kind\": \"Pod\", \"namespaced\": true},"
+                  + "{\"name\": \"pods/log\", \"kind\": \"Pod\", \"namespaced\": true},"
+                  + "{\"name\": \"namespaces\", \"kind\": \"Namespace\", \"namespaced\": false}"
+                  + "]}")
+          .put(
+              "/apis",
+              "{\"groups\": ["
+                  + "{\"name\": \"extensions\","
+                  + " \"preferredVersion\": {\"groupVersion\": \"extensions/v1beta1\"}},"
+                  + "{\"name\": \"apps\", \"preferredVersion\": {\"groupVersion\": \"apps/v1\"}}"
+                  + "]}")
+          .put(
+              "/apis/extensions/v1beta1",
+              "{\"resources\": ["
+                  + "{\"name\": \"deployments\", \"kind\": \"Deployment\", \"namespaced\": true}"
+                  + "]}")
+          .put(
+              "/apis/apps/v1",
+              "{\"resources\": ["
+                  + "{\"name\": \"deployments\", \"kind\": \"Deployment\", \"namespaced\": true}"
+                  + "]}")
+          .put(
+              "/apis/apps/v1/namespaces/test-namespace/deployments",
+              "{\"kind\": \"DeploymentList\", \"apiVersion\": \"apps/v1\","
+                  + " \"metadata\": {\"resourceVersion\": \"10\"},"
+                  + " \"items\": ["
+                  + "{\"metadata\": {\"name\": \"a\", \"namespace\": \"test-namespace\"}},"
+                  + "{\"metadata\": {\"name\": \"b\", \"namespace\": \"test-namespace\"}}"
+                  + "]}")
+          .put(
+              "/api/v1/namespaces",
+              "{\"items\": [{\"metadata\": {\"name\": \"test-namespace\"}}],"
+                  + " \"kind\": \"NamespaceList\", \"apiVersion\": \"v1\"}")
+          .put(
+              "/api/v1/namespaces/test-namespace/pods/my-pod",
+              "{\"kind\": \"Pod\", \"apiVersion\": \"v1\","
+                  + " \"metadata\": {\"name\": \"my-pod\", \"namespace\": \"test-namespace\"}}")
+          .build();
+
+  private MockWebServer server;
+  private KubernetesApiReader reader;
+  private volatile String requiredToken;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = new MockWebServer();
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) {
+            if (requiredToken != null
+                && !("Bearer " + requiredToken).equals(request.getHeader("authorization"))) {
+              return new MockResponse().setResponseCode(401).setBody("{}");
+            }
+            String path = request.getRequestUrl().encodedPath();
+            String body = responses.get(path);
+            if (body == null) {
+              return new MockResponse().setResponseCode(404).setBody("{}");
+            }
+            return new MockResponse().setBody(body);
+          }
+        });
+    server.start();
+
+    reader = new KubernetesApiReader(client(null));
+  }
+
+  private ApiClient client(String token) {
+    ApiClient client = new ApiClient();
+    client.setBasePath("http://" + server.getHostName() + ":" + server.getPort());
+    if (token != null) {
+      client.setApiKeyPrefix("Bearer");
+      client.setApiKey(token);
+    }
+    return client;
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    server.shutdown();
+  }
+
+  @Test
+  void listsFromThePreferredGroup() {
+    ImmutableList<KubernetesManifest> manifests =
+        reader.list(
+            ImmutableList.of(KubernetesKind.DEPLOYMENT), NAMESPACE, new KubernetesSelectorList());
+
+    assertThat(manifests).extracting(KubernetesManifest::getName).containsExactly("a", "b");
+    assertThat(manifests)
+        .extracting(KubernetesManifest::getKind)
+        .containsOnly(KubernetesKind.DEPLOYMENT);
+    assertThat(manifests)
+        .extracting(m -> m.getApiVersion().toString())
+        .containsOnly("apps/v1");
+  }
+
+  @Test
+  void listsClusterScopedKindsWithoutNamespace() {
+    ImmutableList<KubernetesManifest> manifests =
+        reader.list(
+            ImmutableList.of(KubernetesKind.NAMESPACE), NAMESPACE, new KubernetesSelectorList());
+
+    assertThat(manifests).extracting(KubernetesManifest::getName).containsExactly(NAMESPACE);
+    assertThat(manifests)
+        .extracting(KubernetesManifest::getKind)
+        .containsOnly(KubernetesKind.NAMESPACE);
+  }
+
+  @Test
+  void getsSingleResource() {
+    KubernetesManifest pod = reader.get(KubernetesKind.POD, NAMESPACE, "my-pod");
+
+    assertThat(pod.getName()).isEqualTo("my-pod");
+    assertThat(reader.get(KubernetesKind.POD, NAMESPACE, "missing")).isNull();
+  }
+
+  @Test
+  void unknownKindIsReportedLikeKubectl() {
+    assertThatThrownBy(
+            () ->
+                reader.list(
+                    ImmutableList.of(KubernetesKind.STORAGE_CLASS),
+                    NAMESPACE,
+                    new KubernetesSelectorList()))
+        .isInstanceOf(KubectlJobExecutor.NoResourceTypeException.class);
+  }
+
+  @Test
+  void reusesDiscoveryBetweenReads() {
+    reader.get(KubernetesKind.POD, NAMESPACE, "my-pod");
+    int requestsAfterFirstRead = server.getRequestCount();
+    reader.get(KubernetesKind.POD, NAMESPACE, "my-pod");
+
+    assertThat(server.getRequestCount()).isEqualTo(requestsAfterFirstRead + 1);
+  }
+
+  @Test
+  void rebuildsTheClientWhenARequestIsNotAuthorized() {
+    Queue<String> tokens = new ArrayDeque<>(ImmutableList.of("expired", "fresh"));
+    reader = new KubernetesApiReader(() -> client(tokens.remove()));
+    requiredToken = "fresh";
+
+    KubernetesManifest pod = reader.get(KubernetesKind.POD, NAMESPACE, "my-pod");
+
+    assertThat(pod.getName()).isEqualTo("my-pod");
+    assertThat(tokens).isEmpty();
+  }
+
+  @Test
+  void failsWithAnAuthenticationExceptionWhenANewClientIsNotAuthorized() {
+    reader = new KubernetesApiReader(() -> client("expired"));
+    requiredToken = "fresh";
+
+    assertThatThrownBy(() -> reader.get(KubernetesKind.POD, NAMESPACE, "my-pod"))
+        .isInstanceOf(KubernetesApiReader.AuthenticationException.class);
+  }
+}
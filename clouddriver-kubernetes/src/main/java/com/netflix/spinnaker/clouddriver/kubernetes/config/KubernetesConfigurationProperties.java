@@ -24,6 +24,7 @@ import lombok.Data;
 @Data
 public class KubernetesConfigurationProperties {
   private static final int DEFAULT_CACHE_THREADS = 1;
+  private static final int DEFAULT_NAMESPACE_CACHE_THREADS = 10;
   private List<ManagedAccount> accounts = new ArrayList<>();
 
   @Data
@@ -47,6 +48,7 @@ public class KubernetesConfigurationProperties {
     private List<String> omitNamespaces = new ArrayList<>();
     private String skin;
     private int cacheThreads = DEFAULT_CACHE_THREADS;
+    private int namespaceCacheThreads = DEFAULT_NAMESPACE_CACHE_THREADS;
     private List<LinkedDockerRegistryConfiguration> dockerRegistries;
     private List<String> requiredGroupMembership = new ArrayList<>();
     private Permissions.Builder permissions = new Permissions.Builder();
@@ -60,6 +62,8 @@ public class KubernetesConfigurationProperties {
     private List<String> omitKinds = new ArrayList<>();
     private boolean onlySpinnakerManaged = false;
     private boolean liveManifestCalls = false;
+    private boolean directApiReads = false;
     private Long cacheIntervalSeconds;
+    private List<String> streamingKinds = new ArrayList<>();
   }
 }
@@ -17,12 +17,18 @@ package com.netflix.spinnaker.clouddriver.config
 
 import com.netflix.spinnaker.clouddriver.scattergather.ScatterGather
 import com.netflix.spinnaker.clouddriver.scattergather.client.ScatteredOkHttpCallFactory
+import com.netflix.spinnaker.clouddriver.scattergather.concurrent.ConcurrentScatterGather
+import com.netflix.spinnaker.clouddriver.scattergather.concurrent.PartialResultPolicy
 import com.netflix.spinnaker.clouddriver.scattergather.naive.NaiveScatterGather
 import com.netflix.spinnaker.config.OkHttp3ClientConfiguration
+import java.time.Duration
+import org.springframework.boot.context.properties.ConfigurationProperties
+import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean
 import org.springframework.context.annotation.Configuration
 
 @Configuration
+@EnableConfigurationProperties(ScatterGatherProperties::class)
 open class ScatterGatherConfiguration {
 
   @Bean
@@ -31,7 +37,29 @@ open class ScatterGatherConfiguration {
   }
 
   @Bean
-  open fun scatterGather(callFactory: ScatteredOkHttpCallFactory): ScatterGather {
-    return NaiveScatterGather(callFactory)
+  open fun scatterGather(callFactory: ScatteredOkHttpCallFactory, properties: ScatterGatherProperties): ScatterGather {
+    if (!properties.concurrent) {
+      return NaiveScatterGather(callFactory)
+    }
+    return ConcurrentScatterGather(callFactory, properties.shardTimeout, properties.partialResultPolicy)
   }
 }
+
+@ConfigurationProperties("scatter-gather")
+open class ScatterGatherProperties {
+  /**
+   * Issue shard requests concurrently. When disabled, the default, shards are called one after
+   * another.
+   */
+  var concurrent: Boolean = false
+
+  /**
+   * The maximum time a single shard request may take, including reading its response.
+   */
+  var shardTimeout: Duration = Duration.ofSeconds(30)
+
+  /**
+   * What to return when some shards fail or time out.
+   */
+  var partialResultPolicy: PartialResultPolicy = PartialResultPolicy.FAIL
+}
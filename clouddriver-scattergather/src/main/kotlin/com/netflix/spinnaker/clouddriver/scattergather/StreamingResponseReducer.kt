@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.clouddriver.scattergather
+
+import okhttp3.Response
+
+/**
+ * A [ResponseReducer] that can fold responses in as they arrive rather than once every target has responded.
+ */
+interface StreamingResponseReducer : ResponseReducer {
+
+  /**
+   * Starts a reduction over [size] responses, identified by their index in target order.
+   */
+  fun begin(size: Int): Accumulator
+
+  interface Accumulator {
+
+    /**
+     * Adds the response for the target at [index]. May be called concurrently for different targets.
+     */
+    fun add(index: Int, response: Response)
+
+    /**
+     * Reduces every response added so far; targets that never responded are skipped.
+     */
+    fun finish(): ReducedResponse
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.clouddriver.scattergather.concurrent
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spinnaker.clouddriver.scattergather.ReducedResponse
+import com.netflix.spinnaker.clouddriver.scattergather.ResponseReducer
+import com.netflix.spinnaker.clouddriver.scattergather.ScatterGather
+import com.netflix.spinnaker.clouddriver.scattergather.ServletScatterGatherRequest
+import com.netflix.spinnaker.clouddriver.scattergather.StreamingResponseReducer
+import com.netflix.spinnaker.clouddriver.scattergather.client.ScatteredOkHttpCallFactory
+import java.io.IOException
+import java.io.InterruptedIOException
+import java.time.Duration
+import java.util.UUID
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.locks.ReentrantLock
+import kotlin.concurrent.withLock
+import okhttp3.Call
+import okhttp3.Callback
+import okhttp3.Response
+import okhttp3.ResponseBody
+import org.slf4j.LoggerFactory
+import org.springframework.http.HttpStatus
+
+/**
+ * Performs a scatter/gather operation by issuing every shard request at once, so the
+ * latency of the operation is that of the slowest shard rather than the sum of all of them.
+ *
+ * Each shard call is bounded by [shardTimeout]. Responses are handed to the reducer as they
+ * arrive when it is a [StreamingResponseReducer], otherwise they are buffered and reduced once
+ * every shard has responded. Shards that fail or time out are handled according to
+ * [partialResultPolicy].
+ */
+class ConcurrentScatterGather(
+  private val callFactory: ScatteredOkHttpCallFactory,
+  private val shardTimeout: Duration,
+  private val partialResultPolicy: PartialResultPolicy
+) : ScatterGather {
+
+  private val log = LoggerFactory.getLogger(javaClass)
+  private val objectMapper = ObjectMapper()
+
+  override fun request(request: ServletScatterGatherRequest, reducer: ResponseReducer): ReducedResponse {
+    val targets = request.targets.keys.toList()
+    val calls = callFactory.createCalls(
+      UUID.randomUUID().toString(),
+      request.targets,
+      request.original
+    )
+
+    val sink = if (reducer is StreamingResponseReducer) {
+      StreamingSink(reducer.begin(calls.size), calls.size)
+    } else {
+      BufferingSink(reducer, calls.size)
+    }
+
+    val latch = CountDownLatch(calls.size)
+    calls.forEachIndexed { index, call ->
+      call.timeout().timeout(shardTimeout.toMillis(), TimeUnit.MILLISECONDS)
+      call.enqueue(object : Callback {
+        override fun onResponse(call: Call, response: Response) {
+          try {
+            sink.add(index, response)
+          } catch (e: Exception) {
+            sink.fail(index, e)
+          } finally {
+            latch.countDown()
+          }
+        }
+
+        override fun onFailure(call: Call, e: IOException) {
+          sink.fail(index, e)
+          latch.countDown()
+        }
+      })
+    }
+
+    // Each call enforces its own timeout; this only guards against a callback never firing.
+    if (!latch.await(shardTimeout.toMillis() + CALLBACK_GRACE_MILLIS, TimeUnit.MILLISECONDS)) {
+      calls.forEach { it.cancel() }
+    }
+
+    val failed = sink.close()
+    if (failed.isEmpty()) {
+      return sink.finish()
+    }
+
+    val failedTargets = failed.keys.map { targets[it] }
+    log.warn("Scattered request to {} failed for targets: {}", request.original.requestURI, failedTargets)
+
+    if (partialResultPolicy == PartialResultPolicy.FAIL || failed.size == targets.size) {
+      return failedResponse(failedTargets, failed.values)
+    }
+
+    return sink.finish().let {
+      it.copy(headers = it.headers + (FAILED_TARGETS_HEADER to failedTargets.joinToString(",")))
+    }
+  }
+
+  private fun failedResponse(failedTargets: List<String>, causes: Collection<Exception?>): ReducedResponse {
+    val timedOut = causes.all { it == null || it is InterruptedIOException }
+    val status = if (timedOut) HttpStatus.GATEWAY_TIMEOUT else HttpStatus.BAD_GATEWAY
+    val body = mapOf(
+      "error" to status.reasonPhrase,
+      "message" to "Scattered request failed for targets: ${failedTargets.joinToString(", ")}",
+      "failedTargets" to failedTargets
+    )
+
+    return ReducedResponse(
+      status.value(),
+      mapOf(FAILED_TARGETS_HEADER to failedTargets.joinToString(",")),
+      "application/json",
+      "UTF-8",
+      objectMapper.writeValueAsString(body),
+      true
+    )
+  }
+
+  /**
+   * Collects shard responses. Once [close]d, late responses are discarded.
+   *
+   * Responses are accepted concurrently, outside of the sink's lock. [close] waits for responses
+   * that are already being accepted, so that [finish] never runs alongside one. That wait is
+   * bounded by the shard call's timeout, which also covers reading the response body.
+   */
+  private abstract class ResponseSink(size: Int) {
+    private val lock = ReentrantLock()
+    private val drained = lock.newCondition()
+    private val completed = BooleanArray(size)
+    private val failures = mutableMapOf<Int, Exception>()
+    private var closed = false
+    private var accepting = 0
+
+    fun add(index: Int, response: Response) {
+      response.use {
+        lock.withLock {
+          if (closed) {
+            return
+          }
+          accepting++
+        }
+
+        var accepted = false
+        try {
+          accept(index, it)
+          accepted = true
+        } finally {
+          lock.withLock {
+            completed[index] = accepted
+            if (--accepting == 0) {
+              drained.signalAll()
+            }
+          }
+        }
+      }
+    }
+
+    fun fail(index: Int, e: Exception) {
+      lock.withLock {
+        failures[index] = e
+      }
+    }
+
+    /**
+     * Stops accepting responses and returns the targets that did not complete, with their cause
+     * if one is known (`null` means the shard never called back).
+     */
+    fun close(): Map<Int, Exception?> {
+      lock.withLock {
+        closed = true
+        while (accepting > 0) {
+          drained.awaitUninterruptibly()
+        }
+        return completed.indices
+          .filter { !completed[it] }
+          .associateWith { failures[it] }
+      }
+    }
+
+    /**
+     * Called concurrently for different targets, and never started once the sink is closed.
+     */
+    abstract fun accept(index: Int, response: Response)
+
+    abstract fun finish(): ReducedResponse
+  }
+
+  private class StreamingSink(
+    private val accumulator: StreamingResponseReducer.Accumulator,
+    size: Int
+  ) : ResponseSink(size) {
+    override fun accept(index: Int, response: Response) = accumulator.add(index, response)
+
+    override fun finish(): ReducedResponse = accumulator.finish()
+  }
+
+  private class BufferingSink(
+    private val reducer: ResponseReducer,
+    size: Int
+  ) : ResponseSink(size) {
+    private val responses = arrayOfNulls<Response>(size)
+
+    override fun accept(index: Int, response: Response) {
+      // Read the body now, on the callback thread, so the connection can be released.
+      val body = response.body()?.let { ResponseBody.create(it.contentType(), it.bytes()) }
+      val buffered = response.newBuilder().body(body).build()
+      synchronized(this) {
+        responses[index] = buffered
+      }
+    }
+
+    @Synchronized
+    override fun finish(): ReducedResponse = reducer.reduce(responses.filterNotNull())
+  }
+
+  companion object {
+    const val FAILED_TARGETS_HEADER = "X-Spinnaker-ScatterFailedTargets"
+    private const val CALLBACK_GRACE_MILLIS = 1000L
+  }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.clouddriver.scattergather.concurrent
+
+/**
+ * How a scatter/gather operation responds when some, but not all, targets fail or time out.
+ */
+enum class PartialResultPolicy {
+  /**
+   * Fail the whole operation with a 502 (or 504 if the targets timed out).
+   */
+  FAIL,
+
+  /**
+   * Reduce the responses that did arrive, listing the missing targets in the
+   * `X-Spinnaker-ScatterFailedTargets` response header.
+   */
+  ALLOW_PARTIAL
+}
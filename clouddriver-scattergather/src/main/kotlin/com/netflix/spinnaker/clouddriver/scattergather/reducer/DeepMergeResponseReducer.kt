@@ -21,6 +21,7 @@ import com.fasterxml.jackson.databind.node.ArrayNode
 import com.fasterxml.jackson.databind.node.ObjectNode
 import com.netflix.spinnaker.clouddriver.scattergather.ReducedResponse
 import com.netflix.spinnaker.clouddriver.scattergather.ResponseReducer
+import com.netflix.spinnaker.clouddriver.scattergather.StreamingResponseReducer
 import okhttp3.Response
 import org.springframework.http.HttpStatus
 
@@ -33,24 +34,33 @@ import org.springframework.http.HttpStatus
  * elements themselves.
  *
  * Conflict resolution is last-one-wins, where responses are ordered by the client.
+ *
+ * When streaming, each body is parsed as soon as it arrives and merged once every response
+ * ahead of it in target order has been merged, so the result matches [reduce].
  */
-class DeepMergeResponseReducer : ResponseReducer {
+class DeepMergeResponseReducer : StreamingResponseReducer {
 
   private val objectMapper = ObjectMapper()
 
   override fun reduce(responses: List<Response>): ReducedResponse {
-    val status = getResponseCode(responses)
+    val codes = responses.map { it.code() }
+    val status = getResponseCode(codes)
     val body = mergeResponseBodies(responses, status)
 
-    return ReducedResponse(
+    return createReducedResponse(status, body, hasErrors(codes))
+  }
+
+  override fun begin(size: Int): StreamingResponseReducer.Accumulator = DeepMergeAccumulator(size)
+
+  private fun createReducedResponse(status: Int, body: JsonNode?, isError: Boolean): ReducedResponse =
+    ReducedResponse(
       status,
       mapOf(), // TODO(rz): There's no real benefit to propagate headers at this point.
       "application/json",
       "UTF-8",
       body?.toString(),
-      hasErrors(responses)
+      isError
     )
-  }
 
   /**
    * Merges all response bodies into a single [JsonNode]. Uses the first response
@@ -115,12 +125,12 @@ class DeepMergeResponseReducer : ResponseReducer {
     return mainNode
   }
 
-  private fun getResponseCode(responses: List<Response>): Int {
-    if (hasErrors(responses)) {
+  private fun getResponseCode(codes: List<Int>): Int {
+    if (hasErrors(codes)) {
       return HttpStatus.BAD_GATEWAY.value()
     }
 
-    val distinctCodes = responses.asSequence().map { it.code() }.distinct().toList()
+    val distinctCodes = codes.distinct()
     return when {
       distinctCodes.size == 1 -> distinctCodes[0]
       distinctCodes.any { it == 404 } -> HttpStatus.NOT_FOUND.value()
@@ -129,6 +139,64 @@ class DeepMergeResponseReducer : ResponseReducer {
     }
   }
 
-  private fun hasErrors(responses: List<Response>): Boolean =
-    responses.any { it.code() >= 500 }
+  private fun hasErrors(codes: List<Int>): Boolean =
+    codes.any { it >= 500 }
+
+  private class ShardResponse(
+    val code: Int,
+    val body: String?,
+    val tree: JsonNode?
+  )
+
+  private inner class DeepMergeAccumulator(size: Int) : StreamingResponseReducer.Accumulator {
+
+    private val shards = arrayOfNulls<ShardResponse>(size)
+    private var merged = 0
+    private var main: JsonNode? = null
+
+    override fun add(index: Int, response: Response) {
+      // Reading and parsing happen on the calling thread, outside of the lock.
+      val code = response.code()
+      val body = response.body()?.string()
+      val tree = if (body != null && code in (200..299)) objectMapper.readTree(body) else null
+
+      synchronized(this) {
+        shards[index] = ShardResponse(code, body, tree)
+        while (merged < shards.size) {
+          val next = shards[merged] ?: break
+          merge(next)
+          merged++
+        }
+      }
+    }
+
+    @Synchronized
+    override fun finish(): ReducedResponse {
+      // Anything queued behind a target that never responded has not been merged yet.
+      for (i in merged until shards.size) {
+        shards[i]?.let { merge(it) }
+      }
+      merged = shards.size
+
+      val received = shards.filterNotNull()
+      val codes = received.map { it.code }
+      val status = getResponseCode(codes)
+
+      val body = if (status in (200..299)) {
+        main
+      } else {
+        received
+          .filter { it.body != null }
+          .maxBy { it.code }
+          ?.let { objectMapper.readTree(it.body) }
+      }
+
+      return createReducedResponse(status, body, hasErrors(codes))
+    }
+
+    private fun merge(shard: ShardResponse) {
+      val tree = shard.tree ?: return
+      main = main?.let { mergeNodes(it, tree) } ?: tree
+    }
+  }
 }
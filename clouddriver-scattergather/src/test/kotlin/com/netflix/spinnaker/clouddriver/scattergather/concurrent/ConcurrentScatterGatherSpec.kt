@@ -0,0 +1,227 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.clouddriver.scattergather.concurrent
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spinnaker.clouddriver.scattergather.ReducedResponse
+import com.netflix.spinnaker.clouddriver.scattergather.ServletScatterGatherRequest
+import com.netflix.spinnaker.clouddriver.scattergather.StreamingResponseReducer
+import com.netflix.spinnaker.clouddriver.scattergather.client.ScatteredOkHttpCallFactory
+import com.netflix.spinnaker.clouddriver.scattergather.concurrent.ConcurrentScatterGather.Companion.FAILED_TARGETS_HEADER
+import com.netflix.spinnaker.clouddriver.scattergather.reducer.DeepMergeResponseReducer
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.doAnswer
+import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.mock
+import java.io.IOException
+import java.io.InterruptedIOException
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicInteger
+import okhttp3.Call
+import okhttp3.Callback
+import okhttp3.MediaType
+import okhttp3.Protocol
+import okhttp3.Request
+import okhttp3.Response
+import okhttp3.ResponseBody
+import okio.Timeout
+import org.jetbrains.spek.api.Spek
+import org.jetbrains.spek.api.dsl.describe
+import org.jetbrains.spek.api.dsl.given
+import org.jetbrains.spek.api.dsl.it
+import org.springframework.mock.web.MockHttpServletRequest
+import strikt.api.expectThat
+import strikt.assertions.isEqualTo
+import strikt.assertions.isFalse
+import strikt.assertions.isTrue
+
+internal object ConcurrentScatterGatherSpec : Spek({
+
+  describe("a concurrent scatter gather") {
+    val servletRequest = MockHttpServletRequest("GET", "/hello")
+    val targets = mapOf(
+      "one" to "http://clouddriver-one",
+      "two" to "http://clouddriver-two"
+    )
+    val request = ServletScatterGatherRequest(targets, servletRequest)
+
+    given("all targets respond") {
+      val callFactory = callFactory(
+        succeeding(200, """{"list": ["one"]}"""),
+        succeeding(200, """{"list": ["two"]}""")
+      )
+
+      it("merges every response") {
+        val result = ConcurrentScatterGather(callFactory, Duration.ofSeconds(1), PartialResultPolicy.FAIL)
+          .request(request, DeepMergeResponseReducer())
+
+        expectThat(result) {
+          get { status }.isEqualTo(200)
+          get { body }.isEqualTo(normalizeJson("""{"list": ["one", "two"]}"""))
+          get { headers }.isEqualTo(mapOf())
+          get { isError }.isFalse()
+        }
+      }
+    }
+
+    given("a target fails and partial results are not allowed") {
+      val callFactory = callFactory(
+        succeeding(200, """{"list": ["one"]}"""),
+        failing(IOException("connection refused"))
+      )
+
+      it("returns a proxy error naming the failed target") {
+        val result = ConcurrentScatterGather(callFactory, Duration.ofSeconds(1), PartialResultPolicy.FAIL)
+          .request(request, DeepMergeResponseReducer())
+
+        expectThat(result) {
+          get { status }.isEqualTo(502)
+          get { headers }.isEqualTo(mapOf(FAILED_TARGETS_HEADER to "two"))
+          get { isError }.isTrue()
+        }
+      }
+    }
+
+    given("a target times out and partial results are allowed") {
+      val callFactory = callFactory(
+        succeeding(200, """{"list": ["one"]}"""),
+        failing(InterruptedIOException("timeout"))
+      )
+
+      it("returns the responses that arrived") {
+        val result = ConcurrentScatterGather(callFactory, Duration.ofSeconds(1), PartialResultPolicy.ALLOW_PARTIAL)
+          .request(request, DeepMergeResponseReducer())
+
+        expectThat(result) {
+          get { status }.isEqualTo(200)
+          get { body }.isEqualTo(normalizeJson("""{"list": ["one"]}"""))
+          get { headers }.isEqualTo(mapOf(FAILED_TARGETS_HEADER to "two"))
+          get { isError }.isFalse()
+        }
+      }
+    }
+
+    given("every target times out") {
+      val callFactory = callFactory(
+        failing(InterruptedIOException("timeout")),
+        failing(InterruptedIOException("timeout"))
+      )
+
+      it("returns a gateway timeout") {
+        val result = ConcurrentScatterGather(callFactory, Duration.ofSeconds(1), PartialResultPolicy.ALLOW_PARTIAL)
+          .request(request, DeepMergeResponseReducer())
+
+        expectThat(result) {
+          get { status }.isEqualTo(504)
+          get { headers }.isEqualTo(mapOf(FAILED_TARGETS_HEADER to "one,two"))
+          get { isError }.isTrue()
+        }
+      }
+    }
+
+    given("a response is still being added when the wait for callbacks gives up") {
+      val singleRequest = ServletScatterGatherRequest(mapOf("one" to "http://clouddriver-one"), servletRequest)
+      val callFactory = callFactory(succeeding(200, """{"list": ["one"]}"""))
+      // the wait gives up after the shard timeout plus a second of grace
+      val reducer = SlowStreamingReducer(DeepMergeResponseReducer(), Duration.ofMillis(1600))
+
+      it("reduces once the response has been added") {
+        val result = ConcurrentScatterGather(callFactory, Duration.ofMillis(100), PartialResultPolicy.ALLOW_PARTIAL)
+          .request(singleRequest, reducer)
+
+        expectThat(reducer.finishedWhileAdding).isFalse()
+        expectThat(result) {
+          get { status }.isEqualTo(200)
+          get { body }.isEqualTo(normalizeJson("""{"list": ["one"]}"""))
+          get { headers }.isEqualTo(mapOf())
+        }
+      }
+    }
+  }
+})
+
+/**
+ * Takes [delay] to add each response, recording whether it was ever asked to finish meanwhile.
+ */
+private class SlowStreamingReducer(
+  private val delegate: StreamingResponseReducer,
+  private val delay: Duration
+) : StreamingResponseReducer {
+  private val adding = AtomicInteger()
+
+  @Volatile
+  var finishedWhileAdding = false
+
+  override fun reduce(responses: List<Response>): ReducedResponse = delegate.reduce(responses)
+
+  override fun begin(size: Int): StreamingResponseReducer.Accumulator {
+    val accumulator = delegate.begin(size)
+    return object : StreamingResponseReducer.Accumulator {
+      override fun add(index: Int, response: Response) {
+        adding.incrementAndGet()
+        try {
+          Thread.sleep(delay.toMillis())
+          accumulator.add(index, response)
+        } finally {
+          adding.decrementAndGet()
+        }
+      }
+
+      override fun finish(): ReducedResponse {
+        if (adding.get() > 0) {
+          finishedWhileAdding = true
+        }
+        return accumulator.finish()
+      }
+    }
+  }
+}
+
+private fun normalizeJson(json: String): String =
+  ObjectMapper().readTree(json).toString()
+
+private fun callFactory(vararg calls: Call): ScatteredOkHttpCallFactory =
+  mock {
+    on { createCalls(any(), any(), any()) } doReturn calls.toList()
+  }
+
+private fun succeeding(code: Int, body: String): Call =
+  call { call, callback ->
+    val response = Response.Builder()
+      .request(Request.Builder().url("http://localhost/hello").build())
+      .protocol(Protocol.HTTP_1_1)
+      .code(code)
+      .message("ok")
+      .body(ResponseBody.create(MediaType.parse("application/json"), body))
+      .build()
+    callback.onResponse(call, response)
+  }
+
+private fun failing(e: IOException): Call =
+  call { call, callback -> callback.onFailure(call, e) }
+
+private fun call(respond: (Call, Callback) -> Unit): Call {
+  lateinit var call: Call
+  call = mock {
+    on { timeout() } doReturn Timeout()
+    on { enqueue(any()) } doAnswer {
+      // respond from another thread, as OkHttp's dispatcher would
+      Thread { respond(call, it.getArgument(0)) }.start()
+      null
+    }
+  }
+  return call
+}
@@ -250,6 +250,57 @@ internal object DeepMergeResponseReducerSpec : Spek({
         }
       }
     }
+
+    given("responses streamed out of order") {
+      val response1 = createResponse(200, """{"list": ["one"], "conflict": "one"}""")
+      val response2 = createResponse(200, """{"list": ["two"], "conflict": "two"}""")
+
+      it("merges in target order") {
+        val accumulator = subject.begin(2)
+        accumulator.add(1, response2)
+        accumulator.add(0, response1)
+
+        expectThat(accumulator.finish()) {
+          get { status }.isEqualTo(200)
+          get { body }.isEqualTo(normalizeJson("""{"list": ["one", "two"], "conflict": "two"}"""))
+          get { isError }.isFalse()
+        }
+      }
+    }
+
+    given("a streamed reduction missing a response") {
+      val response1 = createResponse(200, """{"list": ["one"], "conflict": "one"}""")
+      val response3 = createResponse(200, """{"list": ["three"], "conflict": "three"}""")
+
+      it("merges the responses that arrived") {
+        val accumulator = subject.begin(3)
+        accumulator.add(2, response3)
+        accumulator.add(0, response1)
+
+        expectThat(accumulator.finish()) {
+          get { status }.isEqualTo(200)
+          get { body }.isEqualTo(normalizeJson("""{"list": ["one", "three"], "conflict": "three"}"""))
+          get { isError }.isFalse()
+        }
+      }
+    }
+
+    given("a streamed failed response") {
+      val response1 = createResponse(200, """{"one": "one"}""")
+      val response2 = createResponse(500, """{"isEverythingTheWorst": true}""")
+
+      it("propagates the failure response body") {
+        val accumulator = subject.begin(2)
+        accumulator.add(1, response2)
+        accumulator.add(0, response1)
+
+        expectThat(accumulator.finish()) {
+          get { status }.isEqualTo(502)
+          get { body }.isEqualTo(normalizeJson("""{"isEverythingTheWorst": true}"""))
+          get { isError }.isTrue()
+        }
+      }
+    }
   }
 })
 
@@ -101,29 +101,46 @@ class ServerGroupController {
     Boolean shouldIncludeDetails = Boolean.valueOf(includeDetails)
 
     def matches = (Set<ServerGroup>) clusterProviders.findResults { provider ->
-      requestQueue.execute(name, { provider.getServerGroup(account, region, name, shouldIncludeDetails) })
+      String key = sharedKey(provider, "getServerGroup", account, region, name, shouldIncludeDetails)
+      requestQueue.executeShared(name, key, {
+        def serverGroup = provider.getServerGroup(account, region, name, shouldIncludeDetails)
+        return serverGroup ? applyExtensionsToObject(serverGroupViewModelPostProcessors, serverGroup) : null
+      })
     }
     if (!matches) {
       throw new NotFoundException("Server group not found (account: ${account}, region: ${region}, name: ${name})")
     }
-    return applyExtensionsToObject(serverGroupViewModelPostProcessors, matches.first())
+    return matches.first()
+  }
+
+  /**
+   * Cluster details for an application with view model post processors already applied.
+   *
+   * Concurrent callers share one lookup (and one application of the post processors), so the
+   * returned clusters and server groups must not be modified.
+   */
+  Collection<Cluster> getClusterDetails(ClusterProvider provider, String application) {
+    return requestQueue.executeShared(application, sharedKey(provider, "getClusterDetails", application), {
+      provider.getClusterDetails(application)?.values()?.collect { Set<Cluster> clusters ->
+        applyExtensions(clusterViewModelPostProcessors, clusters).each { Cluster cluster ->
+          cluster.serverGroups?.each { applyExtensionsToObject(serverGroupViewModelPostProcessors, it) }
+        }
+      }?.flatten()
+    })
+  }
+
+  static String sharedKey(ClusterProvider provider, String method, Object... args) {
+    return ([provider.class.name, method] + args.toList()).join(":")
   }
 
   List<Map> expandedList(String application, String cloudProvider) {
     return clusterProviders
       .findAll { cloudProvider ? cloudProvider.equalsIgnoreCase(it.cloudProviderId) : true }
-      .findResults { ClusterProvider cp ->
-      requestQueue.execute(application, {
-        cp.getClusterDetails(application)?.values()?.collect { Set<Cluster> clusters ->
-          applyExtensions(clusterViewModelPostProcessors, clusters)
-        }
-      })
-    }
-    .collectNested { Cluster c ->
-      c.serverGroups?.collect {
-        expanded(applyExtensionsToObject(serverGroupViewModelPostProcessors, it), c)
-      } ?: []
-    }.flatten()
+      .findResults { ClusterProvider cp -> getClusterDetails(cp, application) }
+      .flatten()
+      .collect { Cluster c ->
+        c.serverGroups?.collect { expanded(it, c) } ?: []
+      }.flatten()
   }
 
   Map expanded(ServerGroup serverGroup, Cluster cluster) {
@@ -143,14 +160,11 @@ class ServerGroupController {
 
     def clusters = (Set<Cluster>) clusterProviders
       .findAll { cloudProvider ? cloudProvider.equalsIgnoreCase(it.cloudProviderId) : true }
-      .findResults { provider ->
-        requestQueue.execute(application, { provider.getClusterDetails(application)?.values() })?.collect {
-          applyExtensions(clusterViewModelPostProcessors, it)
-        }
-      }.flatten()
+      .findResults { provider -> getClusterDetails(provider, application) }
+      .flatten()
     clusters.each { Cluster cluster ->
       cluster.serverGroups.each { ServerGroup serverGroup ->
-        serverGroupViews << new ServerGroupViewModel(applyExtensionsToObject(serverGroupViewModelPostProcessors, serverGroup), cluster.name, cluster.accountName)
+        serverGroupViews << new ServerGroupViewModel(serverGroup, cluster.name, cluster.accountName)
       }
     }
 